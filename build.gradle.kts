@@ -52,7 +52,18 @@ mavenPublishing {
     }
 }
 
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val jmhVersion = "1.37"
+
 dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
@@ -61,3 +72,21 @@ dependencies {
 tasks.test {
     useJUnitPlatform()
 }
+
+// Runs the JMH benchmarks with the GC profiler, e.g. `gradle jmh -Pjmh.includes=A1ParseBenchmark`.
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with the GC profiler."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+    args(
+        listOfNotNull(
+            project.findProperty("jmh.includes")?.toString(),
+            "-prof", "gc",
+            "-rf", "json",
+            "-rff", results.get().asFile.path
+        )
+    )
+}
@@ -0,0 +1,76 @@
+package cloud.fineit.just.a1notation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link A1NotationBuilder} factories with generated coordinates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class A1BuilderBenchmark {
+
+    private final A1NotationBuilder builder = A1Notation.withSheet("Q1 Sales");
+
+    private int[] columns;
+    private int[] rows;
+    private String[] letters;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(A1Corpus.SIZE);
+        columns = new int[A1Corpus.SIZE];
+        rows = new int[A1Corpus.SIZE];
+        letters = new String[A1Corpus.SIZE];
+        for (int i = 0; i < A1Corpus.SIZE; i++) {
+            columns[i] = A1Corpus.column(random);
+            rows[i] = A1Corpus.row(random);
+            letters[i] = A1Column.letters(columns[i]);
+        }
+    }
+
+    @Benchmark
+    public A1Notation forCell() {
+        int i = next++ & (A1Corpus.SIZE - 1);
+        return builder.forCell(letters[i], rows[i]);
+    }
+
+    @Benchmark
+    public A1Notation range() {
+        int i = next++ & (A1Corpus.SIZE - 1);
+        return builder.range(letters[i], rows[i], A1Column.letters(columns[i] + 3), rows[i] + 10);
+    }
+
+    @Benchmark
+    public A1Notation forRows() {
+        int i = next++ & (A1Corpus.SIZE - 1);
+        return builder.forRows(rows[i], rows[i] + 10);
+    }
+
+    @Benchmark
+    public A1Notation forColumns() {
+        int i = next++ & (A1Corpus.SIZE - 1);
+        return builder.forColumns(letters[i], A1Column.letters(columns[i] + 3));
+    }
+
+    @Benchmark
+    public A1Notation sheetOnly() {
+        return builder.sheetOnly();
+    }
+}
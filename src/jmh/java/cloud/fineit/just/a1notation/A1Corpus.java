@@ -0,0 +1,122 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible corpora of A1 references for the benchmarks.
+ *
+ * <p>Coordinates follow the shape of real workbooks: most references point into the first few
+ * dozen columns and the first few thousand rows, with a long tail up to {@code XFD1048576}. A fixed
+ * seed makes every run see the same inputs. The class is public only because generated benchmark
+ * code refers to {@link Kind}.
+ */
+public final class A1Corpus {
+
+    /**
+     * Number of references in a corpus, a power of two so benchmarks can cycle with a mask.
+     */
+    static final int SIZE = 1 << 12;
+
+    private static final long SEED = 0x5EED_A1L;
+
+    private static final String[] UNQUOTED_SHEETS = {"Sheet1", "Sheet2", "Data", "Summary", "Inputs_2024"};
+    private static final String[] QUOTED_SHEETS = {"'Q1 Sales'", "'My Sheet'", "'Cash Flow (EUR)'", "'O\\'Brien'"};
+
+    /**
+     * Kind of references in a corpus.
+     */
+    public enum Kind {
+        CELL,
+        RANGE,
+        ROWS,
+        COLUMNS,
+        UNQUOTED_SHEET_CELL,
+        QUOTED_SHEET_RANGE,
+        SHEET_ONLY
+    }
+
+    private A1Corpus() {
+    }
+
+    /**
+     * Returns {@link #SIZE} references of the given kind.
+     *
+     * @param kind kind of references
+     * @return generated references
+     */
+    static String[] strings(Kind kind) {
+        SplittableRandom random = new SplittableRandom(SEED + kind.ordinal());
+        String[] corpus = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            corpus[i] = next(kind, random);
+        }
+        return corpus;
+    }
+
+    /**
+     * Returns {@link #SIZE} parsed references of the given kind.
+     *
+     * @param kind kind of references
+     * @return parsed references
+     */
+    static A1Notation[] notations(Kind kind) {
+        String[] strings = strings(kind);
+        A1Notation[] corpus = new A1Notation[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            corpus[i] = A1Notation.of(strings[i]);
+        }
+        return corpus;
+    }
+
+    /**
+     * Returns a 1-based column index, mostly within the first 52 columns.
+     */
+    static int column(SplittableRandom random) {
+        return random.nextInt(10) < 9 ? random.nextInt(52) + 1 : random.nextInt(16_384) + 1;
+    }
+
+    /**
+     * Returns a 1-based row, mostly within the first 5000 rows.
+     */
+    static int row(SplittableRandom random) {
+        return random.nextInt(10) < 9 ? random.nextInt(5000) + 1 : random.nextInt(1_048_576) + 1;
+    }
+
+    private static String next(Kind kind, SplittableRandom random) {
+        switch (kind) {
+            case CELL:
+                return cell(random);
+            case RANGE:
+                return range(random);
+            case ROWS:
+                int top = row(random);
+                return top + ":" + (top + random.nextInt(100));
+            case COLUMNS:
+                int left = column(random);
+                return A1Column.letters(left) + ":" + A1Column.letters(left + random.nextInt(10));
+            case UNQUOTED_SHEET_CELL:
+                return pick(UNQUOTED_SHEETS, random) + "!" + cell(random);
+            case QUOTED_SHEET_RANGE:
+                return pick(QUOTED_SHEETS, random) + "!" + range(random);
+            case SHEET_ONLY:
+                return random.nextBoolean() ? pick(UNQUOTED_SHEETS, random) : pick(QUOTED_SHEETS, random);
+            default:
+                throw new IllegalArgumentException("Unknown kind: " + kind);
+        }
+    }
+
+    private static String cell(SplittableRandom random) {
+        return A1Column.letters(column(random)) + row(random);
+    }
+
+    private static String range(SplittableRandom random) {
+        int left = column(random);
+        int top = row(random);
+        return A1Column.letters(left) + top + ":"
+                + A1Column.letters(left + random.nextInt(20)) + (top + random.nextInt(200));
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
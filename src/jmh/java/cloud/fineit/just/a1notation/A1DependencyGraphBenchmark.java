@@ -0,0 +1,64 @@
+package cloud.fineit.just.a1notation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formula updates and dirty-set propagation in an {@link A1DependencyGraph}.
+ *
+ * <p>Every row holds {@code B = A + SUM(A:A+9)}, {@code C = B} and a total {@code D1 = SUM(C:C)}, so
+ * a change to column A affects about 20 cells through cell, range and whole-column dependencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class A1DependencyGraphBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private A1DependencyGraph graph;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        graph = new A1DependencyGraph();
+        for (int row = 2; row <= rows; row++) {
+            graph.setDependencies(A1Notation.cell("B", row),
+                    Arrays.asList(A1Notation.cell("A", row), A1Notation.range("A", row, "A", row + 9)));
+            graph.setDependencies(A1Notation.cell("C", row), List.of(A1Notation.cell("B", row)));
+        }
+        graph.setDependencies(A1Notation.cell("D", 1), List.of(A1Notation.column("C")));
+        random = new SplittableRandom(rows);
+    }
+
+    @Benchmark
+    public long[] affected() {
+        return graph.affectedPacked(A1Packed.pack(A1Packed.NO_SHEET, 1, 2 + random.nextInt(rows - 1)));
+    }
+
+    @Benchmark
+    public int setDependencies() {
+        int row = 2 + random.nextInt(rows - 1);
+        graph.setDependencies(A1Notation.cell("B", row),
+                Arrays.asList(A1Notation.cell("A", row), A1Notation.range("A", row, "A", row + 9)));
+        return graph.edgeCount();
+    }
+}
@@ -0,0 +1,70 @@
+package cloud.fineit.just.a1notation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting and dimension queries on parsed references.
+ *
+ * <p>Dimension queries run only on kinds where both are defined; whole rows and columns throw
+ * {@link UnboundedDimensionException} for one of them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class A1FormatBenchmark {
+
+    @Param({"CELL", "RANGE", "ROWS", "COLUMNS", "UNQUOTED_SHEET_CELL", "QUOTED_SHEET_RANGE", "SHEET_ONLY"})
+    A1Corpus.Kind kind;
+
+    private A1Notation[] corpus;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        corpus = A1Corpus.notations(kind);
+    }
+
+    @Benchmark
+    public String format() {
+        return corpus[next++ & (A1Corpus.SIZE - 1)].toString();
+    }
+
+    @Benchmark
+    public String formatShort() {
+        return corpus[next++ & (A1Corpus.SIZE - 1)].toShortString();
+    }
+
+    @Benchmark
+    public StringBuilder appendTo() {
+        return corpus[next++ & (A1Corpus.SIZE - 1)].appendTo(new StringBuilder(64));
+    }
+
+    @Benchmark
+    public void dimensions(Blackhole blackhole) {
+        A1Notation notation = corpus[next++ & (A1Corpus.SIZE - 1)];
+        if (kind == A1Corpus.Kind.ROWS) {
+            blackhole.consume(notation.height());
+        } else if (kind == A1Corpus.Kind.COLUMNS) {
+            blackhole.consume(notation.width());
+        } else if (kind != A1Corpus.Kind.SHEET_ONLY) {
+            blackhole.consume(notation.width());
+            blackhole.consume(notation.height());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package cloud.fineit.just.a1notation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link A1Notation#of(String)} for every kind of reference.
+ *
+ * <p>Each invocation parses the next reference of a generated corpus, so the numbers reflect a
+ * mix of short and long coordinates rather than a single input the JIT can specialize on.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class A1ParseBenchmark {
+
+    @Param
+    A1Corpus.Kind kind;
+
+    private String[] corpus;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        corpus = A1Corpus.strings(kind);
+    }
+
+    @Benchmark
+    public A1Notation parse() {
+        return A1Notation.of(corpus[next++ & (A1Corpus.SIZE - 1)]);
+    }
+}
@@ -1,5 +1,6 @@
 package cloud.fineit.just;
 
 public enum NotationType {
-    A1
+    A1,
+    R1C1
 }
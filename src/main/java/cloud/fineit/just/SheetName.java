@@ -1,5 +1,7 @@
 package cloud.fineit.just;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 /**
@@ -7,10 +9,15 @@ import java.util.Optional;
  *
  * <p>For quoted input, outer quotes are removed and inner quotes escaped with a backslash
  * are unescaped.
+ *
+ * <p>Equality and order compare the values exactly, case included; use a {@link SheetRegistry} to
+ * match names ignoring case.
  */
-public final class SheetName {
+public final class SheetName implements Comparable<SheetName> {
 
     private final String value;
+    private final boolean quotingRequired;
+    private int foldedHash;
 
     /**
      * Creates a sheet name from a plain value (without surrounding quotes).
@@ -23,6 +30,7 @@ public final class SheetName {
             throw new IllegalArgumentException("Sheet name must not be empty");
         }
         this.value = value;
+        this.quotingRequired = quotingRequired(value);
     }
 
     /**
@@ -35,14 +43,52 @@ public final class SheetName {
         if (sheetPart == null || sheetPart.isEmpty()) {
             throw new IllegalArgumentException("Sheet name must not be empty");
         }
-        if (sheetPart.length() >= 2 && sheetPart.charAt(0) == '\'' &&
-                sheetPart.charAt(sheetPart.length() - 1) == '\'') {
-            String inner = sheetPart.substring(1, sheetPart.length() - 1);
-            // Unescape backslash-escaped single quotes
-            inner = inner.replace("\\'", "'");
-            return new SheetName(inner);
+        return parse(sheetPart, 0, sheetPart.length());
+    }
+
+    /**
+     * Parses a possibly quoted sheet part located at {@code [from, to)} of the given source.
+     *
+     * <p>Follows the same rules as {@link #parse(String)} but reads the characters in place, so the
+     * only string created is the resulting sheet name value.
+     *
+     * @param src source holding the sheet part
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return parsed sheet name
+     * @throws IllegalArgumentException if the sheet part is empty
+     */
+    public static SheetName parse(CharSequence src, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("Sheet name must not be empty");
+        }
+        if (isQuoted(src, from, to)) {
+            return new SheetName(unescape(src, from + 1, to - 1));
         }
-        return new SheetName(sheetPart);
+        return new SheetName(src.subSequence(from, to).toString());
+    }
+
+    /**
+     * Unescapes backslash-escaped single quotes, scanning left to right like
+     * {@link String#replace(CharSequence, CharSequence)}.
+     */
+    private static String unescape(CharSequence src, int from, int to) {
+        StringBuilder sb = null;
+        int copied = from;
+        for (int i = from; i < to - 1; i++) {
+            if (src.charAt(i) == '\\' && src.charAt(i + 1) == '\'') {
+                if (sb == null) {
+                    sb = new StringBuilder(to - from);
+                }
+                sb.append(src, copied, i).append('\'');
+                copied = i + 2;
+                i++;
+            }
+        }
+        if (sb == null) {
+            return src.subSequence(from, to).toString();
+        }
+        return sb.append(src, copied, to).toString();
     }
 
     /**
@@ -85,4 +131,173 @@ public final class SheetName {
     public String value() {
         return value;
     }
+
+    /**
+     * Returns {@code true} if the name must be enclosed in single quotes when written in A1
+     * notation, which is the case unless it matches {@code [A-Za-z_][A-Za-z0-9_]*}.
+     *
+     * <p>Decided once when the name is created.
+     *
+     * @return whether quoting is required
+     */
+    public boolean isQuotingRequired() {
+        return quotingRequired;
+    }
+
+    /**
+     * Writes the name as the sheet part of a reference, the inverse of {@link #parse(String)}: the
+     * plain value, or the value in single quotes with inner quotes escaped if quoting is required.
+     *
+     * @param out target to append to
+     * @throws IOException if the target fails
+     */
+    public void appendTo(Appendable out) throws IOException {
+        if (!quotingRequired) {
+            out.append(value);
+            return;
+        }
+        out.append('\'');
+        int copied = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '\'') {
+                out.append(value, copied, i).append('\\');
+                copied = i;
+            }
+        }
+        out.append(value, copied, value.length()).append('\'');
+    }
+
+    /**
+     * Writes the name as the sheet part of a reference into a builder.
+     *
+     * @param sb builder to append to
+     * @return the same builder
+     * @see #appendTo(Appendable)
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb;
+    }
+
+    private static boolean quotingRequired(String name) {
+        char first = name.charAt(0);
+        if (!isLetter(first) && first != '_') {
+            return true;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isLetter(c) && !(c >= '0' && c <= '9') && c != '_') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /**
+     * Returns a case-insensitive hash of the value, consistent with
+     * {@link String#equalsIgnoreCase(String)}. Computed once and cached.
+     */
+    int foldedHash() {
+        int h = foldedHash;
+        if (h == 0) {
+            h = foldedHash(value, 0, value.length(), false);
+            foldedHash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Computes the case-insensitive hash of a sheet part at {@code [from, to)}.
+     *
+     * <p>For a quoted part the outer quotes are skipped and escaped quotes are hashed as a single
+     * quote, so the result equals {@link #foldedHash()} of the parsed name.
+     */
+    static int foldedHash(CharSequence src, int from, int to, boolean quoted) {
+        int h = 0;
+        int end = quoted ? to - 1 : to;
+        for (int i = quoted ? from + 1 : from; i < end; i++) {
+            char c = src.charAt(i);
+            if (quoted && c == '\\' && i + 1 < end && src.charAt(i + 1) == '\'') {
+                c = '\'';
+                i++;
+            }
+            h = 31 * h + fold(c);
+        }
+        return h;
+    }
+
+    /**
+     * Folds a character the way {@link String#equalsIgnoreCase(String)} compares them.
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Returns {@code true} if a sheet part at {@code [from, to)} parses to a name equal to this one,
+     * ignoring case.
+     */
+    boolean equalsIgnoreCase(CharSequence src, int from, int to, boolean quoted) {
+        int end = quoted ? to - 1 : to;
+        int j = 0;
+        for (int i = quoted ? from + 1 : from; i < end; i++, j++) {
+            char c = src.charAt(i);
+            if (quoted && c == '\\' && i + 1 < end && src.charAt(i + 1) == '\'') {
+                c = '\'';
+                i++;
+            }
+            if (j >= value.length() || fold(c) != fold(value.charAt(j))) {
+                return false;
+            }
+        }
+        return j == value.length();
+    }
+
+    /**
+     * Returns {@code true} if the other name is equal to this one ignoring case, the way
+     * spreadsheet applications and {@link SheetRegistry} match sheet names.
+     *
+     * @param other sheet name to compare with
+     * @return whether both names denote the same sheet
+     */
+    public boolean equalsIgnoreCase(SheetName other) {
+        return this == other || other != null && foldedHash() == other.foldedHash()
+                && value.equalsIgnoreCase(other.value);
+    }
+
+    /**
+     * Returns {@code true} if a sheet part at {@code [from, to)} is enclosed in single quotes.
+     */
+    static boolean isQuoted(CharSequence src, int from, int to) {
+        return to - from >= 2 && src.charAt(from) == '\'' && src.charAt(to - 1) == '\'';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SheetName)) {
+            return false;
+        }
+        return value.equals(((SheetName) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public int compareTo(SheetName other) {
+        return value.compareTo(other.value);
+    }
 }
@@ -0,0 +1,213 @@
+package cloud.fineit.just;
+
+/**
+ * SheetRegistry interns {@link SheetName} values and assigns each a dense integer id.
+ *
+ * <p>A workbook has only a handful of sheets, so references parsed or built through a registry
+ * share one {@code SheetName} instance per sheet instead of carrying their own copy. Ids start at
+ * {@code 1} and grow by one per registered sheet; {@code 0} is never assigned and stands for a
+ * reference without a sheet name.
+ *
+ * <p>Lookups are case-insensitive, as sheet names are in spreadsheet applications: {@code Sheet1}
+ * and {@code SHEET1} resolve to the same id and to the spelling registered first. Lookups compare a
+ * hash of the case-folded name that each {@code SheetName} computes once, and can read quoted
+ * sheet parts in place without creating a string.
+ *
+ * <p>The registry is thread-safe. Lookups of registered names are lock-free; registering a new
+ * name takes a lock.
+ */
+public final class SheetRegistry {
+
+    /**
+     * Id returned by lookups for names that are not registered.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile Slot[] table = new Slot[INITIAL_CAPACITY];
+    private volatile SheetName[] names = new SheetName[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the registered sheet name equal to the given one ignoring case, registering it first
+     * if needed.
+     *
+     * @param sheetName sheet name
+     * @return canonical sheet name instance
+     */
+    public SheetName intern(SheetName sheetName) {
+        return nameOf(register(sheetName));
+    }
+
+    /**
+     * Returns the registered sheet name for a plain value, registering it first if needed.
+     *
+     * @param value sheet name without surrounding quotes
+     * @return canonical sheet name instance
+     * @throws IllegalArgumentException if the value is null or empty
+     */
+    public SheetName intern(String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Sheet name must not be empty");
+        }
+        Slot slot = find(value, 0, value.length(), false, SheetName.foldedHash(value, 0, value.length(), false));
+        return slot != null ? slot.name : intern(new SheetName(value));
+    }
+
+    /**
+     * Returns the registered sheet name for a possibly quoted sheet part at {@code [from, to)},
+     * registering it first if needed.
+     *
+     * <p>Follows the rules of {@link SheetName#parse(CharSequence, int, int)}. No string is created
+     * when the sheet is already registered.
+     *
+     * @param src source holding the sheet part
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return canonical sheet name instance
+     * @throws IllegalArgumentException if the sheet part is empty
+     */
+    public SheetName intern(CharSequence src, int from, int to) {
+        boolean quoted = SheetName.isQuoted(src, from, to);
+        Slot slot = find(src, from, to, quoted, SheetName.foldedHash(src, from, to, quoted));
+        return slot != null ? slot.name : intern(SheetName.parse(src, from, to));
+    }
+
+    /**
+     * Returns the id of the given sheet name, registering it first if needed.
+     *
+     * @param sheetName sheet name
+     * @return positive sheet id
+     */
+    public int register(SheetName sheetName) {
+        String value = sheetName.value();
+        Slot slot = find(value, 0, value.length(), false, sheetName.foldedHash());
+        return slot != null ? slot.id : insert(sheetName);
+    }
+
+    /**
+     * Returns the id of the given sheet name without registering it.
+     *
+     * @param sheetName sheet name
+     * @return positive sheet id, or {@link #NOT_FOUND}
+     */
+    public int idOf(SheetName sheetName) {
+        String value = sheetName.value();
+        Slot slot = find(value, 0, value.length(), false, sheetName.foldedHash());
+        return slot != null ? slot.id : NOT_FOUND;
+    }
+
+    /**
+     * Returns the id of a possibly quoted sheet part at {@code [from, to)} without registering it.
+     *
+     * @param src source holding the sheet part
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return positive sheet id, or {@link #NOT_FOUND}
+     */
+    public int idOf(CharSequence src, int from, int to) {
+        boolean quoted = SheetName.isQuoted(src, from, to);
+        Slot slot = find(src, from, to, quoted, SheetName.foldedHash(src, from, to, quoted));
+        return slot != null ? slot.id : NOT_FOUND;
+    }
+
+    /**
+     * Returns the sheet name registered under the given id.
+     *
+     * @param id sheet id
+     * @return canonical sheet name instance
+     * @throws IllegalArgumentException if no sheet is registered under the id
+     */
+    public SheetName nameOf(int id) {
+        SheetName[] snapshot = names;
+        SheetName name = id > 0 && id < snapshot.length ? snapshot[id] : null;
+        if (name != null) {
+            return name;
+        }
+        synchronized (this) {
+            if (id <= 0 || id > size) {
+                throw new IllegalArgumentException("Unknown sheet id: " + id);
+            }
+            return names[id];
+        }
+    }
+
+    /**
+     * Returns the number of registered sheets, which is also the largest assigned id.
+     *
+     * @return number of sheets
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private Slot find(CharSequence src, int from, int to, boolean quoted, int hash) {
+        Slot[] snapshot = table;
+        int mask = snapshot.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            Slot slot = snapshot[i];
+            if (slot == null) {
+                return null;
+            }
+            if (slot.hash == hash && slot.name.equalsIgnoreCase(src, from, to, quoted)) {
+                return slot;
+            }
+        }
+    }
+
+    private synchronized int insert(SheetName sheetName) {
+        String value = sheetName.value();
+        Slot existing = find(value, 0, value.length(), false, sheetName.foldedHash());
+        if (existing != null) {
+            return existing.id;
+        }
+        int id = size + 1;
+        if (id >= names.length) {
+            SheetName[] grown = new SheetName[names.length * 2];
+            System.arraycopy(names, 0, grown, 0, names.length);
+            names = grown;
+        }
+        names[id] = sheetName;
+        if ((id + 1) * 2 > table.length) {
+            Slot[] grown = new Slot[table.length * 2];
+            for (Slot slot : table) {
+                if (slot != null) {
+                    put(grown, slot);
+                }
+            }
+            put(grown, new Slot(sheetName, id));
+            table = grown;
+        } else {
+            put(table, new Slot(sheetName, id));
+        }
+        size = id;
+        return id;
+    }
+
+    private static void put(Slot[] target, Slot slot) {
+        int mask = target.length - 1;
+        int i = spread(slot.hash) & mask;
+        while (target[i] != null) {
+            i = (i + 1) & mask;
+        }
+        target[i] = slot;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Slot {
+
+        final SheetName name;
+        final int id;
+        final int hash;
+
+        Slot(SheetName name, int id) {
+            this.name = name;
+            this.id = id;
+            this.hash = name.foldedHash();
+        }
+    }
+}
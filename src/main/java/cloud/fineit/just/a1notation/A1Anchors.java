@@ -0,0 +1,66 @@
+package cloud.fineit.just.a1notation;
+
+/**
+ * A1Anchors holds the bit flags of {@code $} anchors on the columns and rows of a reference.
+ *
+ * <p>An anchored column or row stays fixed when a formula is copied to another cell, like the
+ * column of {@code $A1} or both parts of {@code $A$1}. Flags are combined with {@code |} and stored
+ * as a single {@code int} in every reference, so anchors cost no extra objects. They follow the
+ * endpoint naming of ranges: {@link #LEFT} and {@link #TOP} anchor the column and row of the start,
+ * {@link #RIGHT} and {@link #BOTTOM} those of the end. A cell uses {@link #LEFT} and {@link #TOP}
+ * only.
+ *
+ * <pre>{@code
+ * A1Notation.of("$A1:B$2").anchors() == (A1Anchors.LEFT | A1Anchors.BOTTOM)
+ * A1Notation.of("A1:B2").withAnchors(A1Anchors.ALL); // $A$1:$B$2
+ * }</pre>
+ */
+public final class A1Anchors {
+
+    /**
+     * No anchors.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Anchored starting column, like {@code $A1}.
+     */
+    public static final int LEFT = 1;
+
+    /**
+     * Anchored starting row, like {@code A$1}.
+     */
+    public static final int TOP = 2;
+
+    /**
+     * Anchored ending column, like {@code A1:$B2}.
+     */
+    public static final int RIGHT = 4;
+
+    /**
+     * Anchored ending row, like {@code A1:B$2}.
+     */
+    public static final int BOTTOM = 8;
+
+    /**
+     * Every column and row anchored, like {@code $A$1:$B$2}.
+     */
+    public static final int ALL = LEFT | TOP | RIGHT | BOTTOM;
+
+    static final int COLUMNS = LEFT | RIGHT;
+    static final int ROWS = TOP | BOTTOM;
+    static final int CELL = LEFT | TOP;
+
+    private A1Anchors() {
+    }
+
+    /**
+     * Returns the flags after checking that no unknown bits are set.
+     */
+    static int check(int anchors) {
+        if ((anchors & ~ALL) != 0) {
+            throw new IllegalArgumentException("Unknown anchor flags: " + anchors);
+        }
+        return anchors;
+    }
+}
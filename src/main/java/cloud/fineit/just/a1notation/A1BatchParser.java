@@ -0,0 +1,87 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses a batch of references, splitting large batches across a {@link ForkJoinPool}.
+ *
+ * <p>The input is halved until a chunk holds at most {@link #CHUNK} references; each chunk is
+ * parsed by one reusable {@link A1Parser} and writes into its own slice of the shared result
+ * array, so the results stay in input order without any merging. Failures are collected per chunk
+ * and concatenated left to right when the halves join.
+ */
+final class A1BatchParser extends RecursiveTask<List<A1BatchResult.Failure>> {
+
+    /**
+     * Maximum number of references parsed by one task.
+     */
+    static final int CHUNK = 4096;
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends CharSequence> inputs;
+    private final A1Notation[] results;
+    private final int from;
+    private final int to;
+
+    private A1BatchParser(List<? extends CharSequence> inputs, A1Notation[] results, int from, int to) {
+        this.inputs = inputs;
+        this.results = results;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Parses every input, in parallel on the given pool when the batch is larger than one chunk.
+     *
+     * @param inputs random-access list of references
+     * @param pool pool to run on
+     * @return batch result in input order
+     */
+    static A1BatchResult parse(List<? extends CharSequence> inputs, ForkJoinPool pool) {
+        A1Notation[] results = new A1Notation[inputs.size()];
+        A1BatchParser task = new A1BatchParser(inputs, results, 0, results.length);
+        List<A1BatchResult.Failure> failures = results.length <= CHUNK
+                ? task.compute()
+                : pool.invoke(task);
+        return new A1BatchResult(results, failures);
+    }
+
+    @Override
+    protected List<A1BatchResult.Failure> compute() {
+        if (to - from <= CHUNK) {
+            return parseChunk();
+        }
+        int mid = (from + to) >>> 1;
+        A1BatchParser left = new A1BatchParser(inputs, results, from, mid);
+        A1BatchParser right = new A1BatchParser(inputs, results, mid, to);
+        left.fork();
+        List<A1BatchResult.Failure> rightFailures = right.compute();
+        List<A1BatchResult.Failure> failures = left.join();
+        if (failures.isEmpty()) {
+            return rightFailures;
+        }
+        failures.addAll(rightFailures);
+        return failures;
+    }
+
+    private List<A1BatchResult.Failure> parseChunk() {
+        A1Parser parser = new A1Parser();
+        List<A1BatchResult.Failure> failures = new ArrayList<>(0);
+        for (int i = from; i < to; i++) {
+            CharSequence input = inputs.get(i);
+            try {
+                if (input == null) {
+                    throw new IllegalArgumentException("A1 notation must not be empty");
+                }
+                results[i] = parser.read(input, 0, input.length(), null);
+            } catch (IllegalArgumentException e) {
+                failures.add(new A1BatchResult.Failure(i, e.getMessage()));
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,107 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A1BatchResult holds the outcome of parsing many references at once.
+ *
+ * <p>Notations are kept in input order. An input that could not be parsed leaves a {@code null}
+ * at its position and is reported as a {@link Failure} with its index and the parser message.
+ *
+ * @see A1Notation#parseAll(List)
+ */
+public final class A1BatchResult {
+
+    private final A1Notation[] notations;
+    private final List<Failure> failures;
+
+    A1BatchResult(A1Notation[] notations, List<Failure> failures) {
+        this.notations = notations;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Returns the number of parsed inputs, including failed ones.
+     *
+     * @return number of inputs
+     */
+    public int size() {
+        return notations.length;
+    }
+
+    /**
+     * Returns the notation parsed from the input at the given index.
+     *
+     * @param index input index
+     * @return A1Notation instance, or {@code null} if the input failed to parse
+     */
+    public A1Notation get(int index) {
+        return notations[index];
+    }
+
+    /**
+     * Returns the parsed notations in input order.
+     *
+     * @return unmodifiable list holding {@code null} at the positions of failed inputs
+     */
+    public List<A1Notation> notations() {
+        return Collections.unmodifiableList(Arrays.asList(notations));
+    }
+
+    /**
+     * Returns the failures ordered by input index.
+     *
+     * @return unmodifiable list of failures
+     */
+    public List<Failure> failures() {
+        return failures;
+    }
+
+    /**
+     * Returns {@code true} if every input was parsed.
+     *
+     * @return whether there are no failures
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Failure describes an input that could not be parsed.
+     */
+    public static final class Failure {
+
+        private final int index;
+        private final String message;
+
+        Failure(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        /**
+         * Returns the index of the failed input.
+         *
+         * @return input index
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Returns the message of the exception thrown by the parser.
+         *
+         * @return failure message
+         */
+        public String message() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + index + "] " + message;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A1BinaryCodec writes batches of references in a compact binary format and reads them back
+ * without parsing text.
+ *
+ * <p>A batch starts with a format version byte, the table of sheet names used in the batch and
+ * the number of references. Each reference follows as:
+ *
+ * <ul>
+ *   <li>a varint tag holding the kind like {@link A1RefArray#CELL} in bits 0-2, the
+ *       {@link A1Anchors} flags in bits 3-6 and a sheet change flag in bit 7;</li>
+ *   <li>after a sheet change, the varint index of the sheet in the table, {@code 0} for none;</li>
+ *   <li>the starting row and column of bounded axes as zigzag varint deltas to the previous
+ *       reference, then the height and width of ranges as zigzag varint differences between
+ *       their endpoints.</li>
+ * </ul>
+ *
+ * <p>Sorted batches, like those of {@link A1RefArray#sort()}, therefore take only a few bytes per
+ * reference: consecutive references mostly share their sheet and lie close to each other. Sheet
+ * names are written once per batch as UTF-8 and mapped to the ids of a {@link SheetRegistry} when
+ * read. Reading into an {@link A1RefArray} or a {@link RefConsumer} allocates nothing per
+ * reference.
+ *
+ * <p>Sheet names are matched ignoring case, as everywhere a {@link SheetRegistry} is used: names
+ * differing only in case, like {@code Sheet1} and {@code SHEET1}, denote one sheet and are written
+ * once, in the spelling that occurs first in the batch. Decoded references carry that spelling, or
+ * the one already registered in the target registry, so a batch mixing spellings of a sheet name
+ * does not decode to equal notations.
+ *
+ * <p>Malformed input raises an {@link IllegalArgumentException}; input ending early raises the
+ * usual {@link java.nio.BufferUnderflowException} or {@link java.io.EOFException}. Lengths read
+ * from the input are checked against the bytes left in a buffer, and sheet names from a data input
+ * are read in growing chunks, so a corrupt length cannot allocate more than the input holds.
+ *
+ * <pre>{@code
+ * ByteBuffer buffer = ByteBuffer.allocate(1024);
+ * A1BinaryCodec.write(List.of(A1Notation.of("Data!A1:B2"), A1Notation.of("Data!C3")), buffer);
+ * buffer.flip();
+ * List<A1Notation> same = A1BinaryCodec.read(buffer);
+ * }</pre>
+ */
+public final class A1BinaryCodec {
+
+    /**
+     * Version of the format written by this codec.
+     */
+    public static final int VERSION = 1;
+
+    private static final int KIND_MASK = 7;
+    private static final int ANCHOR_SHIFT = 3;
+    private static final int SHEET_CHANGE = 0x80;
+    private static final int NAME_CHUNK = 256;
+
+    private A1BinaryCodec() {
+    }
+
+    /**
+     * Writes a batch of references to a buffer.
+     *
+     * @param notations references to write
+     * @param buffer target, written from its position
+     * @throws IllegalArgumentException if a notation is implemented outside of this package
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void write(List<? extends A1Notation> notations, ByteBuffer buffer) {
+        write(toArray(notations), buffer);
+    }
+
+    /**
+     * Writes a batch of references to a data output.
+     *
+     * @param notations references to write
+     * @param out target
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if a notation is implemented outside of this package
+     */
+    public static void write(List<? extends A1Notation> notations, DataOutput out) throws IOException {
+        write(toArray(notations), out);
+    }
+
+    /**
+     * Writes all references of an array to a buffer.
+     *
+     * @param refs references to write
+     * @param buffer target, written from its position
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void write(A1RefArray refs, ByteBuffer buffer) {
+        try {
+            write(refs, buffer::put);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes all references of an array to a data output.
+     *
+     * @param refs references to write
+     * @param out target
+     * @throws IOException if writing fails
+     */
+    public static void write(A1RefArray refs, DataOutput out) throws IOException {
+        write(refs, out::writeByte);
+    }
+
+    /**
+     * Reads a batch of references from a buffer.
+     *
+     * @param buffer source, read from its position
+     * @return notations in batch order
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static List<A1Notation> read(ByteBuffer buffer) {
+        A1RefArray refs = new A1RefArray();
+        read(buffer, refs);
+        return refs.toNotations();
+    }
+
+    /**
+     * Reads a batch of references from a data input.
+     *
+     * @param in source
+     * @return notations in batch order
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static List<A1Notation> read(DataInput in) throws IOException {
+        A1RefArray refs = new A1RefArray();
+        read(in, refs);
+        return refs.toNotations();
+    }
+
+    /**
+     * Reads a batch of references from a buffer and appends them to an array.
+     *
+     * @param buffer source, read from its position
+     * @param refs target, whose registry receives the sheet names
+     * @return number of references read
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static int read(ByteBuffer buffer, A1RefArray refs) {
+        return read(buffer, refs.sheets(), appender(refs));
+    }
+
+    /**
+     * Reads a batch of references from a data input and appends them to an array.
+     *
+     * @param in source
+     * @param refs target, whose registry receives the sheet names
+     * @return number of references read
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static int read(DataInput in, A1RefArray refs) throws IOException {
+        return read(in, refs.sheets(), appender(refs));
+    }
+
+    /**
+     * Reads a batch of references from a buffer into a primitive consumer.
+     *
+     * @param buffer source, read from its position
+     * @param sheets registry mapping the sheet names of the batch to ids
+     * @param consumer receives each reference
+     * @return number of references read
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static int read(ByteBuffer buffer, SheetRegistry sheets, RefConsumer consumer) {
+        try {
+            return read(new ByteSource() {
+                @Override
+                public int get() {
+                    return buffer.get() & 0xFF;
+                }
+
+                @Override
+                public int remaining() {
+                    return buffer.remaining();
+                }
+            }, sheets, consumer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a batch of references from a data input into a primitive consumer.
+     *
+     * @param in source
+     * @param sheets registry mapping the sheet names of the batch to ids
+     * @param consumer receives each reference
+     * @return number of references read
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static int read(DataInput in, SheetRegistry sheets, RefConsumer consumer) throws IOException {
+        return read(in::readUnsignedByte, sheets, consumer);
+    }
+
+    private static RefConsumer appender(A1RefArray refs) {
+        return (kind, sheetId, left, top, right, bottom, anchors) ->
+                refs.append(sheetId, left, top, right, bottom, kind, anchors);
+    }
+
+    private static A1RefArray toArray(List<? extends A1Notation> notations) {
+        A1RefArray refs = new A1RefArray(new SheetRegistry(), notations.size());
+        refs.addAll(notations);
+        return refs;
+    }
+
+    private static void write(A1RefArray refs, ByteSink out) throws IOException {
+        int size = refs.size();
+        int[] tableIndex = new int[refs.sheets().size() + 1];
+        Arrays.fill(tableIndex, -1);
+        tableIndex[A1Packed.NO_SHEET] = 0;
+        int[] table = new int[tableIndex.length];
+        int tableSize = 0;
+        for (int i = 0; i < size; i++) {
+            int sheetId = refs.sheetId(i);
+            if (tableIndex[sheetId] < 0) {
+                table[tableSize++] = sheetId;
+                tableIndex[sheetId] = tableSize;
+            }
+        }
+
+        out.put((byte) VERSION);
+        writeVarint(out, tableSize);
+        for (int t = 0; t < tableSize; t++) {
+            byte[] name = refs.sheets().nameOf(table[t]).value().getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, name.length);
+            for (byte b : name) {
+                out.put(b);
+            }
+        }
+        writeVarint(out, size);
+
+        int previousSheet = 0;
+        int previousTop = 0;
+        int previousLeft = 0;
+        for (int i = 0; i < size; i++) {
+            int kind = refs.kind(i);
+            int sheet = tableIndex[refs.sheetId(i)];
+            int tag = kind | refs.anchors(i) << ANCHOR_SHIFT;
+            if (sheet != previousSheet) {
+                writeVarint(out, tag | SHEET_CHANGE);
+                writeVarint(out, sheet);
+                previousSheet = sheet;
+            } else {
+                writeVarint(out, tag);
+            }
+            if (hasRows(kind)) {
+                int top = refs.top(i);
+                writeSigned(out, (long) top - previousTop);
+                previousTop = top;
+            }
+            if (hasColumns(kind)) {
+                int left = refs.left(i);
+                writeSigned(out, (long) left - previousLeft);
+                previousLeft = left;
+            }
+            if (kind == A1RefArray.RANGE || kind == A1RefArray.ROWS) {
+                writeSigned(out, (long) refs.bottom(i) - refs.top(i));
+            }
+            if (kind == A1RefArray.RANGE || kind == A1RefArray.COLUMNS) {
+                writeSigned(out, (long) refs.right(i) - refs.left(i));
+            }
+        }
+    }
+
+    private static int read(ByteSource in, SheetRegistry sheets, RefConsumer consumer) throws IOException {
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported A1 binary format version: " + version);
+        }
+        int tableSize = readVarint(in);
+        if (tableSize > A1Packed.MAX_SHEET_ID || tableSize > in.remaining()) {
+            throw malformed("sheet table size " + tableSize);
+        }
+        int[] sheetIds = new int[tableSize + 1];
+        for (int t = 1; t <= tableSize; t++) {
+            sheetIds[t] = sheets.register(new SheetName(readName(in)));
+        }
+        int size = readVarint(in);
+
+        int sheet = 0;
+        int top = 0;
+        int left = 0;
+        for (int i = 0; i < size; i++) {
+            int tag = readVarint(in);
+            int kind = tag & KIND_MASK;
+            if (kind < A1RefArray.CELL || kind > A1RefArray.SHEET || tag > (SHEET_CHANGE | 0x7F)) {
+                throw malformed("tag " + tag);
+            }
+            if ((tag & SHEET_CHANGE) != 0) {
+                sheet = readVarint(in);
+                if (sheet > tableSize) {
+                    throw malformed("sheet index " + sheet);
+                }
+            }
+            int bottom = A1Packed.UNBOUNDED;
+            int right = A1Packed.UNBOUNDED;
+            int rowFrom = A1Packed.UNBOUNDED;
+            int columnFrom = A1Packed.UNBOUNDED;
+            if (hasRows(kind)) {
+                top = coordinate(top + readSigned(in));
+                rowFrom = top;
+                bottom = top;
+            }
+            if (hasColumns(kind)) {
+                left = coordinate(left + readSigned(in));
+                columnFrom = left;
+                right = left;
+            }
+            if (kind == A1RefArray.RANGE || kind == A1RefArray.ROWS) {
+                bottom = coordinate(rowFrom + readSigned(in));
+            }
+            if (kind == A1RefArray.RANGE || kind == A1RefArray.COLUMNS) {
+                right = coordinate(columnFrom + readSigned(in));
+            }
+            if (kind == A1RefArray.SHEET && sheet == 0) {
+                throw malformed("sheet reference without a sheet");
+            }
+            consumer.accept((byte) kind, sheetIds[sheet], columnFrom, rowFrom, right, bottom, tag >>> ANCHOR_SHIFT & A1Anchors.ALL);
+        }
+        return size;
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 name, growing the array as bytes arrive so that a corrupt length
+     * cannot allocate more than the input holds.
+     */
+    private static String readName(ByteSource in) throws IOException {
+        int length = readVarint(in);
+        if (length > in.remaining()) {
+            throw malformed("sheet name length " + length);
+        }
+        byte[] name = new byte[Math.min(length, NAME_CHUNK)];
+        for (int b = 0; b < length; b++) {
+            if (b == name.length) {
+                name = Arrays.copyOf(name, (int) Math.min(length, 2L * b));
+            }
+            name[b] = (byte) in.get();
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static boolean hasRows(int kind) {
+        return kind == A1RefArray.CELL || kind == A1RefArray.RANGE || kind == A1RefArray.ROWS;
+    }
+
+    private static boolean hasColumns(int kind) {
+        return kind == A1RefArray.CELL || kind == A1RefArray.RANGE || kind == A1RefArray.COLUMNS;
+    }
+
+    private static int coordinate(long value) {
+        if (value < 1 || value > Integer.MAX_VALUE) {
+            throw malformed("coordinate " + value);
+        }
+        return (int) value;
+    }
+
+    private static IllegalArgumentException malformed(String detail) {
+        return new IllegalArgumentException("Malformed A1 binary data: " + detail);
+    }
+
+    private static void writeVarint(ByteSink out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static void writeSigned(ByteSink out, long value) throws IOException {
+        long zigzag = value << 1 ^ value >> 63;
+        while ((zigzag & ~0x7FL) != 0) {
+            out.put((byte) (zigzag & 0x7F | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    private static int readVarint(ByteSource in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw malformed("negative varint");
+                }
+                return value;
+            }
+        }
+        throw malformed("varint too long");
+    }
+
+    private static long readSigned(ByteSource in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return zigzag >>> 1 ^ -(zigzag & 1);
+            }
+        }
+        throw malformed("varint too long");
+    }
+
+    /**
+     * RefConsumer receives decoded references as primitive values.
+     */
+    @FunctionalInterface
+    public interface RefConsumer {
+
+        /**
+         * Accepts a reference.
+         *
+         * @param kind one of the kind constants of {@link A1RefArray}
+         * @param sheetId sheet id in the target registry, {@link A1Packed#NO_SHEET} for none
+         * @param left 1-based starting column, {@link A1Packed#UNBOUNDED} for none
+         * @param top 1-based starting row, {@link A1Packed#UNBOUNDED} for none
+         * @param right 1-based ending column, {@link A1Packed#UNBOUNDED} for none
+         * @param bottom 1-based ending row, {@link A1Packed#UNBOUNDED} for none
+         * @param anchors {@link A1Anchors} flags
+         */
+        void accept(byte kind, int sheetId, int left, int top, int right, int bottom, int anchors);
+    }
+
+    @FunctionalInterface
+    private interface ByteSink {
+        void put(byte b) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ByteSource {
+        int get() throws IOException;
+
+        /**
+         * Returns the number of bytes left, or {@link Integer#MAX_VALUE} if unknown.
+         */
+        default int remaining() {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package cloud.fineit.just.a1notation;
+
+/**
+ * A1CellCursor walks the cells of a bounded reference without creating an object per cell.
+ *
+ * <p>A cursor starts before the first cell; every successful {@link #next()} moves it to the next
+ * cell, whose 1-based coordinates are then read with {@link #row()} and {@link #column()}:
+ *
+ * <pre>{@code
+ * A1CellCursor cursor = A1Notation.of("A1:Z100000").cellCursor(CellOrder.ROW_MAJOR);
+ * while (cursor.next()) {
+ *     export(cursor.row(), cursor.column());
+ * }
+ * }</pre>
+ *
+ * <p>Cursors are not thread-safe.
+ */
+public final class A1CellCursor {
+
+    private final int left;
+    private final int top;
+    private final int right;
+    private final int bottom;
+    private final boolean rowMajor;
+    private int row;
+    private int column;
+
+    A1CellCursor(int left, int top, int right, int bottom, CellOrder order) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.rowMajor = order == CellOrder.ROW_MAJOR;
+        reset();
+    }
+
+    /**
+     * Moves to the next cell.
+     *
+     * @return {@code true} if the cursor is on a cell, {@code false} once all cells were visited
+     */
+    public boolean next() {
+        if (rowMajor) {
+            if (column < right) {
+                column++;
+                return true;
+            }
+            if (row < bottom) {
+                row++;
+                column = left;
+                return true;
+            }
+        } else {
+            if (row < bottom) {
+                row++;
+                return true;
+            }
+            if (column < right) {
+                column++;
+                row = top;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the 1-based row of the current cell.
+     *
+     * @return row
+     */
+    public int row() {
+        return row;
+    }
+
+    /**
+     * Returns the 1-based column of the current cell.
+     *
+     * @return column
+     */
+    public int column() {
+        return column;
+    }
+
+    /**
+     * Moves the cursor back before the first cell.
+     */
+    public void reset() {
+        if (rowMajor) {
+            row = top;
+            column = left - 1;
+        } else {
+            row = top - 1;
+            column = left;
+        }
+    }
+}
@@ -2,54 +2,94 @@ package cloud.fineit.just.a1notation;
 
 import cloud.fineit.just.SheetName;
 
+import java.io.IOException;
 import java.util.Optional;
 
-import static cloud.fineit.just.a1notation.Stringifiers.cellStr;
+import static cloud.fineit.just.a1notation.Stringifiers.appendCell;
+import static cloud.fineit.just.a1notation.Stringifiers.appendSheetPrefix;
 
 /**
  * CellRef represents a single cell reference in A1 notation.
  */
-final class A1CellRef implements A1Notation {
+final class A1CellRef implements A1Notation, Bounds {
 
     private final Optional<SheetName> sheetName;
     private final A1Column column;
     private final A1Row row;
+    private final int anchors;
+    private final int hash;
 
     A1CellRef(A1Column column, A1Row row) {
-        this.column = column;
-        this.row = row;
-        this.sheetName = Optional.empty();
+        this(Optional.empty(), column, row, A1Anchors.NONE);
     }
 
     A1CellRef(Optional<SheetName> sheetName, A1Column column, A1Row row) {
-        this.column = column;
-        this.row = row;
-        this.sheetName = sheetName;
+        this(sheetName, column, row, A1Anchors.NONE);
     }
 
     A1CellRef(SheetName sheetName, A1Column column, A1Row row) {
+        this(Optional.of(sheetName), column, row, A1Anchors.NONE);
+    }
+
+    A1CellRef(Optional<SheetName> sheetName, A1Column column, A1Row row, int anchors) {
         this.column = column;
         this.row = row;
-        this.sheetName = Optional.of(sheetName);
+        this.sheetName = sheetName;
+        this.anchors = anchors & A1Anchors.CELL;
+        this.hash = 31 * (((31 + sheetName.hashCode()) * 31 + column.hashCode()) * 31 + row.hashCode())
+                + this.anchors;
     }
 
-    A1CellRef(String original) {
-        this.sheetName = SheetName.fromNotation(original);
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof A1CellRef)) {
+            return false;
+        }
+        A1CellRef other = (A1CellRef) o;
+        return hash == other.hash && column.equals(other.column) && row.equals(other.row) && anchors == other.anchors
+                && sheetName.equals(other.sheetName);
+    }
 
-        String ref = SheetName.refPart(original);
-        this.column = References.extractColumn(ref);
-        this.row = References.extractRow(ref);
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     @Override
     public String toString() {
-        return sheetName.map(Stringifiers::sheetPrefix).orElse("")
-                + cellStr(column, row);
+        return appendTo(new StringBuilder(16)).toString();
     }
 
     @Override
     public String toShortString() {
-        return cellStr(column, row);
+        return appendShortTo(new StringBuilder(8)).toString();
+    }
+
+    @Override
+    public Appendable appendTo(Appendable out) throws IOException {
+        if (sheetName.isPresent()) {
+            appendSheetPrefix(out, sheetName.get());
+        }
+        return appendShortTo(out);
+    }
+
+    @Override
+    public Appendable appendShortTo(Appendable out) throws IOException {
+        appendCell(out, column, row, (anchors & A1Anchors.LEFT) != 0, (anchors & A1Anchors.TOP) != 0);
+        return out;
+    }
+
+    @Override
+    public int anchors() {
+        return anchors;
+    }
+
+    @Override
+    public A1Notation withAnchors(int anchors) {
+        return new A1CellRef(sheetName, column, row, A1Anchors.check(anchors));
     }
 
     @Override
@@ -61,4 +101,29 @@ final class A1CellRef implements A1Notation {
     public int height() {
         return 1;
     }
+
+    @Override
+    public Optional<SheetName> sheet() {
+        return sheetName;
+    }
+
+    @Override
+    public int left() {
+        return A1Column.index(column);
+    }
+
+    @Override
+    public int top() {
+        return row.value();
+    }
+
+    @Override
+    public int right() {
+        return A1Column.index(column);
+    }
+
+    @Override
+    public int bottom() {
+        return row.value();
+    }
 }
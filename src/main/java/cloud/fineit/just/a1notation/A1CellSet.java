@@ -0,0 +1,830 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A1CellSet is a compressed bitmap of the cells of one sheet.
+ *
+ * <p>The grid is divided into blocks of 16 rows by 4096 columns. Each block holding at least one
+ * cell is stored in a roaring-style container: a sorted {@code char[]} of cell offsets while the
+ * block holds up to 4096 cells, and a 65536-bit bitmap once it holds more. Blocks are kept sorted
+ * by row and column, so a sparse selection costs about two bytes per cell and dense areas one bit
+ * per cell, while union, intersection and difference work block by block.
+ *
+ * <p>Cells are visited in row-major order. Coordinates are 1-based as in A1 notation.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * <pre>{@code
+ * A1CellSet touched = new A1CellSet(sheet);
+ * touched.add(A1Notation.of("Data!A1:C3"));
+ * touched.add(5, 10);
+ * List<A1Notation> ranges = touched.toNotations(); // [Data!A1:C3, Data!E10]
+ * }</pre>
+ */
+public final class A1CellSet {
+
+    private static final int ROW_BITS = 4;
+    private static final int COLUMN_BITS = 12;
+    private static final int ROWS_PER_BLOCK = 1 << ROW_BITS;
+    private static final int COLUMNS_PER_BLOCK = 1 << COLUMN_BITS;
+
+    private final Optional<SheetName> sheet;
+    private long[] keys = new long[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * Creates an empty set of cells without a sheet name.
+     */
+    public A1CellSet() {
+        this.sheet = Optional.empty();
+    }
+
+    /**
+     * Creates an empty set of cells on the given sheet.
+     *
+     * @param sheet sheet name
+     */
+    public A1CellSet(SheetName sheet) {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Sheet name must not be null");
+        }
+        this.sheet = Optional.of(sheet);
+    }
+
+    private A1CellSet(Optional<SheetName> sheet, long[] keys, Container[] containers, int size) {
+        this.sheet = sheet;
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Returns the sheet of the cells, if any.
+     *
+     * @return sheet name
+     */
+    public Optional<SheetName> sheet() {
+        return sheet;
+    }
+
+    /**
+     * Adds a cell.
+     *
+     * @param column 1-based column
+     * @param row 1-based row
+     * @return {@code true} if the cell was not in the set
+     * @throws IllegalArgumentException if a coordinate is not positive
+     */
+    public boolean add(int column, int row) {
+        checkCell(column, row);
+        long key = key(column, row);
+        int at = Arrays.binarySearch(keys, 0, size, key);
+        if (at < 0) {
+            at = insert(-at - 1, key, new ArrayContainer());
+        }
+        Container container = containers[at];
+        int before = container.cardinality();
+        containers[at] = container.add(low(column, row));
+        return containers[at].cardinality() != before;
+    }
+
+    /**
+     * Adds every cell of a bounded reference.
+     *
+     * @param notation cell or range on the sheet of this set
+     * @throws IllegalArgumentException if the reference is on another sheet
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    public void add(A1Notation notation) {
+        Bounds bounds = bounds(notation);
+        int left = Math.min(bounds.left(), bounds.right());
+        int right = Math.max(bounds.left(), bounds.right());
+        int bottom = Math.max(bounds.top(), bounds.bottom());
+        for (int row = Math.min(bounds.top(), bounds.bottom()); row <= bottom && row > 0; row++) {
+            for (int from = left; from <= right && from > 0; ) {
+                int to = (int) Math.min(right, ((long) (from - 1) | (COLUMNS_PER_BLOCK - 1)) + 1);
+                long key = key(from, row);
+                int at = Arrays.binarySearch(keys, 0, size, key);
+                if (at < 0) {
+                    at = insert(-at - 1, key, new ArrayContainer());
+                }
+                containers[at] = containers[at].addRange(low(from, row), low(to, row) + 1);
+                from = to + 1;
+            }
+        }
+    }
+
+    /**
+     * Removes a cell.
+     *
+     * @param column 1-based column
+     * @param row 1-based row
+     * @return {@code true} if the cell was in the set
+     */
+    public boolean remove(int column, int row) {
+        if (column <= 0 || row <= 0) {
+            return false;
+        }
+        int at = Arrays.binarySearch(keys, 0, size, key(column, row));
+        if (at < 0) {
+            return false;
+        }
+        Container container = containers[at];
+        int before = container.cardinality();
+        container = container.remove(low(column, row));
+        if (container.cardinality() == 0) {
+            delete(at);
+        } else {
+            containers[at] = container;
+        }
+        return container.cardinality() != before;
+    }
+
+    /**
+     * Removes every cell of a bounded reference.
+     *
+     * @param notation cell or range on the sheet of this set
+     * @throws IllegalArgumentException if the reference is on another sheet
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    public void remove(A1Notation notation) {
+        Bounds bounds = bounds(notation);
+        int left = Math.min(bounds.left(), bounds.right());
+        int right = Math.max(bounds.left(), bounds.right());
+        int top = Math.min(bounds.top(), bounds.bottom());
+        int bottom = Math.max(bounds.top(), bounds.bottom());
+        int leftBlock = (left - 1) >>> COLUMN_BITS;
+        int rightBlock = (right - 1) >>> COLUMN_BITS;
+        long lastKey = key(right, bottom);
+        int at = Arrays.binarySearch(keys, 0, size, key(left, top));
+        for (at = at < 0 ? -at - 1 : at; at < size && keys[at] <= lastKey; ) {
+            int block = (int) keys[at];
+            if (block < leftBlock || block > rightBlock) {
+                at++;
+                continue;
+            }
+            int from = block == leftBlock ? (left - 1) & (COLUMNS_PER_BLOCK - 1) : 0;
+            int to = block == rightBlock ? ((right - 1) & (COLUMNS_PER_BLOCK - 1)) + 1 : COLUMNS_PER_BLOCK;
+            int rowBase = (int) (keys[at] >>> 32) << ROW_BITS;
+            int lastRow = Math.min(bottom - 1 - rowBase, ROWS_PER_BLOCK - 1);
+            Container container = containers[at];
+            for (int row = Math.max(top - 1 - rowBase, 0); row <= lastRow; row++) {
+                container = container.removeRange((row << COLUMN_BITS) + from, (row << COLUMN_BITS) + to);
+            }
+            if (container.cardinality() == 0) {
+                delete(at);
+            } else {
+                containers[at++] = container;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the set holds the cell.
+     *
+     * @param column 1-based column
+     * @param row 1-based row
+     * @return whether the cell is in the set
+     */
+    public boolean contains(int column, int row) {
+        if (column <= 0 || row <= 0) {
+            return false;
+        }
+        int at = Arrays.binarySearch(keys, 0, size, key(column, row));
+        return at >= 0 && containers[at].contains(low(column, row));
+    }
+
+    /**
+     * Returns {@code true} if the set holds every cell of a bounded reference.
+     *
+     * @param notation cell or range on the sheet of this set
+     * @return whether all cells are in the set
+     * @throws IllegalArgumentException if the reference is on another sheet
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    public boolean contains(A1Notation notation) {
+        Bounds bounds = bounds(notation);
+        int left = Math.min(bounds.left(), bounds.right());
+        int right = Math.max(bounds.left(), bounds.right());
+        int top = Math.min(bounds.top(), bounds.bottom());
+        int bottom = Math.max(bounds.top(), bounds.bottom());
+        long rowBlocks = ((bottom - 1) >>> ROW_BITS) - ((top - 1) >>> ROW_BITS) + 1;
+        long columnBlocks = ((right - 1) >>> COLUMN_BITS) - ((left - 1) >>> COLUMN_BITS) + 1;
+        if (rowBlocks * columnBlocks > size) {
+            return false;
+        }
+        for (int row = top; row <= bottom && row > 0; row++) {
+            for (int from = left; from <= right && from > 0; ) {
+                int to = (int) Math.min(right, ((long) (from - 1) | (COLUMNS_PER_BLOCK - 1)) + 1);
+                int at = Arrays.binarySearch(keys, 0, size, key(from, row));
+                if (at < 0 || !containers[at].containsRange(low(from, row), low(to, row) + 1)) {
+                    return false;
+                }
+                from = to + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of cells.
+     *
+     * @return cardinality
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns {@code true} if the set holds no cells.
+     *
+     * @return whether the set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the cells in this set or the other one.
+     *
+     * @param other set on the same sheet
+     * @return new set
+     * @throws IllegalArgumentException if the sets are on different sheets
+     */
+    public A1CellSet union(A1CellSet other) {
+        return combine(other, OR);
+    }
+
+    /**
+     * Returns the cells in both this set and the other one.
+     *
+     * @param other set on the same sheet
+     * @return new set
+     * @throws IllegalArgumentException if the sets are on different sheets
+     */
+    public A1CellSet intersection(A1CellSet other) {
+        return combine(other, AND);
+    }
+
+    /**
+     * Returns the cells in this set but not in the other one.
+     *
+     * @param other set on the same sheet
+     * @return new set
+     * @throws IllegalArgumentException if the sets are on different sheets
+     */
+    public A1CellSet difference(A1CellSet other) {
+        return combine(other, AND_NOT);
+    }
+
+    /**
+     * Passes the 1-based row and column of every cell to the consumer in row-major order.
+     *
+     * @param consumer receives each cell
+     */
+    public void forEach(A1Notation.CellConsumer consumer) {
+        for (int from = 0; from < size; ) {
+            long rowBlock = keys[from] >>> 32;
+            int to = from + 1;
+            while (to < size && keys[to] >>> 32 == rowBlock) {
+                to++;
+            }
+            for (int offset = 0; offset < ROWS_PER_BLOCK; offset++) {
+                int row = (int) (rowBlock << ROW_BITS) + offset + 1;
+                for (int i = from; i < to; i++) {
+                    int columnBase = (int) keys[i] << COLUMN_BITS;
+                    containers[i].forEachInRow(offset, low -> consumer.accept(row, columnBase + (low & (COLUMNS_PER_BLOCK - 1)) + 1));
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Returns non-overlapping rectangles covering exactly the cells of this set.
+     *
+     * @return cells and ranges on the sheet of this set
+     * @see A1RangeCoalescer
+     */
+    public List<A1Notation> toNotations() {
+        int[][] runs = {new int[16], new int[16], new int[16]};
+        int[] count = {0};
+        int[] open = {0, 0, -1};
+        forEach((row, column) -> {
+            if (open[0] == row && open[2] + 1 == column) {
+                open[2] = column;
+                return;
+            }
+            if (open[2] >= 0) {
+                runs[0] = append(runs[0], count[0], open[0]);
+                runs[1] = append(runs[1], count[0], open[1]);
+                runs[2] = append(runs[2], count[0], open[2]);
+                count[0]++;
+            }
+            open[0] = row;
+            open[1] = column;
+            open[2] = column;
+        });
+        if (open[2] >= 0) {
+            runs[0] = append(runs[0], count[0], open[0]);
+            runs[1] = append(runs[1], count[0], open[1]);
+            runs[2] = append(runs[2], count[0], open[2]);
+            count[0]++;
+        }
+        return A1RangeCoalescer.coalesceRows(sheet, runs[0], runs[1], runs[2], count[0]);
+    }
+
+    /**
+     * Returns a set holding every cell of the given references.
+     *
+     * @param sheet sheet of the references, or {@code null} for references without one
+     * @param notations cells and ranges
+     * @return new set
+     * @throws IllegalArgumentException if a reference is on another sheet
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    public static A1CellSet of(SheetName sheet, Iterable<? extends A1Notation> notations) {
+        A1CellSet cells = sheet == null ? new A1CellSet() : new A1CellSet(sheet);
+        for (A1Notation notation : notations) {
+            cells.add(notation);
+        }
+        return cells;
+    }
+
+    private static int[] append(int[] values, int at, int value) {
+        int[] target = at == values.length ? Arrays.copyOf(values, at * 2) : values;
+        target[at] = value;
+        return target;
+    }
+
+    private Bounds bounds(A1Notation notation) {
+        Bounds bounds = Bounds.of(notation);
+        if (!bounds.sheet().equals(sheet)) {
+            throw new IllegalArgumentException("Reference is not on the sheet of the cell set: " + notation);
+        }
+        if (bounds.left() == A1Packed.UNBOUNDED || bounds.top() == A1Packed.UNBOUNDED) {
+            throw new UnboundedDimensionException("Cells cannot be enumerated for unbounded reference: " + notation);
+        }
+        return bounds;
+    }
+
+    private static void checkCell(int column, int row) {
+        if (column <= 0 || row <= 0) {
+            throw new IllegalArgumentException("Column and row must be positive");
+        }
+    }
+
+    /**
+     * Returns the key of the block holding a cell: the row block in the upper and the column block
+     * in the lower 32 bits.
+     */
+    private static long key(int column, int row) {
+        return (long) ((row - 1) >>> ROW_BITS) << 32 | (column - 1) >>> COLUMN_BITS;
+    }
+
+    /**
+     * Returns the offset of a cell within its block, row-major.
+     */
+    private static int low(int column, int row) {
+        return ((row - 1) & (ROWS_PER_BLOCK - 1)) << COLUMN_BITS | ((column - 1) & (COLUMNS_PER_BLOCK - 1));
+    }
+
+    private int insert(int at, long key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = key;
+        containers[at] = container;
+        size++;
+        return at;
+    }
+
+    private void delete(int at) {
+        System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+        System.arraycopy(containers, at + 1, containers, at, size - at - 1);
+        containers[--size] = null;
+    }
+
+    private static final int OR = 0;
+    private static final int AND = 1;
+    private static final int AND_NOT = 2;
+
+    private A1CellSet combine(A1CellSet other, int operation) {
+        if (!sheet.equals(other.sheet)) {
+            throw new IllegalArgumentException("Cell sets are on different sheets");
+        }
+        int capacity = Math.max(4, operation == OR ? size + other.size : size);
+        long[] resultKeys = new long[capacity];
+        Container[] resultContainers = new Container[capacity];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            int compare = i == size ? 1 : j == other.size ? -1 : Long.compare(keys[i], other.keys[j]);
+            long key;
+            Container container;
+            if (compare == 0) {
+                key = keys[i];
+                container = operation == OR ? containers[i].or(other.containers[j])
+                        : operation == AND ? containers[i].and(other.containers[j])
+                        : containers[i].andNot(other.containers[j]);
+                i++;
+                j++;
+            } else if (compare < 0) {
+                key = keys[i];
+                container = operation == AND ? null : containers[i].copy();
+                i++;
+            } else {
+                key = other.keys[j];
+                container = operation == OR ? other.containers[j].copy() : null;
+                j++;
+            }
+            if (container != null && container.cardinality() > 0) {
+                resultKeys[count] = key;
+                resultContainers[count++] = container;
+            }
+        }
+        return new A1CellSet(sheet, resultKeys, resultContainers, count);
+    }
+
+    /**
+     * Receives cell offsets within a block.
+     */
+    @FunctionalInterface
+    private interface LowConsumer {
+
+        void accept(int low);
+    }
+
+    /**
+     * Cells of one block, as offsets in {@code [0, 65536)}.
+     *
+     * <p>Mutators return the container to use afterwards, which differs from the receiver when the
+     * representation changes.
+     */
+    private abstract static class Container {
+
+        static final int ARRAY_LIMIT = 4096;
+
+        abstract int cardinality();
+
+        abstract boolean contains(int low);
+
+        abstract Container add(int low);
+
+        abstract Container addRange(int from, int to);
+
+        abstract Container remove(int low);
+
+        /**
+         * Returns {@code true} if the container holds every offset in {@code [from, to)}.
+         */
+        abstract boolean containsRange(int from, int to);
+
+        /**
+         * Removes every offset in {@code [from, to)}.
+         */
+        abstract Container removeRange(int from, int to);
+
+        abstract void forEachInRow(int row, LowConsumer consumer);
+
+        abstract Container copy();
+
+        abstract BitmapContainer toBitmap();
+
+        Container or(Container other) {
+            BitmapContainer result = toBitmap();
+            if (other instanceof BitmapContainer) {
+                long[] words = ((BitmapContainer) other).words;
+                for (int w = 0; w < words.length; w++) {
+                    result.words[w] |= words[w];
+                }
+                result.recount();
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int k = 0; k < array.size; k++) {
+                    result.set(array.values[k]);
+                }
+            }
+            return result.shrink();
+        }
+
+        Container and(Container other) {
+            return filter(other, true);
+        }
+
+        Container andNot(Container other) {
+            return filter(other, false);
+        }
+
+        abstract Container filter(Container other, boolean keep);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        char[] values;
+        int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, size, (char) low) >= 0;
+        }
+
+        @Override
+        Container add(int low) {
+            int at = Arrays.binarySearch(values, 0, size, (char) low);
+            if (at >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return toBitmap().add(low);
+            }
+            at = -at - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = (char) low;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container addRange(int from, int to) {
+            if (size + (to - from) > ARRAY_LIMIT) {
+                return toBitmap().addRange(from, to);
+            }
+            Container result = this;
+            for (int low = from; low < to; low++) {
+                result = result.add(low);
+            }
+            return result;
+        }
+
+        @Override
+        Container remove(int low) {
+            int at = Arrays.binarySearch(values, 0, size, (char) low);
+            if (at >= 0) {
+                System.arraycopy(values, at + 1, values, at, size - at - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean containsRange(int from, int to) {
+            int at = Arrays.binarySearch(values, 0, size, (char) from);
+            return at >= 0 && at + (to - from) <= size && values[at + (to - from) - 1] == to - 1;
+        }
+
+        @Override
+        Container removeRange(int from, int to) {
+            int start = index(from);
+            int end = index(to);
+            System.arraycopy(values, end, values, start, size - end);
+            size -= end - start;
+            return this;
+        }
+
+        /**
+         * Returns the position of the first value not less than the offset.
+         */
+        private int index(int low) {
+            if (low > Character.MAX_VALUE) {
+                return size;
+            }
+            int at = Arrays.binarySearch(values, 0, size, (char) low);
+            return at < 0 ? -at - 1 : at;
+        }
+
+        @Override
+        void forEachInRow(int row, LowConsumer consumer) {
+            int from = Arrays.binarySearch(values, 0, size, (char) (row << COLUMN_BITS));
+            if (from < 0) {
+                from = -from - 1;
+            }
+            for (int k = from; k < size && values[k] >>> COLUMN_BITS == row; k++) {
+                consumer.accept(values[k]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int k = 0; k < size; k++) {
+                bitmap.set(values[k]);
+            }
+            return bitmap;
+        }
+
+        @Override
+        Container filter(Container other, boolean keep) {
+            char[] result = new char[Math.max(size, 1)];
+            int count = 0;
+            for (int k = 0; k < size; k++) {
+                if (other.contains(values[k]) == keep) {
+                    result[count++] = values[k];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        final long[] words = new long[1 << 10];
+        int cardinality;
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & 1L << low) != 0;
+        }
+
+        void set(int low) {
+            long word = words[low >>> 6];
+            long updated = word | 1L << low;
+            if (updated != word) {
+                words[low >>> 6] = updated;
+                cardinality++;
+            }
+        }
+
+        @Override
+        Container add(int low) {
+            set(low);
+            return this;
+        }
+
+        @Override
+        Container addRange(int from, int to) {
+            for (int low = from; low < to; ) {
+                int word = low >>> 6;
+                int end = Math.min(to, (word + 1) << 6);
+                long updated = words[word] | mask(low, end);
+                cardinality += Long.bitCount(updated) - Long.bitCount(words[word]);
+                words[word] = updated;
+                low = end;
+            }
+            return this;
+        }
+
+        @Override
+        boolean containsRange(int from, int to) {
+            for (int low = from; low < to; ) {
+                int word = low >>> 6;
+                int end = Math.min(to, (word + 1) << 6);
+                long mask = mask(low, end);
+                if ((words[word] & mask) != mask) {
+                    return false;
+                }
+                low = end;
+            }
+            return true;
+        }
+
+        @Override
+        Container removeRange(int from, int to) {
+            for (int low = from; low < to; ) {
+                int word = low >>> 6;
+                int end = Math.min(to, (word + 1) << 6);
+                long updated = words[word] & ~mask(low, end);
+                cardinality -= Long.bitCount(words[word]) - Long.bitCount(updated);
+                words[word] = updated;
+                low = end;
+            }
+            return shrink();
+        }
+
+        /**
+         * Returns the bits of {@code [from, to)} within the word holding {@code from}.
+         */
+        private static long mask(int from, int to) {
+            return (to - from == 64 ? -1L : ((1L << (to - from)) - 1)) << from;
+        }
+
+        void clear(int low) {
+            long word = words[low >>> 6];
+            long updated = word & ~(1L << low);
+            if (updated != word) {
+                words[low >>> 6] = updated;
+                cardinality--;
+            }
+        }
+
+        @Override
+        Container remove(int low) {
+            clear(low);
+            return shrink();
+        }
+
+        @Override
+        void forEachInRow(int row, LowConsumer consumer) {
+            int wordsPerRow = COLUMNS_PER_BLOCK >>> 6;
+            for (int w = row * wordsPerRow; w < (row + 1) * wordsPerRow; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(w << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return toBitmap();
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        Container filter(Container other, boolean keep) {
+            if (other instanceof ArrayContainer && keep) {
+                return other.filter(this, true);
+            }
+            BitmapContainer result = toBitmap();
+            if (other instanceof BitmapContainer) {
+                long[] mask = ((BitmapContainer) other).words;
+                for (int w = 0; w < words.length; w++) {
+                    result.words[w] &= keep ? mask[w] : ~mask[w];
+                }
+                result.recount();
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int k = 0; k < array.size; k++) {
+                    result.clear(array.values[k]);
+                }
+            }
+            return result.shrink();
+        }
+
+        void recount() {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            cardinality = count;
+        }
+
+        /**
+         * Returns an array container once the cells fit one.
+         */
+        Container shrink() {
+            if (cardinality > ARRAY_LIMIT) {
+                return this;
+            }
+            char[] values = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[count++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.io.IOException;
+
+/**
+ * Cell iteration over the bounds of a reference.
+ *
+ * <p>Reversed endpoints are visited in ascending order. References unbounded on an axis have no
+ * finite set of cells and are rejected.
+ */
+final class A1Cells {
+
+    /**
+     * Maximum number of characters of a column ({@code FXSHRXW} is {@code Integer.MAX_VALUE}) and of
+     * a row.
+     */
+    private static final int MAX_CELL_LENGTH = 7 + 10;
+
+    private A1Cells() {
+    }
+
+    static A1CellCursor cursor(Bounds bounds, CellOrder order) {
+        checkBounded(bounds);
+        return new A1CellCursor(Math.min(bounds.left(), bounds.right()), Math.min(bounds.top(), bounds.bottom()),
+                Math.max(bounds.left(), bounds.right()), Math.max(bounds.top(), bounds.bottom()), order);
+    }
+
+    static void forEach(Bounds bounds, CellOrder order, A1Notation.CellConsumer consumer) {
+        checkBounded(bounds);
+        int left = Math.min(bounds.left(), bounds.right());
+        int right = Math.max(bounds.left(), bounds.right());
+        int top = Math.min(bounds.top(), bounds.bottom());
+        int bottom = Math.max(bounds.top(), bounds.bottom());
+        // the "> 0" checks stop at Integer.MAX_VALUE instead of overflowing
+        if (order == CellOrder.ROW_MAJOR) {
+            for (int row = top; row <= bottom && row > 0; row++) {
+                for (int column = left; column <= right && column > 0; column++) {
+                    consumer.accept(row, column);
+                }
+            }
+        } else {
+            for (int column = left; column <= right && column > 0; column++) {
+                for (int row = top; row <= bottom && row > 0; row++) {
+                    consumer.accept(row, column);
+                }
+            }
+        }
+    }
+
+    static void forEachAddress(Bounds bounds, CellOrder order, A1Notation.AddressConsumer consumer) {
+        checkBounded(bounds);
+        char[] buffer = prefix(bounds);
+        int prefix = buffer.length - MAX_CELL_LENGTH;
+        forEach(bounds, order, (row, column) -> {
+            int length = writeRow(buffer, writeColumn(buffer, prefix, column), row);
+            consumer.accept(buffer, length, row, column);
+        });
+    }
+
+    /**
+     * Returns a buffer starting with the sheet prefix, with room for any cell after it.
+     */
+    private static char[] prefix(Bounds bounds) {
+        if (bounds.sheet().isEmpty()) {
+            return new char[MAX_CELL_LENGTH];
+        }
+        SheetName sheet = bounds.sheet().get();
+        StringBuilder sb = new StringBuilder(sheet.value().length() + 3);
+        try {
+            Stringifiers.appendSheetPrefix(sb, sheet);
+        } catch (IOException e) {
+            throw Stringifiers.unexpected(e);
+        }
+        char[] buffer = new char[sb.length() + MAX_CELL_LENGTH];
+        sb.getChars(0, sb.length(), buffer, 0);
+        return buffer;
+    }
+
+    /**
+     * Writes the column letters at the given position and returns the position after them.
+     */
+    static int writeColumn(char[] buffer, int at, int column) {
+        int length = 0;
+        for (int n = column; n > 0; n = (n - 1) / 26) {
+            length++;
+        }
+        int n = column;
+        for (int i = at + length - 1; i >= at; i--) {
+            n--;
+            buffer[i] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return at + length;
+    }
+
+    /**
+     * Writes the row digits at the given position and returns the position after them.
+     */
+    static int writeRow(char[] buffer, int at, int row) {
+        int length = 0;
+        for (int n = row; n > 0; n /= 10) {
+            length++;
+        }
+        int n = row;
+        for (int i = at + length - 1; i >= at; i--) {
+            buffer[i] = (char) ('0' + n % 10);
+            n /= 10;
+        }
+        return at + length;
+    }
+
+    private static void checkBounded(Bounds bounds) {
+        if (bounds.left() == A1Packed.UNBOUNDED || bounds.top() == A1Packed.UNBOUNDED) {
+            throw new UnboundedDimensionException("Cells cannot be enumerated for unbounded reference: " + bounds);
+        }
+    }
+}
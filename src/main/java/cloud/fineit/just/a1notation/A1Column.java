@@ -1,25 +1,103 @@
 package cloud.fineit.just.a1notation;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Column index written with A–Z letters in A1 notation.
  *
- * <p>Stores the normalized (uppercased) column letters.
+ * <p>Stores the normalized (uppercased) column letters together with the 1-based index they
+ * encode. {@link #of(String)} and {@link #ofIndex(int)} return shared instances for every column
+ * up to {@code ZZZ}; wider columns are created on demand. Columns are ordered by index, so
+ * {@code Z} comes before {@code AA}.
  */
-public final class A1Column {
+public final class A1Column implements Comparable<A1Column> {
+
+    /**
+     * The largest 1-based index served from the shared instances ({@code ZZZ}).
+     */
+    static final int MAX_CACHED = 18278;
+
+    private static final AtomicReferenceArray<A1Column> CACHE = new AtomicReferenceArray<>(MAX_CACHED + 1);
 
     private final String letters;
+    private final int index;
 
     /**
      * Creates a column from its letters.
      *
      * @param letters column letters, case-insensitive
-     * @throws IllegalArgumentException if letters are null or not alphabetic
+     * @throws IllegalArgumentException if letters are null, not alphabetic or beyond
+     *                                  {@link Integer#MAX_VALUE}
      */
     public A1Column(String letters) {
-        if (letters == null || !letters.matches("[A-Za-z]+")) {
-            throw new IllegalArgumentException("Invalid column letters");
+        this.index = parseIndex(letters);
+        this.letters = isUpperCase(letters) ? letters : letters.toUpperCase();
+    }
+
+    /**
+     * Creates a column from letters that are already validated and uppercased.
+     *
+     * @param letters uppercase column letters
+     * @param index 1-based index encoded by the letters
+     */
+    private A1Column(String letters, int index) {
+        this.letters = letters;
+        this.index = index;
+    }
+
+    /**
+     * Returns the column for the given letters.
+     *
+     * <p>Columns up to {@code ZZZ} are shared instances.
+     *
+     * @param letters column letters, case-insensitive
+     * @return column instance
+     * @throws IllegalArgumentException if letters are null, not alphabetic or beyond
+     *                                  {@link Integer#MAX_VALUE}
+     */
+    public static A1Column of(String letters) {
+        int index = parseIndex(letters);
+        if (index >= 1 && index <= MAX_CACHED) {
+            return cached(index);
+        }
+        return new A1Column(letters.toUpperCase(), index);
+    }
+
+    /**
+     * Returns the column for the given 1-based index, where 1=A, 26=Z, 27=AA and so on.
+     *
+     * <p>Columns up to {@code ZZZ} (18278) are shared instances.
+     *
+     * @param index positive 1-based column index
+     * @return column instance
+     * @throws IllegalArgumentException if the index is not positive
+     */
+    public static A1Column ofIndex(int index) {
+        if (index <= 0) {
+            throw new IllegalArgumentException("Column index must be positive");
+        }
+        if (index <= MAX_CACHED) {
+            return cached(index);
+        }
+        return new A1Column(letters(index), index);
+    }
+
+    /**
+     * Returns the column for validated uppercase letters at {@code [from, to)} of the source.
+     *
+     * <p>No string is created for shared instances.
+     *
+     * @param src source holding the uppercase letters
+     * @param from index of the first letter, inclusive
+     * @param to index of the last letter, exclusive
+     * @param index 1-based index encoded by the letters
+     * @return column instance
+     */
+    static A1Column of(CharSequence src, int from, int to, int index) {
+        if (index >= 1 && index <= MAX_CACHED) {
+            return cached(index);
         }
-        this.letters = letters.toUpperCase();
+        return new A1Column(src.subSequence(from, to).toString(), index);
     }
 
     /**
@@ -37,7 +115,7 @@ public final class A1Column {
      * @return 0-based index
      */
     public int arrayIndex() {
-        return index(this) - 1;
+        return index - 1;
     }
 
     /**
@@ -49,16 +127,103 @@ public final class A1Column {
      * @return 1-based column index
      */
     static int index(A1Column col) {
-        String columnLetters = col.value();
+        return col.index;
+    }
+
+    /**
+     * Returns the column letters for the given 1-based index.
+     *
+     * <p>Inverse of {@link #index(A1Column)}: 1=A, 26=Z, 27=AA and so on.
+     *
+     * @param index positive 1-based column index
+     * @return column letters in uppercase
+     */
+    static String letters(int index) {
+        if (index <= MAX_CACHED) {
+            A1Column cached = CACHE.get(index);
+            if (cached != null) {
+                return cached.letters;
+            }
+        }
+        char[] buf = new char[7];
+        int pos = buf.length;
+        int n = index;
+        while (n > 0) {
+            n--;
+            buf[--pos] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(buf, pos, buf.length - pos);
+    }
+
+    private static A1Column cached(int index) {
+        A1Column column = CACHE.get(index);
+        if (column != null) {
+            return column;
+        }
+        A1Column created = new A1Column(letters(index), index);
+        return CACHE.compareAndSet(index, null, created) ? created : CACHE.get(index);
+    }
+
+    /**
+     * Validates letters and converts them to a 1-based index using base-26.
+     *
+     * @throws IllegalArgumentException if the letters are invalid or their index exceeds
+     *                                  {@link Integer#MAX_VALUE}
+     */
+    private static int parseIndex(String letters) {
+        if (letters == null || letters.isEmpty()) {
+            throw new IllegalArgumentException("Invalid column letters");
+        }
         int result = 0;
-        for (int i = 0; i < columnLetters.length(); i++) {
-            char character = columnLetters.charAt(i);
-            int k = (character - 'A') + 1;
+        for (int i = 0; i < letters.length(); i++) {
+            char c = letters.charAt(i);
+            int k;
+            if (c >= 'A' && c <= 'Z') {
+                k = c - 'A' + 1;
+            } else if (c >= 'a' && c <= 'z') {
+                k = c - 'a' + 1;
+            } else {
+                throw new IllegalArgumentException("Invalid column letters");
+            }
+            if (result > (Integer.MAX_VALUE - k) / 26) {
+                throw new IllegalArgumentException("Column letters out of range: " + letters);
+            }
             result = result * 26 + k;
         }
         return result;
     }
 
+    private static boolean isUpperCase(String letters) {
+        for (int i = 0; i < letters.length(); i++) {
+            if (letters.charAt(i) > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof A1Column)) {
+            return false;
+        }
+        return index == ((A1Column) o).index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public int compareTo(A1Column other) {
+        return Integer.compare(index, other.index);
+    }
+
     @Override
     public String toString() {
         return letters;
@@ -0,0 +1,636 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A1DependencyGraph records which cells depend on which references and finds the cells affected
+ * by a change.
+ *
+ * <p>Each dependency is an edge from a dependent cell to a precedent reference, like the ranges in
+ * the formula of that cell. Ranges are indexed as a whole and never expanded into cells: a
+ * single-cell precedent is kept in a hash table by its {@link A1Packed} value, and any other
+ * precedent is placed in a grid of tiles whose size is chosen per axis so that it overlaps at
+ * most two tiles on each. Whole columns like {@code A:A} thus occupy one or two tall tiles and
+ * whole rows one or two wide tiles. Looking up the precedents covering a cell probes the cell
+ * table and one tile for each tile size in use, so updates and lookups take time proportional to
+ * the number of matching edges, not to the size of the ranges.
+ *
+ * <p>{@link #affected} follows dependencies transitively from a set of changed cells and returns
+ * every affected cell in topological order: a cell comes after all affected cells it depends on,
+ * which is the order in which to recalculate them. A cycle among the affected cells raises a
+ * {@link CircularDependencyException}.
+ *
+ * <p>Sheet names are registered in the graph's {@link SheetRegistry}. A precedent without a sheet
+ * name refers to the sheet of its dependent cell, like a reference in a formula. Coordinates must
+ * fit the {@link A1Packed} layout; unbounded sides span up to {@link A1Packed#MAX_COLUMN} and
+ * {@link A1Packed#MAX_ROW}.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * <pre>{@code
+ * A1DependencyGraph graph = new A1DependencyGraph();
+ * graph.setDependencies(A1Notation.of("B1"), List.of(A1Notation.of("A:A")));  // =SUM(A:A)
+ * graph.setDependencies(A1Notation.of("C1"), List.of(A1Notation.of("B1")));   // =B1*2
+ * graph.affected(List.of(A1Notation.of("A7")));                              // [B1, C1]
+ * }</pre>
+ */
+public final class A1DependencyGraph {
+
+    /**
+     * Smallest tile width, as a power of two.
+     */
+    static final int MIN_COLUMN_LEVEL = 4;
+
+    /**
+     * Smallest tile height, as a power of two.
+     */
+    static final int MIN_ROW_LEVEL = 6;
+
+    private static final int LEVELS = 32;
+    private static final int TILES_PER_EDGE = 4;
+    /**
+     * End of a linked list or free list, and the value of keys missing from a {@link LongIntMap}.
+     */
+    private static final int NONE = LongIntMap.MISSING;
+
+    private final SheetRegistry sheets;
+
+    private final LongIntMap nodeOf = new LongIntMap();
+    private long[] nodeCell = new long[16];
+    private int[] nodeFirstEdge = new int[16];
+    private int[] nodeMark = new int[16];
+    private int nodeLimit;
+    private int freeNode = NONE;
+    private int nodeCount;
+
+    private int[] edgeNode = new int[16];
+    private int[] edgeNext = new int[16];
+    private int[] edgeLeft = new int[16];
+    private int[] edgeTop = new int[16];
+    private int[] edgeRight = new int[16];
+    private int[] edgeBottom = new int[16];
+    private int[] edgePostings = new int[16 * TILES_PER_EDGE];
+    private int edgeLimit;
+    private int freeEdge = NONE;
+    private int edgeCount;
+
+    private final LongIntMap cellHeads = new LongIntMap();
+    private final LongIntMap tileHeads = new LongIntMap();
+    private long[] postingKey = new long[16];
+    private int[] postingEdge = new int[16];
+    private int[] postingNext = new int[16];
+    private int[] postingPrev = new int[16];
+    private int postingLimit;
+    private int freePosting = NONE;
+
+    private final int[] tileSizes = new int[LEVELS * LEVELS];
+    private int[] activeSizes = new int[0];
+    private boolean sizesChanged;
+
+    private int epoch;
+    private int[] successors = new int[64];
+    private int[] frames = new int[64];
+    private int[] order = new int[16];
+
+    /**
+     * Creates an empty graph with its own sheet registry.
+     */
+    public A1DependencyGraph() {
+        this(new SheetRegistry());
+    }
+
+    /**
+     * Creates an empty graph registering sheet names in the given registry.
+     *
+     * @param sheets registry assigning sheet ids
+     */
+    public A1DependencyGraph(SheetRegistry sheets) {
+        if (sheets == null) {
+            throw new IllegalArgumentException("Sheet registry must not be null");
+        }
+        this.sheets = sheets;
+    }
+
+    /**
+     * Returns the registry sheet names are registered in.
+     *
+     * @return sheet registry
+     */
+    public SheetRegistry sheets() {
+        return sheets;
+    }
+
+    /**
+     * Returns the number of cells with dependencies.
+     *
+     * @return number of dependent cells
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of recorded dependencies.
+     *
+     * @return number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Records that a cell depends on a reference.
+     *
+     * @param cell dependent cell
+     * @param precedent cell, range, whole rows or columns, or sheet the cell depends on
+     * @throws IllegalArgumentException if the dependent is not a single cell or a coordinate does
+     *                                  not fit the packed layout
+     */
+    public void addDependency(A1Notation cell, A1Notation precedent) {
+        Bounds dependent = dependent(cell);
+        int[] bounds = precedent(precedent);
+        long packed = pack(dependent);
+        bounds[0] = sheetId(Bounds.of(precedent).sheet(), A1Packed.sheetId(packed));
+        addEdge(node(packed), bounds);
+    }
+
+    /**
+     * Replaces all dependencies of a cell, as when its formula is edited.
+     *
+     * <p>An empty collection removes the cell from the graph.
+     *
+     * @param cell dependent cell
+     * @param precedents references the cell depends on
+     * @throws IllegalArgumentException if the dependent is not a single cell or a coordinate does
+     *                                  not fit the packed layout; the graph and its sheet registry are
+     *                                  left unchanged unless the registry runs out of packed sheet ids
+     */
+    public void setDependencies(A1Notation cell, Iterable<? extends A1Notation> precedents) {
+        Bounds dependent = dependent(cell);
+        List<A1Notation> notations = new ArrayList<>();
+        List<int[]> bounds = new ArrayList<>();
+        for (A1Notation precedent : precedents) {
+            notations.add(precedent);
+            bounds.add(precedent(precedent));
+        }
+        long packed = pack(dependent);
+        int sheetId = A1Packed.sheetId(packed);
+        for (int i = 0; i < bounds.size(); i++) {
+            bounds.get(i)[0] = sheetId(Bounds.of(notations.get(i)).sheet(), sheetId);
+        }
+        removeNode(packed);
+        if (!bounds.isEmpty()) {
+            int node = node(packed);
+            for (int[] precedent : bounds) {
+                addEdge(node, precedent);
+            }
+        }
+    }
+
+    /**
+     * Removes all dependencies of a cell.
+     *
+     * @param cell dependent cell
+     * @return {@code true} if the cell had dependencies
+     */
+    public boolean removeDependencies(A1Notation cell) {
+        Bounds bounds = dependent(cell);
+        Optional<SheetName> sheet = bounds.sheet();
+        int sheetId = sheet.isPresent() ? sheets.idOf(sheet.get()) : A1Packed.NO_SHEET;
+        return sheetId != SheetRegistry.NOT_FOUND && removeNode(A1Packed.pack(sheetId, bounds.left(), bounds.top()));
+    }
+
+    /**
+     * Returns the cells affected by changes to the given cells in topological order.
+     *
+     * <p>Ranges among the changed references are expanded into their cells.
+     *
+     * @param changed changed cells or ranges
+     * @return affected cells, each after all affected cells it depends on
+     * @throws CircularDependencyException if affected cells depend on each other in a cycle
+     * @throws UnboundedDimensionException if a changed reference is unbounded
+     */
+    public List<A1Notation> affected(Iterable<? extends A1Notation> changed) {
+        long[] cells = new long[16];
+        int count = 0;
+        for (A1Notation notation : changed) {
+            Bounds bounds = Bounds.of(notation);
+            Optional<SheetName> sheet = bounds.sheet();
+            int sheetId = sheet.isPresent() ? sheets.idOf(sheet.get()) : A1Packed.NO_SHEET;
+            if (sheetId == SheetRegistry.NOT_FOUND) {
+                continue;
+            }
+            long[][] buffer = {cells};
+            int[] size = {count};
+            notation.forEachCell((row, column) -> {
+                if (column <= A1Packed.MAX_COLUMN && row <= A1Packed.MAX_ROW) {
+                    if (size[0] == buffer[0].length) {
+                        buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+                    }
+                    buffer[0][size[0]++] = A1Packed.pack(sheetId, column, row);
+                }
+            });
+            cells = buffer[0];
+            count = size[0];
+        }
+        int affected = traverse(cells, count);
+        List<A1Notation> result = new ArrayList<>(affected);
+        for (int i = affected - 1; i >= 0; i--) {
+            result.add(decode(nodeCell[order[i]]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cells affected by changes to the given packed cells in topological order.
+     *
+     * @param changed changed cells in the {@link A1Packed} layout, with sheet ids of this graph's
+     *                registry
+     * @return affected packed cells, each after all affected cells it depends on
+     * @throws CircularDependencyException if affected cells depend on each other in a cycle
+     */
+    public long[] affectedPacked(long... changed) {
+        int affected = traverse(changed, changed.length);
+        long[] result = new long[affected];
+        for (int i = 0; i < affected; i++) {
+            result[i] = nodeCell[order[affected - 1 - i]];
+        }
+        return result;
+    }
+
+    /**
+     * Visits the dependents reachable from the given cells depth-first and stores the nodes in
+     * {@link #order} in post-order, so the reversed order is topological.
+     *
+     * <p>Each frame on the explicit stack holds its node and the start, cursor and end of its
+     * successors in {@link #successors}. Successors of a frame sit on top of those of its parent
+     * and are dropped when the frame is popped.
+     */
+    private int traverse(long[] cells, int count) {
+        epoch += 2;
+        if (epoch < 0) {
+            Arrays.fill(nodeMark, 0);
+            epoch = 2;
+        }
+        int gray = epoch;
+        int black = epoch + 1;
+        int visited = 0;
+        for (int c = 0; c < count; c++) {
+            int depth = push(0, NONE, 0, collect(cells[c], 0));
+            while (depth > 0) {
+                int top = (depth - 1) * 4;
+                int cursor = frames[top + 2];
+                if (cursor < frames[top + 3]) {
+                    frames[top + 2] = cursor + 1;
+                    int next = successors[cursor];
+                    int mark = nodeMark[next];
+                    if (mark == gray) {
+                        throw cycle(depth, next);
+                    }
+                    if (mark != black) {
+                        nodeMark[next] = gray;
+                        int start = frames[top + 3];
+                        depth = push(depth, next, start, collect(nodeCell[next], start));
+                    }
+                } else {
+                    int node = frames[top];
+                    if (node != NONE) {
+                        nodeMark[node] = black;
+                        if (visited == order.length) {
+                            order = Arrays.copyOf(order, visited * 2);
+                        }
+                        order[visited++] = node;
+                    }
+                    depth--;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private int push(int depth, int node, int start, int end) {
+        int at = depth * 4;
+        if (at + 4 > frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        frames[at] = node;
+        frames[at + 1] = start;
+        frames[at + 2] = start;
+        frames[at + 3] = end;
+        return depth + 1;
+    }
+
+    private CircularDependencyException cycle(int depth, int node) {
+        int from = 0;
+        while (frames[from * 4] != node) {
+            from++;
+        }
+        List<A1Notation> cycle = new ArrayList<>(depth - from);
+        for (int i = from; i < depth; i++) {
+            cycle.add(decode(nodeCell[frames[i * 4]]));
+        }
+        return new CircularDependencyException(cycle);
+    }
+
+    /**
+     * Appends the nodes depending on a cell to {@link #successors} at {@code size}.
+     *
+     * @return the new size
+     */
+    private int collect(long cell, int size) {
+        for (int p = cellHeads.get(cell); p != NONE; p = postingNext[p]) {
+            size = addSuccessor(size, edgeNode[postingEdge[p]]);
+        }
+        if (tileHeads.size() == 0) {
+            return size;
+        }
+        int sheetId = A1Packed.sheetId(cell);
+        int column = A1Packed.column(cell);
+        int row = A1Packed.row(cell);
+        for (int sizes : activeSizes()) {
+            int rowLevel = sizes / LEVELS;
+            int columnLevel = sizes % LEVELS;
+            long key = tileKey(sheetId, rowLevel, columnLevel, (row - 1) >>> rowLevel, (column - 1) >>> columnLevel);
+            for (int p = tileHeads.get(key); p != NONE; p = postingNext[p]) {
+                int e = postingEdge[p];
+                if (column >= edgeLeft[e] && column <= edgeRight[e] && row >= edgeTop[e] && row <= edgeBottom[e]) {
+                    size = addSuccessor(size, edgeNode[e]);
+                }
+            }
+        }
+        return size;
+    }
+
+    private int addSuccessor(int size, int node) {
+        if (size == successors.length) {
+            successors = Arrays.copyOf(successors, size * 2);
+        }
+        successors[size] = node;
+        return size + 1;
+    }
+
+    private int[] activeSizes() {
+        if (sizesChanged) {
+            int count = 0;
+            for (int used : tileSizes) {
+                if (used > 0) {
+                    count++;
+                }
+            }
+            activeSizes = new int[count];
+            count = 0;
+            for (int i = 0; i < tileSizes.length; i++) {
+                if (tileSizes[i] > 0) {
+                    activeSizes[count++] = i;
+                }
+            }
+            sizesChanged = false;
+        }
+        return activeSizes;
+    }
+
+    /**
+     * Returns the bounds of a dependent after checking that it is a single cell.
+     */
+    private static Bounds dependent(A1Notation cell) {
+        Bounds bounds = Bounds.of(cell);
+        if (bounds.left() == A1Packed.UNBOUNDED || bounds.top() == A1Packed.UNBOUNDED
+                || bounds.left() != bounds.right() || bounds.top() != bounds.bottom()) {
+            throw new IllegalArgumentException("Dependent must be a single cell: " + cell);
+        }
+        if (bounds.left() > A1Packed.MAX_COLUMN || bounds.top() > A1Packed.MAX_ROW) {
+            throw new IllegalArgumentException("Dependent out of packed range: " + cell);
+        }
+        return bounds;
+    }
+
+    /**
+     * Packs a dependent, registering its sheet.
+     */
+    private long pack(Bounds dependent) {
+        return A1Packed.pack(sheetId(dependent.sheet(), A1Packed.NO_SHEET), dependent.left(), dependent.top());
+    }
+
+    /**
+     * Returns the ordered bounds of a precedent, with unbounded sides spanning the whole packed
+     * range, preceded by a slot for its sheet id that is filled in once all precedents are valid.
+     */
+    private static int[] precedent(A1Notation precedent) {
+        Bounds bounds = Bounds.of(precedent);
+        int left = bounds.left();
+        int right = bounds.right();
+        int top = bounds.top();
+        int bottom = bounds.bottom();
+        if (left == A1Packed.UNBOUNDED) {
+            left = 1;
+            right = A1Packed.MAX_COLUMN;
+        }
+        if (top == A1Packed.UNBOUNDED) {
+            top = 1;
+            bottom = A1Packed.MAX_ROW;
+        }
+        if (Math.max(left, right) > A1Packed.MAX_COLUMN || Math.max(top, bottom) > A1Packed.MAX_ROW) {
+            throw new IllegalArgumentException("Precedent out of packed range: " + precedent);
+        }
+        return new int[]{A1Packed.NO_SHEET, Math.min(left, right), Math.min(top, bottom), Math.max(left, right),
+                Math.max(top, bottom)};
+    }
+
+    private int sheetId(Optional<SheetName> sheet, int fallback) {
+        if (sheet.isEmpty()) {
+            return fallback;
+        }
+        int id = sheets.register(sheet.get());
+        if (id > A1Packed.MAX_SHEET_ID) {
+            throw new IllegalArgumentException("Sheet id out of packed range: " + id);
+        }
+        return id;
+    }
+
+    private A1Notation decode(long cell) {
+        return A1Packed.decode(cell, sheets::nameOf);
+    }
+
+    private int node(long cell) {
+        int node = nodeOf.get(cell);
+        if (node != NONE) {
+            return node;
+        }
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = nodeFirstEdge[node];
+        } else {
+            node = nodeLimit++;
+            if (node == nodeCell.length) {
+                nodeCell = Arrays.copyOf(nodeCell, node * 2);
+                nodeFirstEdge = Arrays.copyOf(nodeFirstEdge, node * 2);
+                nodeMark = Arrays.copyOf(nodeMark, node * 2);
+            }
+        }
+        nodeCell[node] = cell;
+        nodeFirstEdge[node] = NONE;
+        nodeMark[node] = 0;
+        nodeOf.put(cell, node);
+        nodeCount++;
+        return node;
+    }
+
+    private boolean removeNode(long cell) {
+        int node = nodeOf.get(cell);
+        if (node == NONE) {
+            return false;
+        }
+        for (int e = nodeFirstEdge[node]; e != NONE; ) {
+            int next = edgeNext[e];
+            removeEdge(e);
+            e = next;
+        }
+        nodeOf.remove(cell);
+        nodeFirstEdge[node] = freeNode;
+        freeNode = node;
+        nodeCount--;
+        return true;
+    }
+
+    private void addEdge(int node, int[] bounds) {
+        int e;
+        if (freeEdge != NONE) {
+            e = freeEdge;
+            freeEdge = edgeNext[e];
+        } else {
+            e = edgeLimit++;
+            if (e == edgeNode.length) {
+                int capacity = e * 2;
+                edgeNode = Arrays.copyOf(edgeNode, capacity);
+                edgeNext = Arrays.copyOf(edgeNext, capacity);
+                edgeLeft = Arrays.copyOf(edgeLeft, capacity);
+                edgeTop = Arrays.copyOf(edgeTop, capacity);
+                edgeRight = Arrays.copyOf(edgeRight, capacity);
+                edgeBottom = Arrays.copyOf(edgeBottom, capacity);
+                edgePostings = Arrays.copyOf(edgePostings, capacity * TILES_PER_EDGE);
+            }
+        }
+        int sheetId = bounds[0];
+        int left = bounds[1];
+        int top = bounds[2];
+        int right = bounds[3];
+        int bottom = bounds[4];
+        edgeNode[e] = node;
+        edgeLeft[e] = left;
+        edgeTop[e] = top;
+        edgeRight[e] = right;
+        edgeBottom[e] = bottom;
+        edgeNext[e] = nodeFirstEdge[node];
+        nodeFirstEdge[node] = e;
+        Arrays.fill(edgePostings, e * TILES_PER_EDGE, (e + 1) * TILES_PER_EDGE, NONE);
+        edgeCount++;
+
+        if (left == right && top == bottom) {
+            edgePostings[e * TILES_PER_EDGE] = link(cellHeads, A1Packed.pack(sheetId, left, top), e);
+            return;
+        }
+        int rowLevel = level(top, bottom, MIN_ROW_LEVEL);
+        int columnLevel = level(left, right, MIN_COLUMN_LEVEL);
+        if (tileSizes[rowLevel * LEVELS + columnLevel]++ == 0) {
+            sizesChanged = true;
+        }
+        int slot = e * TILES_PER_EDGE;
+        for (int tileRow = (top - 1) >>> rowLevel; tileRow <= (bottom - 1) >>> rowLevel; tileRow++) {
+            for (int tileColumn = (left - 1) >>> columnLevel; tileColumn <= (right - 1) >>> columnLevel; tileColumn++) {
+                edgePostings[slot++] = link(tileHeads, tileKey(sheetId, rowLevel, columnLevel, tileRow, tileColumn), e);
+            }
+        }
+    }
+
+    private void removeEdge(int e) {
+        boolean cell = edgeLeft[e] == edgeRight[e] && edgeTop[e] == edgeBottom[e];
+        for (int slot = e * TILES_PER_EDGE; slot < (e + 1) * TILES_PER_EDGE; slot++) {
+            if (edgePostings[slot] != NONE) {
+                unlink(cell ? cellHeads : tileHeads, edgePostings[slot]);
+            }
+        }
+        if (!cell) {
+            int sizes = level(edgeTop[e], edgeBottom[e], MIN_ROW_LEVEL) * LEVELS
+                    + level(edgeLeft[e], edgeRight[e], MIN_COLUMN_LEVEL);
+            if (--tileSizes[sizes] == 0) {
+                sizesChanged = true;
+            }
+        }
+        edgeNode[e] = NONE;
+        edgeNext[e] = freeEdge;
+        freeEdge = e;
+        edgeCount--;
+    }
+
+    private int link(LongIntMap heads, long key, int e) {
+        int p;
+        if (freePosting != NONE) {
+            p = freePosting;
+            freePosting = postingNext[p];
+        } else {
+            p = postingLimit++;
+            if (p == postingKey.length) {
+                int capacity = p * 2;
+                postingKey = Arrays.copyOf(postingKey, capacity);
+                postingEdge = Arrays.copyOf(postingEdge, capacity);
+                postingNext = Arrays.copyOf(postingNext, capacity);
+                postingPrev = Arrays.copyOf(postingPrev, capacity);
+            }
+        }
+        int head = heads.get(key);
+        postingKey[p] = key;
+        postingEdge[p] = e;
+        postingPrev[p] = NONE;
+        postingNext[p] = head;
+        if (head != NONE) {
+            postingPrev[head] = p;
+        }
+        heads.put(key, p);
+        return p;
+    }
+
+    private void unlink(LongIntMap heads, int p) {
+        int prev = postingPrev[p];
+        int next = postingNext[p];
+        if (prev != NONE) {
+            postingNext[prev] = next;
+        } else if (next != NONE) {
+            heads.put(postingKey[p], next);
+        } else {
+            heads.remove(postingKey[p]);
+        }
+        if (next != NONE) {
+            postingPrev[next] = prev;
+        }
+        postingNext[p] = freePosting;
+        freePosting = p;
+    }
+
+    /**
+     * Returns the smallest tile level at or above {@code min} at which {@code [low, high]} overlaps
+     * at most two tiles.
+     */
+    static int level(int low, int high, int min) {
+        int level = min;
+        while (((high - 1) >>> level) - ((low - 1) >>> level) > 1) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Packs a sheet id, the tile levels and the tile coordinates into one key. Tiles are at least
+     * 2<sup>{@value #MIN_COLUMN_LEVEL}</sup> columns wide and 2<sup>{@value #MIN_ROW_LEVEL}</sup>
+     * rows high, so the coordinates fit 16 and 22 bits.
+     */
+    private static long tileKey(int sheetId, int rowLevel, int columnLevel, int tileRow, int tileColumn) {
+        return (long) sheetId << 48 | (long) rowLevel << 43 | (long) columnLevel << 38
+                | (long) tileRow << 16 | tileColumn;
+    }
+}
@@ -0,0 +1,379 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetRegistry;
+
+/**
+ * A1FormulaScanner finds the references embedded in a spreadsheet formula in a single pass.
+ *
+ * <p>The formula is split into words, quoted sheet names, string literals and operators without
+ * creating any token objects. A word directly followed by {@code '('} is a function name and a
+ * word followed by {@code '!'} is a sheet prefix; what follows a prefix, or a word on its own, is
+ * handed to the same state machine as {@link A1Notation#of(String)}, extended over a {@code ':'}
+ * to the next word for ranges. Cells, ranges, whole columns and whole rows are reported with
+ * their {@code $} anchors; string literals, bracketed segments like structured references and
+ * error values like {@code #REF!} are skipped. Sheet names are quoted like in A1 notation, with
+ * {@code \'} escaping a quote. Like in A1 notation, column letters must be uppercase.
+ *
+ * <p>Every reference is reported through the same reusable {@link Match} view, which holds its
+ * source offsets and coordinates. Creating a notation from a match is optional, so scanning
+ * allocates nothing per reference.
+ *
+ * <p>Instances are not thread-safe but may be reused for any number of formulas.
+ *
+ * <pre>{@code
+ * A1FormulaScanner scanner = new A1FormulaScanner();
+ * scanner.scan("=SUM(Data!$A$1:B2) + 'Jon\\'s Data'!C:C", match -> refs.add(match.toNotation()));
+ * // [Data!$A$1:B2, 'Jon\'s Data'!C:C]
+ * }</pre>
+ */
+public final class A1FormulaScanner {
+
+    private final A1Parser parser = new A1Parser();
+    private final Match match = new Match(parser);
+
+    /**
+     * Scans a whole formula.
+     *
+     * @param formula formula, with or without a leading {@code '='}
+     * @param consumer receives every reference in source order
+     * @return number of references found
+     */
+    public int scan(CharSequence formula, MatchConsumer consumer) {
+        if (formula == null) {
+            throw new IllegalArgumentException("Formula must not be null");
+        }
+        return scan(formula, 0, formula.length(), consumer);
+    }
+
+    /**
+     * Scans {@code [from, to)} of a formula.
+     *
+     * @param formula source holding the formula
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @param consumer receives every reference in source order
+     * @return number of references found
+     * @throws IndexOutOfBoundsException if the range lies outside of the source
+     */
+    public int scan(CharSequence formula, int from, int to, MatchConsumer consumer) {
+        if (formula == null) {
+            throw new IllegalArgumentException("Formula must not be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer must not be null");
+        }
+        if (from < 0 || to > formula.length() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length "
+                    + formula.length());
+        }
+        int count = 0;
+        int i = from;
+        while (i < to) {
+            char c = formula.charAt(i);
+            int next;
+            if (c == '"') {
+                next = skipString(formula, i + 1, to);
+            } else if (c == '[') {
+                next = skipBrackets(formula, i + 1, to);
+            } else if (c == '#') {
+                next = skipError(formula, i + 1, to);
+            } else if (c == '\'') {
+                int close = skipQuoted(formula, i + 1, to);
+                if (close < to && formula.charAt(close) == '!') {
+                    next = reference(formula, i, close + 1, to, consumer);
+                    if (next > 0) {
+                        count++;
+                    } else {
+                        next = close + 1;
+                    }
+                } else {
+                    next = close;
+                }
+            } else if (isWordChar(c)) {
+                int end = skipWord(formula, i + 1, to);
+                char after = end < to ? formula.charAt(end) : 0;
+                if (after == '(' || after == '[') {
+                    next = end;
+                } else {
+                    next = reference(formula, i, after == '!' ? end + 1 : i, to, consumer);
+                    if (next > 0) {
+                        count++;
+                    } else {
+                        next = after == '!' ? end + 1 : end;
+                    }
+                }
+            } else {
+                next = i + 1;
+            }
+            i = next;
+        }
+        return count;
+    }
+
+    /**
+     * Tries a range reaching over a {@code ':'} first and the reference part alone second.
+     *
+     * @return the end of the reported reference, or {@code -1} if there is none
+     */
+    private int reference(CharSequence formula, int from, int refFrom, int to, MatchConsumer consumer) {
+        int end = skipReference(formula, refFrom, to);
+        if (end == refFrom) {
+            return -1;
+        }
+        if (end < to && formula.charAt(end) == ':') {
+            int rangeEnd = skipReference(formula, end + 1, to);
+            if (rangeEnd > end + 1 && report(formula, from, rangeEnd, to, consumer)) {
+                return rangeEnd;
+            }
+        }
+        return report(formula, from, end, to, consumer) ? end : -1;
+    }
+
+    private boolean report(CharSequence formula, int from, int end, int to, MatchConsumer consumer) {
+        if (end < to) {
+            char c = formula.charAt(end);
+            if (isWordChar(c) || c == '(' || c == '[' || c == '!') {
+                return false;
+            }
+        }
+        if (!parser.scan(formula, from, end)) {
+            return false;
+        }
+        int kind = parser.kind();
+        if (kind == A1Parser.SHEET || !parser.inRange()) {
+            return false;
+        }
+        match.source = formula;
+        match.from = from;
+        match.to = end;
+        consumer.accept(match);
+        return true;
+    }
+
+    private static int skipString(CharSequence formula, int i, int to) {
+        while (i < to) {
+            if (formula.charAt(i++) == '"') {
+                if (i < to && formula.charAt(i) == '"') {
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return to;
+    }
+
+    private static int skipBrackets(CharSequence formula, int i, int to) {
+        int depth = 1;
+        for (; i < to; i++) {
+            char c = formula.charAt(i);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return to;
+    }
+
+    private static int skipError(CharSequence formula, int i, int to) {
+        while (i < to) {
+            char c = formula.charAt(i);
+            if (!isWordChar(c) && c != '/' && c != '!' && c != '?') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index after the closing quote, or {@code to} if the quote is not closed.
+     */
+    private static int skipQuoted(CharSequence formula, int i, int to) {
+        while (i < to) {
+            char c = formula.charAt(i++);
+            if (c == '\\' && i < to && formula.charAt(i) == '\'') {
+                i++;
+            } else if (c == '\'') {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int skipWord(CharSequence formula, int i, int to) {
+        while (i < to && isWordChar(formula.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipReference(CharSequence formula, int i, int to) {
+        while (i < to && isReferenceChar(formula.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isReferenceChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '$';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isReferenceChar(c) || c == '_' || c == '.' || c >= 0x80 && Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Receives the references found in a formula.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+
+        /**
+         * Accepts a reference.
+         *
+         * @param match view of the reference, valid only during this call
+         */
+        void accept(Match match);
+    }
+
+    /**
+     * Reusable view of the reference just found by a scanner.
+     *
+     * <p>A match is only valid while it is passed to a {@link MatchConsumer}; the scanner updates
+     * it in place for the next reference. Coordinates are 1-based, with
+     * {@link A1Packed#UNBOUNDED} for the missing axis of whole rows and columns.
+     */
+    public static final class Match {
+
+        private final A1Parser parser;
+        private CharSequence source;
+        private int from;
+        private int to;
+
+        private Match(A1Parser parser) {
+            this.parser = parser;
+        }
+
+        /**
+         * Returns the offset of the reference in the source, including its sheet prefix.
+         *
+         * @return index of the first character, inclusive
+         */
+        public int from() {
+            return from;
+        }
+
+        /**
+         * Returns the offset after the reference in the source.
+         *
+         * @return index of the last character, exclusive
+         */
+        public int to() {
+            return to;
+        }
+
+        /**
+         * Returns whether the reference has a sheet prefix.
+         *
+         * @return {@code true} for references like {@code Data!A1}
+         */
+        public boolean hasSheet() {
+            return parser.hasSheet();
+        }
+
+        /**
+         * Returns whether the reference is a single cell.
+         *
+         * @return {@code true} for references like {@code $B2}
+         */
+        public boolean isCell() {
+            return parser.kind() == A1Parser.CELL;
+        }
+
+        /**
+         * Returns the first column, or {@link A1Packed#UNBOUNDED} for whole rows.
+         *
+         * @return 1-based column index
+         */
+        public int left() {
+            return parser.left();
+        }
+
+        /**
+         * Returns the first row, or {@link A1Packed#UNBOUNDED} for whole columns.
+         *
+         * @return 1-based row number
+         */
+        public int top() {
+            return parser.top();
+        }
+
+        /**
+         * Returns the last column, or {@link A1Packed#UNBOUNDED} for whole rows.
+         *
+         * @return 1-based column index
+         */
+        public int right() {
+            return parser.right();
+        }
+
+        /**
+         * Returns the last row, or {@link A1Packed#UNBOUNDED} for whole columns.
+         *
+         * @return 1-based row number
+         */
+        public int bottom() {
+            return parser.bottom();
+        }
+
+        /**
+         * Returns the {@code $} anchors of the reference.
+         *
+         * @return {@link A1Anchors} flags
+         */
+        public int anchors() {
+            return parser.anchors();
+        }
+
+        /**
+         * Returns the id of the sheet prefix, registering the sheet name if needed.
+         *
+         * @param sheets registry assigning sheet ids
+         * @return positive sheet id, or {@link A1Packed#NO_SHEET} without a sheet prefix
+         */
+        public int sheetId(SheetRegistry sheets) {
+            return parser.sheetId(sheets);
+        }
+
+        /**
+         * Creates a notation of the reference.
+         *
+         * @return A1Notation instance
+         */
+        public A1Notation toNotation() {
+            return parser.toNotation(null);
+        }
+
+        /**
+         * Creates a notation of the reference, interning its sheet name.
+         *
+         * @param sheets registry to intern the sheet name into
+         * @return A1Notation instance
+         */
+        public A1Notation toNotation(SheetRegistry sheets) {
+            return parser.toNotation(sheets);
+        }
+
+        /**
+         * Returns the reference as written in the source.
+         *
+         * @return source text of the reference
+         */
+        @Override
+        public String toString() {
+            return source.subSequence(from, to).toString();
+        }
+    }
+}
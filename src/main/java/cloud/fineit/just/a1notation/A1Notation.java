@@ -2,6 +2,24 @@ package cloud.fineit.just.a1notation;
 
 import cloud.fineit.just.AddressNotation;
 import cloud.fineit.just.NotationType;
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+import cloud.fineit.just.r1c1notation.R1C1Notation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 /**
  * A1Notation defines the spreadsheet A1 notation used to reference cells and ranges by
@@ -36,6 +54,7 @@ import cloud.fineit.just.NotationType;
  *
  * <p>Contrast: R1C1 notation uses row and column numbers (e.g., {@code R1C1:R2C2}) and allows
  * relative references (e.g., {@code R[3]C[1]}), which differs from the A1 letter-and-number style.
+ * {@link #fromR1C1(R1C1Notation, int, int)} and {@link #toR1C1()} convert between both.
  */
 public interface A1Notation extends AddressNotation {
 
@@ -55,29 +74,144 @@ public interface A1Notation extends AddressNotation {
         if (a1Notation == null || a1Notation.isEmpty()) {
             throw new IllegalArgumentException("A1 notation must not be empty");
         }
+        return A1Parser.parse(a1Notation, 0, a1Notation.length());
+    }
 
+    /**
+     * Parses the characters {@code [from, to)} of a larger text, such as a CSV line or a formula,
+     * without extracting the reference into a separate string first.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @throws IndexOutOfBoundsException if the bounds are outside of the source
+     */
+    static A1Notation parse(CharSequence src, int from, int to) {
+        Objects.checkFromToIndex(from, to, src.length());
+        return A1Parser.parse(src, from, to);
+    }
 
-        int bang = a1Notation.indexOf('!');
-        String refPart = a1Notation;
-        if (bang >= 0) {
-            refPart = a1Notation.substring(bang + 1);
+    /**
+     * Parses a string, resolving its sheet name through a registry.
+     *
+     * <p>References to the same sheet share the registered {@link SheetName} instance, whose id
+     * the registry provides for packed encodings.
+     *
+     * @param a1Notation the input string
+     * @param sheets registry to intern the sheet name into
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    static A1Notation of(String a1Notation, SheetRegistry sheets) {
+        if (a1Notation == null || a1Notation.isEmpty()) {
+            throw new IllegalArgumentException("A1 notation must not be empty");
         }
+        return A1Parser.parse(a1Notation, 0, a1Notation.length(), Objects.requireNonNull(sheets));
+    }
 
-        if (bang < 0 && References.isSheetOnly(a1Notation)) {
-            return new A1SheetRef(a1Notation);
-        }
+    /**
+     * Parses the characters {@code [from, to)} of a larger text, resolving the sheet name through a
+     * registry. No string is created for a sheet that is already registered.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @param sheets registry to intern the sheet name into
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @throws IndexOutOfBoundsException if the bounds are outside of the source
+     */
+    static A1Notation parse(CharSequence src, int from, int to, SheetRegistry sheets) {
+        Objects.checkFromToIndex(from, to, src.length());
+        return A1Parser.parse(src, from, to, Objects.requireNonNull(sheets));
+    }
 
-        if (References.isCell(refPart)) {
-            return new A1CellRef(a1Notation);
-        }
+    /**
+     * Parses the characters {@code [from, to)} of a char array.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @throws IndexOutOfBoundsException if the bounds are outside of the array
+     */
+    static A1Notation parse(char[] src, int from, int to) {
+        return parse(CharBuffer.wrap(src), from, to);
+    }
 
-        if (References.isRange(refPart)
-            || References.isWholeColumnRange(refPart)
-            || References.isWholeRowRange(refPart)) {
-            return new A1RangeRef(a1Notation);
-        }
+    /**
+     * Parses the bytes {@code [from, to)} of an ASCII-encoded array.
+     *
+     * <p>Each byte is read as one ISO-8859-1 character, so quoted sheet names outside of that
+     * charset are not decoded.
+     *
+     * @param src source holding the reference
+     * @param from index of the first byte, inclusive
+     * @param to index of the last byte, exclusive
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @throws IndexOutOfBoundsException if the bounds are outside of the array
+     */
+    static A1Notation parse(byte[] src, int from, int to) {
+        return parse(AsciiChars.of(src), from, to);
+    }
+
+    /**
+     * Parses the bytes at absolute indexes {@code [from, to)} of an ASCII-encoded buffer.
+     *
+     * <p>The position and limit of the buffer are left unchanged. Each byte is read as one
+     * ISO-8859-1 character.
+     *
+     * @param src source holding the reference
+     * @param from absolute index of the first byte, inclusive
+     * @param to absolute index of the last byte, exclusive
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @throws IndexOutOfBoundsException if the bounds are outside of the buffer limit
+     */
+    static A1Notation parse(ByteBuffer src, int from, int to) {
+        return parse(AsciiChars.of(src), from, to);
+    }
+
+    /**
+     * Parses many references at once, in parallel on the common {@link ForkJoinPool} for large
+     * batches.
+     *
+     * <p>Unlike {@link #of(String)}, a failing input does not abort the batch: its position holds
+     * {@code null} and the failure is reported with its index and message.
+     *
+     * @param inputs references to parse
+     * @return results in input order
+     */
+    static A1BatchResult parseAll(List<? extends CharSequence> inputs) {
+        return parseAll(inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses many references at once, in parallel on the given pool for large batches.
+     *
+     * @param inputs references to parse
+     * @param pool pool to split the work across
+     * @return results in input order
+     * @see #parseAll(List)
+     */
+    static A1BatchResult parseAll(List<? extends CharSequence> inputs, ForkJoinPool pool) {
+        List<? extends CharSequence> list = inputs instanceof RandomAccess ? inputs : new ArrayList<>(inputs);
+        return A1BatchParser.parse(list, pool);
+    }
 
-        throw new IllegalArgumentException("Unsupported A1 notation: " + a1Notation);
+    /**
+     * Parses all references of a stream, keeping their encounter order.
+     *
+     * @param inputs references to parse
+     * @return results in encounter order
+     * @see #parseAll(List)
+     */
+    static A1BatchResult parseAll(Stream<? extends CharSequence> inputs) {
+        return parseAll(Arrays.asList(inputs.toArray(CharSequence[]::new)));
     }
 
     /**
@@ -96,6 +230,22 @@ public interface A1Notation extends AddressNotation {
         return new A1NotationBuilder(sheetName);
     }
 
+    /**
+     * Returns a builder preconfigured with the given sheet name instance.
+     *
+     * <p>Pass a name interned by a {@link SheetRegistry} to share it between built references.
+     *
+     * @param sheetName sheet name
+     * @return builder instance
+     * @throws IllegalArgumentException if the name is null
+     */
+    static A1NotationBuilder withSheet(SheetName sheetName) {
+        if (sheetName == null) {
+            throw new IllegalArgumentException("Sheet name must not be empty");
+        }
+        return new A1NotationBuilder(sheetName);
+    }
+
     /**
      * Creates a whole-row reference like {@code 5:5}.
      *
@@ -168,11 +318,309 @@ public interface A1Notation extends AddressNotation {
         return new A1NotationBuilder().range(fromCol, fromRow, toCol, toRow);
     }
 
+    /**
+     * Converts an absolute R1C1 reference to A1 notation through its integer coordinates.
+     *
+     * <p>Without an anchor cell there is no relative coordinate to tell the absolute ones apart
+     * from, so no {@code $} anchors are set: {@code R2C3} becomes {@code C2}. This makes the method
+     * the inverse of {@link #toR1C1()}, which writes every coordinate as absolute, while
+     * {@link #fromR1C1(R1C1Notation, int, int)} turns the same reference into {@code $C$2}.
+     *
+     * @param notation R1C1 reference without relative coordinates
+     * @return A1Notation of the same kind, with endpoints as written and without anchors
+     * @throws IllegalArgumentException if the reference has relative coordinates
+     */
+    static A1Notation fromR1C1(R1C1Notation notation) {
+        if (notation.isRelative()) {
+            throw new IllegalArgumentException("R1C1 reference needs an anchor cell: " + notation);
+        }
+        return A1R1C1.fromR1C1(notation, 0, 0, false);
+    }
+
+    /**
+     * Converts an R1C1 reference to A1 notation, resolving relative coordinates against an anchor
+     * cell. No string is formatted or parsed on the way.
+     *
+     * <p>As in formulas, absolute coordinates become {@code $} anchors, so {@code R1C[1]} seen from
+     * {@code A5} is {@code B$1}. This makes the method the inverse of
+     * {@link #toR1C1(int, int)}; unlike {@link #fromR1C1(R1C1Notation)}, it also anchors
+     * references without any relative coordinate.
+     *
+     * <pre>{@code
+     * A1Notation.fromR1C1(R1C1Notation.of("R[-1]C[2]"), 1, 5); // C4
+     * }</pre>
+     *
+     * @param notation R1C1 reference
+     * @param anchorColumn 1-based column of the anchor cell
+     * @param anchorRow 1-based row of the anchor cell
+     * @return A1Notation of the same kind, with endpoints as written
+     * @throws IllegalArgumentException if a coordinate resolves before the first row or column
+     */
+    static A1Notation fromR1C1(R1C1Notation notation, int anchorColumn, int anchorRow) {
+        return A1R1C1.fromR1C1(notation, anchorColumn, anchorRow, true);
+    }
+
+    /**
+     * Returns the canonical order of references, consistent with {@code equals}.
+     *
+     * <p>References compare by sheet name, those without one first, then by starting and ending
+     * cell in the given order, then cells before ranges, then by {@code $} anchors. Unbounded sides,
+     * like the rows of {@code A:C}, sort before any bounded row.
+     *
+     * <pre>{@code
+     * refs.sort(A1Notation.comparator(CellOrder.ROW_MAJOR)); // [A1, B1, A2, Data!A1]
+     * }</pre>
+     *
+     * @param order row-major or column-major
+     * @return comparator rejecting notations implemented outside of this package
+     */
+    static Comparator<A1Notation> comparator(CellOrder order) {
+        return NotationOrder.of(order);
+    }
+
     /**
      * Returns A1Notation without a sheet name.
      */
     String toShortString();
 
+    /**
+     * Appends the full A1 notation, as returned by {@link #toString()}, to the given builder.
+     *
+     * <p>The sheet prefix, column letters and row digits are written directly into the builder.
+     *
+     * @param sb builder to append to
+     * @return the same builder
+     */
+    default StringBuilder appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+            return sb;
+        } catch (IOException e) {
+            throw Stringifiers.unexpected(e);
+        }
+    }
+
+    /**
+     * Appends the full A1 notation, as returned by {@link #toString()}, to the given target.
+     *
+     * @param out target to append to
+     * @return the same target
+     * @throws IOException if the target fails
+     */
+    default Appendable appendTo(Appendable out) throws IOException {
+        return out.append(toString());
+    }
+
+    /**
+     * Appends the A1 notation without a sheet name, as returned by {@link #toShortString()}, to the
+     * given builder.
+     *
+     * @param sb builder to append to
+     * @return the same builder
+     */
+    default StringBuilder appendShortTo(StringBuilder sb) {
+        try {
+            appendShortTo((Appendable) sb);
+            return sb;
+        } catch (IOException e) {
+            throw Stringifiers.unexpected(e);
+        }
+    }
+
+    /**
+     * Appends the A1 notation without a sheet name, as returned by {@link #toShortString()}, to the
+     * given target.
+     *
+     * @param out target to append to
+     * @return the same target
+     * @throws IOException if the target fails
+     */
+    default Appendable appendShortTo(Appendable out) throws IOException {
+        return out.append(toShortString());
+    }
+
+    /**
+     * Returns {@code true} if this reference covers every cell of the other one.
+     *
+     * <p>Both references must be on the same sheet, or both without a sheet name. Whole rows,
+     * whole columns and sheet-only references are unbounded on the missing axis, so {@code A:C}
+     * contains {@code B7} and {@code B:B}, but not {@code 2:2}. Reversed endpoints are accepted.
+     *
+     * @param other reference to test
+     * @return whether the other reference lies within this one
+     * @throws IllegalArgumentException if the other notation is implemented outside of this package
+     */
+    default boolean contains(A1Notation other) {
+        return A1Ranges.contains(Bounds.of(this), Bounds.of(other));
+    }
+
+    /**
+     * Returns {@code true} if this reference covers the given cell, ignoring sheet names.
+     *
+     * <p>Reads coordinates only and creates no objects.
+     *
+     * @param column 1-based column
+     * @param row 1-based row
+     * @return whether the cell lies within this reference
+     */
+    default boolean contains(int column, int row) {
+        Bounds bounds = Bounds.of(this);
+        return A1Ranges.covers(bounds.left(), bounds.right(), column)
+                && A1Ranges.covers(bounds.top(), bounds.bottom(), row);
+    }
+
+    /**
+     * Returns {@code true} if this reference shares at least one cell with the other one.
+     *
+     * <p>Both references must be on the same sheet, or both without a sheet name.
+     *
+     * @param other reference to test
+     * @return whether the references overlap
+     * @throws IllegalArgumentException if the other notation is implemented outside of this package
+     */
+    default boolean intersects(A1Notation other) {
+        return A1Ranges.intersects(Bounds.of(this), Bounds.of(other));
+    }
+
+    /**
+     * Returns the cells shared by this reference and the other one.
+     *
+     * <p>The result has ordered endpoints and is unbounded only on axes where both references are.
+     * A single shared cell is returned as a cell, so {@code A1:B2} and {@code B2:C3} intersect in
+     * {@code B2}.
+     *
+     * @param other reference to intersect with
+     * @return shared area, or empty if the references do not overlap
+     * @throws IllegalArgumentException if the other notation is implemented outside of this package
+     */
+    default Optional<A1Notation> intersection(A1Notation other) {
+        return A1Ranges.intersection(Bounds.of(this), Bounds.of(other));
+    }
+
+    /**
+     * Returns the smallest reference covering both this reference and the other one.
+     *
+     * <p>The result has ordered endpoints and is unbounded on every axis where either reference is,
+     * so the bounding box of {@code A1} and {@code 3:3} is {@code 1:3}.
+     *
+     * @param other reference to cover
+     * @return bounding reference
+     * @throws IllegalArgumentException if the references are on different sheets, would cover a
+     *                                  whole sheet without a sheet name, or the other notation is
+     *                                  implemented outside of this package
+     */
+    default A1Notation boundingBox(A1Notation other) {
+        return A1Ranges.boundingBox(Bounds.of(this), Bounds.of(other));
+    }
+
+    /**
+     * Returns this reference with ordered endpoints, like {@code A1:B2} for {@code B2:A1}.
+     *
+     * @return this instance if already ordered, otherwise an equivalent ordered reference
+     */
+    default A1Notation normalize() {
+        return A1Ranges.normalize(this, Bounds.of(this));
+    }
+
+    /**
+     * Returns the {@code $} anchors of this reference as {@link A1Anchors} flags.
+     *
+     * @return combination of {@link A1Anchors#LEFT}, {@link A1Anchors#TOP}, {@link A1Anchors#RIGHT}
+     *         and {@link A1Anchors#BOTTOM}, or {@link A1Anchors#NONE}
+     */
+    default int anchors() {
+        return A1Anchors.NONE;
+    }
+
+    /**
+     * Returns this reference with the given {@code $} anchors, like {@code $A$1} for {@code A1} and
+     * {@link A1Anchors#ALL}.
+     *
+     * <p>Flags of columns or rows that the reference does not have are ignored, so a sheet-only
+     * reference is returned unchanged.
+     *
+     * @param anchors combination of {@link A1Anchors} flags
+     * @return reference with the same coordinates and the given anchors
+     * @throws IllegalArgumentException if unknown flags are set
+     */
+    default A1Notation withAnchors(int anchors) {
+        A1Anchors.check(anchors);
+        return this;
+    }
+
+    /**
+     * Returns this reference in absolute R1C1 notation, like {@code R2C3} for {@code C2}.
+     *
+     * @return R1C1Notation of the same kind, with endpoints as written
+     */
+    default R1C1Notation toR1C1() {
+        return A1R1C1.toR1C1(Bounds.of(this));
+    }
+
+    /**
+     * Returns this reference in R1C1 notation relative to an anchor cell, like {@code R[-1]C[2]}
+     * for {@code C4} seen from {@code A5}.
+     *
+     * <p>Coordinates with {@code $} anchors stay absolute, so {@code $C4} becomes {@code R[-1]C3}.
+     *
+     * @param anchorColumn 1-based column of the anchor cell
+     * @param anchorRow 1-based row of the anchor cell
+     * @return R1C1Notation with relative coordinates where this reference has no anchors
+     */
+    default R1C1Notation toR1C1(int anchorColumn, int anchorRow) {
+        return A1R1C1.toR1C1(this, anchorColumn, anchorRow);
+    }
+
+    /**
+     * Passes the 1-based row and column of every cell to the consumer, row by row.
+     *
+     * <p>No object is created per cell. Reversed endpoints are visited in ascending order.
+     *
+     * @param consumer receives each cell
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    default void forEachCell(CellConsumer consumer) {
+        forEachCell(CellOrder.ROW_MAJOR, consumer);
+    }
+
+    /**
+     * Passes the 1-based row and column of every cell to the consumer in the given order.
+     *
+     * @param order row-major or column-major
+     * @param consumer receives each cell
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     * @see #forEachCell(CellConsumer)
+     */
+    default void forEachCell(CellOrder order, CellConsumer consumer) {
+        A1Cells.forEach(Bounds.of(this), order, consumer);
+    }
+
+    /**
+     * Passes the full address of every cell, like {@code Sheet1!B7}, to the consumer in the given
+     * order.
+     *
+     * <p>Addresses are written into one buffer that is reused for every cell; the sheet prefix is
+     * written only once.
+     *
+     * @param order row-major or column-major
+     * @param consumer receives each address
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    default void forEachAddress(CellOrder order, AddressConsumer consumer) {
+        A1Cells.forEachAddress(Bounds.of(this), order, consumer);
+    }
+
+    /**
+     * Returns a cursor over the cells of this reference in the given order.
+     *
+     * @param order row-major or column-major
+     * @return cursor positioned before the first cell
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     */
+    default A1CellCursor cellCursor(CellOrder order) {
+        return A1Cells.cursor(Bounds.of(this), order);
+    }
+
     /**
      * Returns the number of columns spanned by this reference.
      *
@@ -196,4 +644,87 @@ public interface A1Notation extends AddressNotation {
      * @throws UnboundedDimensionException when the height cannot be determined
      */
     int height();
+
+    /**
+     * Returns a spliterator over the cells of this reference packed as in {@link A1Packed}, without
+     * a sheet id.
+     *
+     * <p>Cells are ordered row-major, which is also ascending packed order. The spliterator is
+     * {@code SIZED} and {@code SUBSIZED} and splits at row boundaries down the middle of the grid,
+     * so a parallel stream divides large ranges evenly:
+     *
+     * <pre>{@code
+     * long filled = StreamSupport.longStream(range.cellSpliterator(), true)
+     *         .filter(cell -> isFilled(A1Packed.row(cell), A1Packed.column(cell)))
+     *         .count();
+     * }</pre>
+     *
+     * @return spliterator of packed cells
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     * @throws IllegalArgumentException if the cells do not fit the packed layout
+     */
+    default Spliterator.OfLong cellSpliterator() {
+        return A1Spliterators.cells(Bounds.of(this), A1Packed.NO_SHEET);
+    }
+
+    /**
+     * Returns a spliterator over the cells of this reference packed as in {@link A1Packed}.
+     *
+     * @param sheetIds maps the sheet name, if any, to an id in {@code [1, A1Packed.MAX_SHEET_ID]}
+     * @return spliterator of packed cells
+     * @throws UnboundedDimensionException for whole-row, whole-column and sheet-only references
+     * @throws IllegalArgumentException if the cells do not fit the packed layout
+     * @see #cellSpliterator()
+     */
+    default Spliterator.OfLong cellSpliterator(ToIntFunction<SheetName> sheetIds) {
+        Bounds bounds = Bounds.of(this);
+        int sheetId = bounds.sheet().isPresent() ? sheetIds.applyAsInt(bounds.sheet().get()) : A1Packed.NO_SHEET;
+        return A1Spliterators.cells(bounds, sheetId);
+    }
+
+    /**
+     * Returns a spliterator over the 1-based rows of this reference, in ascending order.
+     *
+     * <p>The spliterator is {@code SIZED} and {@code SUBSIZED} and splits into two equal bands of
+     * rows. Whole-row references are supported.
+     *
+     * @return spliterator of rows
+     * @throws UnboundedDimensionException for whole-column and sheet-only references
+     */
+    default Spliterator.OfInt rowSpliterator() {
+        return A1Spliterators.rows(Bounds.of(this));
+    }
+
+    /**
+     * CellConsumer receives the coordinates of a cell.
+     */
+    @FunctionalInterface
+    interface CellConsumer {
+
+        /**
+         * Accepts a cell.
+         *
+         * @param row 1-based row
+         * @param column 1-based column
+         */
+        void accept(int row, int column);
+    }
+
+    /**
+     * AddressConsumer receives the formatted address of a cell.
+     */
+    @FunctionalInterface
+    interface AddressConsumer {
+
+        /**
+         * Accepts a cell address.
+         *
+         * @param address buffer holding the address in {@code [0, length)}; reused for the next
+         *                cell, so copy what must be kept
+         * @param length number of characters of the address
+         * @param row 1-based row
+         * @param column 1-based column
+         */
+        void accept(char[] address, int length, int row, int column);
+    }
 }
@@ -13,6 +13,7 @@ import java.util.Optional;
 public final class A1NotationBuilder {
 
     private final Optional<SheetName> sheet;
+    private final int anchors;
 
     /**
      * Creates a builder bound to the given sheet name.
@@ -22,14 +23,44 @@ public final class A1NotationBuilder {
      * @param sheetName sheet name without surrounding quotes
      */
     A1NotationBuilder(String sheetName) {
-        this.sheet = Optional.ofNullable(sheetName).map(SheetName::new);
+        this(Optional.ofNullable(sheetName).map(SheetName::new), A1Anchors.NONE);
+    }
+
+    /**
+     * Creates a builder bound to the given sheet name instance.
+     *
+     * <p>Use {@link A1Notation#withSheet(SheetName)} to obtain an instance.
+     *
+     * @param sheetName sheet name, typically interned by a {@link cloud.fineit.just.SheetRegistry}
+     */
+    A1NotationBuilder(SheetName sheetName) {
+        this(Optional.of(sheetName), A1Anchors.NONE);
     }
 
     /**
      * Creates a builder with no sheet name.
      */
     A1NotationBuilder() {
-        this.sheet = Optional.empty();
+        this(Optional.empty(), A1Anchors.NONE);
+    }
+
+    private A1NotationBuilder(Optional<SheetName> sheet, int anchors) {
+        this.sheet = sheet;
+        this.anchors = anchors;
+    }
+
+    /**
+     * Returns a builder that adds the given {@code $} anchors to every reference it creates.
+     *
+     * <p>Flags of columns or rows that a reference does not have are ignored, so
+     * {@link A1Anchors#ALL} yields {@code $A$1}, {@code $A:$C} and {@code $1:$5}.
+     *
+     * @param anchors combination of {@link A1Anchors} flags
+     * @return builder instance
+     * @throws IllegalArgumentException if unknown flags are set
+     */
+    public A1NotationBuilder withAnchors(int anchors) {
+        return new A1NotationBuilder(sheet, A1Anchors.check(anchors));
     }
 
     /**
@@ -50,7 +81,7 @@ public final class A1NotationBuilder {
      * @return A1 notation instance
      */
     public A1Notation forRow(A1Row row) {
-        return new A1RangeRef(sheet, row, row);
+        return new A1RangeRef(sheet, row, row, anchors);
     }
 
     /**
@@ -77,7 +108,7 @@ public final class A1NotationBuilder {
      * @throws IllegalArgumentException if bounds are invalid
      */
     public A1Notation forRows(A1Row from, A1Row to) {
-        return new A1RangeRef(sheet, from, to);
+        return new A1RangeRef(sheet, from, to, anchors);
     }
 
     /**
@@ -88,7 +119,7 @@ public final class A1NotationBuilder {
      * @throws IllegalArgumentException if the column index is invalid
      */
     public A1Notation forColumn(String col) {
-        return forColumn(new A1Column(col));
+        return forColumn(A1Column.of(col));
     }
 
     /**
@@ -98,7 +129,7 @@ public final class A1NotationBuilder {
      * @return A1 notation instance
      */
     public A1Notation forColumn(A1Column col) {
-        return new A1RangeRef(sheet, col, col);
+        return new A1RangeRef(sheet, col, col, anchors);
     }
 
     /**
@@ -110,7 +141,7 @@ public final class A1NotationBuilder {
      * @throws IllegalArgumentException if the column indexes are invalid
      */
     public A1Notation forColumns(String from, String to) {
-        return forColumns(new A1Column(from), new A1Column(to));
+        return forColumns(A1Column.of(from), A1Column.of(to));
     }
 
     /**
@@ -121,7 +152,7 @@ public final class A1NotationBuilder {
      * @return A1 notation instance
      */
     public A1Notation forColumns(A1Column from, A1Column to) {
-        return new A1RangeRef(sheet, from, to);
+        return new A1RangeRef(sheet, from, to, anchors);
     }
 
     /**
@@ -133,7 +164,7 @@ public final class A1NotationBuilder {
      * @throws IllegalArgumentException if the input is invalid
      */
     public A1Notation forCell(String colLetters, int row) {
-        return forCell(new A1Column(colLetters), new A1Row(row));
+        return forCell(A1Column.of(colLetters), new A1Row(row));
     }
 
     /**
@@ -144,7 +175,7 @@ public final class A1NotationBuilder {
      * @return A1 notation instance
      */
     public A1Notation forCell(A1Column col, A1Row row) {
-        return new A1CellRef(sheet, col, row);
+        return new A1CellRef(sheet, col, row, anchors);
     }
 
     /**
@@ -159,8 +190,8 @@ public final class A1NotationBuilder {
      */
     public A1Notation range(String fromCol, int fromRow, String toCol, int toRow) {
         return range(
-                new A1Column(fromCol), new A1Row(fromRow),
-                new A1Column(toCol), new A1Row(toRow)
+                A1Column.of(fromCol), new A1Row(fromRow),
+                A1Column.of(toCol), new A1Row(toRow)
         );
     }
 
@@ -174,7 +205,7 @@ public final class A1NotationBuilder {
      * @return A1 notation instance
      */
     public A1Notation range(A1Column fromCol, A1Row fromRow, A1Column toCol, A1Row toRow) {
-        return new A1RangeRef(sheet, fromCol, fromRow, toCol, toRow);
+        return new A1RangeRef(sheet, fromCol, fromRow, toCol, toRow, anchors);
     }
 
     /**
@@ -0,0 +1,163 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A1NotationCache is a size-bounded, thread-safe cache of parsed {@link A1Notation} instances keyed
+ * by their input string.
+ *
+ * <p>Suited for workloads that parse the same few thousand references over and over from many
+ * threads. Lookups are lock-free; a miss parses the input and inserts the result, evicting an entry
+ * chosen by the CLOCK (second chance) policy once the cache is full. Every hit marks its entry as
+ * recently used, so frequently requested references survive a sweep of the clock hand while
+ * one-off inputs are evicted first.
+ *
+ * <p>Returned notations are immutable and shared between callers. Inputs that fail to parse are not
+ * cached.
+ *
+ * <pre>{@code
+ * A1NotationCache cache = new A1NotationCache(4096);
+ * A1Notation notation = cache.of("Sheet1!A1:B2");
+ * }</pre>
+ */
+public final class A1NotationCache {
+
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final Entry[] clock;
+    private int hand;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most the given number of notations.
+     *
+     * @param maximumSize maximum number of cached notations
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public A1NotationCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16) * 4 / 3 + 1);
+        this.clock = new Entry[maximumSize];
+    }
+
+    /**
+     * Returns the cached notation for the input, parsing and caching it on a miss.
+     *
+     * @param a1Notation the input string
+     * @return shared A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @see A1Notation#of(String)
+     */
+    public A1Notation of(String a1Notation) {
+        if (a1Notation == null) {
+            throw new IllegalArgumentException("A1 notation must not be empty");
+        }
+        Entry entry = entries.get(a1Notation);
+        if (entry != null) {
+            hits.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.notation;
+        }
+        misses.increment();
+        A1Notation notation = A1Notation.of(a1Notation);
+        return insert(a1Notation, notation);
+    }
+
+    private synchronized A1Notation insert(String key, A1Notation notation) {
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing.notation;
+        }
+        Entry entry = new Entry(key, notation);
+        if (size < clock.length) {
+            clock[size++] = entry;
+        } else {
+            while (clock[hand].referenced) {
+                clock[hand].referenced = false;
+                hand = (hand + 1) % clock.length;
+            }
+            entries.remove(clock[hand].key);
+            evictions.increment();
+            clock[hand] = entry;
+            hand = (hand + 1) % clock.length;
+        }
+        entries.put(key, entry);
+        return notation;
+    }
+
+    /**
+     * Removes all cached notations. Counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        Arrays.fill(clock, null);
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Returns the number of cached notations.
+     *
+     * @return current size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of cached notations.
+     *
+     * @return maximum size
+     */
+    public int maximumSize() {
+        return clock.length;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to parse the input.
+     *
+     * @return miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of notations evicted to make room for new ones.
+     *
+     * @return eviction count
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private static final class Entry {
+
+        final String key;
+        final A1Notation notation;
+        volatile boolean referenced;
+
+        Entry(String key, A1Notation notation) {
+            this.key = key;
+            this.notation = notation;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A1Packed encodes A1 references as primitive {@code long} values.
+ *
+ * <p>A cell is packed into a single {@code long} holding a sheet id, a row and a column:
+ *
+ * <pre>{@code
+ *  63  62 ........ 48  47 ............ 20  19 ........ 0
+ * [ 0 | sheet id (15) | row (28)          | column (20)  ]
+ * }</pre>
+ *
+ * <p>Columns and rows are 1-based as in A1 notation; {@code 0} marks an unbounded side. Sheet id
+ * {@code 0} stands for a reference without a sheet name; other ids are assigned by the caller.
+ * Because the fields are ordered sheet, row, column, comparing packed cells as {@code long}
+ * values orders them by sheet and then row-major.
+ *
+ * <p>Any other reference is packed into a pair of {@code long} values: the start cell and the end
+ * cell. Whole-row ranges have unbounded columns, whole-column ranges have unbounded rows, and a
+ * sheet-only reference has both axes unbounded. A pair decodes to a range, so a single cell
+ * packed as a pair becomes a one-cell range like {@code A1:A1}.
+ */
+public final class A1Packed {
+
+    /**
+     * Number of bits holding the sheet id.
+     */
+    public static final int SHEET_BITS = 15;
+
+    /**
+     * Number of bits holding the row.
+     */
+    public static final int ROW_BITS = 28;
+
+    /**
+     * Number of bits holding the column.
+     */
+    public static final int COLUMN_BITS = 20;
+
+    /**
+     * The largest sheet id that can be packed.
+     */
+    public static final int MAX_SHEET_ID = (1 << SHEET_BITS) - 1;
+
+    /**
+     * The largest 1-based row that can be packed.
+     */
+    public static final int MAX_ROW = (1 << ROW_BITS) - 1;
+
+    /**
+     * The largest 1-based column that can be packed.
+     */
+    public static final int MAX_COLUMN = (1 << COLUMN_BITS) - 1;
+
+    /**
+     * Sheet id of references without a sheet name.
+     */
+    public static final int NO_SHEET = 0;
+
+    /**
+     * Column or row value of an unbounded side.
+     */
+    public static final int UNBOUNDED = 0;
+
+    private static final int ROW_SHIFT = COLUMN_BITS;
+    private static final int SHEET_SHIFT = COLUMN_BITS + ROW_BITS;
+    private static final long COORDINATES = (1L << SHEET_SHIFT) - 1;
+
+    private A1Packed() {
+    }
+
+    /**
+     * Packs a sheet id, a column and a row into a single value.
+     *
+     * @param sheetId sheet id, {@link #NO_SHEET} for none
+     * @param column 1-based column, {@link #UNBOUNDED} for none
+     * @param row 1-based row, {@link #UNBOUNDED} for none
+     * @return packed value
+     * @throws IllegalArgumentException if any part is outside of its packed range
+     */
+    public static long pack(int sheetId, int column, int row) {
+        if (sheetId < 0 || sheetId > MAX_SHEET_ID) {
+            throw new IllegalArgumentException("Sheet id out of packed range: " + sheetId);
+        }
+        if (column < 0 || column > MAX_COLUMN) {
+            throw new IllegalArgumentException("Column out of packed range: " + column);
+        }
+        if (row < 0 || row > MAX_ROW) {
+            throw new IllegalArgumentException("Row out of packed range: " + row);
+        }
+        return ((long) sheetId << SHEET_SHIFT) | ((long) row << ROW_SHIFT) | column;
+    }
+
+    /**
+     * Returns the sheet id of a packed value.
+     *
+     * @param packed packed value
+     * @return sheet id, {@link #NO_SHEET} for none
+     */
+    public static int sheetId(long packed) {
+        return (int) (packed >>> SHEET_SHIFT) & MAX_SHEET_ID;
+    }
+
+    /**
+     * Returns the 1-based column of a packed value.
+     *
+     * @param packed packed value
+     * @return column, {@link #UNBOUNDED} for none
+     */
+    public static int column(long packed) {
+        return (int) packed & MAX_COLUMN;
+    }
+
+    /**
+     * Returns the 1-based row of a packed value.
+     *
+     * @param packed packed value
+     * @return row, {@link #UNBOUNDED} for none
+     */
+    public static int row(long packed) {
+        return (int) (packed >>> ROW_SHIFT) & MAX_ROW;
+    }
+
+    /**
+     * Packs a single cell reference without a sheet name.
+     *
+     * @param cell cell reference
+     * @return packed cell
+     * @throws IllegalArgumentException if the notation is not a cell, has a sheet name or does not fit
+     */
+    public static long encode(A1Notation cell) {
+        return encode(cell, A1Packed::noSheetIds);
+    }
+
+    /**
+     * Packs a single cell reference.
+     *
+     * @param cell cell reference
+     * @param sheetIds maps sheet names to ids in {@code [1, MAX_SHEET_ID]}
+     * @return packed cell
+     * @throws IllegalArgumentException if the notation is not a cell or does not fit
+     */
+    public static long encode(A1Notation cell, ToIntFunction<SheetName> sheetIds) {
+        if (!(cell instanceof A1CellRef)) {
+            throw new IllegalArgumentException("Not a cell reference: " + cell);
+        }
+        return encodeStart(cell, sheetIds);
+    }
+
+    /**
+     * Packs the start cell of a reference without a sheet name.
+     *
+     * @param notation any reference
+     * @return packed start cell
+     * @throws IllegalArgumentException if the notation has a sheet name or does not fit
+     */
+    public static long encodeStart(A1Notation notation) {
+        return encodeStart(notation, A1Packed::noSheetIds);
+    }
+
+    /**
+     * Packs the start cell of a reference, the top-left corner as written.
+     *
+     * @param notation any reference
+     * @param sheetIds maps sheet names to ids in {@code [1, MAX_SHEET_ID]}
+     * @return packed start cell
+     * @throws IllegalArgumentException if the notation does not fit
+     */
+    public static long encodeStart(A1Notation notation, ToIntFunction<SheetName> sheetIds) {
+        Bounds bounds = Bounds.of(notation);
+        return pack(sheetId(bounds.sheet(), sheetIds), bounds.left(), bounds.top());
+    }
+
+    /**
+     * Packs the end cell of a reference without a sheet name.
+     *
+     * @param notation any reference
+     * @return packed end cell
+     * @throws IllegalArgumentException if the notation has a sheet name or does not fit
+     */
+    public static long encodeEnd(A1Notation notation) {
+        return encodeEnd(notation, A1Packed::noSheetIds);
+    }
+
+    /**
+     * Packs the end cell of a reference, the bottom-right corner as written.
+     *
+     * @param notation any reference
+     * @param sheetIds maps sheet names to ids in {@code [1, MAX_SHEET_ID]}
+     * @return packed end cell
+     * @throws IllegalArgumentException if the notation does not fit
+     */
+    public static long encodeEnd(A1Notation notation, ToIntFunction<SheetName> sheetIds) {
+        Bounds bounds = Bounds.of(notation);
+        return pack(sheetId(bounds.sheet(), sheetIds), bounds.right(), bounds.bottom());
+    }
+
+    /**
+     * Decodes a packed cell without a sheet name.
+     *
+     * @param cell packed cell
+     * @return cell reference
+     * @throws IllegalArgumentException if the value is not a cell or has a sheet id
+     */
+    public static A1Notation decode(long cell) {
+        return decode(cell, A1Packed::noSheetNames);
+    }
+
+    /**
+     * Decodes a packed cell.
+     *
+     * @param cell packed cell
+     * @param sheetNames maps sheet ids to names
+     * @return cell reference
+     * @throws IllegalArgumentException if the value is not a cell
+     */
+    public static A1Notation decode(long cell, IntFunction<SheetName> sheetNames) {
+        int column = column(cell);
+        int row = row(cell);
+        if (column == UNBOUNDED || row == UNBOUNDED) {
+            throw new IllegalArgumentException("Packed value is not a cell: " + cell);
+        }
+        return new A1CellRef(sheetName(sheetId(cell), sheetNames), A1Column.ofIndex(column), new A1Row(row));
+    }
+
+    /**
+     * Decodes a packed start and end pair without a sheet name.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @return range, whole-row or whole-column reference
+     * @throws IllegalArgumentException if the pair is inconsistent or has a sheet id
+     */
+    public static A1Notation decode(long start, long end) {
+        return decode(start, end, A1Packed::noSheetNames);
+    }
+
+    /**
+     * Decodes a packed start and end pair.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @param sheetNames maps sheet ids to names
+     * @return range, whole-row, whole-column or sheet-only reference
+     * @throws IllegalArgumentException if the pair is inconsistent
+     */
+    public static A1Notation decode(long start, long end, IntFunction<SheetName> sheetNames) {
+        int sheetId = sheetId(start);
+        if (sheetId != sheetId(end)) {
+            throw new IllegalArgumentException("Packed start and end refer to different sheets");
+        }
+        boolean columns = hasColumns(start, end);
+        boolean rows = hasRows(start, end);
+        Optional<SheetName> sheet = sheetName(sheetId, sheetNames);
+        if (columns && rows) {
+            return new A1RangeRef(sheet,
+                    A1Column.ofIndex(column(start)), new A1Row(row(start)),
+                    A1Column.ofIndex(column(end)), new A1Row(row(end)));
+        }
+        if (columns) {
+            return new A1RangeRef(sheet, A1Column.ofIndex(column(start)), A1Column.ofIndex(column(end)));
+        }
+        if (rows) {
+            return new A1RangeRef(sheet, new A1Row(row(start)), new A1Row(row(end)));
+        }
+        return new A1SheetRef(sheet.orElseThrow(
+                () -> new IllegalArgumentException("Packed sheet-only reference has no sheet id")));
+    }
+
+    /**
+     * Returns the number of columns spanned by a packed pair.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @return positive number of columns
+     * @throws UnboundedDimensionException when the columns are unbounded
+     */
+    public static int width(long start, long end) {
+        if (!hasColumns(start, end)) {
+            throw new UnboundedDimensionException("Width cannot be determined for unbounded columns");
+        }
+        return Math.abs(column(end) - column(start)) + 1;
+    }
+
+    /**
+     * Returns the number of rows spanned by a packed pair.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @return positive number of rows
+     * @throws UnboundedDimensionException when the rows are unbounded
+     */
+    public static int height(long start, long end) {
+        if (!hasRows(start, end)) {
+            throw new UnboundedDimensionException("Height cannot be determined for unbounded rows");
+        }
+        return Math.abs(row(end) - row(start)) + 1;
+    }
+
+    /**
+     * Returns {@code true} if a packed pair covers a packed cell on the same sheet.
+     *
+     * <p>Unbounded sides cover every column or row; reversed endpoints are accepted.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @param cell packed cell
+     * @return whether the cell lies within the pair
+     */
+    public static boolean contains(long start, long end, long cell) {
+        if (sheetId(start) != sheetId(cell)) {
+            return false;
+        }
+        return A1Ranges.covers(column(start), column(end), column(cell))
+                && A1Ranges.covers(row(start), row(end), row(cell));
+    }
+
+    /**
+     * Returns {@code true} if a packed pair covers every cell of another pair on the same sheet.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @param otherStart packed start cell of the other pair
+     * @param otherEnd packed end cell of the other pair
+     * @return whether the other pair lies within the first
+     * @see A1Notation#contains(A1Notation)
+     */
+    public static boolean contains(long start, long end, long otherStart, long otherEnd) {
+        return sheetId(start) == sheetId(otherStart)
+                && A1Ranges.covers(column(start), column(end), column(otherStart), column(otherEnd))
+                && A1Ranges.covers(row(start), row(end), row(otherStart), row(otherEnd));
+    }
+
+    /**
+     * Returns {@code true} if two packed pairs on the same sheet share at least one cell.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @param otherStart packed start cell of the other pair
+     * @param otherEnd packed end cell of the other pair
+     * @return whether the pairs overlap
+     * @see A1Notation#intersects(A1Notation)
+     */
+    public static boolean intersects(long start, long end, long otherStart, long otherEnd) {
+        return sheetId(start) == sheetId(otherStart)
+                && A1Ranges.overlaps(column(start), column(end), column(otherStart), column(otherEnd))
+                && A1Ranges.overlaps(row(start), row(end), row(otherStart), row(otherEnd));
+    }
+
+    /**
+     * Sorts packed cells by sheet id, then row-major, the order of their {@code long} values.
+     *
+     * <p>The sort is a stable radix sort, linear in the number of cells. Entries marked with
+     * {@link A1Shifter#DELETED} sort last.
+     *
+     * @param cells packed cells
+     * @param from index of the first cell, inclusive
+     * @param to index of the last cell, exclusive
+     */
+    public static void sort(long[] cells, int from, int to) {
+        RadixSort.sort(cells, from, to);
+    }
+
+    /**
+     * Sorts packed cells by sheet id, then in the given order.
+     *
+     * @param cells packed cells
+     * @param from index of the first cell, inclusive
+     * @param to index of the last cell, exclusive
+     * @param order row-major or column-major
+     * @see #sort(long[], int, int)
+     */
+    public static void sort(long[] cells, int from, int to, CellOrder order) {
+        if (order == CellOrder.ROW_MAJOR) {
+            RadixSort.sort(cells, from, to);
+            return;
+        }
+        Objects.checkFromToIndex(from, to, cells.length);
+        for (int i = from; i < to; i++) {
+            cells[i] = transpose(cells[i]);
+        }
+        RadixSort.sort(cells, from, to);
+        for (int i = from; i < to; i++) {
+            cells[i] = untranspose(cells[i]);
+        }
+    }
+
+    /**
+     * Sorts packed pairs by start cell, then by end cell, both by sheet id and then row-major.
+     *
+     * <p>The sort is a stable radix sort, linear in the number of pairs. Pairs marked with
+     * {@link A1Shifter#DELETED} sort last.
+     *
+     * @param starts packed start cells
+     * @param ends packed end cells, at the same indexes
+     * @param from index of the first pair, inclusive
+     * @param to index of the last pair, exclusive
+     */
+    public static void sort(long[] starts, long[] ends, int from, int to) {
+        RadixSort.sort(starts, ends, from, to);
+    }
+
+    /**
+     * Swaps the row and column fields so that {@code long} order becomes column-major.
+     */
+    private static long transpose(long cell) {
+        if (cell < 0) {
+            return cell;
+        }
+        return cell & ~COORDINATES | (long) column(cell) << ROW_BITS | row(cell);
+    }
+
+    private static long untranspose(long cell) {
+        if (cell < 0) {
+            return cell;
+        }
+        int column = (int) (cell >>> ROW_BITS) & MAX_COLUMN;
+        int row = (int) cell & MAX_ROW;
+        return cell & ~COORDINATES | (long) row << ROW_SHIFT | column;
+    }
+
+    private static boolean hasColumns(long start, long end) {
+        return bounded(column(start), column(end), "columns");
+    }
+
+    private static boolean hasRows(long start, long end) {
+        return bounded(row(start), row(end), "rows");
+    }
+
+    private static boolean bounded(int from, int to, String axis) {
+        if ((from == UNBOUNDED) != (to == UNBOUNDED)) {
+            throw new IllegalArgumentException("Packed pair has half-bounded " + axis);
+        }
+        return from != UNBOUNDED;
+    }
+
+    private static int sheetId(Optional<SheetName> sheet, ToIntFunction<SheetName> sheetIds) {
+        if (sheet.isEmpty()) {
+            return NO_SHEET;
+        }
+        int id = sheetIds.applyAsInt(sheet.get());
+        if (id == NO_SHEET) {
+            throw new IllegalArgumentException("Sheet id must not be " + NO_SHEET + ": " + sheet.get().value());
+        }
+        return id;
+    }
+
+    private static Optional<SheetName> sheetName(int sheetId, IntFunction<SheetName> sheetNames) {
+        if (sheetId == NO_SHEET) {
+            return Optional.empty();
+        }
+        return Optional.of(sheetNames.apply(sheetId));
+    }
+
+    private static int noSheetIds(SheetName sheet) {
+        throw new IllegalArgumentException("No sheet id for sheet: " + sheet.value());
+    }
+
+    private static SheetName noSheetNames(int sheetId) {
+        throw new IllegalArgumentException("No sheet name for sheet id: " + sheetId);
+    }
+}
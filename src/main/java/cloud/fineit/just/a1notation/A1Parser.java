@@ -0,0 +1,593 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+
+import java.util.Optional;
+
+/**
+ * Single-pass A1 parser.
+ *
+ * <p>Classifies and decodes a reference in one left-to-right scan. Three small state machines run
+ * side by side: one for the reference part (cell, range, whole columns, whole rows) and two for
+ * sheet-only input (quoted and unquoted names). Token positions, column indexes and row numbers are
+ * captured while scanning, so neither regular expressions nor intermediate strings are involved.
+ * A {@code $} before a column or row is recorded as an {@link A1Anchors} flag in dedicated states
+ * that references without anchors never enter.
+ *
+ * <p>Instances are not thread-safe; a parser keeps the result of the last {@link #scan} call.
+ */
+final class A1Parser {
+
+    static final int NONE = 0;
+    static final int CELL = 1;
+    static final int RANGE = 2;
+    static final int COLUMNS = 3;
+    static final int ROWS = 4;
+    static final int SHEET = 5;
+
+    private static final int REF_START = 0;
+    private static final int REF_LETTERS = 1;
+    private static final int REF_CELL = 2;
+    private static final int REF_ROW = 3;
+    private static final int REF_CELL_COLON = 4;
+    private static final int REF_COLUMN_COLON = 5;
+    private static final int REF_ROW_COLON = 6;
+    private static final int REF_END_LETTERS = 7;
+    private static final int REF_END_CELL = 8;
+    private static final int REF_END_COLUMN = 9;
+    private static final int REF_END_ROW = 10;
+    private static final int REF_DEAD = 11;
+    private static final int REF_DOLLAR = 12;
+    private static final int REF_CELL_DOLLAR = 13;
+    private static final int REF_END_DOLLAR = 14;
+    private static final int REF_END_COLUMN_DOLLAR = 15;
+    private static final int REF_END_ROW_DOLLAR = 16;
+    private static final int REF_END_CELL_DOLLAR = 17;
+
+    private static final int QUOTE_START = 0;
+    private static final int QUOTE_OPEN = 1;
+    private static final int QUOTE_NAME = 2;
+    private static final int QUOTE_ESCAPE = 3;
+    private static final int QUOTE_CLOSED = 4;
+    private static final int QUOTE_DEAD = 5;
+
+    private static final int ROW_OVERFLOW = -1;
+    private static final int COLUMN_OVERFLOW = -1;
+
+    private CharSequence src;
+    private int kind;
+
+    private int sheetFrom;
+    private int sheetTo;
+
+    private int startLettersFrom;
+    private int startLettersTo;
+    private int startColumn;
+    private int startDigitsFrom;
+    private int startDigitsTo;
+    private int startRow;
+
+    private int endLettersFrom;
+    private int endLettersTo;
+    private int endColumn;
+    private int endDigitsFrom;
+    private int endDigitsTo;
+    private int endRow;
+
+    private int anchors;
+
+    /**
+     * Parses {@code [from, to)} of the source and returns an A1Notation of the appropriate kind.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    static A1Notation parse(CharSequence src, int from, int to) {
+        return parse(src, from, to, null);
+    }
+
+    /**
+     * Parses {@code [from, to)} of the source, resolving the sheet name through a registry.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @param sheets registry to intern the sheet name into, or {@code null}
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    static A1Notation parse(CharSequence src, int from, int to, SheetRegistry sheets) {
+        return new A1Parser().read(src, from, to, sheets);
+    }
+
+    /**
+     * Parses {@code [from, to)} of the source, reusing this parser.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @param sheets registry to intern the sheet name into, or {@code null}
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    A1Notation read(CharSequence src, int from, int to, SheetRegistry sheets) {
+        if (from == to) {
+            throw new IllegalArgumentException("A1 notation must not be empty");
+        }
+        if (!scan(src, from, to)) {
+            throw new IllegalArgumentException("Unsupported A1 notation: " + src.subSequence(from, to));
+        }
+        return toNotation(sheets);
+    }
+
+    /**
+     * Scans {@code [from, to)} of the source and records the kind and positions of the reference.
+     *
+     * <p>The part before the first {@code '!'} is taken as the sheet name. Without a separator the
+     * input is either a reference part or a sheet-only name; a valid cell wins over an unquoted
+     * sheet name.
+     *
+     * @param src source to scan
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return {@code true} if the input is a supported A1 reference
+     */
+    boolean scan(CharSequence src, int from, int to) {
+        this.src = src;
+        this.kind = NONE;
+        this.sheetFrom = -1;
+        this.sheetTo = -1;
+        this.anchors = A1Anchors.NONE;
+
+        int ref = REF_START;
+        int quote = QUOTE_START;
+        boolean unquoted = from < to && isSheetStart(src.charAt(from));
+        int i = from;
+        for (; i < to; i++) {
+            char c = src.charAt(i);
+            if (c == '!') {
+                break;
+            }
+            ref = refStep(ref, c, i);
+            quote = quoteStep(quote, c);
+            unquoted = unquoted && isSheetChar(c);
+        }
+
+        if (i < to) {
+            sheetFrom = from;
+            sheetTo = i;
+            anchors = A1Anchors.NONE;
+            ref = REF_START;
+            for (int j = i + 1; j < to && ref != REF_DEAD; j++) {
+                ref = refStep(ref, src.charAt(j), j);
+            }
+            kind = refKind(ref);
+            return kind != NONE;
+        }
+
+        if (quote == QUOTE_CLOSED) {
+            kind = SHEET;
+        } else {
+            kind = refKind(ref);
+            if (kind == NONE && unquoted) {
+                kind = SHEET;
+            }
+        }
+        if (kind == SHEET) {
+            sheetFrom = from;
+            sheetTo = to;
+        }
+        return kind != NONE;
+    }
+
+    /**
+     * Returns the kind recorded by the last successful {@link #scan}.
+     */
+    int kind() {
+        return kind;
+    }
+
+    /**
+     * Returns the {@link A1Anchors} flags recorded by the last successful {@link #scan}.
+     */
+    int anchors() {
+        return anchors;
+    }
+
+    /**
+     * Returns the first column of the reference recorded by the last successful {@link #scan},
+     * {@link A1Packed#UNBOUNDED} for whole rows and sheets, or a negative value if it overflows.
+     */
+    int left() {
+        return kind == CELL || kind == RANGE || kind == COLUMNS ? startColumn : A1Packed.UNBOUNDED;
+    }
+
+    /**
+     * Returns the first row of the reference recorded by the last successful {@link #scan},
+     * {@link A1Packed#UNBOUNDED} for whole columns and sheets, or a negative value if it overflows.
+     */
+    int top() {
+        return kind == CELL || kind == RANGE || kind == ROWS ? startRow : A1Packed.UNBOUNDED;
+    }
+
+    /**
+     * Returns the last column of the reference recorded by the last successful {@link #scan}.
+     *
+     * @see #left()
+     */
+    int right() {
+        return kind == CELL ? startColumn : kind == RANGE || kind == COLUMNS ? endColumn : A1Packed.UNBOUNDED;
+    }
+
+    /**
+     * Returns the last row of the reference recorded by the last successful {@link #scan}.
+     *
+     * @see #top()
+     */
+    int bottom() {
+        return kind == CELL ? startRow : kind == RANGE || kind == ROWS ? endRow : A1Packed.UNBOUNDED;
+    }
+
+    /**
+     * Returns whether no column or row of the reference recorded by the last successful
+     * {@link #scan} overflows.
+     */
+    boolean inRange() {
+        return left() >= 0 && top() >= 0 && right() >= 0 && bottom() >= 0;
+    }
+
+    /**
+     * Returns whether the reference recorded by the last successful {@link #scan} has a sheet name.
+     */
+    boolean hasSheet() {
+        return sheetFrom >= 0;
+    }
+
+    /**
+     * Builds the notation recorded by the last successful {@link #scan}.
+     *
+     * @param sheets registry to intern the sheet name into, or {@code null}
+     * @return A1Notation instance
+     * @throws IllegalArgumentException if the sheet name is empty or a column or row overflows
+     */
+    A1Notation toNotation(SheetRegistry sheets) {
+        if (kind == SHEET) {
+            return new A1SheetRef(sheetName(sheets));
+        }
+        Optional<SheetName> sheet = sheetFrom < 0 ? Optional.empty() : Optional.of(sheetName(sheets));
+        switch (kind) {
+            case CELL:
+                return new A1CellRef(sheet, startColumn(), startRow(), anchors);
+            case RANGE:
+                A1Column left = startColumn();
+                A1Column right = endColumn();
+                return new A1RangeRef(sheet, left, startRow(), right, endRow(), anchors);
+            case COLUMNS:
+                return new A1RangeRef(sheet, startColumn(), endColumn(), anchors);
+            case ROWS:
+                return new A1RangeRef(sheet, startRow(), endRow(), anchors);
+            default:
+                throw new IllegalStateException("Nothing parsed");
+        }
+    }
+
+    /**
+     * Returns the sheet id of the reference recorded by the last successful {@link #scan},
+     * registering the sheet name if needed.
+     *
+     * @param sheets registry assigning sheet ids
+     * @return positive sheet id, or {@link A1Packed#NO_SHEET} without a sheet name
+     * @throws IllegalArgumentException if the sheet name is empty
+     */
+    int sheetId(SheetRegistry sheets) {
+        if (sheetFrom < 0) {
+            return A1Packed.NO_SHEET;
+        }
+        int id = sheets.idOf(src, sheetFrom, sheetTo);
+        return id != SheetRegistry.NOT_FOUND ? id : sheets.register(SheetName.parse(src, sheetFrom, sheetTo));
+    }
+
+    /**
+     * Packs the start cell of the reference recorded by the last successful {@link #scan}.
+     *
+     * @param sheetId sheet id to pack
+     * @return packed start cell
+     * @throws IllegalArgumentException if a row number overflows or a part does not fit
+     * @see A1Packed#encodeStart(A1Notation)
+     */
+    long packedStart(int sheetId) {
+        switch (kind) {
+            case CELL:
+            case RANGE:
+                return A1Packed.pack(sheetId, checkedStartColumn(), checkedRow(startRow, startDigitsFrom, startDigitsTo));
+            case COLUMNS:
+                return A1Packed.pack(sheetId, checkedStartColumn(), A1Packed.UNBOUNDED);
+            case ROWS:
+                return A1Packed.pack(sheetId, A1Packed.UNBOUNDED, checkedRow(startRow, startDigitsFrom, startDigitsTo));
+            case SHEET:
+                return A1Packed.pack(sheetId, A1Packed.UNBOUNDED, A1Packed.UNBOUNDED);
+            default:
+                throw new IllegalStateException("Nothing parsed");
+        }
+    }
+
+    /**
+     * Packs the end cell of the reference recorded by the last successful {@link #scan}.
+     *
+     * <p>For a cell the end cell equals the start cell.
+     *
+     * @param sheetId sheet id to pack
+     * @return packed end cell
+     * @throws IllegalArgumentException if a row number overflows or a part does not fit
+     * @see A1Packed#encodeEnd(A1Notation)
+     */
+    long packedEnd(int sheetId) {
+        switch (kind) {
+            case RANGE:
+                return A1Packed.pack(sheetId, checkedEndColumn(), checkedRow(endRow, endDigitsFrom, endDigitsTo));
+            case COLUMNS:
+                return A1Packed.pack(sheetId, checkedEndColumn(), A1Packed.UNBOUNDED);
+            case ROWS:
+                return A1Packed.pack(sheetId, A1Packed.UNBOUNDED, checkedRow(endRow, endDigitsFrom, endDigitsTo));
+            default:
+                return packedStart(sheetId);
+        }
+    }
+
+    private SheetName sheetName(SheetRegistry sheets) {
+        return sheets == null
+                ? SheetName.parse(src, sheetFrom, sheetTo)
+                : sheets.intern(src, sheetFrom, sheetTo);
+    }
+
+    private A1Column startColumn() {
+        return A1Column.of(src, startLettersFrom, startLettersTo, checkedStartColumn());
+    }
+
+    private A1Column endColumn() {
+        return A1Column.of(src, endLettersFrom, endLettersTo, checkedEndColumn());
+    }
+
+    private int checkedStartColumn() {
+        return checkedColumn(startColumn, startLettersFrom, startLettersTo);
+    }
+
+    private int checkedEndColumn() {
+        return checkedColumn(endColumn, endLettersFrom, endLettersTo);
+    }
+
+    private int checkedColumn(int column, int from, int to) {
+        if (column == COLUMN_OVERFLOW) {
+            throw new IllegalArgumentException("Column letters out of range: " + src.subSequence(from, to));
+        }
+        return column;
+    }
+
+    private A1Row startRow() {
+        return new A1Row(checkedRow(startRow, startDigitsFrom, startDigitsTo));
+    }
+
+    private A1Row endRow() {
+        return new A1Row(checkedRow(endRow, endDigitsFrom, endDigitsTo));
+    }
+
+    private int checkedRow(int row, int from, int to) {
+        if (row == ROW_OVERFLOW) {
+            throw new NumberFormatException("For input string: \"" + src.subSequence(from, to) + "\"");
+        }
+        return row;
+    }
+
+    private int refStep(int state, char c, int i) {
+        switch (state) {
+            case REF_START:
+                if (isLetter(c)) {
+                    startLettersFrom = i;
+                    startLettersTo = i + 1;
+                    startColumn = c - 'A' + 1;
+                    return REF_LETTERS;
+                }
+                if (isNonZeroDigit(c)) {
+                    startDigitsFrom = i;
+                    startDigitsTo = i + 1;
+                    startRow = c - '0';
+                    return REF_ROW;
+                }
+                return c == '$' ? REF_DOLLAR : REF_DEAD;
+            case REF_DOLLAR:
+                if (isLetter(c)) {
+                    anchors |= A1Anchors.LEFT;
+                    return refStep(REF_START, c, i);
+                }
+                if (isNonZeroDigit(c)) {
+                    anchors |= A1Anchors.TOP;
+                    return refStep(REF_START, c, i);
+                }
+                return REF_DEAD;
+            case REF_LETTERS:
+                if (isLetter(c)) {
+                    startLettersTo = i + 1;
+                    startColumn = appendLetter(startColumn, c);
+                    return REF_LETTERS;
+                }
+                if (isNonZeroDigit(c)) {
+                    startDigitsFrom = i;
+                    startDigitsTo = i + 1;
+                    startRow = c - '0';
+                    return REF_CELL;
+                }
+                if (c == '$') {
+                    return REF_CELL_DOLLAR;
+                }
+                return c == ':' ? REF_COLUMN_COLON : REF_DEAD;
+            case REF_CELL_DOLLAR:
+                if (isNonZeroDigit(c)) {
+                    anchors |= A1Anchors.TOP;
+                    return refStep(REF_LETTERS, c, i);
+                }
+                return REF_DEAD;
+            case REF_CELL:
+                if (isDigit(c)) {
+                    startDigitsTo = i + 1;
+                    startRow = appendDigit(startRow, c);
+                    return REF_CELL;
+                }
+                return c == ':' ? REF_CELL_COLON : REF_DEAD;
+            case REF_ROW:
+                if (isDigit(c)) {
+                    startDigitsTo = i + 1;
+                    startRow = appendDigit(startRow, c);
+                    return REF_ROW;
+                }
+                return c == ':' ? REF_ROW_COLON : REF_DEAD;
+            case REF_CELL_COLON:
+            case REF_COLUMN_COLON:
+                if (isLetter(c)) {
+                    endLettersFrom = i;
+                    endLettersTo = i + 1;
+                    endColumn = c - 'A' + 1;
+                    return state == REF_CELL_COLON ? REF_END_LETTERS : REF_END_COLUMN;
+                }
+                if (c == '$') {
+                    return state == REF_CELL_COLON ? REF_END_DOLLAR : REF_END_COLUMN_DOLLAR;
+                }
+                return REF_DEAD;
+            case REF_END_DOLLAR:
+            case REF_END_COLUMN_DOLLAR:
+                if (isLetter(c)) {
+                    anchors |= A1Anchors.RIGHT;
+                    return refStep(state == REF_END_DOLLAR ? REF_CELL_COLON : REF_COLUMN_COLON, c, i);
+                }
+                return REF_DEAD;
+            case REF_END_LETTERS:
+            case REF_END_COLUMN:
+                if (isLetter(c)) {
+                    endLettersTo = i + 1;
+                    endColumn = appendLetter(endColumn, c);
+                    return state;
+                }
+                if (state == REF_END_LETTERS && isNonZeroDigit(c)) {
+                    endDigitsFrom = i;
+                    endDigitsTo = i + 1;
+                    endRow = c - '0';
+                    return REF_END_CELL;
+                }
+                return state == REF_END_LETTERS && c == '$' ? REF_END_CELL_DOLLAR : REF_DEAD;
+            case REF_END_CELL_DOLLAR:
+                if (isNonZeroDigit(c)) {
+                    anchors |= A1Anchors.BOTTOM;
+                    return refStep(REF_END_LETTERS, c, i);
+                }
+                return REF_DEAD;
+            case REF_ROW_COLON:
+                if (isNonZeroDigit(c)) {
+                    endDigitsFrom = i;
+                    endDigitsTo = i + 1;
+                    endRow = c - '0';
+                    return REF_END_ROW;
+                }
+                return c == '$' ? REF_END_ROW_DOLLAR : REF_DEAD;
+            case REF_END_ROW_DOLLAR:
+                if (isNonZeroDigit(c)) {
+                    anchors |= A1Anchors.BOTTOM;
+                    return refStep(REF_ROW_COLON, c, i);
+                }
+                return REF_DEAD;
+            case REF_END_CELL:
+            case REF_END_ROW:
+                if (isDigit(c)) {
+                    endDigitsTo = i + 1;
+                    endRow = appendDigit(endRow, c);
+                    return state;
+                }
+                return REF_DEAD;
+            default:
+                return REF_DEAD;
+        }
+    }
+
+    private static int refKind(int state) {
+        switch (state) {
+            case REF_CELL:
+                return CELL;
+            case REF_END_CELL:
+                return RANGE;
+            case REF_END_COLUMN:
+                return COLUMNS;
+            case REF_END_ROW:
+                return ROWS;
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * Advances the quoted sheet state machine, equivalent to {@code '(?:[^'\\]|\\')+'}.
+     */
+    private static int quoteStep(int state, char c) {
+        switch (state) {
+            case QUOTE_START:
+                return c == '\'' ? QUOTE_OPEN : QUOTE_DEAD;
+            case QUOTE_OPEN:
+                if (c == '\'') {
+                    return QUOTE_DEAD;
+                }
+                return c == '\\' ? QUOTE_ESCAPE : QUOTE_NAME;
+            case QUOTE_NAME:
+                if (c == '\'') {
+                    return QUOTE_CLOSED;
+                }
+                return c == '\\' ? QUOTE_ESCAPE : QUOTE_NAME;
+            case QUOTE_ESCAPE:
+                return c == '\'' ? QUOTE_NAME : QUOTE_DEAD;
+            default:
+                return QUOTE_DEAD;
+        }
+    }
+
+    private static int appendLetter(int value, char c) {
+        if (value == COLUMN_OVERFLOW) {
+            return COLUMN_OVERFLOW;
+        }
+        int letter = c - 'A' + 1;
+        if (value > (Integer.MAX_VALUE - letter) / 26) {
+            return COLUMN_OVERFLOW;
+        }
+        return value * 26 + letter;
+    }
+
+    private static int appendDigit(int value, char c) {
+        if (value == ROW_OVERFLOW) {
+            return ROW_OVERFLOW;
+        }
+        int digit = c - '0';
+        if (value > (Integer.MAX_VALUE - digit) / 10) {
+            return ROW_OVERFLOW;
+        }
+        return value * 10 + digit;
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNonZeroDigit(char c) {
+        return c >= '1' && c <= '9';
+    }
+
+    private static boolean isSheetStart(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+    }
+
+    private static boolean isSheetChar(char c) {
+        return isSheetStart(c) || isDigit(c) || c == ' ';
+    }
+}
@@ -0,0 +1,86 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.r1c1notation.R1C1Notation;
+
+/**
+ * Conversions between A1 and R1C1 references through integer coordinates.
+ *
+ * <p>Both notations number rows and columns from 1, so a conversion copies coordinates and resolves
+ * relative ones against the anchor cell without formatting or parsing any string. Against an anchor
+ * cell, {@code $} anchored coordinates correspond to absolute R1C1 coordinates and the others to
+ * relative ones, as when formulas are copied.
+ */
+final class A1R1C1 {
+
+    private A1R1C1() {
+    }
+
+    /**
+     * Converts an R1C1 reference, resolving relative coordinates against the anchor cell.
+     *
+     * @param anchorAbsolute whether absolute coordinates become {@code $} anchors, as they stay
+     *                       fixed when a formula is copied
+     */
+    static A1Notation fromR1C1(R1C1Notation notation, int anchorColumn, int anchorRow, boolean anchorAbsolute) {
+        int flags = notation.relativeFlags();
+        int anchors = A1Anchors.NONE;
+        if (anchorAbsolute) {
+            anchors = ((flags & R1C1Notation.LEFT_RELATIVE) == 0 ? A1Anchors.LEFT : 0)
+                    | ((flags & R1C1Notation.TOP_RELATIVE) == 0 ? A1Anchors.TOP : 0)
+                    | ((flags & R1C1Notation.RIGHT_RELATIVE) == 0 ? A1Anchors.RIGHT : 0)
+                    | ((flags & R1C1Notation.BOTTOM_RELATIVE) == 0 ? A1Anchors.BOTTOM : 0);
+        }
+        return A1Ranges.create(notation.sheet(),
+                coordinate(notation, notation.left(), flags & R1C1Notation.LEFT_RELATIVE, anchorColumn),
+                coordinate(notation, notation.top(), flags & R1C1Notation.TOP_RELATIVE, anchorRow),
+                coordinate(notation, notation.right(), flags & R1C1Notation.RIGHT_RELATIVE, anchorColumn),
+                coordinate(notation, notation.bottom(), flags & R1C1Notation.BOTTOM_RELATIVE, anchorRow),
+                notation.isCell(), anchors);
+    }
+
+    private static int coordinate(R1C1Notation notation, int value, int relative, int anchor) {
+        if (relative == 0) {
+            return value;
+        }
+        long resolved = (long) anchor + value;
+        if (resolved < 1 || resolved > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("R1C1 reference resolves outside of the sheet: " + notation);
+        }
+        return (int) resolved;
+    }
+
+    static R1C1Notation toR1C1(Bounds bounds) {
+        boolean columns = bounds.left() != A1Packed.UNBOUNDED;
+        boolean rows = bounds.top() != A1Packed.UNBOUNDED;
+        R1C1Notation notation;
+        if (bounds instanceof A1CellRef) {
+            notation = R1C1Notation.cell(bounds.left(), bounds.top());
+        } else if (columns && rows) {
+            notation = R1C1Notation.range(bounds.left(), bounds.top(), bounds.right(), bounds.bottom());
+        } else if (columns) {
+            notation = R1C1Notation.columns(bounds.left(), bounds.right());
+        } else if (rows) {
+            notation = R1C1Notation.rows(bounds.top(), bounds.bottom());
+        } else {
+            return R1C1Notation.sheet(bounds.sheet().orElseThrow());
+        }
+        return bounds.sheet().isPresent() ? notation.withSheet(bounds.sheet().get()) : notation;
+    }
+
+    /**
+     * Converts a reference to R1C1 notation relative to the anchor cell, keeping coordinates with
+     * {@code $} anchors absolute.
+     */
+    static R1C1Notation toR1C1(A1Notation notation, int anchorColumn, int anchorRow) {
+        int anchors = notation.anchors();
+        int relative = ((anchors & A1Anchors.LEFT) == 0 ? R1C1Notation.LEFT_RELATIVE : 0)
+                | ((anchors & A1Anchors.TOP) == 0 ? R1C1Notation.TOP_RELATIVE : 0)
+                | ((anchors & A1Anchors.RIGHT) == 0 ? R1C1Notation.RIGHT_RELATIVE : 0)
+                | ((anchors & A1Anchors.BOTTOM) == 0 ? R1C1Notation.BOTTOM_RELATIVE : 0);
+        if (notation instanceof A1CellRef) {
+            relative &= R1C1Notation.TOP_RELATIVE | R1C1Notation.LEFT_RELATIVE;
+            relative |= relative << 2;
+        }
+        return toR1C1(Bounds.of(notation)).relativeTo(anchorColumn, anchorRow, relative);
+    }
+}
@@ -0,0 +1,283 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A1RangeCoalescer merges references into a small set of non-overlapping rectangles covering exactly
+ * the same cells.
+ *
+ * <p>References are grouped by sheet. Each group is swept top to bottom over the rows where a
+ * reference starts or ends. Within every band of rows between two such boundaries the column
+ * intervals of the active references are united, joining adjacent columns, and an interval that
+ * is identical in consecutive bands grows downwards instead of starting a new rectangle. Adjacent
+ * cells written one by one thus collapse into a few ranges:
+ *
+ * <pre>{@code
+ * A1RangeCoalescer.coalesce(List.of(A1Notation.of("A1"), A1Notation.of("B1"),
+ *         A1Notation.of("A2"), A1Notation.of("B2"), A1Notation.of("D2")));
+ * // [A1:B2, D2]
+ * }</pre>
+ *
+ * <p>The sweep takes {@code O(n log n)} for inputs where each row band holds few references, such as
+ * millions of individual cells. The result is minimal for unions of full-width row bands and close
+ * to minimal otherwise. Whole-row, whole-column and sheet-only references are unbounded on the
+ * missing axis and are returned as such when a rectangle spans a whole axis.
+ */
+public final class A1RangeCoalescer {
+
+    private static final int UNBOUNDED_END = Integer.MAX_VALUE;
+
+    private A1RangeCoalescer() {
+    }
+
+    /**
+     * Merges references into non-overlapping rectangles.
+     *
+     * <p>Rectangles are ordered by sheet in order of first appearance, then by top row and left
+     * column. Single cells are returned as cells and all endpoints are ordered.
+     *
+     * @param notations cells, ranges, whole rows, whole columns or sheet-only references
+     * @return rectangles covering exactly the cells of the input
+     * @throws IllegalArgumentException if a notation is implemented outside of this package
+     */
+    public static List<A1Notation> coalesce(Collection<? extends A1Notation> notations) {
+        List<A1Notation> result = new ArrayList<>();
+        for (List<A1Notation> rectangles : coalesceBySheet(notations).values()) {
+            result.addAll(rectangles);
+        }
+        return result;
+    }
+
+    /**
+     * Merges references into non-overlapping rectangles per sheet.
+     *
+     * @param notations cells, ranges, whole rows, whole columns or sheet-only references
+     * @return rectangles per sheet in order of first appearance, keyed by an empty sheet for
+     *         references without a sheet name
+     * @throws IllegalArgumentException if a notation is implemented outside of this package
+     * @see #coalesce(Collection)
+     */
+    public static Map<Optional<SheetName>, List<A1Notation>> coalesceBySheet(
+            Collection<? extends A1Notation> notations) {
+        Map<Optional<SheetName>, Rectangles> sheets = new LinkedHashMap<>();
+        for (A1Notation notation : notations) {
+            Bounds bounds = Bounds.of(notation);
+            sheets.computeIfAbsent(bounds.sheet(), sheet -> new Rectangles()).add(bounds);
+        }
+        Map<Optional<SheetName>, List<A1Notation>> result = new LinkedHashMap<>(sheets.size() * 4 / 3 + 1);
+        for (Map.Entry<Optional<SheetName>, Rectangles> entry : sheets.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sweep().toNotations(entry.getKey()));
+        }
+        return result;
+    }
+
+    /**
+     * Merges single-row runs of cells into non-overlapping rectangles.
+     *
+     * @param sheet sheet of the runs
+     * @param rows 1-based row of each run
+     * @param lefts first column of each run
+     * @param rights last column of each run
+     * @param count number of runs
+     * @return rectangles covering exactly the cells of the runs
+     */
+    static List<A1Notation> coalesceRows(Optional<SheetName> sheet, int[] rows, int[] lefts, int[] rights,
+                                         int count) {
+        Rectangles runs = new Rectangles();
+        for (int i = 0; i < count; i++) {
+            runs.add(lefts[i], rows[i], rights[i], rows[i]);
+        }
+        return runs.sweep().toNotations(sheet);
+    }
+
+    /**
+     * Growable rectangles with ordered, inclusive endpoints; unbounded axes span
+     * {@code [1, Integer.MAX_VALUE]}.
+     */
+    private static final class Rectangles {
+
+        int[] lefts = new int[16];
+        int[] rights = new int[16];
+        int[] tops = new int[16];
+        int[] bottoms = new int[16];
+        int count;
+
+        void add(Bounds bounds) {
+            boolean columns = bounds.left() != A1Packed.UNBOUNDED;
+            boolean rows = bounds.top() != A1Packed.UNBOUNDED;
+            add(columns ? Math.min(bounds.left(), bounds.right()) : 1,
+                    rows ? Math.min(bounds.top(), bounds.bottom()) : 1,
+                    columns ? Math.max(bounds.left(), bounds.right()) : UNBOUNDED_END,
+                    rows ? Math.max(bounds.top(), bounds.bottom()) : UNBOUNDED_END);
+        }
+
+        void add(int left, int top, int right, int bottom) {
+            if (count == lefts.length) {
+                int capacity = count * 2;
+                lefts = Arrays.copyOf(lefts, capacity);
+                rights = Arrays.copyOf(rights, capacity);
+                tops = Arrays.copyOf(tops, capacity);
+                bottoms = Arrays.copyOf(bottoms, capacity);
+            }
+            lefts[count] = left;
+            tops[count] = top;
+            rights[count] = right;
+            bottoms[count] = bottom;
+            count++;
+        }
+
+        /**
+         * Sweeps the rows top to bottom and returns the merged rectangles.
+         */
+        Rectangles sweep() {
+            long[] starts = new long[count];
+            long[] ends = new long[count];
+            for (int i = 0; i < count; i++) {
+                starts[i] = (long) tops[i] << 32 | i;
+                ends[i] = (long) bottoms[i] << 32 | i;
+            }
+            Arrays.sort(starts);
+            Arrays.sort(ends);
+
+            Rectangles merged = new Rectangles();
+            int[] active = new int[16];
+            int activeCount = 0;
+            long[] keys = new long[16];
+            Intervals open = new Intervals();
+            Intervals band = new Intervals();
+            int nextStart = 0;
+            int nextEnd = 0;
+            while (nextEnd < count) {
+                long row = nextStart < count
+                        ? Math.min(starts[nextStart] >>> 32, (ends[nextEnd] >>> 32) + 1)
+                        : (ends[nextEnd] >>> 32) + 1;
+                while (nextEnd < count && (ends[nextEnd] >>> 32) + 1 == row) {
+                    nextEnd++;
+                }
+                int kept = 0;
+                for (int i = 0; i < activeCount; i++) {
+                    if (bottoms[active[i]] >= row) {
+                        active[kept++] = active[i];
+                    }
+                }
+                activeCount = kept;
+                while (nextStart < count && starts[nextStart] >>> 32 == row) {
+                    if (activeCount == active.length) {
+                        active = Arrays.copyOf(active, activeCount * 2);
+                    }
+                    active[activeCount++] = (int) starts[nextStart++];
+                }
+
+                if (keys.length < activeCount) {
+                    keys = new long[active.length];
+                }
+                for (int i = 0; i < activeCount; i++) {
+                    keys[i] = (long) lefts[active[i]] << 32 | active[i];
+                }
+                Arrays.sort(keys, 0, activeCount);
+                band.clear();
+                for (int i = 0; i < activeCount; i++) {
+                    int index = (int) keys[i];
+                    band.union(lefts[index], rights[index]);
+                }
+                advance(open, band, row, merged);
+                Intervals swap = open;
+                open = band;
+                band = swap;
+            }
+            return merged;
+        }
+
+        /**
+         * Carries intervals present in both the open and the next band, closes the others at the
+         * row above and starts new ones at the given row.
+         */
+        private static void advance(Intervals open, Intervals band, long row, Rectangles merged) {
+            int i = 0;
+            int j = 0;
+            while (i < open.count || j < band.count) {
+                int compare = i == open.count ? 1
+                        : j == band.count ? -1
+                        : compareIntervals(open, i, band, j);
+                if (compare == 0) {
+                    band.tops[j++] = open.tops[i++];
+                } else if (compare < 0) {
+                    merged.add(open.lefts[i], open.tops[i], open.rights[i], (int) (row - 1));
+                    i++;
+                } else {
+                    band.tops[j++] = (int) row;
+                }
+            }
+        }
+
+        private static int compareIntervals(Intervals a, int i, Intervals b, int j) {
+            if (a.lefts[i] != b.lefts[j]) {
+                return Integer.compare(a.lefts[i], b.lefts[j]);
+            }
+            return Integer.compare(a.rights[i], b.rights[j]);
+        }
+
+        List<A1Notation> toNotations(Optional<SheetName> sheet) {
+            long[] order = new long[count];
+            long[] indexes = new long[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = (long) tops[i] << 32 | lefts[i];
+                indexes[i] = i;
+            }
+            RadixSort.sort(order, indexes, 0, count);
+            List<A1Notation> result = new ArrayList<>(count);
+            for (long index : indexes) {
+                int i = (int) index;
+                boolean columns = lefts[i] != 1 || rights[i] != UNBOUNDED_END;
+                boolean rows = tops[i] != 1 || bottoms[i] != UNBOUNDED_END;
+                result.add(A1Ranges.create(sheet,
+                        columns ? lefts[i] : A1Packed.UNBOUNDED, rows ? tops[i] : A1Packed.UNBOUNDED,
+                        columns ? rights[i] : A1Packed.UNBOUNDED, rows ? bottoms[i] : A1Packed.UNBOUNDED,
+                        true));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Sorted, disjoint and non-adjacent column intervals of one row band, each with the row where
+     * its rectangle started.
+     */
+    private static final class Intervals {
+
+        int[] lefts = new int[16];
+        int[] rights = new int[16];
+        int[] tops = new int[16];
+        int count;
+
+        void clear() {
+            count = 0;
+        }
+
+        /**
+         * Adds an interval whose left column is not smaller than that of any interval added before.
+         */
+        void union(int left, int right) {
+            if (count > 0 && (long) rights[count - 1] + 1 >= left) {
+                rights[count - 1] = Math.max(rights[count - 1], right);
+                return;
+            }
+            if (count == lefts.length) {
+                lefts = Arrays.copyOf(lefts, count * 2);
+                rights = Arrays.copyOf(rights, count * 2);
+                tops = Arrays.copyOf(tops, count * 2);
+            }
+            lefts[count] = left;
+            rights[count] = right;
+            count++;
+        }
+    }
+}
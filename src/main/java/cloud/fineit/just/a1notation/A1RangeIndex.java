@@ -0,0 +1,370 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A1RangeIndex answers which references cover a cell or overlap a range.
+ *
+ * <p>References are grouped by sheet and each group is bulk loaded into a static R-tree with
+ * Sort-Tile-Recursive (STR) packing: entries are sorted into vertical slices by the center of their
+ * columns, each slice is sorted by the center of its rows, and runs of {@value #NODE_SIZE} entries
+ * form the leaves. Every upper level groups runs of nodes of the level below. The tree is stored
+ * as flat {@code int} arrays of bounding boxes, so construction takes {@code O(n log n)} and a query
+ * visits {@code O(log n + k)} nodes for well-distributed ranges.
+ *
+ * <p>Whole-column references like {@code A:C} are unbounded on the row axis, whole-row references
+ * like {@code 1:3} on the column axis, and sheet-only references on both; an unbounded axis spans
+ * every column or row. Sheet names match ignoring case, as in {@link SheetRegistry}; references
+ * without a sheet name only match queries without one. Reversed endpoints like {@code F10:C2} are
+ * accepted.
+ *
+ * <p>An index is immutable and thread-safe.
+ *
+ * <pre>{@code
+ * A1RangeIndex<Rule> index = A1RangeIndex.<Rule>builder()
+ *         .add(A1Notation.of("Data!A1:C10"), bold)
+ *         .add(A1Notation.of("Data!B:B"), currency)
+ *         .build();
+ * List<Rule> rules = index.containing(A1Notation.of("Data!B2"));
+ * }</pre>
+ *
+ * @param <T> type of values stored with the references
+ */
+public final class A1RangeIndex<T> {
+
+    /**
+     * Maximum number of children of a tree node.
+     */
+    static final int NODE_SIZE = 16;
+
+    private final Tree unscoped;
+    private final SheetRegistry sheets;
+    private final Tree[] scoped;
+    private final int size;
+
+    private A1RangeIndex(Tree unscoped, SheetRegistry sheets, Tree[] scoped, int size) {
+        this.unscoped = unscoped;
+        this.sheets = sheets;
+        this.scoped = scoped;
+        this.size = size;
+    }
+
+    /**
+     * Returns a builder collecting references and their values.
+     *
+     * @param <T> type of values stored with the references
+     * @return builder instance
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns an index of the given references, each stored as its own value.
+     *
+     * @param notations references to index
+     * @return index instance
+     * @throws IllegalArgumentException if a notation is implemented outside of this package
+     */
+    public static A1RangeIndex<A1Notation> of(Collection<? extends A1Notation> notations) {
+        Builder<A1Notation> builder = builder();
+        for (A1Notation notation : notations) {
+            builder.add(notation, notation);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of indexed references.
+     *
+     * @return number of references
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the values of all references covering the given cell.
+     *
+     * @param cell cell reference
+     * @return values in no particular order
+     * @throws IllegalArgumentException if the notation is not a cell
+     */
+    public List<T> containing(A1Notation cell) {
+        List<T> result = new ArrayList<>();
+        forEachContaining(cell, result::add);
+        return result;
+    }
+
+    /**
+     * Passes the values of all references covering the given cell to the consumer.
+     *
+     * @param cell cell reference
+     * @param consumer receives the values in no particular order
+     * @throws IllegalArgumentException if the notation is not a cell
+     */
+    public void forEachContaining(A1Notation cell, Consumer<? super T> consumer) {
+        if (!(cell instanceof A1CellRef)) {
+            throw new IllegalArgumentException("Not a cell reference: " + cell);
+        }
+        Bounds bounds = (Bounds) cell;
+        forEachContaining(bounds.sheet().orElse(null), bounds.left(), bounds.top(), consumer);
+    }
+
+    /**
+     * Passes the values of all references covering the given cell to the consumer.
+     *
+     * @param sheet sheet name, or {@code null} for references without one
+     * @param column 1-based column
+     * @param row 1-based row
+     * @param consumer receives the values in no particular order
+     */
+    public void forEachContaining(SheetName sheet, int column, int row, Consumer<? super T> consumer) {
+        Tree tree = tree(sheet);
+        if (tree != null) {
+            tree.search(column, row, column, row, consumer);
+        }
+    }
+
+    /**
+     * Returns the values of all references sharing at least one cell with the given window.
+     *
+     * @param window any reference; unbounded axes span every column or row
+     * @return values in no particular order
+     * @throws IllegalArgumentException if the notation is implemented outside of this package
+     */
+    public List<T> intersecting(A1Notation window) {
+        List<T> result = new ArrayList<>();
+        forEachIntersecting(window, result::add);
+        return result;
+    }
+
+    /**
+     * Passes the values of all references sharing at least one cell with the given window to the
+     * consumer.
+     *
+     * @param window any reference; unbounded axes span every column or row
+     * @param consumer receives the values in no particular order
+     * @throws IllegalArgumentException if the notation is implemented outside of this package
+     */
+    public void forEachIntersecting(A1Notation window, Consumer<? super T> consumer) {
+        Bounds bounds = Bounds.of(window);
+        Tree tree = tree(bounds.sheet().orElse(null));
+        if (tree != null) {
+            tree.search(low(bounds.left(), bounds.right()), low(bounds.top(), bounds.bottom()),
+                    high(bounds.left(), bounds.right()), high(bounds.top(), bounds.bottom()), consumer);
+        }
+    }
+
+    private Tree tree(SheetName sheet) {
+        if (sheet == null) {
+            return unscoped;
+        }
+        int id = sheets.idOf(sheet);
+        return id > 0 && id < scoped.length ? scoped[id] : null;
+    }
+
+    private static int low(int from, int to) {
+        return from == A1Packed.UNBOUNDED ? 1 : Math.min(from, to);
+    }
+
+    private static int high(int from, int to) {
+        return from == A1Packed.UNBOUNDED ? Integer.MAX_VALUE : Math.max(from, to);
+    }
+
+    /**
+     * Builder collects references and their values and bulk loads them into an index.
+     *
+     * @param <T> type of values stored with the references
+     */
+    public static final class Builder<T> {
+
+        private final Entries unscoped = new Entries();
+        private final SheetRegistry sheets = new SheetRegistry();
+        private final List<Entries> scoped = new ArrayList<>();
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a reference with its value.
+         *
+         * @param notation cell, range, whole-row, whole-column or sheet-only reference
+         * @param value value to return from queries matching the reference
+         * @return this builder
+         * @throws IllegalArgumentException if the notation is implemented outside of this package
+         */
+        public Builder<T> add(A1Notation notation, T value) {
+            Bounds bounds = Bounds.of(notation);
+            Entries entries = bounds.sheet().isPresent() ? entries(sheets.register(bounds.sheet().get())) : unscoped;
+            entries.add(low(bounds.left(), bounds.right()), low(bounds.top(), bounds.bottom()),
+                    high(bounds.left(), bounds.right()), high(bounds.top(), bounds.bottom()), value);
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds the index from the references added so far.
+         *
+         * @return index instance
+         */
+        public A1RangeIndex<T> build() {
+            Tree[] trees = new Tree[scoped.size()];
+            for (int id = 1; id < trees.length; id++) {
+                trees[id] = scoped.get(id).load();
+            }
+            return new A1RangeIndex<>(unscoped.count == 0 ? null : unscoped.load(), sheets, trees, size);
+        }
+
+        /**
+         * Returns the entries of a sheet, indexed by its registry id.
+         */
+        private Entries entries(int sheetId) {
+            while (scoped.size() <= sheetId) {
+                scoped.add(scoped.isEmpty() ? null : new Entries());
+            }
+            return scoped.get(sheetId);
+        }
+    }
+
+    /**
+     * Growable boxes and values of one sheet, four coordinates per box.
+     */
+    private static final class Entries {
+
+        int[] boxes = new int[4 * NODE_SIZE];
+        Object[] values = new Object[NODE_SIZE];
+        int count;
+
+        void add(int left, int top, int right, int bottom, Object value) {
+            if (count == values.length) {
+                boxes = Arrays.copyOf(boxes, boxes.length * 2);
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            int at = count * 4;
+            boxes[at] = left;
+            boxes[at + 1] = top;
+            boxes[at + 2] = right;
+            boxes[at + 3] = bottom;
+            values[count++] = value;
+        }
+
+        Tree load() {
+            int[] order = strOrder(boxes, count);
+            int[] leaves = new int[count * 4];
+            Object[] sorted = new Object[count];
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(boxes, order[i] * 4, leaves, i * 4, 4);
+                sorted[i] = values[order[i]];
+            }
+            List<int[]> levels = new ArrayList<>();
+            levels.add(leaves);
+            int[] level = leaves;
+            while (level.length > 4) {
+                level = parents(level);
+                levels.add(level);
+            }
+            return new Tree(levels.toArray(new int[0][]), sorted);
+        }
+
+        /**
+         * Returns the Sort-Tile-Recursive order of the boxes.
+         */
+        private static int[] strOrder(int[] boxes, int count) {
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = center(boxes[i * 4], boxes[i * 4 + 2]) << 32 | i;
+            }
+            Arrays.sort(keys);
+            int leaves = (count + NODE_SIZE - 1) / NODE_SIZE;
+            int slice = NODE_SIZE * (int) Math.ceil(Math.sqrt(leaves));
+            for (int from = 0; from < count; from += slice) {
+                int to = Math.min(from + slice, count);
+                for (int i = from; i < to; i++) {
+                    int index = (int) keys[i];
+                    keys[i] = center(boxes[index * 4 + 1], boxes[index * 4 + 3]) << 32 | index;
+                }
+                Arrays.sort(keys, from, to);
+            }
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) keys[i];
+            }
+            return order;
+        }
+
+        private static long center(int low, int high) {
+            return ((long) low + high) >>> 1;
+        }
+
+        /**
+         * Returns the bounding boxes of runs of {@link #NODE_SIZE} boxes.
+         */
+        private static int[] parents(int[] children) {
+            int count = children.length / 4;
+            int[] parents = new int[(count + NODE_SIZE - 1) / NODE_SIZE * 4];
+            for (int child = 0; child < count; child++) {
+                int at = child / NODE_SIZE * 4;
+                int from = child * 4;
+                if (child % NODE_SIZE == 0) {
+                    System.arraycopy(children, from, parents, at, 4);
+                } else {
+                    parents[at] = Math.min(parents[at], children[from]);
+                    parents[at + 1] = Math.min(parents[at + 1], children[from + 1]);
+                    parents[at + 2] = Math.max(parents[at + 2], children[from + 2]);
+                    parents[at + 3] = Math.max(parents[at + 3], children[from + 3]);
+                }
+            }
+            return parents;
+        }
+    }
+
+    /**
+     * Packed R-tree of one sheet.
+     *
+     * <p>{@code levels[0]} holds the boxes of the entries in STR order, each further level the boxes
+     * of its nodes; the children of node {@code i} are entries {@code [i * NODE_SIZE, (i + 1) *
+     * NODE_SIZE)} of the level below. The last level has a single root box.
+     */
+    private static final class Tree {
+
+        private final int[][] levels;
+        private final Object[] values;
+
+        Tree(int[][] levels, Object[] values) {
+            this.levels = levels;
+            this.values = values;
+        }
+
+        <T> void search(int left, int top, int right, int bottom, Consumer<? super T> consumer) {
+            search(levels.length - 1, 0, left, top, right, bottom, consumer);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> void search(int level, int node, int left, int top, int right, int bottom,
+                                Consumer<? super T> consumer) {
+            int[] boxes = levels[level];
+            int at = node * 4;
+            if (boxes[at] > right || boxes[at + 2] < left || boxes[at + 1] > bottom || boxes[at + 3] < top) {
+                return;
+            }
+            if (level == 0) {
+                consumer.accept((T) values[node]);
+                return;
+            }
+            int from = node * NODE_SIZE;
+            int to = Math.min(from + NODE_SIZE, levels[level - 1].length / 4);
+            for (int child = from; child < to; child++) {
+                search(level - 1, child, left, top, right, bottom, consumer);
+            }
+        }
+    }
+}
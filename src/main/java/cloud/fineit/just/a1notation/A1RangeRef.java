@@ -2,16 +2,19 @@ package cloud.fineit.just.a1notation;
 
 import cloud.fineit.just.SheetName;
 
+import java.io.IOException;
 import java.util.Optional;
 
-import static cloud.fineit.just.a1notation.References.extractColumn;
-import static cloud.fineit.just.a1notation.References.extractRow;
+import static cloud.fineit.just.a1notation.Stringifiers.appendCell;
+import static cloud.fineit.just.a1notation.Stringifiers.appendColumn;
+import static cloud.fineit.just.a1notation.Stringifiers.appendRow;
+import static cloud.fineit.just.a1notation.Stringifiers.appendSheetPrefix;
 
 /**
  * RangeRef represents a range reference in A1 notation, including rectangular ranges and
  * whole row or whole column references.
  */
-final class A1RangeRef implements A1Notation {
+final class A1RangeRef implements A1Notation, Bounds {
 
     private final Optional<SheetName> sheetName;
 
@@ -19,110 +22,74 @@ final class A1RangeRef implements A1Notation {
     private final Optional<A1Column> right;
     private final Optional<A1Row> top;
     private final Optional<A1Row> bottom;
-
+    private final int anchors;
+    private final int hash;
 
     A1RangeRef(A1Column left, A1Column right) {
-        this.sheetName = Optional.empty();
-        this.left = Optional.of(left);
-        this.right = Optional.of(right);
-        this.top = Optional.empty();
-        this.bottom = Optional.empty();
+        this(Optional.empty(), left, right);
     }
 
     A1RangeRef(A1Row top, A1Row bottom) {
-        this.sheetName = Optional.empty();
-        this.left = Optional.empty();
-        this.right = Optional.empty();
-        this.top = Optional.of(top);
-        this.bottom = Optional.of(bottom);
+        this(Optional.empty(), top, bottom);
     }
 
     A1RangeRef(A1Column left, A1Row top, A1Column right, A1Row bottom) {
-        this.sheetName = Optional.empty();
-        this.left = Optional.of(left);
-        this.top = Optional.of(top);
-        this.right = Optional.of(right);
-        this.bottom = Optional.of(bottom);
+        this(Optional.empty(), left, top, right, bottom);
     }
 
     A1RangeRef(Optional<SheetName> sheetName, A1Column left, A1Column right) {
-        this.sheetName = sheetName;
-        this.left = Optional.of(left);
-        this.right = Optional.of(right);
-        this.top = Optional.empty();
-        this.bottom = Optional.empty();
+        this(sheetName, left, right, A1Anchors.NONE);
     }
 
     A1RangeRef(Optional<SheetName> sheetName, A1Row top, A1Row bottom) {
-        this.sheetName = sheetName;
-        this.left = Optional.empty();
-        this.right = Optional.empty();
-        this.top = Optional.of(top);
-        this.bottom = Optional.of(bottom);
+        this(sheetName, top, bottom, A1Anchors.NONE);
     }
 
     A1RangeRef(Optional<SheetName> sheetName, A1Column left, A1Row top, A1Column right, A1Row bottom) {
-        this.sheetName = sheetName;
-        this.left = Optional.of(left);
-        this.top = Optional.of(top);
-        this.right = Optional.of(right);
-        this.bottom = Optional.of(bottom);
+        this(sheetName, left, top, right, bottom, A1Anchors.NONE);
     }
 
     A1RangeRef(SheetName sheetName, A1Column left, A1Column right) {
-        this.sheetName = Optional.of(sheetName);
-        this.left = Optional.of(left);
-        this.right = Optional.of(right);
-        this.top = Optional.empty();
-        this.bottom = Optional.empty();
+        this(Optional.of(sheetName), left, right);
     }
 
     A1RangeRef(SheetName sheetName, A1Row top, A1Row bottom) {
-        this.sheetName = Optional.of(sheetName);
-        this.left = Optional.empty();
-        this.right = Optional.empty();
-        this.top = Optional.of(top);
-        this.bottom = Optional.of(bottom);
+        this(Optional.of(sheetName), top, bottom);
     }
 
     A1RangeRef(SheetName sheetName, A1Column left, A1Row top, A1Column right, A1Row bottom) {
-        this.sheetName = Optional.of(sheetName);
-        this.left = Optional.of(left);
-        this.top = Optional.of(top);
-        this.right = Optional.of(right);
-        this.bottom = Optional.of(bottom);
-    }
-
-    A1RangeRef(String original) {
-        this.sheetName = SheetName.fromNotation(original);
-
-        String ref = SheetName.refPart(original);
-        String[] parts = ref.split(":", 2);
-        String rangeStart = parts[0];
-        String rangeEnd = parts[1];
-
-        A1Column left = null;
-        A1Column right = null;
-        A1Row top = null;
-        A1Row bottom = null;
-
-        if (References.isColumnOnly(rangeStart) && References.isColumnOnly(rangeEnd)) {
-            left = new A1Column(rangeStart);
-            right = new A1Column(rangeEnd);
-        } else if (References.isRowOnly(rangeStart) && References.isRowOnly(rangeEnd)) {
-            top = new A1Row(Integer.parseInt(rangeStart));
-            bottom = new A1Row(Integer.parseInt(rangeEnd));
-        } else {
-            left = extractColumn(rangeStart);
-            right = extractColumn(rangeEnd);
-            top = extractRow(rangeStart);
-            bottom = extractRow(rangeEnd);
-        }
+        this(Optional.of(sheetName), left, top, right, bottom);
+    }
 
-        this.left = Optional.ofNullable(left);
-        this.right = Optional.ofNullable(right);
-        this.top = Optional.ofNullable(top);
-        this.bottom = Optional.ofNullable(bottom);
+    A1RangeRef(Optional<SheetName> sheetName, A1Column left, A1Column right, int anchors) {
+        this(sheetName, Optional.of(left), Optional.empty(), Optional.of(right), Optional.empty(),
+                anchors & A1Anchors.COLUMNS);
+    }
+
+    A1RangeRef(Optional<SheetName> sheetName, A1Row top, A1Row bottom, int anchors) {
+        this(sheetName, Optional.empty(), Optional.of(top), Optional.empty(), Optional.of(bottom),
+                anchors & A1Anchors.ROWS);
+    }
+
+    A1RangeRef(Optional<SheetName> sheetName, A1Column left, A1Row top, A1Column right, A1Row bottom, int anchors) {
+        this(sheetName, Optional.of(left), Optional.of(top), Optional.of(right), Optional.of(bottom), anchors);
+    }
+
+    private A1RangeRef(Optional<SheetName> sheetName, Optional<A1Column> left, Optional<A1Row> top,
+                       Optional<A1Column> right, Optional<A1Row> bottom, int anchors) {
+        this.sheetName = sheetName;
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.anchors = anchors;
+        int h = 1;
+        h = 31 * h + sheetName.hashCode();
+        h = 31 * h + left.hashCode();
+        h = 31 * h + top.hashCode();
+        h = 31 * h + right.hashCode();
+        h = 31 * h + bottom.hashCode();
+        this.hash = 31 * h + anchors;
     }
 
     /**
@@ -139,30 +106,79 @@ final class A1RangeRef implements A1Notation {
         return top.isPresent() && bottom.isPresent() && left.isEmpty() && right.isEmpty();
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof A1RangeRef)) {
+            return false;
+        }
+        A1RangeRef other = (A1RangeRef) o;
+        return hash == other.hash && left.equals(other.left) && top.equals(other.top)
+                && right.equals(other.right) && bottom.equals(other.bottom)
+                && anchors == other.anchors && sheetName.equals(other.sheetName);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     @Override
     public String toString() {
-        String prefix = sheetName.map(Stringifiers::sheetPrefix).orElse("");
-        return prefix + toShortString();
+        return appendTo(new StringBuilder(24)).toString();
     }
 
-    @SuppressWarnings("OptionalGetWithoutIsPresent") // checked by columns/rows Only checks.
     @Override
     public String toShortString() {
+        return appendShortTo(new StringBuilder(16)).toString();
+    }
+
+    @Override
+    public Appendable appendTo(Appendable out) throws IOException {
+        if (sheetName.isPresent()) {
+            appendSheetPrefix(out, sheetName.get());
+        }
+        return appendShortTo(out);
+    }
+
+    @SuppressWarnings("OptionalGetWithoutIsPresent") // checked by columns/rows Only checks.
+    @Override
+    public Appendable appendShortTo(Appendable out) throws IOException {
+        boolean leftAnchored = (anchors & A1Anchors.LEFT) != 0;
+        boolean topAnchored = (anchors & A1Anchors.TOP) != 0;
+        boolean rightAnchored = (anchors & A1Anchors.RIGHT) != 0;
+        boolean bottomAnchored = (anchors & A1Anchors.BOTTOM) != 0;
         if (columnsOnly()) {
-            return left.map(Object::toString).orElseThrow()
-                + ":"
-                + right.map(Object::toString).orElseThrow();
+            appendColumn(out, left.get(), leftAnchored);
+            out.append(':');
+            appendColumn(out, right.get(), rightAnchored);
+            return out;
         }
 
         if (rowsOnly()) {
-            return top.map(Object::toString).orElseThrow()
-                + ":"
-                + bottom.map(Object::toString).orElseThrow();
+            appendRow(out, top.get(), topAnchored);
+            out.append(':');
+            appendRow(out, bottom.get(), bottomAnchored);
+            return out;
         }
 
-        return new A1CellRef(left.get(), top.get()).toShortString()
-            + ":"
-            + new A1CellRef(right.get(), bottom.get()).toShortString();
+        appendCell(out, left.get(), top.get(), leftAnchored, topAnchored);
+        out.append(':');
+        appendCell(out, right.get(), bottom.get(), rightAnchored, bottomAnchored);
+        return out;
+    }
+
+    @Override
+    public int anchors() {
+        return anchors;
+    }
+
+    @Override
+    public A1Notation withAnchors(int anchors) {
+        int mask = columnsOnly() ? A1Anchors.COLUMNS : rowsOnly() ? A1Anchors.ROWS : A1Anchors.ALL;
+        return new A1RangeRef(sheetName, left, top, right, bottom, A1Anchors.check(anchors) & mask);
     }
 
     @Override
@@ -184,4 +200,29 @@ final class A1RangeRef implements A1Notation {
         int bottomIdx = bottom.orElseThrow().arrayIndex();
         return Math.abs(bottomIdx - topIdx) + 1;
     }
+
+    @Override
+    public Optional<SheetName> sheet() {
+        return sheetName;
+    }
+
+    @Override
+    public int left() {
+        return left.isPresent() ? A1Column.index(left.get()) : 0;
+    }
+
+    @Override
+    public int top() {
+        return top.isPresent() ? top.get().value() : 0;
+    }
+
+    @Override
+    public int right() {
+        return right.isPresent() ? A1Column.index(right.get()) : 0;
+    }
+
+    @Override
+    public int bottom() {
+        return bottom.isPresent() ? bottom.get().value() : 0;
+    }
 }
@@ -0,0 +1,188 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.Optional;
+
+/**
+ * Range algebra on primitive coordinates.
+ *
+ * <p>Each axis is described by a pair of 1-based endpoints in either order, with {@code 0} marking
+ * an unbounded axis as in {@link Bounds}. An unbounded axis covers every column or row. The
+ * predicates read coordinates only and create no objects.
+ */
+final class A1Ranges {
+
+    private A1Ranges() {
+    }
+
+    /**
+     * Returns {@code true} if the first axis covers the second one.
+     */
+    static boolean covers(int from, int to, int otherFrom, int otherTo) {
+        if (from == A1Packed.UNBOUNDED) {
+            return true;
+        }
+        if (otherFrom == A1Packed.UNBOUNDED) {
+            return false;
+        }
+        return Math.min(from, to) <= Math.min(otherFrom, otherTo)
+                && Math.max(otherFrom, otherTo) <= Math.max(from, to);
+    }
+
+    /**
+     * Returns {@code true} if the axes share at least one column or row.
+     */
+    static boolean overlaps(int from, int to, int otherFrom, int otherTo) {
+        if (from == A1Packed.UNBOUNDED || otherFrom == A1Packed.UNBOUNDED) {
+            return true;
+        }
+        return Math.min(from, to) <= Math.max(otherFrom, otherTo)
+                && Math.min(otherFrom, otherTo) <= Math.max(from, to);
+    }
+
+    /**
+     * Returns {@code true} if the axis covers the given 1-based column or row.
+     */
+    static boolean covers(int from, int to, int value) {
+        if (from == A1Packed.UNBOUNDED) {
+            return true;
+        }
+        return Math.min(from, to) <= value && value <= Math.max(from, to);
+    }
+
+    static boolean contains(Bounds bounds, Bounds other) {
+        return bounds.sheet().equals(other.sheet())
+                && covers(bounds.left(), bounds.right(), other.left(), other.right())
+                && covers(bounds.top(), bounds.bottom(), other.top(), other.bottom());
+    }
+
+    static boolean intersects(Bounds bounds, Bounds other) {
+        return bounds.sheet().equals(other.sheet())
+                && overlaps(bounds.left(), bounds.right(), other.left(), other.right())
+                && overlaps(bounds.top(), bounds.bottom(), other.top(), other.bottom());
+    }
+
+    static Optional<A1Notation> intersection(Bounds bounds, Bounds other) {
+        if (!intersects(bounds, other)) {
+            return Optional.empty();
+        }
+        return Optional.of(create(bounds.sheet(),
+                low(bounds.left(), bounds.right(), other.left(), other.right(), true),
+                low(bounds.top(), bounds.bottom(), other.top(), other.bottom(), true),
+                high(bounds.left(), bounds.right(), other.left(), other.right(), true),
+                high(bounds.top(), bounds.bottom(), other.top(), other.bottom(), true),
+                true));
+    }
+
+    static A1Notation boundingBox(Bounds bounds, Bounds other) {
+        if (!bounds.sheet().equals(other.sheet())) {
+            throw new IllegalArgumentException("References are on different sheets");
+        }
+        return create(bounds.sheet(),
+                low(bounds.left(), bounds.right(), other.left(), other.right(), false),
+                low(bounds.top(), bounds.bottom(), other.top(), other.bottom(), false),
+                high(bounds.left(), bounds.right(), other.left(), other.right(), false),
+                high(bounds.top(), bounds.bottom(), other.top(), other.bottom(), false),
+                false);
+    }
+
+    /**
+     * Orders the endpoints of the reference; the anchors of swapped endpoints move along with them.
+     */
+    static A1Notation normalize(A1Notation notation, Bounds bounds) {
+        boolean swapColumns = bounds.left() > bounds.right();
+        boolean swapRows = bounds.top() > bounds.bottom();
+        if (!swapColumns && !swapRows) {
+            return notation;
+        }
+        int anchors = notation.anchors();
+        if (swapColumns) {
+            anchors = swap(anchors, A1Anchors.LEFT, A1Anchors.RIGHT);
+        }
+        if (swapRows) {
+            anchors = swap(anchors, A1Anchors.TOP, A1Anchors.BOTTOM);
+        }
+        return create(bounds.sheet(),
+                Math.min(bounds.left(), bounds.right()), Math.min(bounds.top(), bounds.bottom()),
+                Math.max(bounds.left(), bounds.right()), Math.max(bounds.top(), bounds.bottom()),
+                false, anchors);
+    }
+
+    private static int swap(int anchors, int flag, int otherFlag) {
+        int swapped = anchors & ~(flag | otherFlag);
+        if ((anchors & flag) != 0) {
+            swapped |= otherFlag;
+        }
+        if ((anchors & otherFlag) != 0) {
+            swapped |= flag;
+        }
+        return swapped;
+    }
+
+    /**
+     * Returns the lower endpoint of the intersection or union of two axes.
+     */
+    private static int low(int from, int to, int otherFrom, int otherTo, boolean intersection) {
+        if (from == A1Packed.UNBOUNDED || otherFrom == A1Packed.UNBOUNDED) {
+            if (!intersection) {
+                return A1Packed.UNBOUNDED;
+            }
+            return from == A1Packed.UNBOUNDED ? Math.min(otherFrom, otherTo) : Math.min(from, to);
+        }
+        int low = Math.min(from, to);
+        int otherLow = Math.min(otherFrom, otherTo);
+        return intersection ? Math.max(low, otherLow) : Math.min(low, otherLow);
+    }
+
+    /**
+     * Returns the upper endpoint of the intersection or union of two axes.
+     */
+    private static int high(int from, int to, int otherFrom, int otherTo, boolean intersection) {
+        if (from == A1Packed.UNBOUNDED || otherFrom == A1Packed.UNBOUNDED) {
+            if (!intersection) {
+                return A1Packed.UNBOUNDED;
+            }
+            return from == A1Packed.UNBOUNDED ? Math.max(otherFrom, otherTo) : Math.max(from, to);
+        }
+        int high = Math.max(from, to);
+        int otherHigh = Math.max(otherFrom, otherTo);
+        return intersection ? Math.min(high, otherHigh) : Math.max(high, otherHigh);
+    }
+
+    /**
+     * Creates the reference of the given kind for ordered coordinates.
+     *
+     * @param cell whether a single-cell area becomes a cell rather than a one-cell range
+     */
+    static A1Notation create(Optional<SheetName> sheet, int left, int top, int right, int bottom, boolean cell) {
+        return create(sheet, left, top, right, bottom, cell, A1Anchors.NONE);
+    }
+
+    /**
+     * Creates the reference of the given kind for ordered coordinates with {@code $} anchors.
+     *
+     * @param cell whether a single-cell area becomes a cell rather than a one-cell range
+     * @param anchors {@link A1Anchors} flags; those of missing axes are ignored
+     */
+    static A1Notation create(Optional<SheetName> sheet, int left, int top, int right, int bottom, boolean cell,
+                             int anchors) {
+        boolean columns = left != A1Packed.UNBOUNDED;
+        boolean rows = top != A1Packed.UNBOUNDED;
+        if (columns && rows) {
+            if (cell && left == right && top == bottom) {
+                return new A1CellRef(sheet, A1Column.ofIndex(left), new A1Row(top), anchors);
+            }
+            return new A1RangeRef(sheet, A1Column.ofIndex(left), new A1Row(top),
+                    A1Column.ofIndex(right), new A1Row(bottom), anchors);
+        }
+        if (columns) {
+            return new A1RangeRef(sheet, A1Column.ofIndex(left), A1Column.ofIndex(right), anchors);
+        }
+        if (rows) {
+            return new A1RangeRef(sheet, new A1Row(top), new A1Row(bottom), anchors);
+        }
+        return new A1SheetRef(sheet.orElseThrow(
+                () -> new IllegalArgumentException("Unbounded reference has no sheet name")));
+    }
+}
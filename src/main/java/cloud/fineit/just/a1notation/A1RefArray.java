@@ -0,0 +1,601 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A1RefArray stores many references column by column in parallel primitive arrays.
+ *
+ * <p>Each reference takes a {@code short} sheet id, four {@code int} coordinates and one byte for
+ * its kind and {@code $} anchors, about 19 bytes instead of the several objects behind an
+ * {@link A1Notation}. Coordinates follow {@link A1Packed}: 1-based, {@code 0} for an unbounded
+ * side, endpoints as written. Sheet ids come from the array's {@link SheetRegistry}, so arrays
+ * sharing a registry, or filled by an {@link A1ReferenceReader} with the same registry, agree on
+ * them.
+ *
+ * <p>References are appended from notations, parsed in place from a slice of text, or taken from
+ * packed pairs; none of these create a notation. {@link #get(int)} returns a small view of one
+ * entry and the per-column accessors like {@link #left(int)} read the arrays directly.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * <pre>{@code
+ * A1RefArray refs = new A1RefArray();
+ * refs.add("Data!A1:B2,C3", 0, 10);
+ * refs.add(A1Notation.of("C3"));
+ * refs.sort();
+ * refs.get(1).toNotation(); // Data!A1:B2
+ * }</pre>
+ */
+public final class A1RefArray implements Iterable<A1RefArray.Ref> {
+
+    /**
+     * Kind of a single cell, like {@code B2}.
+     */
+    public static final byte CELL = A1Parser.CELL;
+
+    /**
+     * Kind of a range, like {@code A1:B2}.
+     */
+    public static final byte RANGE = A1Parser.RANGE;
+
+    /**
+     * Kind of whole columns, like {@code A:C}.
+     */
+    public static final byte COLUMNS = A1Parser.COLUMNS;
+
+    /**
+     * Kind of whole rows, like {@code 1:5}.
+     */
+    public static final byte ROWS = A1Parser.ROWS;
+
+    /**
+     * Kind of a sheet-only reference, like {@code Data}.
+     */
+    public static final byte SHEET = A1Parser.SHEET;
+
+    private static final int KIND_MASK = 7;
+    private static final int ANCHOR_SHIFT = 3;
+
+    private final SheetRegistry sheets;
+    private final A1Parser parser = new A1Parser();
+
+    private short[] sheetIds;
+    private int[] lefts;
+    private int[] tops;
+    private int[] rights;
+    private int[] bottoms;
+    private byte[] kinds;
+    private int size;
+
+    /**
+     * Creates an empty array with its own sheet registry.
+     */
+    public A1RefArray() {
+        this(new SheetRegistry(), 16);
+    }
+
+    /**
+     * Creates an empty array registering sheet names in the given registry.
+     *
+     * @param sheets registry assigning sheet ids
+     */
+    public A1RefArray(SheetRegistry sheets) {
+        this(sheets, 16);
+    }
+
+    /**
+     * Creates an empty array registering sheet names in the given registry.
+     *
+     * @param sheets registry assigning sheet ids
+     * @param capacity number of references to make room for
+     */
+    public A1RefArray(SheetRegistry sheets, int capacity) {
+        if (sheets == null) {
+            throw new IllegalArgumentException("Sheet registry must not be null");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.sheets = sheets;
+        sheetIds = new short[capacity];
+        lefts = new int[capacity];
+        tops = new int[capacity];
+        rights = new int[capacity];
+        bottoms = new int[capacity];
+        kinds = new byte[capacity];
+    }
+
+    /**
+     * Returns the registry sheet names are registered in.
+     *
+     * @return sheet registry
+     */
+    public SheetRegistry sheets() {
+        return sheets;
+    }
+
+    /**
+     * Returns the number of references.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the array holds no references.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends a reference.
+     *
+     * @param notation reference to append
+     * @return index of the appended reference
+     * @throws IllegalArgumentException if the notation is implemented outside of this package or
+     *                                  its sheet id does not fit the packed layout
+     */
+    public int add(A1Notation notation) {
+        Bounds bounds = Bounds.of(notation);
+        int sheetId = bounds.sheet().isPresent() ? sheets.register(bounds.sheet().get()) : A1Packed.NO_SHEET;
+        return append(sheetId, bounds.left(), bounds.top(), bounds.right(), bounds.bottom(),
+                kindOf(notation, bounds), notation.anchors());
+    }
+
+    /**
+     * Returns the kind of a notation with the given bounds.
+     */
+    static byte kindOf(A1Notation notation, Bounds bounds) {
+        if (notation instanceof A1CellRef) {
+            return CELL;
+        }
+        if (notation instanceof A1SheetRef) {
+            return SHEET;
+        }
+        if (bounds.left() == A1Packed.UNBOUNDED) {
+            return ROWS;
+        }
+        return bounds.top() == A1Packed.UNBOUNDED ? COLUMNS : RANGE;
+    }
+
+    /**
+     * Appends all references.
+     *
+     * @param notations references to append
+     * @throws IllegalArgumentException if a notation cannot be appended
+     */
+    public void addAll(Iterable<? extends A1Notation> notations) {
+        for (A1Notation notation : notations) {
+            add(notation);
+        }
+    }
+
+    /**
+     * Parses {@code [from, to)} of the source and appends the reference without creating a
+     * notation.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return index of the appended reference
+     * @throws IllegalArgumentException if the input cannot be parsed or does not fit
+     */
+    public int add(CharSequence src, int from, int to) {
+        Objects.checkFromToIndex(from, to, src.length());
+        if (from == to) {
+            throw new IllegalArgumentException("A1 notation must not be empty");
+        }
+        if (!parser.scan(src, from, to) || !parser.inRange()) {
+            throw new IllegalArgumentException("Unsupported A1 notation: " + src.subSequence(from, to));
+        }
+        return append(parser.sheetId(sheets), parser.left(), parser.top(), parser.right(), parser.bottom(),
+                (byte) parser.kind(), parser.anchors());
+    }
+
+    /**
+     * Appends a packed reference, like those of {@link A1ReferenceReader#readPacked}.
+     *
+     * <p>Equal bounded start and end cells are appended as a cell.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @return index of the appended reference
+     * @throws IllegalArgumentException if the pair is inconsistent
+     */
+    public int addPacked(long start, long end) {
+        byte kind = packedKind(start, end);
+        return append(A1Packed.sheetId(start), A1Packed.column(start), A1Packed.row(start),
+                A1Packed.column(end), A1Packed.row(end), kind, A1Anchors.NONE);
+    }
+
+    /**
+     * Returns the kind of a packed pair, treating equal bounded start and end cells as a cell.
+     *
+     * @throws IllegalArgumentException if the pair is inconsistent
+     */
+    static byte packedKind(long start, long end) {
+        int sheetId = A1Packed.sheetId(start);
+        if (A1Packed.sheetId(end) != sheetId) {
+            throw new IllegalArgumentException("Packed pair spans two sheets");
+        }
+        boolean columns = A1Packed.column(start) != A1Packed.UNBOUNDED;
+        boolean rows = A1Packed.row(start) != A1Packed.UNBOUNDED;
+        if (columns != (A1Packed.column(end) != A1Packed.UNBOUNDED)
+                || rows != (A1Packed.row(end) != A1Packed.UNBOUNDED)) {
+            throw new IllegalArgumentException("Packed pair is half-bounded");
+        }
+        if (columns) {
+            return rows ? (start == end ? CELL : RANGE) : COLUMNS;
+        }
+        if (rows) {
+            return ROWS;
+        }
+        if (sheetId == A1Packed.NO_SHEET) {
+            throw new IllegalArgumentException("Unbounded reference has no sheet name");
+        }
+        return SHEET;
+    }
+
+    /**
+     * Appends a reference of the given kind; the coordinates must match the kind.
+     */
+    int append(int sheetId, int left, int top, int right, int bottom, byte kind, int anchors) {
+        if (sheetId > A1Packed.MAX_SHEET_ID) {
+            throw new IllegalArgumentException("Sheet id out of packed range: " + sheetId);
+        }
+        if (size == kinds.length) {
+            grow();
+        }
+        sheetIds[size] = (short) sheetId;
+        lefts[size] = left;
+        tops[size] = top;
+        rights[size] = right;
+        bottoms[size] = bottom;
+        kinds[size] = (byte) (kind | anchors << ANCHOR_SHIFT);
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, kinds.length + (kinds.length >> 1));
+        sheetIds = Arrays.copyOf(sheetIds, capacity);
+        lefts = Arrays.copyOf(lefts, capacity);
+        tops = Arrays.copyOf(tops, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        bottoms = Arrays.copyOf(bottoms, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+    }
+
+    /**
+     * Shrinks the arrays to the number of references.
+     */
+    public void trimToSize() {
+        if (size < kinds.length) {
+            sheetIds = Arrays.copyOf(sheetIds, size);
+            lefts = Arrays.copyOf(lefts, size);
+            tops = Arrays.copyOf(tops, size);
+            rights = Arrays.copyOf(rights, size);
+            bottoms = Arrays.copyOf(bottoms, size);
+            kinds = Arrays.copyOf(kinds, size);
+        }
+    }
+
+    /**
+     * Removes all references, keeping the arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns a view of the reference at the given index.
+     *
+     * @param index index of the reference
+     * @return view reading this array
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Ref get(int index) {
+        return new Ref(this, Objects.checkIndex(index, size));
+    }
+
+    /**
+     * Returns the kind of a reference.
+     *
+     * @param index index of the reference
+     * @return one of {@link #CELL}, {@link #RANGE}, {@link #COLUMNS}, {@link #ROWS}, {@link #SHEET}
+     */
+    public byte kind(int index) {
+        return (byte) (kinds[Objects.checkIndex(index, size)] & KIND_MASK);
+    }
+
+    /**
+     * Returns the sheet id of a reference.
+     *
+     * @param index index of the reference
+     * @return sheet id, {@link A1Packed#NO_SHEET} for none
+     */
+    public int sheetId(int index) {
+        return sheetIds[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the starting column of a reference.
+     *
+     * @param index index of the reference
+     * @return 1-based column, {@link A1Packed#UNBOUNDED} for none
+     */
+    public int left(int index) {
+        return lefts[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the starting row of a reference.
+     *
+     * @param index index of the reference
+     * @return 1-based row, {@link A1Packed#UNBOUNDED} for none
+     */
+    public int top(int index) {
+        return tops[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the ending column of a reference.
+     *
+     * @param index index of the reference
+     * @return 1-based column, {@link A1Packed#UNBOUNDED} for none
+     */
+    public int right(int index) {
+        return rights[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the ending row of a reference.
+     *
+     * @param index index of the reference
+     * @return 1-based row, {@link A1Packed#UNBOUNDED} for none
+     */
+    public int bottom(int index) {
+        return bottoms[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the {@code $} anchors of a reference.
+     *
+     * @param index index of the reference
+     * @return {@link A1Anchors} flags
+     */
+    public int anchors(int index) {
+        return kinds[Objects.checkIndex(index, size)] >>> ANCHOR_SHIFT;
+    }
+
+    /**
+     * Creates the notation of a reference.
+     *
+     * @param index index of the reference
+     * @return A1Notation instance
+     */
+    public A1Notation toNotation(int index) {
+        Objects.checkIndex(index, size);
+        int sheetId = sheetIds[index];
+        Optional<SheetName> sheet = sheetId == A1Packed.NO_SHEET ? Optional.empty() : Optional.of(sheets.nameOf(sheetId));
+        return A1Ranges.create(sheet, lefts[index], tops[index], rights[index], bottoms[index],
+                (kinds[index] & KIND_MASK) == CELL, kinds[index] >>> ANCHOR_SHIFT);
+    }
+
+    /**
+     * Creates the notations of all references.
+     *
+     * @return list of notations in array order
+     */
+    public List<A1Notation> toNotations() {
+        List<A1Notation> notations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            notations.add(toNotation(i));
+        }
+        return notations;
+    }
+
+    /**
+     * Sorts the references by sheet id, then by starting row and column, then by ending row and
+     * column, then by kind. Unbounded sides sort first.
+     *
+     * <p>The sort is stable and moves whole entries across all columns. It is a radix sort with
+     * one pass per significant byte of each column, linear in the number of references.
+     */
+    public void sort() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[size];
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = kinds[i];
+        }
+        RadixSort.sortOrder(order, buffer, keys);
+        RadixSort.sortOrder(order, buffer, rights);
+        RadixSort.sortOrder(order, buffer, bottoms);
+        RadixSort.sortOrder(order, buffer, lefts);
+        RadixSort.sortOrder(order, buffer, tops);
+        for (int i = 0; i < size; i++) {
+            keys[i] = sheetIds[i];
+        }
+        RadixSort.sortOrder(order, buffer, keys);
+        sheetIds = permute(sheetIds, order);
+        lefts = permute(lefts, order);
+        tops = permute(tops, order);
+        rights = permute(rights, order);
+        bottoms = permute(bottoms, order);
+        kinds = permute(kinds, order);
+    }
+
+    private static short[] permute(short[] values, int[] order) {
+        short[] sorted = new short[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return sorted;
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] sorted = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return sorted;
+    }
+
+    private static byte[] permute(byte[] values, int[] order) {
+        byte[] sorted = new byte[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns an iterator of views over the references in array order.
+     *
+     * @return iterator instance
+     */
+    @Override
+    public Iterator<Ref> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Ref next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new Ref(A1RefArray.this, next++);
+            }
+        };
+    }
+
+    /**
+     * View of one reference of an {@link A1RefArray}.
+     *
+     * <p>A view holds only the array and an index and reads the columns on every call, so it
+     * reflects later changes to the array, including sorting.
+     */
+    public static final class Ref {
+
+        private final A1RefArray array;
+        private final int index;
+
+        private Ref(A1RefArray array, int index) {
+            this.array = array;
+            this.index = index;
+        }
+
+        /**
+         * Returns the index of the reference.
+         *
+         * @return index in the array
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Returns the kind of the reference.
+         *
+         * @return one of the kind constants of {@link A1RefArray}
+         */
+        public byte kind() {
+            return array.kind(index);
+        }
+
+        /**
+         * Returns the sheet id of the reference.
+         *
+         * @return sheet id, {@link A1Packed#NO_SHEET} for none
+         */
+        public int sheetId() {
+            return array.sheetId(index);
+        }
+
+        /**
+         * Returns the 1-based starting column, or {@link A1Packed#UNBOUNDED}.
+         *
+         * @return column
+         */
+        public int left() {
+            return array.left(index);
+        }
+
+        /**
+         * Returns the 1-based starting row, or {@link A1Packed#UNBOUNDED}.
+         *
+         * @return row
+         */
+        public int top() {
+            return array.top(index);
+        }
+
+        /**
+         * Returns the 1-based ending column, or {@link A1Packed#UNBOUNDED}.
+         *
+         * @return column
+         */
+        public int right() {
+            return array.right(index);
+        }
+
+        /**
+         * Returns the 1-based ending row, or {@link A1Packed#UNBOUNDED}.
+         *
+         * @return row
+         */
+        public int bottom() {
+            return array.bottom(index);
+        }
+
+        /**
+         * Returns the {@code $} anchors of the reference.
+         *
+         * @return {@link A1Anchors} flags
+         */
+        public int anchors() {
+            return array.anchors(index);
+        }
+
+        /**
+         * Creates the notation of the reference.
+         *
+         * @return A1Notation instance
+         */
+        public A1Notation toNotation() {
+            return array.toNotation(index);
+        }
+
+        /**
+         * Returns the reference in A1 notation.
+         *
+         * @return A1 notation string
+         */
+        @Override
+        public String toString() {
+            return toNotation().toString();
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * A1RefStore keeps references off the Java heap in fixed-width records, either in direct buffers
+ * or in a memory-mapped file.
+ *
+ * <p>Each record takes 16 bytes: the packed start cell as by {@link A1Packed#encodeStart}, then
+ * the packed end cell whose sheet bits hold the kind and {@code $} anchors instead of repeating the
+ * sheet id. Records live in segments of {@value #SEGMENT_RECORDS} entries, so the store grows
+ * without copying and beyond the 2 GB limit of a single buffer; the garbage collector only sees a
+ * few segment buffers however many references are stored. Coordinates and sheet ids are limited to
+ * the {@link A1Packed} layout.
+ *
+ * <p>A store created by {@link #open(Path)} maps its file directly: reopening it maps the existing
+ * records again without reading or decoding them, and only the small table of sheet names is read
+ * into the store's {@link SheetRegistry}. The file holds a header, the record segments and the
+ * sheet table, all little-endian. Appended records and sheets are written to the file by
+ * {@link #flush()} and {@link #close()}; until then the file keeps its last flushed state. A
+ * mapped store that cannot grow its file raises an {@link UncheckedIOException} on append.
+ *
+ * <p>Records are appended and read by index, or scanned as packed pairs, without creating any
+ * object; {@link #toNotation(long)} and {@link #asNotations()} are views for convenience.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * <pre>{@code
+ * try (A1RefStore store = A1RefStore.open(Path.of("refs.a1"))) {
+ *     store.add("Data!A1:B2", 0, 10);
+ *     store.scan(0, store.size(), (start, end) -> index.add(start, end));
+ * }
+ * }</pre>
+ */
+public final class A1RefStore implements Closeable {
+
+    /**
+     * Number of records per segment.
+     */
+    public static final int SEGMENT_RECORDS = 1 << 16;
+
+    /**
+     * Size of a record in bytes.
+     */
+    public static final int RECORD_BYTES = 16;
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+    private static final int SEGMENT_BYTES = SEGMENT_RECORDS * RECORD_BYTES;
+
+    private static final int MAGIC = 0x53523141;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SIZE_OFFSET = 8;
+    private static final int TABLE_OFFSET = 16;
+
+    private static final int SHEET_SHIFT = A1Packed.COLUMN_BITS + A1Packed.ROW_BITS;
+    private static final long COORDINATES = (1L << SHEET_SHIFT) - 1;
+    private static final int KIND_MASK = 7;
+    private static final int ANCHOR_SHIFT = 3;
+
+    private final SheetRegistry sheets;
+    private final A1Parser parser = new A1Parser();
+    private final FileChannel channel;
+    private final ByteBuffer header;
+
+    private ByteBuffer[] segments = new ByteBuffer[4];
+    private int segmentCount;
+    private long size;
+    private boolean closed;
+
+    private A1RefStore(SheetRegistry sheets, FileChannel channel, ByteBuffer header) {
+        this.sheets = sheets;
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /**
+     * Creates an empty store in direct buffers with its own sheet registry.
+     *
+     * @return store instance
+     */
+    public static A1RefStore allocateDirect() {
+        return allocateDirect(new SheetRegistry());
+    }
+
+    /**
+     * Creates an empty store in direct buffers sharing a sheet registry.
+     *
+     * @param sheets registry assigning sheet ids
+     * @return store instance
+     */
+    public static A1RefStore allocateDirect(SheetRegistry sheets) {
+        if (sheets == null) {
+            throw new IllegalArgumentException("Sheet registry must not be null");
+        }
+        return new A1RefStore(sheets, null, null);
+    }
+
+    /**
+     * Opens a store mapping the given file, creating it if it does not exist.
+     *
+     * <p>The store has its own sheet registry holding the sheets saved in the file.
+     *
+     * @param path file holding the store
+     * @return store instance
+     * @throws IOException if the file cannot be mapped or is not a store
+     */
+    public static A1RefStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() < HEADER_BYTES) {
+                throw new IOException("Not an A1 reference store: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            A1RefStore store = new A1RefStore(new SheetRegistry(), channel, header);
+            if (created) {
+                header.putInt(0, MAGIC).putInt(4, VERSION);
+                store.writeSheets();
+            } else {
+                store.load(path);
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void load(Path path) throws IOException {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not an A1 reference store: " + path);
+        }
+        long savedSize = header.getLong(SIZE_OFFSET);
+        long tableOffset = header.getLong(TABLE_OFFSET);
+        long savedSegments = (tableOffset - HEADER_BYTES) / SEGMENT_BYTES;
+        if (tableOffset != segmentOffset((int) savedSegments) || savedSegments > Integer.MAX_VALUE
+                || savedSize < 0 || savedSize > savedSegments << SEGMENT_SHIFT
+                || channel.size() < tableOffset + 4) {
+            throw new IOException("Corrupt A1 reference store: " + path);
+        }
+        ByteBuffer table = ByteBuffer.allocate((int) Math.min(channel.size() - tableOffset, Integer.MAX_VALUE))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(table, tableOffset);
+        table.flip();
+        int count = table.getInt();
+        if (count < 0 || count > table.remaining() / Integer.BYTES) {
+            throw new IOException("Corrupt A1 reference store: " + path);
+        }
+        for (int id = 1; id <= count; id++) {
+            int length = table.remaining() >= Integer.BYTES ? table.getInt() : -1;
+            if (length <= 0 || length > table.remaining()) {
+                throw new IOException("Corrupt A1 reference store: " + path);
+            }
+            byte[] name = new byte[length];
+            table.get(name);
+            if (sheets.register(new SheetName(new String(name, StandardCharsets.UTF_8))) != id) {
+                throw new IOException("Corrupt A1 reference store: " + path);
+            }
+        }
+        while (segmentCount < savedSegments) {
+            mapSegment();
+        }
+        size = savedSize;
+    }
+
+    /**
+     * Returns the registry assigning the sheet ids of this store.
+     *
+     * @return sheet registry
+     */
+    public SheetRegistry sheets() {
+        return sheets;
+    }
+
+    /**
+     * Returns the number of references.
+     *
+     * @return number of references
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the store holds no references.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends a reference.
+     *
+     * @param notation reference to append
+     * @return index of the appended reference
+     * @throws IllegalArgumentException if the notation is implemented outside of this package or
+     *                                  does not fit the packed layout
+     */
+    public long add(A1Notation notation) {
+        Bounds bounds = Bounds.of(notation);
+        int sheetId = bounds.sheet().isPresent() ? sheets.register(bounds.sheet().get()) : A1Packed.NO_SHEET;
+        return append(A1Packed.pack(sheetId, bounds.left(), bounds.top()),
+                A1Packed.pack(sheetId, bounds.right(), bounds.bottom()),
+                A1RefArray.kindOf(notation, bounds), notation.anchors());
+    }
+
+    /**
+     * Parses {@code [from, to)} of the source and appends the reference without creating a
+     * notation.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return index of the appended reference
+     * @throws IllegalArgumentException if the input cannot be parsed or does not fit
+     */
+    public long add(CharSequence src, int from, int to) {
+        Objects.checkFromToIndex(from, to, src.length());
+        if (from == to) {
+            throw new IllegalArgumentException("A1 notation must not be empty");
+        }
+        if (!parser.scan(src, from, to)) {
+            throw new IllegalArgumentException("Unsupported A1 notation: " + src.subSequence(from, to));
+        }
+        int sheetId = parser.sheetId(sheets);
+        return append(parser.packedStart(sheetId), parser.packedEnd(sheetId), parser.kind(), parser.anchors());
+    }
+
+    /**
+     * Appends a packed reference, like those of {@link A1ReferenceReader#readPacked}.
+     *
+     * <p>Equal bounded start and end cells are appended as a cell.
+     *
+     * @param start packed start cell
+     * @param end packed end cell
+     * @return index of the appended reference
+     * @throws IllegalArgumentException if the pair is inconsistent
+     */
+    public long addPacked(long start, long end) {
+        return append(start, end, A1RefArray.packedKind(start, end), A1Anchors.NONE);
+    }
+
+    private long append(long start, long end, int kind, int anchors) {
+        checkOpen();
+        int segment = (int) (size >>> SEGMENT_SHIFT);
+        if (segment == segmentCount) {
+            addSegment();
+        }
+        int offset = ((int) size & SEGMENT_MASK) * RECORD_BYTES;
+        long meta = (long) (kind | anchors << ANCHOR_SHIFT) << SHEET_SHIFT;
+        segments[segment].putLong(offset, start).putLong(offset + 8, end & COORDINATES | meta);
+        return size++;
+    }
+
+    private void addSegment() {
+        if (channel == null) {
+            addSegment(ByteBuffer.allocateDirect(SEGMENT_BYTES));
+            return;
+        }
+        try {
+            // The new segment covers the sheet table, so the table moves past it first.
+            writeSheets(segmentOffset(segmentCount + 1));
+            mapSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void mapSegment() throws IOException {
+        addSegment(channel.map(FileChannel.MapMode.READ_WRITE, segmentOffset(segmentCount), SEGMENT_BYTES));
+    }
+
+    private void addSegment(ByteBuffer segment) {
+        if (segmentCount == segments.length) {
+            segments = Arrays.copyOf(segments, segmentCount * 2);
+        }
+        segments[segmentCount++] = segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the packed start cell of a reference.
+     *
+     * @param index index of the reference
+     * @return packed start cell
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long start(long index) {
+        checkIndex(index);
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong(((int) index & SEGMENT_MASK) * RECORD_BYTES);
+    }
+
+    /**
+     * Returns the packed end cell of a reference.
+     *
+     * @param index index of the reference
+     * @return packed end cell
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long end(long index) {
+        return start(index) & ~COORDINATES | meta(index) & COORDINATES;
+    }
+
+    /**
+     * Returns the kind of a reference.
+     *
+     * @param index index of the reference
+     * @return one of the kind constants of {@link A1RefArray}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public byte kind(long index) {
+        return (byte) (meta(index) >>> SHEET_SHIFT & KIND_MASK);
+    }
+
+    /**
+     * Returns the {@code $} anchors of a reference.
+     *
+     * @param index index of the reference
+     * @return {@link A1Anchors} flags
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int anchors(long index) {
+        return (int) (meta(index) >>> SHEET_SHIFT + ANCHOR_SHIFT) & A1Anchors.ALL;
+    }
+
+    /**
+     * Returns the sheet id of a reference.
+     *
+     * @param index index of the reference
+     * @return sheet id, {@link A1Packed#NO_SHEET} for none
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int sheetId(long index) {
+        return A1Packed.sheetId(start(index));
+    }
+
+    private long meta(long index) {
+        checkIndex(index);
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong(((int) index & SEGMENT_MASK) * RECORD_BYTES + 8);
+    }
+
+    /**
+     * Passes the packed start and end cells of the references in {@code [from, to)} to a consumer,
+     * in store order.
+     *
+     * @param from index of the first reference, inclusive
+     * @param to index of the last reference, exclusive
+     * @param consumer receives each reference
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void scan(long from, long to, A1ReferenceReader.PackedConsumer consumer) {
+        checkOpen();
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size);
+        }
+        for (long index = from; index < to; ) {
+            ByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+            int first = (int) index & SEGMENT_MASK;
+            int count = (int) Math.min(to - index, SEGMENT_RECORDS - first);
+            for (int offset = first * RECORD_BYTES, last = offset + count * RECORD_BYTES; offset < last; offset += RECORD_BYTES) {
+                long start = segment.getLong(offset);
+                consumer.accept(start, start & ~COORDINATES | segment.getLong(offset + 8) & COORDINATES);
+            }
+            index += count;
+        }
+    }
+
+    /**
+     * Creates the notation of a reference.
+     *
+     * @param index index of the reference
+     * @return A1Notation instance
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public A1Notation toNotation(long index) {
+        long start = start(index);
+        long end = end(index);
+        int sheetId = A1Packed.sheetId(start);
+        Optional<SheetName> sheet = sheetId == A1Packed.NO_SHEET ? Optional.empty() : Optional.of(sheets.nameOf(sheetId));
+        return A1Ranges.create(sheet, A1Packed.column(start), A1Packed.row(start),
+                A1Packed.column(end), A1Packed.row(end), kind(index) == A1RefArray.CELL, anchors(index));
+    }
+
+    /**
+     * Returns a list view creating the notation of a reference on every access.
+     *
+     * <p>The view reflects later appends.
+     *
+     * @return unmodifiable list view
+     * @throws IllegalStateException if the store holds more than {@link Integer#MAX_VALUE}
+     *                               references when the view is sized
+     */
+    public List<A1Notation> asNotations() {
+        return new NotationView();
+    }
+
+    /**
+     * Removes all references, keeping the segments.
+     */
+    public void clear() {
+        checkOpen();
+        size = 0;
+    }
+
+    /**
+     * Writes the number of references and the sheet table to the file and forces the mapped
+     * records to the storage device. Does nothing for a store in direct buffers.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        checkOpen();
+        if (channel == null) {
+            return;
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            ((MappedByteBuffer) segments[i]).force();
+        }
+        writeSheets();
+        header.putLong(SIZE_OFFSET, size);
+        ((MappedByteBuffer) header).force();
+    }
+
+    /**
+     * Flushes a mapped store and releases the segments; a closed store cannot be used anymore.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            segments = null;
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private void writeSheets() throws IOException {
+        writeSheets(segmentOffset(segmentCount));
+    }
+
+    /**
+     * Writes the sheet table at the given offset, truncates the file after it and points the
+     * header at it; the record count is left as last flushed.
+     */
+    private void writeSheets(long offset) throws IOException {
+        int count = sheets.size();
+        byte[][] names = new byte[count][];
+        int bytes = 4;
+        for (int id = 1; id <= count; id++) {
+            names[id - 1] = sheets.nameOf(id).value().getBytes(StandardCharsets.UTF_8);
+            bytes += 4 + names[id - 1].length;
+        }
+        ByteBuffer table = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(count);
+        for (byte[] name : names) {
+            table.putInt(name.length).put(name);
+        }
+        table.flip();
+        while (table.hasRemaining()) {
+            channel.write(table, offset + table.position());
+        }
+        channel.truncate(offset + bytes);
+        channel.force(false);
+        header.putLong(TABLE_OFFSET, offset);
+        ((MappedByteBuffer) header).force();
+    }
+
+    private static long segmentOffset(int segment) {
+        return HEADER_BYTES + (long) segment * SEGMENT_BYTES;
+    }
+
+    private void checkIndex(long index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Reference store is closed");
+        }
+    }
+
+    private final class NotationView extends AbstractList<A1Notation> implements RandomAccess {
+
+        @Override
+        public A1Notation get(int index) {
+            return toNotation(index);
+        }
+
+        @Override
+        public int size() {
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many references for a list: " + size);
+            }
+            return (int) size;
+        }
+    }
+}
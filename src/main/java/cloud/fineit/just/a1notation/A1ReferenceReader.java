@@ -0,0 +1,392 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetRegistry;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.function.Consumer;
+
+/**
+ * A1ReferenceReader streams references separated by line breaks or a delimiter.
+ *
+ * <p>Input is read through one fixed-size buffer and every reference is parsed in place, so memory
+ * use stays constant regardless of the input size and no string is created per reference. A
+ * buffer grows only to fit a single reference longer than itself. Line breaks always separate
+ * references; a {@code '\r'} before a line break is dropped and empty references are skipped.
+ * Surrounding spaces are kept, as they are part of unquoted sheet names. A delimiter inside a
+ * quoted sheet name, like the comma of {@code 'a,b'!A1}, does not separate references.
+ *
+ * <p>References are emitted either as {@link A1Notation} instances or as packed values in the
+ * {@link A1Packed} layout, which allocates nothing per reference. Sheet names are interned into
+ * the reader's {@link SheetRegistry}, whose ids are the packed sheet ids.
+ *
+ * <p>Byte sources are decoded as ASCII, like {@link A1Notation#parse(byte[], int, int)}.
+ *
+ * <p>A reader holds only its configuration and is thread-safe; each call uses its own buffers.
+ *
+ * <pre>{@code
+ * A1ReferenceReader reader = A1ReferenceReader.lines();
+ * try (FileChannel channel = FileChannel.open(path)) {
+ *     reader.readMappedPacked(channel, (start, end) -> index.add(start, end));
+ * }
+ * }</pre>
+ */
+public final class A1ReferenceReader {
+
+    /**
+     * Initial buffer size in characters or bytes.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximum number of bytes mapped at once by {@link #readMapped}.
+     */
+    static final int MAP_WINDOW = 1 << 28;
+
+    private static final ErrorHandler FAIL = (index, token, error) -> {
+        throw error;
+    };
+
+    private final char delimiter;
+    private final SheetRegistry sheets;
+    private final ErrorHandler errors;
+
+    private A1ReferenceReader(char delimiter, SheetRegistry sheets, ErrorHandler errors) {
+        this.delimiter = delimiter;
+        this.sheets = sheets;
+        this.errors = errors;
+    }
+
+    /**
+     * Returns a reader of references separated by line breaks.
+     *
+     * @return reader with its own sheet registry that fails on the first invalid reference
+     */
+    public static A1ReferenceReader lines() {
+        return delimited('\n');
+    }
+
+    /**
+     * Returns a reader of references separated by the given delimiter or by line breaks.
+     *
+     * @param delimiter character separating references, like {@code ','} or {@code '\t'}
+     * @return reader with its own sheet registry that fails on the first invalid reference
+     * @throws IllegalArgumentException if the delimiter can be part of a reference outside of a
+     *                                  quoted sheet name
+     */
+    public static A1ReferenceReader delimited(char delimiter) {
+        if (delimiter == '!' || delimiter == ':' || delimiter == '\'' || delimiter == '\\' || delimiter == '$'
+                || delimiter == ' ' || delimiter == '_' || Character.isLetterOrDigit(delimiter)) {
+            throw new IllegalArgumentException("Delimiter can be part of a reference: " + delimiter);
+        }
+        return new A1ReferenceReader(delimiter, new SheetRegistry(), FAIL);
+    }
+
+    /**
+     * Returns a copy of this reader interning sheet names into the given registry.
+     *
+     * @param sheets registry assigning sheet ids
+     * @return reader instance
+     */
+    public A1ReferenceReader withSheets(SheetRegistry sheets) {
+        if (sheets == null) {
+            throw new IllegalArgumentException("Sheet registry must not be null");
+        }
+        return new A1ReferenceReader(delimiter, sheets, errors);
+    }
+
+    /**
+     * Returns a copy of this reader reporting invalid references to the given handler instead of
+     * failing.
+     *
+     * <p>The handler may rethrow the error to stop reading.
+     *
+     * @param errors handler of invalid references
+     * @return reader instance
+     */
+    public A1ReferenceReader withErrorHandler(ErrorHandler errors) {
+        if (errors == null) {
+            throw new IllegalArgumentException("Error handler must not be null");
+        }
+        return new A1ReferenceReader(delimiter, sheets, errors);
+    }
+
+    /**
+     * Returns the registry sheet names are interned into.
+     *
+     * @return sheet registry
+     */
+    public SheetRegistry sheets() {
+        return sheets;
+    }
+
+    /**
+     * Reads all references from a character stream.
+     *
+     * @param reader source, read to its end but not closed
+     * @param consumer receives each reference in input order
+     * @return number of references emitted
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a reference is invalid and the error handler rethrows
+     */
+    public long read(Reader reader, Consumer<? super A1Notation> consumer) throws IOException {
+        return read(reader, new NotationSession(consumer));
+    }
+
+    /**
+     * Reads all references from a character stream as packed values.
+     *
+     * @param reader source, read to its end but not closed
+     * @param consumer receives the packed start and end of each reference in input order
+     * @return number of references emitted
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a reference is invalid and the error handler rethrows
+     */
+    public long readPacked(Reader reader, PackedConsumer consumer) throws IOException {
+        return read(reader, new PackedSession(consumer));
+    }
+
+    /**
+     * Reads all references from a blocking byte channel.
+     *
+     * @param channel source, read to its end but not closed
+     * @param consumer receives each reference in input order
+     * @return number of references emitted
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a reference is invalid and the error handler rethrows
+     */
+    public long read(ReadableByteChannel channel, Consumer<? super A1Notation> consumer) throws IOException {
+        return read(channel, new NotationSession(consumer));
+    }
+
+    /**
+     * Reads all references from a blocking byte channel as packed values.
+     *
+     * @param channel source, read to its end but not closed
+     * @param consumer receives the packed start and end of each reference in input order
+     * @return number of references emitted
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a reference is invalid and the error handler rethrows
+     */
+    public long readPacked(ReadableByteChannel channel, PackedConsumer consumer) throws IOException {
+        return read(channel, new PackedSession(consumer));
+    }
+
+    /**
+     * Reads all references from the current position of a file to its end by mapping it into
+     * memory, without copying it into a buffer.
+     *
+     * <p>The file is mapped in windows of up to 256 MiB; the channel position is moved to the end.
+     *
+     * @param channel file to read, not closed
+     * @param consumer receives each reference in input order
+     * @return number of references emitted
+     * @throws IOException if mapping fails
+     * @throws IllegalArgumentException if a reference is invalid and the error handler rethrows
+     */
+    public long readMapped(FileChannel channel, Consumer<? super A1Notation> consumer) throws IOException {
+        return readMapped(channel, new NotationSession(consumer));
+    }
+
+    /**
+     * Reads all references from the current position of a file to its end as packed values, by
+     * mapping it into memory.
+     *
+     * @param channel file to read, not closed
+     * @param consumer receives the packed start and end of each reference in input order
+     * @return number of references emitted
+     * @throws IOException if mapping fails
+     * @throws IllegalArgumentException if a reference is invalid and the error handler rethrows
+     * @see #readMapped(FileChannel, Consumer)
+     */
+    public long readMappedPacked(FileChannel channel, PackedConsumer consumer) throws IOException {
+        return readMapped(channel, new PackedSession(consumer));
+    }
+
+    private long read(Reader reader, Session session) throws IOException {
+        char[] buf = new char[BUFFER_SIZE];
+        CharBuffer chars = CharBuffer.wrap(buf);
+        int filled = 0;
+        while (true) {
+            int n = reader.read(buf, filled, buf.length - filled);
+            if (n < 0) {
+                split(chars, 0, filled, true, session);
+                return session.emitted;
+            }
+            filled += n;
+            int rest = split(chars, 0, filled, false, session);
+            int remaining = filled - rest;
+            if (remaining == buf.length) {
+                char[] grown = new char[buf.length * 2];
+                System.arraycopy(buf, 0, grown, 0, remaining);
+                buf = grown;
+                chars = CharBuffer.wrap(buf);
+            } else {
+                System.arraycopy(buf, rest, buf, 0, remaining);
+            }
+            filled = remaining;
+        }
+    }
+
+    private long read(ReadableByteChannel channel, Session session) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        while (true) {
+            int n = channel.read(buf);
+            buf.flip();
+            if (n < 0) {
+                split(AsciiChars.of(buf), 0, buf.limit(), true, session);
+                return session.emitted;
+            }
+            buf.position(split(AsciiChars.of(buf), 0, buf.limit(), false, session));
+            if (buf.position() == 0 && buf.limit() == buf.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(buf.capacity() * 2);
+                grown.put(buf);
+                buf = grown;
+            } else {
+                buf.compact();
+            }
+        }
+    }
+
+    private long readMapped(FileChannel channel, Session session) throws IOException {
+        long position = channel.position();
+        long size = channel.size();
+        while (position < size) {
+            int length = (int) Math.min(MAP_WINDOW, size - position);
+            boolean last = position + length == size;
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int rest = split(AsciiChars.of(map), 0, length, last, session);
+            if (rest == 0 && !last) {
+                throw new IllegalArgumentException("Reference longer than " + MAP_WINDOW + " bytes");
+            }
+            position += rest;
+        }
+        channel.position(size);
+        return session.emitted;
+    }
+
+    /**
+     * Emits every complete reference in {@code [from, to)}.
+     *
+     * @param last whether the input ends at {@code to}, completing the trailing reference
+     * @return index where the incomplete trailing reference starts
+     */
+    private int split(CharSequence chars, int from, int to, boolean last, Session session) {
+        int start = from;
+        boolean quoted = false;
+        for (int i = from; i < to; i++) {
+            char c = chars.charAt(i);
+            if (quoted && c == '\\' && i + 1 < to && chars.charAt(i + 1) == '\'') {
+                i++;
+            } else if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '\n' || c == delimiter && !quoted) {
+                token(chars, start, i, session);
+                start = i + 1;
+                quoted = false;
+            }
+        }
+        if (last) {
+            token(chars, start, to, session);
+            return to;
+        }
+        return start;
+    }
+
+    private void token(CharSequence chars, int from, int to, Session session) {
+        if (to > from && chars.charAt(to - 1) == '\r') {
+            to--;
+        }
+        if (from == to) {
+            return;
+        }
+        long index = session.index++;
+        try {
+            if (!session.parser.scan(chars, from, to)) {
+                throw new IllegalArgumentException("Unsupported A1 notation: " + chars.subSequence(from, to));
+            }
+            session.emit();
+            session.emitted++;
+        } catch (IllegalArgumentException e) {
+            errors.onError(index, chars.subSequence(from, to).toString(), e);
+        }
+    }
+
+    private abstract class Session {
+
+        final A1Parser parser = new A1Parser();
+        long index;
+        long emitted;
+
+        abstract void emit();
+    }
+
+    private final class NotationSession extends Session {
+
+        private final Consumer<? super A1Notation> consumer;
+
+        NotationSession(Consumer<? super A1Notation> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        void emit() {
+            consumer.accept(parser.toNotation(sheets));
+        }
+    }
+
+    private final class PackedSession extends Session {
+
+        private final PackedConsumer consumer;
+
+        PackedSession(PackedConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        void emit() {
+            int sheetId = parser.sheetId(sheets);
+            consumer.accept(parser.packedStart(sheetId), parser.packedEnd(sheetId));
+        }
+    }
+
+    /**
+     * PackedConsumer receives references packed as a start and end cell.
+     *
+     * <p>A cell arrives with equal start and end, both bounded, and decodes with
+     * {@link A1Packed#decode(long)}; any other reference decodes with
+     * {@link A1Packed#decode(long, long)}.
+     */
+    @FunctionalInterface
+    public interface PackedConsumer {
+
+        /**
+         * Accepts a packed reference.
+         *
+         * @param start packed start cell
+         * @param end packed end cell
+         */
+        void accept(long start, long end);
+    }
+
+    /**
+     * ErrorHandler receives references that could not be parsed.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+
+        /**
+         * Handles an invalid reference.
+         *
+         * @param index 0-based position of the reference among all non-empty references
+         * @param reference the invalid reference
+         * @param error the parser error
+         */
+        void onError(long index, String reference, IllegalArgumentException error);
+    }
+}
@@ -2,8 +2,10 @@ package cloud.fineit.just.a1notation;
 
 /**
  * Positive row index in A1 notation.
+ *
+ * <p>Rows are ordered by index.
  */
-public final class A1Row {
+public final class A1Row implements Comparable<A1Row> {
 
     private final int index;
 
@@ -38,6 +40,27 @@ public final class A1Row {
         return index - 1;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof A1Row)) {
+            return false;
+        }
+        return index == ((A1Row) o).index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public int compareTo(A1Row other) {
+        return Integer.compare(index, other.index);
+    }
+
     @Override
     public String toString() {
         return Integer.toString(index);
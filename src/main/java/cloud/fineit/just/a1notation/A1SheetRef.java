@@ -2,27 +2,55 @@ package cloud.fineit.just.a1notation;
 
 import cloud.fineit.just.SheetName;
 
-import static cloud.fineit.just.a1notation.Stringifiers.sheetNameStr;
+import java.io.IOException;
+import java.util.Optional;
+
+import static cloud.fineit.just.a1notation.Stringifiers.appendSheetName;
 
 /**
  * SheetRef represents a sheet-only A1 reference.
  */
-final class A1SheetRef implements A1Notation {
+final class A1SheetRef implements A1Notation, Bounds {
 
     private final SheetName sheetName;
+    private final Optional<SheetName> sheet;
 
 
     A1SheetRef(SheetName sheetName) {
         this.sheetName = sheetName;
+        this.sheet = Optional.of(sheetName);
     }
 
-    A1SheetRef(String original) {
-        this.sheetName = SheetName.parse(original);
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof A1SheetRef)) {
+            return false;
+        }
+        return sheetName.equals(((A1SheetRef) o).sheetName);
+    }
+
+    @Override
+    public int hashCode() {
+        return sheetName.hashCode();
     }
 
     @Override
     public String toString() {
-        return sheetNameStr(sheetName);
+        return appendTo(new StringBuilder(sheetName.value().length() + 2)).toString();
+    }
+
+    @Override
+    public Appendable appendTo(Appendable out) throws IOException {
+        appendSheetName(out, sheetName);
+        return out;
+    }
+
+    @Override
+    public Appendable appendShortTo(Appendable out) {
+        return out;
     }
 
     @Override
@@ -39,4 +67,29 @@ final class A1SheetRef implements A1Notation {
     public int height() {
         throw new UnboundedDimensionException("Height cannot be determined for sheet-only reference: " + this);
     }
+
+    @Override
+    public Optional<SheetName> sheet() {
+        return sheet;
+    }
+
+    @Override
+    public int left() {
+        return 0;
+    }
+
+    @Override
+    public int top() {
+        return 0;
+    }
+
+    @Override
+    public int right() {
+        return 0;
+    }
+
+    @Override
+    public int bottom() {
+        return 0;
+    }
 }
@@ -0,0 +1,323 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A1Shifter rebases references after rows or columns are inserted into or deleted from a sheet.
+ *
+ * <p>A shifter describes one structural edit: {@code count} rows or columns inserted before, or
+ * deleted starting at, the 1-based index {@code at}. Only references on the edited sheet move,
+ * with sheet names matched ignoring case as in {@link cloud.fineit.just.SheetRegistry};
+ * references without a sheet name match an edit without one, like in {@link A1RangeIndex}.
+ * Coordinates behave as in spreadsheet applications:
+ *
+ * <ul>
+ *   <li>an insert moves every coordinate at or after {@code at} by {@code count}, so a range
+ *       straddling the insert point grows;</li>
+ *   <li>a delete moves coordinates after the deleted span back by {@code count} and clips a range
+ *       overlapping the span to its remaining part;</li>
+ *   <li>a cell or range lying entirely within the deleted span is deleted, as is one pushed past
+ *       the last row or column by an insert; a range pushed partly past it is clipped;</li>
+ *   <li>unbounded axes, like the rows of {@code A:C}, and sheet-only references never move.</li>
+ * </ul>
+ *
+ * <p>Notations keep their kind, {@code $} anchors and the orientation of reversed endpoints, and
+ * unaffected ones are returned as the same instance. Packed arrays in the {@link A1Packed} layout
+ * are shifted in place by plain loops over the array, without creating any object; deleted
+ * entries are overwritten with {@link #DELETED}. Packed coordinates are limited to
+ * {@link A1Packed#MAX_ROW} and {@link A1Packed#MAX_COLUMN}, notations to
+ * {@link Integer#MAX_VALUE}.
+ *
+ * <p>Shifters are immutable and thread-safe.
+ *
+ * <pre>{@code
+ * A1Shifter shifter = A1Shifter.deleteRows(3, 2).onSheet(new SheetName("Data"));
+ * shifter.shift(A1Notation.of("Data!A1:B10")); // Optional[Data!A1:B8]
+ * shifter.shift(A1Notation.of("Data!C4"));     // Optional.empty
+ * }</pre>
+ */
+public final class A1Shifter {
+
+    /**
+     * Marks a deleted entry in packed arrays.
+     */
+    public static final long DELETED = -1L;
+
+    private static final long COLUMN_MASK = A1Packed.MAX_COLUMN;
+    private static final long ROW_MASK = (long) A1Packed.MAX_ROW << A1Packed.COLUMN_BITS;
+
+    private final boolean rows;
+    private final boolean insert;
+    private final int at;
+    private final int count;
+    private final Optional<SheetName> sheet;
+
+    private A1Shifter(boolean rows, boolean insert, int at, int count, Optional<SheetName> sheet) {
+        this.rows = rows;
+        this.insert = insert;
+        this.at = at;
+        this.count = count;
+        this.sheet = sheet;
+    }
+
+    /**
+     * Returns a shifter inserting rows before the given row.
+     *
+     * @param at 1-based row the first inserted row will have
+     * @param count number of inserted rows
+     * @return shifter for references without a sheet name
+     * @throws IllegalArgumentException if {@code at} or {@code count} is less than 1
+     */
+    public static A1Shifter insertRows(int at, int count) {
+        return create(true, true, at, count);
+    }
+
+    /**
+     * Returns a shifter deleting rows starting at the given row.
+     *
+     * @param at 1-based first deleted row
+     * @param count number of deleted rows
+     * @return shifter for references without a sheet name
+     * @throws IllegalArgumentException if {@code at} or {@code count} is less than 1
+     */
+    public static A1Shifter deleteRows(int at, int count) {
+        return create(true, false, at, count);
+    }
+
+    /**
+     * Returns a shifter inserting columns before the given column.
+     *
+     * @param at 1-based column the first inserted column will have
+     * @param count number of inserted columns
+     * @return shifter for references without a sheet name
+     * @throws IllegalArgumentException if {@code at} or {@code count} is less than 1
+     */
+    public static A1Shifter insertColumns(int at, int count) {
+        return create(false, true, at, count);
+    }
+
+    /**
+     * Returns a shifter deleting columns starting at the given column.
+     *
+     * @param at 1-based first deleted column
+     * @param count number of deleted columns
+     * @return shifter for references without a sheet name
+     * @throws IllegalArgumentException if {@code at} or {@code count} is less than 1
+     */
+    public static A1Shifter deleteColumns(int at, int count) {
+        return create(false, false, at, count);
+    }
+
+    private static A1Shifter create(boolean rows, boolean insert, int at, int count) {
+        if (at < 1) {
+            throw new IllegalArgumentException("Index must be positive: " + at);
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        return new A1Shifter(rows, insert, at, count, Optional.empty());
+    }
+
+    /**
+     * Returns a copy of this shifter applying the edit to the given sheet.
+     *
+     * @param sheet edited sheet
+     * @return shifter instance
+     */
+    public A1Shifter onSheet(SheetName sheet) {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Sheet name must not be null");
+        }
+        return new A1Shifter(rows, insert, at, count, Optional.of(sheet));
+    }
+
+    /**
+     * Returns the reference after the edit.
+     *
+     * @param notation reference to shift
+     * @return shifted reference, the same instance if unaffected, or empty if it was deleted
+     * @throws IllegalArgumentException if the notation is implemented outside of this package
+     */
+    public Optional<A1Notation> shift(A1Notation notation) {
+        return Optional.ofNullable(shiftOrNull(notation));
+    }
+
+    /**
+     * Returns the references after the edit, in the same order.
+     *
+     * @param notations references to shift
+     * @return list of the same size holding each shifted reference, or an empty entry where a
+     *         reference was deleted
+     * @throws IllegalArgumentException if a notation is implemented outside of this package
+     */
+    public List<Optional<A1Notation>> shiftAll(List<? extends A1Notation> notations) {
+        List<Optional<A1Notation>> shifted = new ArrayList<>(notations.size());
+        for (A1Notation notation : notations) {
+            shifted.add(shift(notation));
+        }
+        return shifted;
+    }
+
+    private A1Notation shiftOrNull(A1Notation notation) {
+        Bounds bounds = Bounds.of(notation);
+        if (!onEditedSheet(bounds.sheet())) {
+            return notation;
+        }
+        int start = rows ? bounds.top() : bounds.left();
+        int end = rows ? bounds.bottom() : bounds.right();
+        if (start == A1Packed.UNBOUNDED || Math.max(start, end) < at) {
+            return notation;
+        }
+        boolean reversed = start > end;
+        long low = shiftStart(reversed ? end : start, Integer.MAX_VALUE);
+        long high = shiftEnd(reversed ? start : end, Integer.MAX_VALUE);
+        if (low > high) {
+            return null;
+        }
+        int newStart = (int) (reversed ? high : low);
+        int newEnd = (int) (reversed ? low : high);
+        return rows
+                ? A1Ranges.create(bounds.sheet(), bounds.left(), newStart, bounds.right(), newEnd,
+                        notation instanceof A1CellRef, notation.anchors())
+                : A1Ranges.create(bounds.sheet(), newStart, bounds.top(), newEnd, bounds.bottom(),
+                        notation instanceof A1CellRef, notation.anchors());
+    }
+
+    private boolean onEditedSheet(Optional<SheetName> other) {
+        if (sheet.isEmpty() || other.isEmpty()) {
+            return sheet.isEmpty() && other.isEmpty();
+        }
+        return sheet.get().equalsIgnoreCase(other.get());
+    }
+
+    /**
+     * Shifts packed cells in place.
+     *
+     * @param cells packed cells
+     * @param from index of the first cell, inclusive
+     * @param to index of the last cell, exclusive
+     * @param sheetId id of the edited sheet, {@link A1Packed#NO_SHEET} for none
+     * @return number of cells deleted and overwritten with {@link #DELETED}
+     */
+    public int shiftPacked(long[] cells, int from, int to, int sheetId) {
+        Objects.checkFromToIndex(from, to, cells.length);
+        int shift = rows ? A1Packed.COLUMN_BITS : 0;
+        long mask = rows ? ROW_MASK : COLUMN_MASK;
+        int limit = rows ? A1Packed.MAX_ROW : A1Packed.MAX_COLUMN;
+        int deleted = 0;
+        if (insert) {
+            long moved = (long) count << shift;
+            long first = (long) at << shift;
+            long last = (long) (limit - count) << shift;
+            for (int i = from; i < to; i++) {
+                long cell = cells[i];
+                long coordinate = cell & mask;
+                boolean affected = A1Packed.sheetId(cell) == sheetId && cell != DELETED && coordinate >= first;
+                boolean overflow = affected && coordinate > last;
+                cells[i] = overflow ? DELETED : affected ? cell + moved : cell;
+                deleted += overflow ? 1 : 0;
+            }
+            return deleted;
+        }
+        long moved = (long) count << shift;
+        long first = (long) at << shift;
+        long next = ((long) at + count) << shift;
+        for (int i = from; i < to; i++) {
+            long cell = cells[i];
+            long coordinate = cell & mask;
+            boolean affected = A1Packed.sheetId(cell) == sheetId && cell != DELETED && coordinate >= first;
+            boolean removed = affected && coordinate < next;
+            cells[i] = removed ? DELETED : affected ? cell - moved : cell;
+            deleted += removed ? 1 : 0;
+        }
+        return deleted;
+    }
+
+    /**
+     * Shifts packed start and end pairs in place.
+     *
+     * <p>Pairs are laid out as by {@link A1Packed#encodeStart} and {@link A1Packed#encodeEnd};
+     * both values of a deleted pair are overwritten with {@link #DELETED}.
+     *
+     * @param starts packed start cells
+     * @param ends packed end cells, at the same indexes
+     * @param from index of the first pair, inclusive
+     * @param to index of the last pair, exclusive
+     * @param sheetId id of the edited sheet, {@link A1Packed#NO_SHEET} for none
+     * @return number of pairs deleted
+     */
+    public int shiftPacked(long[] starts, long[] ends, int from, int to, int sheetId) {
+        Objects.checkFromToIndex(from, to, starts.length);
+        Objects.checkFromToIndex(from, to, ends.length);
+        int shift = rows ? A1Packed.COLUMN_BITS : 0;
+        long mask = rows ? ROW_MASK : COLUMN_MASK;
+        int limit = rows ? A1Packed.MAX_ROW : A1Packed.MAX_COLUMN;
+        int deleted = 0;
+        for (int i = from; i < to; i++) {
+            long start = starts[i];
+            if (start == DELETED || A1Packed.sheetId(start) != sheetId) {
+                continue;
+            }
+            long end = ends[i];
+            int startCoordinate = (int) ((start & mask) >>> shift);
+            int endCoordinate = (int) ((end & mask) >>> shift);
+            if (startCoordinate == A1Packed.UNBOUNDED || Math.max(startCoordinate, endCoordinate) < at) {
+                continue;
+            }
+            boolean reversed = startCoordinate > endCoordinate;
+            long low = shiftStart(reversed ? endCoordinate : startCoordinate, limit);
+            long high = shiftEnd(reversed ? startCoordinate : endCoordinate, limit);
+            if (low > high) {
+                starts[i] = DELETED;
+                ends[i] = DELETED;
+                deleted++;
+                continue;
+            }
+            starts[i] = (start & ~mask) | (reversed ? high : low) << shift;
+            ends[i] = (end & ~mask) | (reversed ? low : high) << shift;
+        }
+        return deleted;
+    }
+
+    /**
+     * Describes the edit, like {@code "insert 2 rows at 3 on Data"}.
+     *
+     * @return description of the edit
+     */
+    @Override
+    public String toString() {
+        return (insert ? "insert " : "delete ") + count + (rows ? " rows at " : " columns at ") + at
+                + sheet.map(name -> " on " + name).orElse("");
+    }
+
+    /**
+     * Returns the new first coordinate of a span, or a value past {@code limit} if it is gone.
+     */
+    private long shiftStart(int coordinate, int limit) {
+        if (coordinate < at) {
+            return coordinate;
+        }
+        if (insert) {
+            return Math.min((long) coordinate + count, limit + 1L);
+        }
+        return coordinate - at < count ? at : coordinate - count;
+    }
+
+    /**
+     * Returns the new last coordinate of a span, clipped to {@code limit}.
+     */
+    private long shiftEnd(int coordinate, int limit) {
+        if (coordinate < at) {
+            return coordinate;
+        }
+        if (insert) {
+            return Math.min((long) coordinate + count, limit);
+        }
+        return coordinate - at < count ? at - 1 : coordinate - count;
+    }
+}
@@ -0,0 +1,184 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Spliterators over the cells and rows of a reference.
+ *
+ * <p>Both split their remaining elements in half, so every part knows its exact size. Cells are
+ * numbered row-major; splits fall on a row boundary whenever the part spans more than one row, so a
+ * large range is divided into bands of whole rows first and single rows into column halves last.
+ */
+final class A1Spliterators {
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+            | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    private A1Spliterators() {
+    }
+
+    static Spliterator.OfLong cells(Bounds bounds, int sheetId) {
+        if (bounds.left() == A1Packed.UNBOUNDED || bounds.top() == A1Packed.UNBOUNDED) {
+            throw new UnboundedDimensionException("Cells cannot be enumerated for unbounded reference: " + bounds);
+        }
+        int left = Math.min(bounds.left(), bounds.right());
+        int top = Math.min(bounds.top(), bounds.bottom());
+        int width = Math.max(bounds.left(), bounds.right()) - left + 1;
+        int height = Math.max(bounds.top(), bounds.bottom()) - top + 1;
+        A1Packed.pack(sheetId, left + width - 1, top + height - 1);
+        return new Cells(A1Packed.pack(sheetId, left, top), width, 0, (long) width * height);
+    }
+
+    static Spliterator.OfInt rows(Bounds bounds) {
+        if (bounds.top() == A1Packed.UNBOUNDED) {
+            throw new UnboundedDimensionException("Rows cannot be enumerated for unbounded rows: " + bounds);
+        }
+        return new Rows(Math.min(bounds.top(), bounds.bottom()), (long) Math.max(bounds.top(), bounds.bottom()) + 1);
+    }
+
+    /**
+     * Packed cells {@code [from, to)} of a grid, numbered row-major from its top-left cell.
+     */
+    private static final class Cells implements Spliterator.OfLong {
+
+        private static final long ROW = 1L << A1Packed.COLUMN_BITS;
+
+        private final long origin;
+        private final int width;
+        private long from;
+        private final long to;
+
+        Cells(long origin, int width, long from, long to) {
+            this.origin = origin;
+            this.width = width;
+            this.from = from;
+            this.to = to;
+        }
+
+        private long cell(long index) {
+            return origin + index / width * ROW + index % width;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(cell(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long index = from;
+            from = to;
+            if (index >= to) {
+                return;
+            }
+            long cell = cell(index);
+            int column = (int) (index % width);
+            for (; index < to; index++) {
+                action.accept(cell);
+                if (++column == width) {
+                    column = 0;
+                    cell += ROW - (width - 1);
+                } else {
+                    cell++;
+                }
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long size = to - from;
+            if (size < 2) {
+                return null;
+            }
+            long mid = from + size / 2;
+            if (size > width) {
+                long aligned = mid - mid % width;
+                mid = aligned > from ? aligned : aligned + width;
+            }
+            Spliterator.OfLong prefix = new Cells(origin, width, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+
+    /**
+     * Rows {@code [from, to)}.
+     */
+    private static final class Rows implements Spliterator.OfInt {
+
+        private long from;
+        private final long to;
+
+        Rows(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept((int) from++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            long row = from;
+            from = to;
+            for (; row < to; row++) {
+                action.accept((int) row);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long size = to - from;
+            if (size < 2) {
+                return null;
+            }
+            long mid = from + size / 2;
+            Spliterator.OfInt prefix = new Rows(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+}
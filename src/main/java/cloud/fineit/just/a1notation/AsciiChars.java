@@ -0,0 +1,94 @@
+package cloud.fineit.just.a1notation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only {@link CharSequence} views over ASCII-encoded bytes.
+ *
+ * <p>Each byte maps to one ISO-8859-1 character. The views let the parser read references in place
+ * from byte arrays and buffers; strings are created only when a slice is explicitly requested.
+ */
+abstract class AsciiChars implements CharSequence {
+
+    private AsciiChars() {
+    }
+
+    /**
+     * Returns a view over the whole array.
+     *
+     * @param bytes ASCII bytes
+     * @return character view
+     */
+    static AsciiChars of(byte[] bytes) {
+        return new ArrayChars(bytes);
+    }
+
+    /**
+     * Returns a view over the buffer, indexed by absolute positions up to its limit.
+     *
+     * @param buffer ASCII bytes
+     * @return character view
+     */
+    static AsciiChars of(ByteBuffer buffer) {
+        return new BufferChars(buffer);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        int length = end - start;
+        byte[] copy = new byte[length];
+        for (int i = 0; i < length; i++) {
+            copy[i] = (byte) charAt(start + i);
+        }
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    private static final class ArrayChars extends AsciiChars {
+
+        private final byte[] bytes;
+
+        ArrayChars(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static final class BufferChars extends AsciiChars {
+
+        private final ByteBuffer buffer;
+
+        BufferChars(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+    }
+}
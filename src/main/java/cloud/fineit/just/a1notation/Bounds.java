@@ -0,0 +1,54 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.Optional;
+
+/**
+ * Primitive coordinates of a parsed A1 reference.
+ *
+ * <p>Columns and rows are 1-based as written in A1 notation. An unbounded side, such as the rows of
+ * {@code A:C} or both axes of a sheet-only reference, is reported as {@code 0}. Endpoints are
+ * returned as written, so a reversed range like {@code F10:C10} has {@code left > right}.
+ */
+interface Bounds {
+
+    /**
+     * Returns the sheet name, if any.
+     */
+    Optional<SheetName> sheet();
+
+    /**
+     * Returns the 1-based starting column, or {@code 0} when columns are unbounded.
+     */
+    int left();
+
+    /**
+     * Returns the 1-based starting row, or {@code 0} when rows are unbounded.
+     */
+    int top();
+
+    /**
+     * Returns the 1-based ending column, or {@code 0} when columns are unbounded.
+     */
+    int right();
+
+    /**
+     * Returns the 1-based ending row, or {@code 0} when rows are unbounded.
+     */
+    int bottom();
+
+    /**
+     * Returns the coordinates of a notation created by this package.
+     *
+     * @param notation A1 notation
+     * @return coordinates view
+     * @throws IllegalArgumentException if the notation is implemented outside of this package
+     */
+    static Bounds of(A1Notation notation) {
+        if (notation instanceof Bounds) {
+            return (Bounds) notation;
+        }
+        throw new IllegalArgumentException("Unsupported A1Notation implementation: " + notation.getClass());
+    }
+}
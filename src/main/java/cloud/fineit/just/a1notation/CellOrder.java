@@ -0,0 +1,17 @@
+package cloud.fineit.just.a1notation;
+
+/**
+ * Order in which the cells of a range are visited.
+ */
+public enum CellOrder {
+
+    /**
+     * Left to right within a row, rows top to bottom.
+     */
+    ROW_MAJOR,
+
+    /**
+     * Top to bottom within a column, columns left to right.
+     */
+    COLUMN_MAJOR
+}
@@ -0,0 +1,35 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.List;
+
+/**
+ * Signals that cells depend on each other in a cycle.
+ *
+ * <p>The cycle lists each cell followed by a cell depending on it; the first cell depends on the
+ * last one.
+ */
+public final class CircularDependencyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<A1Notation> cycle;
+
+    /**
+     * Creates an exception for the given cycle.
+     *
+     * @param cycle cells in dependency order, copied
+     */
+    public CircularDependencyException(List<A1Notation> cycle) {
+        super("Circular dependency: " + cycle);
+        this.cycle = List.copyOf(cycle);
+    }
+
+    /**
+     * Returns the cells forming the cycle.
+     *
+     * @return cells in dependency order
+     */
+    public List<A1Notation> cycle() {
+        return cycle;
+    }
+}
@@ -0,0 +1,71 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Canonical order of references, consistent with {@code equals}.
+ *
+ * <p>Compares the sheet name first, references without one before the others, then the starting
+ * cell and the ending cell row by row or column by column, then the kind in the order of the
+ * {@link A1RefArray} kind constants, then the {@code $} anchors. Unbounded sides sort first, as in
+ * {@link A1RefArray#sort()}.
+ */
+final class NotationOrder implements Comparator<A1Notation> {
+
+    static final NotationOrder ROW_MAJOR = new NotationOrder(true);
+    static final NotationOrder COLUMN_MAJOR = new NotationOrder(false);
+
+    private final boolean rowMajor;
+
+    private NotationOrder(boolean rowMajor) {
+        this.rowMajor = rowMajor;
+    }
+
+    static NotationOrder of(CellOrder order) {
+        return order == CellOrder.ROW_MAJOR ? ROW_MAJOR : COLUMN_MAJOR;
+    }
+
+    @Override
+    public int compare(A1Notation a, A1Notation b) {
+        if (a == b) {
+            return 0;
+        }
+        Bounds first = Bounds.of(a);
+        Bounds second = Bounds.of(b);
+        int result = compareSheets(first.sheet(), second.sheet());
+        if (result == 0) {
+            result = rowMajor
+                    ? compareCorners(first.top(), first.left(), second.top(), second.left())
+                    : compareCorners(first.left(), first.top(), second.left(), second.top());
+        }
+        if (result == 0) {
+            result = rowMajor
+                    ? compareCorners(first.bottom(), first.right(), second.bottom(), second.right())
+                    : compareCorners(first.right(), first.bottom(), second.right(), second.bottom());
+        }
+        if (result == 0) {
+            result = Integer.compare(A1RefArray.kindOf(a, first), A1RefArray.kindOf(b, second));
+        }
+        return result != 0 ? result : Integer.compare(a.anchors(), b.anchors());
+    }
+
+    @Override
+    public String toString() {
+        return rowMajor ? "A1 row-major order" : "A1 column-major order";
+    }
+
+    private static int compareSheets(Optional<SheetName> a, Optional<SheetName> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return Boolean.compare(a.isPresent(), b.isPresent());
+        }
+        return a.get().compareTo(b.get());
+    }
+
+    private static int compareCorners(int major, int minor, int otherMajor, int otherMinor) {
+        int result = Integer.compare(major, otherMajor);
+        return result != 0 ? result : Integer.compare(minor, otherMinor);
+    }
+}
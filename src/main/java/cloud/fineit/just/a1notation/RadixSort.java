@@ -0,0 +1,180 @@
+package cloud.fineit.just.a1notation;
+
+import java.util.Objects;
+
+/**
+ * Stable least-significant-digit radix sorts over unsigned keys.
+ *
+ * <p>Keys are split into 8-bit digits. One pass over the keys counts every digit, and a digit
+ * that is equal for all keys, like the high bits of small coordinates, skips its scatter pass, so
+ * packed cells of one sheet typically need five passes instead of eight. Short runs fall back to an
+ * insertion sort.
+ */
+final class RadixSort {
+
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+    private static final int INSERTION_THRESHOLD = 64;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Sorts {@code [from, to)} of the values in unsigned order.
+     */
+    static void sort(long[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        int n = to - from;
+        if (n < INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                long value = values[i];
+                int j = i - 1;
+                for (; j >= from && Long.compareUnsigned(values[j], value) > 0; j--) {
+                    values[j + 1] = values[j];
+                }
+                values[j + 1] = value;
+            }
+            return;
+        }
+        long[] source = new long[n];
+        long[] target = new long[n];
+        System.arraycopy(values, from, source, 0, n);
+        int[][] counts = counts(source);
+        for (int digit = 0; digit < Long.SIZE / DIGIT_BITS; digit++) {
+            int[] offsets = offsets(counts[digit], n);
+            if (offsets == null) {
+                continue;
+            }
+            int shift = digit * DIGIT_BITS;
+            for (long value : source) {
+                target[offsets[(int) (value >>> shift) & DIGIT_MASK]++] = value;
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        System.arraycopy(source, 0, values, from, n);
+    }
+
+    /**
+     * Sorts {@code [from, to)} of the pairs by key, then by value, both in unsigned order.
+     */
+    static void sort(long[] keys, long[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, keys.length);
+        Objects.checkFromToIndex(from, to, values.length);
+        int n = to - from;
+        if (n < INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                long key = keys[i];
+                long value = values[i];
+                int j = i - 1;
+                for (; j >= from && compareUnsigned(keys[j], values[j], key, value) > 0; j--) {
+                    keys[j + 1] = keys[j];
+                    values[j + 1] = values[j];
+                }
+                keys[j + 1] = key;
+                values[j + 1] = value;
+            }
+            return;
+        }
+        long[] sourceKeys = new long[n];
+        long[] sourceValues = new long[n];
+        long[] targetKeys = new long[n];
+        long[] targetValues = new long[n];
+        System.arraycopy(keys, from, sourceKeys, 0, n);
+        System.arraycopy(values, from, sourceValues, 0, n);
+        int[][] valueCounts = counts(sourceValues);
+        int[][] keyCounts = counts(sourceKeys);
+        for (int pass = 0; pass < 2 * Long.SIZE / DIGIT_BITS; pass++) {
+            boolean byValue = pass < Long.SIZE / DIGIT_BITS;
+            int digit = byValue ? pass : pass - Long.SIZE / DIGIT_BITS;
+            int[] offsets = offsets((byValue ? valueCounts : keyCounts)[digit], n);
+            if (offsets == null) {
+                continue;
+            }
+            int shift = digit * DIGIT_BITS;
+            long[] digits = byValue ? sourceValues : sourceKeys;
+            for (int i = 0; i < n; i++) {
+                int position = offsets[(int) (digits[i] >>> shift) & DIGIT_MASK]++;
+                targetKeys[position] = sourceKeys[i];
+                targetValues[position] = sourceValues[i];
+            }
+            long[] swap = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swap;
+            swap = sourceValues;
+            sourceValues = targetValues;
+            targetValues = swap;
+        }
+        System.arraycopy(sourceKeys, 0, keys, from, n);
+        System.arraycopy(sourceValues, 0, values, from, n);
+    }
+
+    /**
+     * Stably reorders indexes by their unsigned keys, {@code keys[order[i]]}.
+     *
+     * @param order indexes into the keys to reorder in place
+     * @param buffer scratch array of the same length
+     */
+    static void sortOrder(int[] order, int[] buffer, int[] keys) {
+        int n = order.length;
+        int[][] counts = new int[Integer.SIZE / DIGIT_BITS][RADIX];
+        for (int index : order) {
+            int key = keys[index];
+            for (int digit = 0; digit < counts.length; digit++) {
+                counts[digit][key >>> digit * DIGIT_BITS & DIGIT_MASK]++;
+            }
+        }
+        int[] source = order;
+        int[] target = buffer;
+        for (int digit = 0; digit < counts.length; digit++) {
+            int[] offsets = offsets(counts[digit], n);
+            if (offsets == null) {
+                continue;
+            }
+            int shift = digit * DIGIT_BITS;
+            for (int index : source) {
+                target[offsets[keys[index] >>> shift & DIGIT_MASK]++] = index;
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != order) {
+            System.arraycopy(source, 0, order, 0, n);
+        }
+    }
+
+    private static int[][] counts(long[] values) {
+        int[][] counts = new int[Long.SIZE / DIGIT_BITS][RADIX];
+        for (long value : values) {
+            for (int digit = 0; digit < counts.length; digit++) {
+                counts[digit][(int) (value >>> digit * DIGIT_BITS) & DIGIT_MASK]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Turns the counts of a digit into the first position of each bucket, or returns
+     * {@code null} if every key has the same digit.
+     */
+    private static int[] offsets(int[] counts, int n) {
+        int sum = 0;
+        for (int bucket = 0; bucket < RADIX; bucket++) {
+            int count = counts[bucket];
+            if (count == n) {
+                return null;
+            }
+            counts[bucket] = sum;
+            sum += count;
+        }
+        return counts;
+    }
+
+    private static int compareUnsigned(long key, long value, long otherKey, long otherValue) {
+        int result = Long.compareUnsigned(key, otherKey);
+        return result != 0 ? result : Long.compareUnsigned(value, otherValue);
+    }
+}
@@ -2,51 +2,118 @@ package cloud.fineit.just.a1notation;
 
 import cloud.fineit.just.SheetName;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
- * Helpers to build A1 notation strings from parsed parts.
+ * Helpers to write A1 notation strings from parsed parts.
  *
- * <p>Utilities cover sheet prefixes, cells, and ranges.
+ * <p>Utilities cover sheet prefixes, cells, and ranges. Parts are written straight into the
+ * caller's buffer, so formatting creates no intermediate strings.
  */
 final class Stringifiers {
 
     private Stringifiers() {}
 
     /**
-     * Returns the sheet name formatted according to A1 quoting rules.
+     * Writes the sheet name formatted according to A1 quoting rules.
      *
+     * @param out target to append to
      * @param sheetName sheet name value
-     * @return formatted sheet name
+     * @throws IOException if the target fails
      */
-    static String sheetNameStr(SheetName sheetName) {
-        String name = sheetName.value();
-        if (!isQuotingRequired(name)) {
-            return name;
-        }
-        return "'" + name.replace("'", "\\'") + "'";
+    static void appendSheetName(Appendable out, SheetName sheetName) throws IOException {
+        sheetName.appendTo(out);
     }
 
     /**
-     * Returns the sheet prefix including the trailing {@code !}.
+     * Writes the sheet prefix including the trailing {@code !}.
      *
+     * @param out target to append to
      * @param sheet sheet name
-     * @return formatted sheet name ending with {@code !}
+     * @throws IOException if the target fails
      */
-    static String sheetPrefix(SheetName sheet) {
-        return sheetNameStr(sheet) + "!";
+    static void appendSheetPrefix(Appendable out, SheetName sheet) throws IOException {
+        appendSheetName(out, sheet);
+        out.append('!');
     }
 
     /**
-     * Returns a cell reference as A1 notation string.
+     * Writes a cell reference with optional anchors like {@code $A$1}.
      *
+     * @param out target to append to
      * @param column the column of the cell
      * @param row the row of the cell
-     * @return cell string like {@code A1}
+     * @param columnAnchored whether to prefix the column with {@code $}
+     * @param rowAnchored whether to prefix the row with {@code $}
+     * @throws IOException if the target fails
      */
-    static String cellStr(A1Column column, A1Row row) {
-        return column.toString() + row.toString();
+    static void appendCell(Appendable out, A1Column column, A1Row row, boolean columnAnchored, boolean rowAnchored)
+            throws IOException {
+        appendColumn(out, column, columnAnchored);
+        appendRow(out, row, rowAnchored);
     }
 
-    private static boolean isQuotingRequired(String name) {
-        return name == null || !name.matches("[A-Za-z_][A-Za-z0-9_]*");
+    /**
+     * Writes the letters of a column, prefixed with {@code $} if anchored.
+     *
+     * @param out target to append to
+     * @param column the column to write
+     * @param anchored whether to prefix the column with {@code $}
+     * @throws IOException if the target fails
+     */
+    static void appendColumn(Appendable out, A1Column column, boolean anchored) throws IOException {
+        if (anchored) {
+            out.append('$');
+        }
+        out.append(column.value());
+    }
+
+    /**
+     * Writes the decimal digits of a row, prefixed with {@code $} if anchored.
+     *
+     * @param out target to append to
+     * @param row the row to write
+     * @param anchored whether to prefix the row with {@code $}
+     * @throws IOException if the target fails
+     */
+    static void appendRow(Appendable out, A1Row row, boolean anchored) throws IOException {
+        if (anchored) {
+            out.append('$');
+        }
+        appendRow(out, row);
+    }
+
+    /**
+     * Writes the decimal digits of a row.
+     *
+     * @param out target to append to
+     * @param row the row to write
+     * @throws IOException if the target fails
+     */
+    static void appendRow(Appendable out, A1Row row) throws IOException {
+        int value = row.value();
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+            return;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Wraps an {@link IOException} thrown while appending to a {@link StringBuilder}, which does
+     * not happen in practice.
+     *
+     * @param e exception thrown by the target
+     * @return exception to throw
+     */
+    static UncheckedIOException unexpected(IOException e) {
+        return new UncheckedIOException(e);
     }
 }
@@ -8,6 +8,8 @@ package cloud.fineit.just.a1notation;
  */
 public final class UnboundedDimensionException extends RuntimeException {
 
+    private static final long serialVersionUID = 1L;
+
     public UnboundedDimensionException(String message) {
         super(message);
     }
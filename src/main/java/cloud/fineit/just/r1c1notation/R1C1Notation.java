@@ -0,0 +1,445 @@
+package cloud.fineit.just.r1c1notation;
+
+import cloud.fineit.just.AddressNotation;
+import cloud.fineit.just.NotationType;
+import cloud.fineit.just.SheetName;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * R1C1Notation references cells and ranges by row and column numbers, optionally prefixed with a
+ * sheet name.
+ *
+ * <p>Each coordinate is either absolute, like {@code R2C3} for the cell in row 2 and column 3, or
+ * relative to an anchor cell, like {@code R[-1]C[2]} for the cell one row above and two columns to
+ * the right of it. A missing number, as in {@code RC} or {@code R[1]C}, is an offset of zero.
+ *
+ * <p>Examples:
+ *
+ * <pre>{@code
+ * R1C1
+ * R[-1]C[2]
+ * Sheet1!R1C1:R10C4
+ * R2:R5
+ * C[-1]
+ * 'My Custom Sheet'!C1:C3
+ * }</pre>
+ *
+ * <p>Coordinates are exposed as plain integers, the row or column number for absolute coordinates
+ * and the offset for relative ones, so references convert to A1 notation without formatting or
+ * parsing strings. Whole-row references have no columns and whole-column references have no rows;
+ * the missing axis is reported as {@code 0} and not relative. Endpoints are kept as written, and a
+ * single row or column like {@code R5} is written back as {@code R5:R5}, as in A1 notation.
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public final class R1C1Notation implements AddressNotation {
+
+    /**
+     * Flag of a relative starting row.
+     */
+    public static final int TOP_RELATIVE = 1;
+
+    /**
+     * Flag of a relative starting column.
+     */
+    public static final int LEFT_RELATIVE = 2;
+
+    /**
+     * Flag of a relative ending row.
+     */
+    public static final int BOTTOM_RELATIVE = 4;
+
+    /**
+     * Flag of a relative ending column.
+     */
+    public static final int RIGHT_RELATIVE = 8;
+
+    static final int CELL = 1;
+    static final int RANGE = 2;
+    static final int COLUMNS = 3;
+    static final int ROWS = 4;
+    static final int SHEET = 5;
+
+    private final Optional<SheetName> sheet;
+    private final int kind;
+    private final int top;
+    private final int left;
+    private final int bottom;
+    private final int right;
+    private final int relative;
+
+    R1C1Notation(Optional<SheetName> sheet, int kind, int top, int left, int bottom, int right, int relative) {
+        this.sheet = sheet;
+        this.kind = kind;
+        this.top = top;
+        this.left = left;
+        this.bottom = bottom;
+        this.right = right;
+        this.relative = relative;
+    }
+
+    /**
+     * Parses a string and returns an R1C1Notation.
+     *
+     * @param r1c1Notation the input string
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    public static R1C1Notation of(String r1c1Notation) {
+        if (r1c1Notation == null || r1c1Notation.isEmpty()) {
+            throw new IllegalArgumentException("R1C1 notation must not be empty");
+        }
+        return R1C1Parser.parse(r1c1Notation, 0, r1c1Notation.length());
+    }
+
+    /**
+     * Parses the characters {@code [from, to)} of a larger text.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     * @throws IndexOutOfBoundsException if the bounds are outside of the source
+     */
+    public static R1C1Notation parse(CharSequence src, int from, int to) {
+        Objects.checkFromToIndex(from, to, src.length());
+        return R1C1Parser.parse(src, from, to);
+    }
+
+    /**
+     * Creates an absolute cell reference like {@code R2C3}.
+     *
+     * @param column 1-based column
+     * @param row 1-based row
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if a coordinate is not positive
+     */
+    public static R1C1Notation cell(int column, int row) {
+        checkPositive(column, row);
+        return new R1C1Notation(Optional.empty(), CELL, row, column, row, column, 0);
+    }
+
+    /**
+     * Creates a relative cell reference like {@code R[-1]C[2]}.
+     *
+     * @param columnOffset columns to the right of the anchor cell, negative for the left
+     * @param rowOffset rows below the anchor cell, negative for above
+     * @return R1C1Notation instance
+     */
+    public static R1C1Notation relativeCell(int columnOffset, int rowOffset) {
+        return new R1C1Notation(Optional.empty(), CELL, rowOffset, columnOffset, rowOffset, columnOffset,
+                TOP_RELATIVE | LEFT_RELATIVE | BOTTOM_RELATIVE | RIGHT_RELATIVE);
+    }
+
+    /**
+     * Creates an absolute range like {@code R1C1:R10C4}.
+     *
+     * @param left 1-based starting column
+     * @param top 1-based starting row
+     * @param right 1-based ending column
+     * @param bottom 1-based ending row
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if a coordinate is not positive
+     */
+    public static R1C1Notation range(int left, int top, int right, int bottom) {
+        checkPositive(left, top);
+        checkPositive(right, bottom);
+        return new R1C1Notation(Optional.empty(), RANGE, top, left, bottom, right, 0);
+    }
+
+    /**
+     * Creates an absolute whole-row reference like {@code R2:R5}.
+     *
+     * @param from 1-based starting row
+     * @param to 1-based ending row
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if a row is not positive
+     */
+    public static R1C1Notation rows(int from, int to) {
+        checkPositive(from, to);
+        return new R1C1Notation(Optional.empty(), ROWS, from, 0, to, 0, 0);
+    }
+
+    /**
+     * Creates an absolute whole-column reference like {@code C1:C3}.
+     *
+     * @param from 1-based starting column
+     * @param to 1-based ending column
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if a column is not positive
+     */
+    public static R1C1Notation columns(int from, int to) {
+        checkPositive(from, to);
+        return new R1C1Notation(Optional.empty(), COLUMNS, 0, from, 0, to, 0);
+    }
+
+    /**
+     * Creates a sheet-only reference.
+     *
+     * @param sheet sheet name
+     * @return R1C1Notation instance
+     */
+    public static R1C1Notation sheet(SheetName sheet) {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Sheet name must not be null");
+        }
+        return new R1C1Notation(Optional.of(sheet), SHEET, 0, 0, 0, 0, 0);
+    }
+
+    private static void checkPositive(int column, int row) {
+        if (column < 1 || row < 1) {
+            throw new IllegalArgumentException("Column and row must be positive");
+        }
+    }
+
+    @Override
+    public NotationType type() {
+        return NotationType.R1C1;
+    }
+
+    /**
+     * Returns a copy of this reference on the given sheet.
+     *
+     * @param sheet sheet name, or {@code null} for none
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if this is a sheet-only reference and the sheet is {@code null}
+     */
+    public R1C1Notation withSheet(SheetName sheet) {
+        if (sheet == null && kind == SHEET) {
+            throw new IllegalArgumentException("Sheet name must not be null");
+        }
+        return new R1C1Notation(Optional.ofNullable(sheet), kind, top, left, bottom, right, relative);
+    }
+
+    /**
+     * Returns the sheet name, if any.
+     *
+     * @return sheet name
+     */
+    public Optional<SheetName> sheet() {
+        return sheet;
+    }
+
+    /**
+     * Returns {@code true} for a single-cell reference like {@code R1C1} or {@code RC[-1]}.
+     *
+     * @return whether this is a cell
+     */
+    public boolean isCell() {
+        return kind == CELL;
+    }
+
+    /**
+     * Returns {@code true} if rows are given, as for cells, ranges and whole rows.
+     *
+     * @return whether the row axis is bounded
+     */
+    public boolean hasRows() {
+        return kind == CELL || kind == RANGE || kind == ROWS;
+    }
+
+    /**
+     * Returns {@code true} if columns are given, as for cells, ranges and whole columns.
+     *
+     * @return whether the column axis is bounded
+     */
+    public boolean hasColumns() {
+        return kind == CELL || kind == RANGE || kind == COLUMNS;
+    }
+
+    /**
+     * Returns the starting row number or offset, or {@code 0} without rows.
+     *
+     * @return starting row
+     */
+    public int top() {
+        return top;
+    }
+
+    /**
+     * Returns the starting column number or offset, or {@code 0} without columns.
+     *
+     * @return starting column
+     */
+    public int left() {
+        return left;
+    }
+
+    /**
+     * Returns the ending row number or offset, or {@code 0} without rows.
+     *
+     * @return ending row
+     */
+    public int bottom() {
+        return bottom;
+    }
+
+    /**
+     * Returns the ending column number or offset, or {@code 0} without columns.
+     *
+     * @return ending column
+     */
+    public int right() {
+        return right;
+    }
+
+    /**
+     * Returns the flags of the relative coordinates, a combination of {@link #TOP_RELATIVE},
+     * {@link #LEFT_RELATIVE}, {@link #BOTTOM_RELATIVE} and {@link #RIGHT_RELATIVE}.
+     *
+     * @return relative flags
+     */
+    public int relativeFlags() {
+        return relative;
+    }
+
+    /**
+     * Returns {@code true} if any coordinate is relative.
+     *
+     * @return whether the reference depends on an anchor cell
+     */
+    public boolean isRelative() {
+        return relative != 0;
+    }
+
+    /**
+     * Returns the absolute reference obtained by applying relative coordinates to an anchor cell.
+     *
+     * @param anchorColumn 1-based column of the anchor cell
+     * @param anchorRow 1-based row of the anchor cell
+     * @return reference without relative coordinates, or this one if there are none
+     * @throws IllegalArgumentException if a coordinate resolves before the first row or column
+     */
+    public R1C1Notation resolve(int anchorColumn, int anchorRow) {
+        if (relative == 0) {
+            return this;
+        }
+        return new R1C1Notation(sheet, kind,
+                resolve(top, TOP_RELATIVE, anchorRow), resolve(left, LEFT_RELATIVE, anchorColumn),
+                resolve(bottom, BOTTOM_RELATIVE, anchorRow), resolve(right, RIGHT_RELATIVE, anchorColumn), 0);
+    }
+
+    private int resolve(int value, int flag, int anchor) {
+        if ((relative & flag) == 0) {
+            return value;
+        }
+        long resolved = (long) anchor + value;
+        if (resolved < 1 || resolved > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("R1C1 reference resolves outside of the sheet: " + this);
+        }
+        return (int) resolved;
+    }
+
+    /**
+     * Returns the reference with every coordinate made relative to an anchor cell.
+     *
+     * @param anchorColumn 1-based column of the anchor cell
+     * @param anchorRow 1-based row of the anchor cell
+     * @return reference with relative coordinates on all given axes
+     */
+    public R1C1Notation relativeTo(int anchorColumn, int anchorRow) {
+        return relativeTo(anchorColumn, anchorRow, TOP_RELATIVE | LEFT_RELATIVE | BOTTOM_RELATIVE | RIGHT_RELATIVE);
+    }
+
+    /**
+     * Returns the reference with the selected coordinates made relative to an anchor cell.
+     *
+     * <p>Coordinates that are already relative stay as they are, and flags of an axis the
+     * reference does not have are ignored.
+     *
+     * @param anchorColumn 1-based column of the anchor cell
+     * @param anchorRow 1-based row of the anchor cell
+     * @param relativeFlags coordinates to make relative, a combination of {@link #TOP_RELATIVE},
+     *                      {@link #LEFT_RELATIVE}, {@link #BOTTOM_RELATIVE} and {@link #RIGHT_RELATIVE}
+     * @return reference with relative coordinates
+     */
+    public R1C1Notation relativeTo(int anchorColumn, int anchorRow, int relativeFlags) {
+        int flags = relativeFlags & ((hasRows() ? TOP_RELATIVE | BOTTOM_RELATIVE : 0)
+                | (hasColumns() ? LEFT_RELATIVE | RIGHT_RELATIVE : 0));
+        return new R1C1Notation(sheet, kind,
+                offset(top, flags & TOP_RELATIVE, anchorRow), offset(left, flags & LEFT_RELATIVE, anchorColumn),
+                offset(bottom, flags & BOTTOM_RELATIVE, anchorRow), offset(right, flags & RIGHT_RELATIVE, anchorColumn),
+                relative | flags);
+    }
+
+    /**
+     * Returns the offset of an absolute coordinate of a given axis from the anchor.
+     */
+    private int offset(int value, int flag, int anchor) {
+        if (flag == 0 || (relative & flag) != 0) {
+            return value;
+        }
+        return Math.subtractExact(value, anchor);
+    }
+
+    /**
+     * Writes the full R1C1 notation into the builder.
+     *
+     * @param sb builder to append to
+     * @return the same builder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        sheet.ifPresent(name -> name.appendTo(sb));
+        if (kind == SHEET) {
+            return sb;
+        }
+        if (sheet.isPresent()) {
+            sb.append('!');
+        }
+        appendEndpoint(sb, top, TOP_RELATIVE, left, LEFT_RELATIVE);
+        if (kind != CELL) {
+            sb.append(':');
+            appendEndpoint(sb, bottom, BOTTOM_RELATIVE, right, RIGHT_RELATIVE);
+        }
+        return sb;
+    }
+
+    private void appendEndpoint(StringBuilder sb, int row, int rowFlag, int column, int columnFlag) {
+        if (hasRows()) {
+            appendCoordinate(sb.append('R'), row, (relative & rowFlag) != 0);
+        }
+        if (hasColumns()) {
+            appendCoordinate(sb.append('C'), column, (relative & columnFlag) != 0);
+        }
+    }
+
+    private static void appendCoordinate(StringBuilder sb, int value, boolean relative) {
+        if (!relative) {
+            sb.append(value);
+        } else if (value != 0) {
+            sb.append('[').append(value).append(']');
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof R1C1Notation)) {
+            return false;
+        }
+        R1C1Notation that = (R1C1Notation) o;
+        return kind == that.kind && top == that.top && left == that.left && bottom == that.bottom
+                && right == that.right && relative == that.relative && sheet.equals(that.sheet);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = sheet.hashCode();
+        h = 31 * h + kind;
+        h = 31 * h + top;
+        h = 31 * h + left;
+        h = 31 * h + bottom;
+        h = 31 * h + right;
+        return 31 * h + relative;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(16)).toString();
+    }
+}
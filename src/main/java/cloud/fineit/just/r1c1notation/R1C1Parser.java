@@ -0,0 +1,219 @@
+package cloud.fineit.just.r1c1notation;
+
+import cloud.fineit.just.SheetName;
+
+import java.util.Optional;
+
+/**
+ * Single-pass R1C1 parser.
+ *
+ * <p>Reads an optional sheet prefix up to the first {@code '!'} and one or two endpoints separated
+ * by {@code ':'}. Each endpoint is an optional {@code R} part followed by an optional {@code C}
+ * part, each holding an absolute number, a bracketed offset like {@code [-2]}, or nothing for an
+ * offset of zero. Letters are case-insensitive. Without a separator, input that is not a reference
+ * is read as a sheet-only name. Sheet names follow the rules of the A1 parser, so every sheet name
+ * one notation accepts can be written and read back in the other.
+ *
+ * <p>Instances are not thread-safe; each parse uses its own parser.
+ */
+final class R1C1Parser {
+
+    private final CharSequence src;
+    private final int to;
+    private int at;
+
+    private int value;
+    private boolean relative;
+
+    private boolean hasRow;
+    private boolean hasColumn;
+    private int row;
+    private int column;
+    private boolean rowRelative;
+    private boolean columnRelative;
+
+    private R1C1Parser(CharSequence src, int from, int to) {
+        this.src = src;
+        this.at = from;
+        this.to = to;
+    }
+
+    /**
+     * Parses {@code [from, to)} of the source.
+     *
+     * @param src source holding the reference
+     * @param from index of the first character, inclusive
+     * @param to index of the last character, exclusive
+     * @return R1C1Notation instance
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    static R1C1Notation parse(CharSequence src, int from, int to) {
+        if (from == to) {
+            throw new IllegalArgumentException("R1C1 notation must not be empty");
+        }
+        int bang = from;
+        while (bang < to && src.charAt(bang) != '!') {
+            bang++;
+        }
+        boolean scoped = bang < to;
+        Optional<SheetName> sheet = scoped ? Optional.of(SheetName.parse(src, from, bang)) : Optional.empty();
+        R1C1Notation reference = new R1C1Parser(src, scoped ? bang + 1 : from, to).reference(sheet);
+        if (reference != null) {
+            return reference;
+        }
+        if (!scoped && isSheetName(src, from, to)) {
+            return R1C1Notation.sheet(SheetName.parse(src, from, to));
+        }
+        throw new IllegalArgumentException("Unsupported R1C1 notation: " + src.subSequence(from, to));
+    }
+
+    private R1C1Notation reference(Optional<SheetName> sheet) {
+        if (!endpoint()) {
+            return null;
+        }
+        boolean startRow = hasRow;
+        boolean startColumn = hasColumn;
+        int top = row;
+        int left = column;
+        int flags = (rowRelative ? R1C1Notation.TOP_RELATIVE : 0) | (columnRelative ? R1C1Notation.LEFT_RELATIVE : 0);
+        if (at == to) {
+            if (startRow && startColumn) {
+                return new R1C1Notation(sheet, R1C1Notation.CELL, top, left, top, left,
+                        flags | flags << 2);
+            }
+            return new R1C1Notation(sheet, startRow ? R1C1Notation.ROWS : R1C1Notation.COLUMNS,
+                    top, left, top, left, flags | flags << 2);
+        }
+        if (src.charAt(at++) != ':' || !endpoint() || at != to || hasRow != startRow || hasColumn != startColumn) {
+            return null;
+        }
+        flags |= (rowRelative ? R1C1Notation.BOTTOM_RELATIVE : 0) | (columnRelative ? R1C1Notation.RIGHT_RELATIVE : 0);
+        int kind = startRow && startColumn ? R1C1Notation.RANGE : startRow ? R1C1Notation.ROWS : R1C1Notation.COLUMNS;
+        return new R1C1Notation(sheet, kind, top, left, row, column, flags);
+    }
+
+    /**
+     * Reads an endpoint like {@code R1C2}, {@code R[-1]}, {@code C} or {@code RC[3]}.
+     */
+    private boolean endpoint() {
+        hasRow = false;
+        hasColumn = false;
+        row = 0;
+        column = 0;
+        rowRelative = false;
+        columnRelative = false;
+        if (at < to && (src.charAt(at) == 'R' || src.charAt(at) == 'r')) {
+            at++;
+            if (!coordinate()) {
+                return false;
+            }
+            hasRow = true;
+            row = value;
+            rowRelative = relative;
+        }
+        if (at < to && (src.charAt(at) == 'C' || src.charAt(at) == 'c')) {
+            at++;
+            if (!coordinate()) {
+                return false;
+            }
+            hasColumn = true;
+            column = value;
+            columnRelative = relative;
+        }
+        return hasRow || hasColumn;
+    }
+
+    /**
+     * Reads an absolute number, a bracketed offset, or nothing for an offset of zero.
+     */
+    private boolean coordinate() {
+        value = 0;
+        relative = true;
+        if (at == to) {
+            return true;
+        }
+        char c = src.charAt(at);
+        if (c == '[') {
+            at++;
+            boolean negative = at < to && src.charAt(at) == '-';
+            if (negative || at < to && src.charAt(at) == '+') {
+                at++;
+            }
+            long offset = digits();
+            if (offset < 0 || at == to || src.charAt(at++) != ']') {
+                return false;
+            }
+            value = (int) (negative ? -offset : offset);
+            return true;
+        }
+        if (c >= '0' && c <= '9') {
+            long number = digits();
+            if (number < 1) {
+                return false;
+            }
+            value = (int) number;
+            relative = false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads at least one digit, returning {@code -1} when there is none or the number overflows.
+     */
+    private long digits() {
+        int from = at;
+        long number = 0;
+        while (at < to && src.charAt(at) >= '0' && src.charAt(at) <= '9') {
+            number = number * 10 + (src.charAt(at++) - '0');
+            if (number > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return at == from ? -1 : number;
+    }
+
+    /**
+     * Returns {@code true} if {@code [from, to)} is a quoted sheet name or an unquoted one made of
+     * letters, digits, underscores and spaces.
+     */
+    private static boolean isSheetName(CharSequence src, int from, int to) {
+        if (to - from >= 2 && src.charAt(from) == '\'' && src.charAt(to - 1) == '\'') {
+            return isQuotedName(src, from + 1, to - 1);
+        }
+        char first = src.charAt(from);
+        if (!isSheetStart(first)) {
+            return false;
+        }
+        for (int i = from + 1; i < to; i++) {
+            char c = src.charAt(i);
+            if (!isSheetStart(c) && !(c >= '0' && c <= '9') && c != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if the inside of a quoted sheet name is not empty and escapes every quote
+     * with a backslash, as the A1 parser requires.
+     */
+    private static boolean isQuotedName(CharSequence src, int from, int to) {
+        if (from == to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            if (c == '\'') {
+                return false;
+            }
+            if (c == '\\' && (++i == to || src.charAt(i) != '\'')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSheetStart(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+    }
+}
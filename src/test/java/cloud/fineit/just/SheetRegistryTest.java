@@ -0,0 +1,106 @@
+package cloud.fineit.just;
+
+import cloud.fineit.just.a1notation.A1Notation;
+import cloud.fineit.just.a1notation.A1Packed;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("SheetRegistry should")
+class SheetRegistryTest {
+
+    @Test
+    @DisplayName("assign dense ids starting at one")
+    void assignDenseIds() {
+        SheetRegistry registry = new SheetRegistry();
+
+        assertAll(
+            () -> assertEquals(1, registry.register(new SheetName("Sheet1"))),
+            () -> assertEquals(2, registry.register(new SheetName("Sheet2"))),
+            () -> assertEquals(1, registry.register(new SheetName("Sheet1"))),
+            () -> assertEquals(2, registry.size())
+        );
+    }
+
+    @Test
+    @DisplayName("resolve names ignoring case to the first registered spelling")
+    void ignoreCase() {
+        SheetRegistry registry = new SheetRegistry();
+        SheetName first = registry.intern("Data");
+
+        assertAll(
+            () -> assertSame(first, registry.intern("DATA")),
+            () -> assertSame(first, registry.intern(new SheetName("data"))),
+            () -> assertEquals(1, registry.idOf(new SheetName("dAtA"))),
+            () -> assertEquals(SheetRegistry.NOT_FOUND, registry.idOf(new SheetName("Other"))),
+            () -> assertTrue(first.equalsIgnoreCase(new SheetName("dAtA"))),
+            () -> assertFalse(first.equalsIgnoreCase(new SheetName("Data2"))),
+            () -> assertFalse(first.equalsIgnoreCase(null))
+        );
+    }
+
+    @Test
+    @DisplayName("read quoted sheet parts in place")
+    void readQuotedParts() {
+        SheetRegistry registry = new SheetRegistry();
+        SheetName name = registry.intern("Jon's Data");
+        String line = "x='JON\\'S DATA'!A1";
+
+        assertSame(name, registry.intern(line, 2, 15));
+        assertEquals(1, registry.idOf(line, 2, 15));
+    }
+
+    @Test
+    @DisplayName("grow beyond the initial capacity")
+    void grow() {
+        SheetRegistry registry = new SheetRegistry();
+
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i, registry.register(new SheetName("Sheet" + i)));
+        }
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals("Sheet" + i, registry.nameOf(i).value());
+        }
+    }
+
+    @Test
+    @DisplayName("throw for unknown ids and empty names")
+    void throwForInvalidInput() {
+        SheetRegistry registry = new SheetRegistry();
+
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> registry.nameOf(1)),
+            () -> assertThrows(IllegalArgumentException.class, () -> registry.intern("")),
+            () -> assertThrows(IllegalArgumentException.class, () -> registry.intern("''", 0, 2))
+        );
+    }
+
+    @Test
+    @DisplayName("share sheet names between parsed and built references")
+    void shareBetweenParsedAndBuilt() {
+        SheetRegistry registry = new SheetRegistry();
+        A1Notation parsed = A1Notation.of("'My Sheet'!A1:B2", registry);
+        A1Notation built = A1Notation.withSheet(registry.intern("MY SHEET")).range("A", 1, "B", 2);
+
+        assertEquals(parsed, built);
+        assertEquals(parsed.toString(), built.toString());
+    }
+
+    @Test
+    @DisplayName("provide ids for packed encodings")
+    void providePackedIds() {
+        SheetRegistry registry = new SheetRegistry();
+        A1Notation cell = A1Notation.of("Data!C3", registry);
+
+        long packed = A1Packed.encode(cell, registry::register);
+
+        assertEquals(1, A1Packed.sheetId(packed));
+        assertEquals(cell, A1Packed.decode(packed, registry::nameOf));
+    }
+}
@@ -0,0 +1,193 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1BinaryCodec")
+class A1BinaryCodecTest {
+
+    private static final List<A1Notation> SAMPLE = notations(
+        "A1", "Data!B2:C3", "'Q1 Sales'!$A$1", "Data!C:E", "3:5", "Data", "Données!Z9", "D4:A1",
+        "$B:C", "XFD1048576", "A1:A1");
+
+    private static List<A1Notation> notations(String... values) {
+        return Arrays.stream(values).map(A1Notation::of).collect(Collectors.toList());
+    }
+
+    private static ByteBuffer encode(List<A1Notation> notations) {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        A1BinaryCodec.write(notations, buffer);
+        return buffer.flip();
+    }
+
+    @Nested
+    @DisplayName("should round trip")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("through a buffer")
+        void buffer() {
+            assertEquals(SAMPLE, A1BinaryCodec.read(encode(SAMPLE)));
+        }
+
+        @Test
+        @DisplayName("through data streams")
+        void streams() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            A1BinaryCodec.write(SAMPLE, new DataOutputStream(bytes));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            assertAll(
+                () -> assertEquals(SAMPLE, A1BinaryCodec.read(in)),
+                () -> assertArrayEquals(encode(SAMPLE).array(), Arrays.copyOf(bytes.toByteArray(), 4096))
+            );
+        }
+
+        @Test
+        @DisplayName("an empty batch")
+        void empty() {
+            assertEquals(List.of(), A1BinaryCodec.read(encode(List.of())));
+        }
+
+        @Test
+        @DisplayName("random batches")
+        void randomized() {
+            Random random = new Random(23);
+            for (int round = 0; round < 50; round++) {
+                List<A1Notation> notations = new ArrayList<>();
+                for (int i = random.nextInt(100); i > 0; i--) {
+                    String sheet = random.nextBoolean() ? "" : "S" + random.nextInt(4) + "!";
+                    int left = 1 + random.nextInt(A1Packed.MAX_COLUMN);
+                    int top = 1 + random.nextInt(A1Packed.MAX_ROW);
+                    notations.add(A1Notation.of(sheet + (random.nextBoolean()
+                        ? A1Column.letters(left) + top
+                        : A1Column.letters(left) + top + ":" + A1Column.letters(1 + random.nextInt(50)) + (1 + random.nextInt(50)))));
+                }
+                assertEquals(notations, A1BinaryCodec.read(encode(notations)));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("should read references")
+    class Read {
+
+        @Test
+        @DisplayName("into an array sharing its registry")
+        void array() {
+            SheetRegistry sheets = new SheetRegistry();
+            int other = sheets.register(new SheetName("Other"));
+            A1RefArray refs = new A1RefArray(sheets);
+            int count = A1BinaryCodec.read(encode(notations("Data!A1", "Other!B2")), refs);
+            assertAll(
+                () -> assertEquals(2, count),
+                () -> assertEquals(sheets.idOf(new SheetName("Data")), refs.sheetId(0)),
+                () -> assertEquals(other, refs.sheetId(1)),
+                () -> assertEquals(notations("Data!A1", "Other!B2"), refs.toNotations())
+            );
+        }
+
+        @Test
+        @DisplayName("into a primitive consumer")
+        void consumer() {
+            SheetRegistry sheets = new SheetRegistry();
+            List<String> values = new ArrayList<>();
+            A1BinaryCodec.read(encode(notations("Data!$B2:C3", "4:5", "Data")), sheets,
+                (kind, sheetId, left, top, right, bottom, anchors) ->
+                    values.add(kind + " " + sheetId + " " + left + " " + top + " " + right + " " + bottom + " " + anchors));
+            assertEquals(List.of(
+                A1RefArray.RANGE + " 1 2 2 3 3 1",
+                A1RefArray.ROWS + " 0 0 4 0 5 0",
+                A1RefArray.SHEET + " 1 0 0 0 0 0"), values);
+        }
+    }
+
+    @Test
+    @DisplayName("should write sheet names differing only in case once, in the first spelling")
+    void sheetCase() {
+        ByteBuffer buffer = encode(notations("Sheet1!A1", "SHEET1!B2", "sheet1!C3"));
+        A1RefArray registered = new A1RefArray();
+        registered.add(A1Notation.of("sHEET1!Z1"));
+
+        A1BinaryCodec.read(buffer.duplicate(), registered);
+
+        assertAll(
+            () -> assertEquals(notations("Sheet1!A1", "Sheet1!B2", "Sheet1!C3"), A1BinaryCodec.read(buffer.duplicate())),
+            () -> assertEquals(notations("sHEET1!Z1", "sHEET1!A1", "sHEET1!B2", "sHEET1!C3"), registered.toNotations()),
+            () -> assertEquals(1, registered.sheets().size())
+        );
+    }
+
+    @Test
+    @DisplayName("should delta-compress sorted batches")
+    void compact() {
+        A1RefArray refs = new A1RefArray();
+        for (int row = 1; row <= 1000; row++) {
+            refs.add(A1Notation.of("Data!C" + (1000 + row) + ":D" + (1001 + row)));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        A1BinaryCodec.write(refs, buffer);
+        assertTrue(buffer.position() < 5 * refs.size() + 16, () -> buffer.position() + " bytes");
+    }
+
+    @Test
+    @DisplayName("should reject malformed data")
+    void malformed() {
+        ByteBuffer valid = encode(notations("Data!A1"));
+        byte[] bytes = Arrays.copyOf(valid.array(), valid.limit());
+        byte[] version = bytes.clone();
+        version[0] = 9;
+        byte[] kind = bytes.clone();
+        kind[kind.length - 5] = (byte) 0x80;
+        byte[] sheet = bytes.clone();
+        sheet[sheet.length - 3] = 5;
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> A1BinaryCodec.read(ByteBuffer.wrap(version))),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1BinaryCodec.read(ByteBuffer.wrap(kind))),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1BinaryCodec.read(ByteBuffer.wrap(sheet))),
+            () -> assertThrows(BufferUnderflowException.class,
+                () -> A1BinaryCodec.read(ByteBuffer.wrap(bytes, 0, bytes.length - 1))),
+            () -> assertThrows(EOFException.class,
+                () -> A1BinaryCodec.read(new DataInputStream(new ByteArrayInputStream(bytes, 0, 3))))
+        );
+    }
+
+    @Test
+    @DisplayName("should reject oversized lengths without allocating them")
+    void oversizedLengths() {
+        byte[] table = {1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7};
+        byte[] shortTable = {1, 16, 0};
+        byte[] name = {1, 1, (byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7};
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> A1BinaryCodec.read(ByteBuffer.wrap(table))),
+            () -> assertThrows(IllegalArgumentException.class,
+                () -> A1BinaryCodec.read(new DataInputStream(new ByteArrayInputStream(table)))),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1BinaryCodec.read(ByteBuffer.wrap(shortTable))),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1BinaryCodec.read(ByteBuffer.wrap(name))),
+            () -> assertThrows(EOFException.class,
+                () -> A1BinaryCodec.read(new DataInputStream(new ByteArrayInputStream(name))))
+        );
+    }
+}
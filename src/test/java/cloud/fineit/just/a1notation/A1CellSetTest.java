@@ -0,0 +1,218 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1CellSet")
+class A1CellSetTest {
+
+    private static A1CellSet of(String... inputs) {
+        return A1CellSet.of(null, Arrays.stream(inputs).map(A1Notation::of).collect(Collectors.toList()));
+    }
+
+    private static List<String> notations(A1CellSet cells) {
+        return cells.toNotations().stream().map(A1Notation::toString).collect(Collectors.toList());
+    }
+
+    private static Set<Long> cells(A1CellSet set) {
+        Set<Long> result = new HashSet<>();
+        set.forEach((row, column) -> result.add((long) row << 32 | column));
+        return result;
+    }
+
+    @Test
+    @DisplayName("should add, remove and find single cells")
+    void singleCells() {
+        A1CellSet cells = new A1CellSet();
+        assertAll(
+            () -> assertTrue(cells.isEmpty()),
+            () -> assertTrue(cells.add(3, 7)),
+            () -> assertFalse(cells.add(3, 7)),
+            () -> assertTrue(cells.add(Integer.MAX_VALUE, Integer.MAX_VALUE)),
+            () -> assertTrue(cells.contains(3, 7)),
+            () -> assertFalse(cells.contains(7, 3)),
+            () -> assertFalse(cells.contains(0, 0)),
+            () -> assertEquals(2, cells.cardinality()),
+            () -> assertTrue(cells.remove(3, 7)),
+            () -> assertFalse(cells.remove(3, 7)),
+            () -> assertEquals(1, cells.cardinality()),
+            () -> assertThrows(IllegalArgumentException.class, () -> cells.add(0, 1))
+        );
+    }
+
+    @Test
+    @DisplayName("should convert ranges to cells and back")
+    void notations() {
+        assertAll(
+            () -> assertEquals(Arrays.asList("A1:C3", "E10"), notations(of("A1:C3", "E10"))),
+            () -> assertEquals(Arrays.asList("A1:B2", "D2"), notations(of("A1", "B1", "A2", "B2", "D2"))),
+            () -> assertEquals(Arrays.asList("A1:FAA40"), notations(of("FAA40:A1"))),
+            () -> assertEquals(9, of("A1:C3", "B2").cardinality()),
+            () -> assertTrue(of("A1:C3").contains(A1Notation.of("B2:C3"))),
+            () -> assertFalse(of("A1:C3").contains(A1Notation.of("B2:D3")))
+        );
+    }
+
+    @Test
+    @DisplayName("should remove ranges")
+    void removeRange() {
+        A1CellSet cells = of("A1:C3");
+        cells.remove(A1Notation.of("B1:B3"));
+        assertAll(
+            () -> assertEquals(Arrays.asList("A1:A3", "C1:C3"), notations(cells)),
+            () -> assertEquals(6, cells.cardinality())
+        );
+    }
+
+    @Test
+    @DisplayName("should check and remove huge ranges without enumerating them")
+    void hugeRanges() {
+        A1CellSet cells = of("B2", "E5:H9000", "XFD1048576");
+        assertAll(
+            () -> assertFalse(cells.contains(A1Notation.of("A1:XFD1048576"))),
+            () -> assertTrue(cells.contains(A1Notation.of("F6:G8999"))),
+            () -> assertFalse(cells.contains(A1Notation.of("F6:I8999"))),
+            () -> assertTrue(cells.contains(A1Notation.of("XFD1048576")))
+        );
+        cells.remove(A1Notation.of("C1:XFD1048575"));
+        assertAll(
+            () -> assertEquals(Arrays.asList("B2", "XFD1048576"), notations(cells)),
+            () -> assertEquals(2, cells.cardinality())
+        );
+    }
+
+    @Test
+    @DisplayName("should match a hash set when checking and removing random ranges")
+    void randomRanges() {
+        Random random = new Random(17);
+        A1CellSet cells = new A1CellSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            int left = 1 + random.nextInt(9000);
+            int top = 1 + random.nextInt(60);
+            int right = left + random.nextInt(i % 3 == 0 ? 5000 : 40);
+            int bottom = top + random.nextInt(40);
+            A1Notation range = A1Notation.of(A1Column.ofIndex(left).value() + top + ":" + A1Column.ofIndex(right).value() + bottom);
+            boolean covered = true;
+            for (int row = top; row <= bottom; row++) {
+                for (int column = left; column <= right; column++) {
+                    covered &= expected.contains((long) row << 32 | column);
+                }
+            }
+            assertEquals(covered, cells.contains(range), range::toString);
+            if (random.nextInt(3) == 0) {
+                cells.remove(range);
+                for (int row = top; row <= bottom; row++) {
+                    for (int column = left; column <= right; column++) {
+                        expected.remove((long) row << 32 | column);
+                    }
+                }
+            } else {
+                cells.add(range);
+                for (int row = top; row <= bottom; row++) {
+                    for (int column = left; column <= right; column++) {
+                        expected.add((long) row << 32 | column);
+                    }
+                }
+            }
+            assertEquals(expected.size(), cells.cardinality());
+        }
+        assertEquals(expected, cells(cells));
+    }
+
+    @Test
+    @DisplayName("should compute union, intersection and difference")
+    void algebra() {
+        A1CellSet left = of("A1:C3");
+        A1CellSet right = of("B2:D4");
+        assertAll(
+            () -> assertEquals(Arrays.asList("A1:C1", "A2:D3", "B4:D4"), notations(left.union(right))),
+            () -> assertEquals(Arrays.asList("B2:C3"), notations(left.intersection(right))),
+            () -> assertEquals(Arrays.asList("A1:C1", "A2:A3"), notations(left.difference(right))),
+            () -> assertEquals(9, left.cardinality())
+        );
+    }
+
+    @Test
+    @DisplayName("should keep cells of one sheet")
+    void sheets() {
+        SheetName data = new SheetName("Data");
+        A1CellSet cells = new A1CellSet(data);
+        cells.add(A1Notation.of("Data!B2:C2"));
+        assertAll(
+            () -> assertEquals(Arrays.asList("Data!B2:C2"), notations(cells)),
+            () -> assertThrows(IllegalArgumentException.class, () -> cells.add(A1Notation.of("B2"))),
+            () -> assertThrows(IllegalArgumentException.class, () -> cells.union(new A1CellSet())),
+            () -> assertThrows(UnboundedDimensionException.class, () -> cells.add(A1Notation.of("Data!A:A")))
+        );
+    }
+
+    @Test
+    @DisplayName("should visit cells in row-major order across blocks")
+    void order() {
+        A1CellSet cells = new A1CellSet();
+        cells.add(5000, 2);
+        cells.add(1, 2);
+        cells.add(9000, 1);
+        cells.add(2, 1);
+        List<String> visited = new ArrayList<>();
+        cells.forEach((row, column) -> visited.add(row + ":" + column));
+        assertEquals(Arrays.asList("1:2", "1:9000", "2:1", "2:5000"), visited);
+    }
+
+    @Test
+    @DisplayName("should match a hash set for random dense and sparse cells")
+    void random() {
+        Random random = new Random(16);
+        A1CellSet left = new A1CellSet();
+        A1CellSet right = new A1CellSet();
+        Set<Long> leftCells = new HashSet<>();
+        Set<Long> rightCells = new HashSet<>();
+        for (int i = 0; i < 40_000; i++) {
+            boolean dense = i % 2 == 0;
+            int column = 1 + random.nextInt(dense ? 1000 : 20_000);
+            int row = 1 + random.nextInt(dense ? 16 : 20_000);
+            if (random.nextBoolean()) {
+                left.add(column, row);
+                leftCells.add((long) row << 32 | column);
+            } else {
+                right.add(column, row);
+                rightCells.add((long) row << 32 | column);
+            }
+            if (i % 7 == 0) {
+                left.remove(column, row);
+                leftCells.remove((long) row << 32 | column);
+            }
+        }
+        Set<Long> union = new HashSet<>(leftCells);
+        union.addAll(rightCells);
+        Set<Long> intersection = new HashSet<>(leftCells);
+        intersection.retainAll(rightCells);
+        Set<Long> difference = new HashSet<>(leftCells);
+        difference.removeAll(rightCells);
+        A1CellSet restored = A1CellSet.of(null, left.toNotations());
+        assertAll(
+            () -> assertEquals(leftCells.size(), left.cardinality()),
+            () -> assertEquals(leftCells, cells(left)),
+            () -> assertEquals(union, cells(left.union(right))),
+            () -> assertEquals(intersection, cells(left.intersection(right))),
+            () -> assertEquals(difference, cells(left.difference(right))),
+            () -> assertEquals(leftCells, cells(restored))
+        );
+    }
+}
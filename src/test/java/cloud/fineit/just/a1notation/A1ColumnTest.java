@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName("A1Column")
@@ -58,4 +59,62 @@ class A1ColumnTest {
             assertEquals("ABC", new A1Column("abc").toString());
         }
     }
+
+    @Nested
+    @DisplayName("factories")
+    class Factories {
+
+        @Test
+        @DisplayName("should return shared instances for letters and indexes")
+        void returnSharedInstances() {
+            assertAll(
+                () -> assertSame(A1Column.of("A"), A1Column.of("a")),
+                () -> assertSame(A1Column.of("XFD"), A1Column.ofIndex(16384)),
+                () -> assertSame(A1Column.ofIndex(18278), A1Column.of("zzz"))
+            );
+        }
+
+        @Test
+        @DisplayName("should round-trip every cached index through its letters")
+        void roundTripIndexes() {
+            for (int index = 1; index <= A1Column.MAX_CACHED + 100; index++) {
+                A1Column column = A1Column.ofIndex(index);
+
+                assertEquals(index - 1, column.arrayIndex());
+                assertEquals(column.value(), new A1Column(column.value()).value());
+                assertEquals(index - 1, A1Column.of(column.value()).arrayIndex());
+            }
+        }
+
+        @Test
+        @DisplayName("should create columns beyond the shared range")
+        void createBeyondSharedRange() {
+            assertAll(
+                () -> assertEquals("AAAA", A1Column.ofIndex(18279).value()),
+                () -> assertEquals(18278, A1Column.of("aaaa").arrayIndex())
+            );
+        }
+
+        @Test
+        @DisplayName("should throw exception for invalid input")
+        void throwExceptionForInvalidInput() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Column.of(null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Column.of("A1")),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Column.ofIndex(0))
+            );
+        }
+
+        @Test
+        @DisplayName("should reject letters beyond the int range instead of wrapping around")
+        void rejectOverflow() {
+            assertAll(
+                () -> assertEquals(Integer.MAX_VALUE - 1, A1Column.of("FXSHRXW").arrayIndex()),
+                () -> assertEquals("FXSHRXW", A1Column.ofIndex(Integer.MAX_VALUE).value()),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Column.of("MWLQKWW")),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Column.of("fxshrxx")),
+                () -> assertThrows(IllegalArgumentException.class, () -> new A1Column("AAAAAAAAAA"))
+            );
+        }
+    }
 }
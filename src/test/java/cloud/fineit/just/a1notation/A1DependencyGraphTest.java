@@ -0,0 +1,281 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1DependencyGraph")
+class A1DependencyGraphTest {
+
+    private final A1DependencyGraph graph = new A1DependencyGraph();
+
+    private void set(String cell, String... precedents) {
+        graph.setDependencies(A1Notation.of(cell),
+            Arrays.stream(precedents).map(A1Notation::of).collect(Collectors.toList()));
+    }
+
+    private List<String> affected(String... changed) {
+        return graph.affected(Arrays.stream(changed).map(A1Notation::of).collect(Collectors.toList()))
+            .stream().map(A1Notation::toString).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("should find affected cells")
+    class Affected {
+
+        @Test
+        @DisplayName("through cells and ranges in topological order")
+        void chain() {
+            set("B1", "A1");
+            set("C1", "B1", "A1");
+            set("D1", "A1:C1");
+            assertAll(
+                () -> assertEquals(Arrays.asList("B1", "C1", "D1"), affected("A1")),
+                () -> assertEquals(Arrays.asList("C1", "D1"), affected("B1")),
+                () -> assertEquals(Collections.emptyList(), affected("E5")),
+                () -> assertEquals(Collections.emptyList(), affected("D1"))
+            );
+        }
+
+        @Test
+        @DisplayName("through whole columns, whole rows and sheets")
+        void unbounded() {
+            set("Z1", "A:A");
+            set("Z2", "5:5");
+            set("Z3", "Data");
+            set("Z4", "B:C");
+            assertAll(
+                () -> assertEquals(Collections.singletonList("Z1"), affected("A1000000")),
+                () -> assertEquals(Collections.singletonList("Z2"), affected("XFD5")),
+                () -> assertEquals(Collections.singletonList("Z3"), affected("Data!Q77")),
+                () -> assertEquals(Arrays.asList("Z1", "Z2"), affected("A5")),
+                () -> assertEquals(Collections.singletonList("Z4"), affected("C268435455")),
+                () -> assertEquals(Collections.emptyList(), affected("D7"))
+            );
+        }
+
+        @Test
+        @DisplayName("only once when reached through several paths")
+        void diamond() {
+            set("B1", "A1");
+            set("B2", "A1");
+            set("C1", "B1:B2");
+            List<String> result = affected("A1");
+            assertAll(
+                () -> assertEquals(3, result.size()),
+                () -> assertEquals("C1", result.get(2)),
+                () -> assertEquals(new HashSet<>(Arrays.asList("B1", "B2")), new HashSet<>(result.subList(0, 2)))
+            );
+        }
+
+        @Test
+        @DisplayName("resolving precedents without a sheet against the dependent's sheet")
+        void sheets() {
+            set("Data!B1", "A1");
+            set("Report!A1", "Data!B1");
+            set("B2", "A1");
+            assertAll(
+                () -> assertEquals(Arrays.asList("Data!B1", "Report!A1"), affected("Data!A1")),
+                () -> assertEquals(Collections.singletonList("B2"), affected("A1")),
+                () -> assertEquals(Collections.emptyList(), affected("Other!A1"))
+            );
+        }
+
+        @Test
+        @DisplayName("for every cell of a changed range")
+        void changedRange() {
+            set("D1", "A1");
+            set("D2", "B2");
+            assertEquals(new HashSet<>(Arrays.asList("D1", "D2")), new HashSet<>(affected("A1:B2")));
+        }
+
+        @Test
+        @DisplayName("as packed cells")
+        void packed() {
+            set("Data!B1", "A1:A10");
+            set("Data!C1", "B1");
+            int sheet = graph.sheets().idOf(new SheetName("Data"));
+            long[] result = graph.affectedPacked(A1Packed.pack(sheet, 1, 5));
+            assertEquals(Arrays.asList(A1Packed.pack(sheet, 2, 1), A1Packed.pack(sheet, 3, 1)),
+                Arrays.stream(result).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Nested
+    @DisplayName("should detect cycles")
+    class Cycles {
+
+        @Test
+        @DisplayName("through cells")
+        void cells() {
+            set("B1", "A1");
+            set("C1", "B1");
+            set("B1", "A1", "C1");
+            CircularDependencyException error = assertThrows(CircularDependencyException.class, () -> affected("A1"));
+            assertEquals(new HashSet<>(Arrays.asList("B1", "C1")),
+                error.cycle().stream().map(A1Notation::toString).collect(Collectors.toSet()));
+        }
+
+        @Test
+        @DisplayName("of a cell depending on its own range")
+        void self() {
+            set("A5", "A:A");
+            CircularDependencyException error = assertThrows(CircularDependencyException.class, () -> affected("A1"));
+            assertEquals(Collections.singletonList(A1Notation.of("A5")), error.cycle());
+        }
+    }
+
+    @Nested
+    @DisplayName("should update dependencies")
+    class Updates {
+
+        @Test
+        @DisplayName("when replaced or removed")
+        void replace() {
+            set("B1", "A1:A10");
+            set("B2", "A:A");
+            set("B1", "C1");
+            assertAll(
+                () -> assertEquals(Collections.singletonList("B2"), affected("A3")),
+                () -> assertEquals(Collections.singletonList("B1"), affected("C1")),
+                () -> assertEquals(2, graph.size()),
+                () -> assertEquals(2, graph.edgeCount()),
+                () -> assertTrue(graph.removeDependencies(A1Notation.of("B2"))),
+                () -> assertFalse(graph.removeDependencies(A1Notation.of("B2"))),
+                () -> assertEquals(Collections.emptyList(), affected("A3")),
+                () -> assertEquals(1, graph.size())
+            );
+        }
+
+        @Test
+        @DisplayName("when added one by one")
+        void add() {
+            graph.addDependency(A1Notation.of("C1"), A1Notation.of("A1"));
+            graph.addDependency(A1Notation.of("C1"), A1Notation.of("B1:B5"));
+            set("D1");
+            assertAll(
+                () -> assertEquals(Collections.singletonList("C1"), affected("B4")),
+                () -> assertEquals(1, graph.size()),
+                () -> assertEquals(2, graph.edgeCount())
+            );
+        }
+
+        @Test
+        @DisplayName("rejecting invalid cells without changes")
+        void invalid() {
+            set("B1", "A1");
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> graph.addDependency(A1Notation.of("A1:B2"), A1Notation.of("C1"))),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> graph.setDependencies(A1Notation.of("A:A"), Collections.emptyList())),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> set("B1", "C1", "A268435456")),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> set("Data!B1", "Other!C1", "Data!A268435456")),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> graph.addDependency(A1Notation.of("Data!A268435456"), A1Notation.of("Other!A1"))),
+                () -> assertThrows(UnboundedDimensionException.class, () -> affected("A:A")),
+                () -> assertEquals(Collections.singletonList("B1"), affected("A1")),
+                () -> assertFalse(graph.removeDependencies(A1Notation.of("Missing!A1"))),
+                () -> assertEquals(0, graph.sheets().size())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should match a brute-force graph under random updates")
+    void randomized() {
+        Random random = new Random(20);
+        Map<String, List<A1Notation>> formulas = new HashMap<>();
+        for (int round = 0; round < 400; round++) {
+            String cell = cell(random);
+            List<A1Notation> precedents = new ArrayList<>();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                precedents.add(precedent(random));
+            }
+            graph.setDependencies(A1Notation.of(cell), precedents);
+            if (precedents.isEmpty()) {
+                formulas.remove(cell);
+            } else {
+                formulas.put(cell, precedents);
+            }
+            String changed = cell(random);
+            Set<String> expected = reachable(formulas, changed);
+            List<String> actual;
+            try {
+                actual = affected(changed);
+            } catch (CircularDependencyException e) {
+                // A cycle is only reported when affected cells depend on each other.
+                assertTrue(expected.containsAll(e.cycle().stream().map(A1Notation::toString).collect(Collectors.toList())));
+                formulas.remove(cell);
+                graph.removeDependencies(A1Notation.of(cell));
+                continue;
+            }
+            assertEquals(expected, new HashSet<>(actual), () -> "changed " + changed + " in " + formulas);
+            for (int i = 0; i < actual.size(); i++) {
+                A1Notation dependent = A1Notation.of(actual.get(i));
+                for (int j = i + 1; j < actual.size(); j++) {
+                    A1Notation later = A1Notation.of(actual.get(j));
+                    assertFalse(formulas.get(actual.get(i)).stream().anyMatch(p -> p.contains(later)),
+                        () -> dependent + " ordered before its precedent " + later);
+                }
+            }
+        }
+        assertEquals(formulas.size(), graph.size());
+    }
+
+    private static String cell(Random random) {
+        return A1Notation.cell(A1Column.ofIndex(1 + random.nextInt(40)).value(), 1 + random.nextInt(200)).toString();
+    }
+
+    private static A1Notation precedent(Random random) {
+        int kind = random.nextInt(10);
+        int left = 1 + random.nextInt(40);
+        int top = 1 + random.nextInt(200);
+        if (kind == 0) {
+            return A1Notation.column(A1Column.ofIndex(left).value());
+        }
+        if (kind == 1) {
+            return A1Notation.row(top);
+        }
+        if (kind < 5) {
+            return A1Notation.of(cell(random));
+        }
+        int right = Math.min(40, left + random.nextInt(kind == 9 ? 40 : 4));
+        int bottom = Math.min(200, top + random.nextInt(kind == 9 ? 200 : 70));
+        return A1Notation.range(A1Column.ofIndex(left).value(), top, A1Column.ofIndex(right).value(), bottom);
+    }
+
+    private static Set<String> reachable(Map<String, List<A1Notation>> formulas, String changed) {
+        Set<String> result = new HashSet<>();
+        List<String> pending = new ArrayList<>(Collections.singletonList(changed));
+        while (!pending.isEmpty()) {
+            A1Notation cell = A1Notation.of(pending.remove(pending.size() - 1));
+            for (Map.Entry<String, List<A1Notation>> formula : formulas.entrySet()) {
+                if (formula.getValue().stream().anyMatch(p -> p.contains(cell)) && result.add(formula.getKey())) {
+                    pending.add(formula.getKey());
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1FormulaScanner")
+class A1FormulaScannerTest {
+
+    private final A1FormulaScanner scanner = new A1FormulaScanner();
+
+    private List<String> references(String formula) {
+        List<String> found = new ArrayList<>();
+        int count = scanner.scan(formula, match -> found.add(match.toString()));
+        assertEquals(found.size(), count);
+        return found;
+    }
+
+    @Nested
+    @DisplayName("should find")
+    class Finding {
+
+        @ParameterizedTest
+        @CsvSource(delimiter = '|', value = {
+            "=A1+B2 | A1,B2",
+            "=SUM(A1:B10)*2 | A1:B10",
+            "=SUM(A:A, 3:5) | A:A,3:5",
+            "=$A$1*A$2-$B3 | $A$1,A$2,$B3",
+            "=SUM($A$1:B$20) | $A$1:B$20",
+            "=Data!A1+Data!$B:$C | Data!A1,Data!$B:$C",
+            "=SUM('My Sheet'!A1:B2) | 'My Sheet'!A1:B2",
+            "='Jon\\'s Data'!A1:B2 | 'Jon\\'s Data'!A1:B2",
+            "=Sheet_1.x!C3 | Sheet_1.x!C3",
+            "=Données!A1 | Données!A1",
+            "A1 | A1",
+            "=Data!A1:Data!B2 | Data!A1,Data!B2",
+            "=(A1) | A1",
+            "=-A1^2%+B2&C3 | A1,B2,C3",
+            "=IF(A1>0,B1,C1) | A1,B1,C1"
+        })
+        void references(String formula, String expected) {
+            assertEquals(Arrays.asList(expected.split(",")), A1FormulaScannerTest.this.references(formula));
+        }
+
+        @Test
+        @DisplayName("offsets into the source")
+        void offsets() {
+            String formula = "=SUM(Data!A1:B2)+$C$3";
+            List<int[]> offsets = new ArrayList<>();
+            scanner.scan(formula, match -> offsets.add(new int[]{match.from(), match.to()}));
+            assertAll(
+                () -> assertEquals(2, offsets.size()),
+                () -> assertEquals("Data!A1:B2", formula.substring(offsets.get(0)[0], offsets.get(0)[1])),
+                () -> assertEquals("$C$3", formula.substring(offsets.get(1)[0], offsets.get(1)[1]))
+            );
+        }
+
+        @Test
+        @DisplayName("references in a slice only")
+        void slice() {
+            List<String> found = new ArrayList<>();
+            scanner.scan("A1+B2+C3", 3, 5, match -> found.add(match.toString()));
+            assertEquals(Collections.singletonList("B2"), found);
+        }
+    }
+
+    @Nested
+    @DisplayName("should skip")
+    class Skipping {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+            "=\"A1\"&\"B2:C3\"",
+            "=\"say \"\"A1\"\"\"",
+            "=LOG10(5)",
+            "=ATAN2(1, 2)",
+            "=Table1[Col1]",
+            "=Table1[[#Headers],[A1]]",
+            "=#REF!+#DIV/0!",
+            "=TRUE",
+            "=MyRange",
+            "=1.5E3+2",
+            "=a1+b2",
+            "=A1_B2",
+            "=A0",
+            "=Data!Name",
+            "'unterminated!A1",
+            ""
+        })
+        void nothing(String formula) {
+            assertEquals(Collections.emptyList(), references(formula));
+        }
+
+        @Test
+        @DisplayName("literals and function names around references")
+        void mixed() {
+            assertEquals(Arrays.asList("A1", "B2:C3", "Data!D4"),
+                references("=CONCAT(\"x A1 \", A1, LOG10(B2:C3), \"'Data'!E5\", Data!D4)"));
+        }
+    }
+
+    @Test
+    @DisplayName("should describe matches")
+    void match() {
+        SheetRegistry sheets = new SheetRegistry();
+        List<String> described = new ArrayList<>();
+        scanner.scan("=Data!$B$2:D5+C:C+3:4+E6", match -> described.add(
+            match.hasSheet() + " " + match.isCell() + " " + match.left() + "," + match.top() + ","
+                + match.right() + "," + match.bottom() + " " + match.anchors() + " " + match.sheetId(sheets)));
+        assertEquals(Arrays.asList(
+            "true false 2,2,4,5 3 1",
+            "false false 3,0,3,0 0 0",
+            "false false 0,3,0,4 0 0",
+            "false true 5,6,5,6 0 0"
+        ), described);
+    }
+
+    @Test
+    @DisplayName("should create notations on demand")
+    void notations() {
+        SheetRegistry sheets = new SheetRegistry();
+        List<A1Notation> notations = new ArrayList<>();
+        scanner.scan("='My Sheet'!$A1:B2+A1", match -> notations.add(match.toNotation(sheets)));
+        assertAll(
+            () -> assertEquals(A1Notation.of("'My Sheet'!$A1:B2"), notations.get(0)),
+            () -> assertEquals(A1Notation.of("A1"), notations.get(1)),
+            () -> assertSame(sheets.nameOf(1), Bounds.of(notations.get(0)).sheet().orElseThrow())
+        );
+    }
+
+    @Test
+    @DisplayName("should report every reference through the same view")
+    void reuse() {
+        List<A1FormulaScanner.Match> matches = new ArrayList<>();
+        scanner.scan("=A1+B2", matches::add);
+        assertAll(
+            () -> assertEquals(2, matches.size()),
+            () -> assertSame(matches.get(0), matches.get(1)),
+            () -> assertEquals(3, scanner.scan("=A1+B2+C3", match -> { })),
+            () -> assertFalse(matches.isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("should reject invalid arguments")
+    void invalid() {
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> scanner.scan(null, match -> { })),
+            () -> assertThrows(IllegalArgumentException.class, () -> scanner.scan("A1", null)),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> scanner.scan("A1", 1, 3, match -> { })),
+            () -> assertTrue(scanner.scan("A1", 2, 2, match -> { }) == 0)
+        );
+    }
+}
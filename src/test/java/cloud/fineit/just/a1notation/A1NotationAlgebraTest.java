@@ -0,0 +1,193 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1Notation range algebra")
+class A1NotationAlgebraTest {
+
+    @Nested
+    @DisplayName("contains")
+    class Contains {
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1:C3, B2, true",
+            "C3:A1, A1:C3, true",
+            "A1:C3, C3:D4, false",
+            "A:C, B7, true",
+            "A:C, B:B, true",
+            "A:C, 2:2, false",
+            "2:4, XFD3, true",
+            "Data, Data!A1:Z9, true",
+            "Data!A:B, Data!B2, true",
+            "Data!A1:C3, B2, false",
+            "Data!A1:C3, Other!B2, false",
+            "B2, B2, true"
+        })
+        @DisplayName("should check coverage across kinds and sheets")
+        void coverage(String range, String other, boolean expected) {
+            assertEquals(expected, A1Notation.of(range).contains(A1Notation.of(other)));
+        }
+
+        @Test
+        @DisplayName("should check primitive coordinates")
+        void primitive() {
+            A1Notation range = A1Notation.of("C3:A1");
+
+            assertAll(
+                () -> assertTrue(range.contains(2, 2)),
+                () -> assertFalse(range.contains(4, 2)),
+                () -> assertTrue(A1Notation.of("B:B").contains(2, 1_000_000)),
+                () -> assertTrue(A1Notation.of("Data").contains(100, 100))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("intersects and intersection")
+    class Intersection {
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1:B2, B2:C3, B2",
+            "A1:C3, B2:D4, B2:C3",
+            "A:C, 2:4, A2:C4",
+            "B:D, C:F, C:D",
+            "3:1, 2:5, 2:3",
+            "Data, Data!B2:C3, Data!B2:C3",
+            "Data, Data, Data",
+            "B2:A1, A1, A1"
+        })
+        @DisplayName("should return the shared area")
+        void sharedArea(String a, String b, String expected) {
+            A1Notation x = A1Notation.of(a);
+            A1Notation y = A1Notation.of(b);
+
+            assertAll(
+                () -> assertTrue(x.intersects(y)),
+                () -> assertTrue(y.intersects(x)),
+                () -> assertEquals(Optional.of(A1Notation.of(expected)), x.intersection(y)),
+                () -> assertEquals(Optional.of(A1Notation.of(expected)), y.intersection(x))
+            );
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1:B2, C3:D4",
+            "A:B, C:D",
+            "1:2, 3:4",
+            "Data!A1:C3, A1:C3",
+            "Data, Other"
+        })
+        @DisplayName("should be empty for disjoint references")
+        void disjoint(String a, String b) {
+            A1Notation x = A1Notation.of(a);
+            A1Notation y = A1Notation.of(b);
+
+            assertFalse(x.intersects(y));
+            assertEquals(Optional.empty(), x.intersection(y));
+        }
+    }
+
+    @Nested
+    @DisplayName("boundingBox and normalize")
+    class BoundingBox {
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1, C3, A1:C3",
+            "C3:B2, A5, A2:C5",
+            "A1, 3:3, 1:3",
+            "B:B, D7, B:D",
+            "Data!A1, Data!B2, Data!A1:B2",
+            "Data!A1, Data, Data"
+        })
+        @DisplayName("should cover both references")
+        void cover(String a, String b, String expected) {
+            assertEquals(A1Notation.of(expected), A1Notation.of(a).boundingBox(A1Notation.of(b)));
+        }
+
+        @Test
+        @DisplayName("should throw for different sheets")
+        void differentSheets() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> A1Notation.of("Data!A1").boundingBox(A1Notation.of("Other!A1")));
+        }
+
+        @Test
+        @DisplayName("should throw when the whole sheet is covered without a sheet name")
+        void unboundedWithoutSheet() {
+            assertEquals(A1Notation.of("Data"), A1Notation.of("Data!1:2").boundingBox(A1Notation.of("Data!A:A")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> A1Notation.of("1:2").boundingBox(A1Notation.of("A:A")));
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+            "B2:A1, A1:B2",
+            "A2:B1, A1:B2",
+            "D:B, B:D",
+            "'My Sheet'!5:3, 'My Sheet'!3:5"
+        })
+        @DisplayName("should order endpoints")
+        void normalize(String input, String expected) {
+            assertEquals(expected, A1Notation.of(input).normalize().toString());
+        }
+
+        @Test
+        @DisplayName("should return ordered references as they are")
+        void keepOrdered() {
+            A1Notation range = A1Notation.of("A1:B2");
+            A1Notation sheet = A1Notation.of("Data");
+
+            assertSame(range, range.normalize());
+            assertSame(sheet, sheet.normalize());
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+            "$B$2:A1, A1:$B$2",
+            "B$2:$A1, $A1:B$2",
+            "$A2:B$1, $A$1:B2",
+            "$C:A, A:$C",
+            "$5:3, 3:$5",
+            "Data!$B1:A$2, Data!A1:$B$2"
+        })
+        @DisplayName("should keep anchors with their endpoints")
+        void keepAnchors(String input, String expected) {
+            assertEquals(expected, A1Notation.of(input).normalize().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("should check packed pairs like notations")
+    void packedPairs() {
+        A1Notation outer = A1Notation.of("A:C");
+        A1Notation inner = A1Notation.of("B2:C9");
+        A1Notation rows = A1Notation.of("10:12");
+
+        assertAll(
+            () -> assertTrue(A1Packed.contains(A1Packed.encodeStart(outer), A1Packed.encodeEnd(outer),
+                    A1Packed.encodeStart(inner), A1Packed.encodeEnd(inner))),
+            () -> assertFalse(A1Packed.contains(A1Packed.encodeStart(inner), A1Packed.encodeEnd(inner),
+                    A1Packed.encodeStart(outer), A1Packed.encodeEnd(outer))),
+            () -> assertTrue(A1Packed.intersects(A1Packed.encodeStart(outer), A1Packed.encodeEnd(outer),
+                    A1Packed.encodeStart(rows), A1Packed.encodeEnd(rows))),
+            () -> assertFalse(A1Packed.intersects(A1Packed.encodeStart(inner), A1Packed.encodeEnd(inner),
+                    A1Packed.encodeStart(rows), A1Packed.encodeEnd(rows)))
+        );
+    }
+}
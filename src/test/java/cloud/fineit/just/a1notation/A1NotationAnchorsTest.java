@@ -0,0 +1,103 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("A1Notation anchors")
+class A1NotationAnchorsTest {
+
+    @Nested
+    @DisplayName("parsing should")
+    class Parsing {
+
+        @ParameterizedTest
+        @CsvSource({
+            "$A$1, 3",
+            "$A1, 1",
+            "A$1, 2",
+            "A1, 0",
+            "$A$1:$B$2, 15",
+            "A$1:$B2, 6",
+            "$A:B, 1",
+            "A:$B, 4",
+            "$1:$5, 10",
+            "1:$5, 8",
+            "Sheet1!$C$3, 3",
+            "'My Sheet'!B$2:$D4, 6"
+        })
+        @DisplayName("read anchors and keep them when formatting")
+        void roundTrip(String input, int anchors) {
+            A1Notation notation = A1Notation.of(input);
+            assertAll(
+                () -> assertEquals(anchors, notation.anchors()),
+                () -> assertEquals(input, notation.toString()),
+                () -> assertEquals(input.substring(input.indexOf('!') + 1), notation.toShortString())
+            );
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"$", "$$A1", "A$$1", "$A", "A1$", "A$0", "$A1:", "A1:$", "$1", "1$:2", "$A:$1",
+                "A:B$"})
+        @DisplayName("reject misplaced anchors")
+        void invalid(String input) {
+            assertThrows(IllegalArgumentException.class, () -> A1Notation.of(input));
+        }
+
+        @Test
+        @DisplayName("keep dollar signs in quoted sheet names")
+        void quotedSheet() {
+            A1Notation notation = A1Notation.of("'$heet'!$A1");
+            assertAll(
+                () -> assertEquals("$heet", Bounds.of(notation).sheet().orElseThrow().value()),
+                () -> assertEquals(A1Anchors.LEFT, notation.anchors())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should be part of equality")
+    void equality() {
+        assertAll(
+            () -> assertEquals(A1Notation.of("$A$1"), A1Notation.of("A1").withAnchors(A1Anchors.ALL)),
+            () -> assertNotEquals(A1Notation.of("$A$1"), A1Notation.of("A1")),
+            () -> assertEquals(A1Notation.of("$A$1").hashCode(), A1Notation.of("A1").withAnchors(A1Anchors.ALL).hashCode())
+        );
+    }
+
+    @Test
+    @DisplayName("should keep coordinates when changed")
+    void withAnchors() {
+        assertAll(
+            () -> assertEquals("$A$1:$B$2", A1Notation.of("A1:B2").withAnchors(A1Anchors.ALL).toString()),
+            () -> assertEquals("A1:B2", A1Notation.of("$A$1:$B$2").withAnchors(A1Anchors.NONE).toString()),
+            () -> assertEquals("$A:$C", A1Notation.of("A:C").withAnchors(A1Anchors.ALL).toString()),
+            () -> assertEquals("$2:$5", A1Notation.of("2:5").withAnchors(A1Anchors.ALL).toString()),
+            () -> assertEquals("Data", A1Notation.of("Data").withAnchors(A1Anchors.ALL).toString()),
+            () -> assertEquals(A1Notation.of("B2:C3"), A1Notation.of("$B$2:C3").normalize().withAnchors(A1Anchors.NONE)),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1Notation.of("A1").withAnchors(16))
+        );
+    }
+
+    @Test
+    @DisplayName("should be set by the builder")
+    void builder() {
+        A1NotationBuilder builder = A1Notation.withSheet("Data").withAnchors(A1Anchors.ALL);
+        assertAll(
+            () -> assertEquals("Data!$B$2", builder.forCell("B", 2).toString()),
+            () -> assertEquals("Data!$A$1:$C$3", builder.range("A", 1, "C", 3).toString()),
+            () -> assertEquals("Data!$A:$C", builder.forColumns("A", "C").toString()),
+            () -> assertEquals("Data!$5:$5", builder.forRow(5).toString()),
+            () -> assertEquals("Data!B$2",
+                A1Notation.withSheet("Data").withAnchors(A1Anchors.TOP).forCell("B", 2).toString())
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("A1Notation appended to a buffer should")
+class A1NotationAppendTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "A1",
+            "XFD1048576",
+            "A1:B2",
+            "A:ZZ",
+            "1:2147483647",
+            "Sheet1!A1",
+            "'My Custom Sheet'!A1:D5",
+            "'Jon\\'s_Data'!1:10",
+            "'\\'quoted\\''!B:C",
+            "'Finance Q4'",
+            "Data_2025"
+    })
+    @DisplayName("match the string representation")
+    void matchToString(String input) throws IOException {
+        A1Notation notation = A1Notation.of(input);
+        StringWriter writer = new StringWriter();
+
+        assertEquals(input, notation.appendTo(new StringBuilder()).toString());
+        assertEquals(input, notation.appendTo((Appendable) writer).toString());
+        assertEquals(notation.toShortString(), notation.appendShortTo(new StringBuilder()).toString());
+        assertEquals(notation.toShortString(), notation.appendShortTo(new StringWriter()).toString());
+    }
+
+    @Test
+    @DisplayName("append after existing content of the same builder")
+    void appendToExistingContent() {
+        StringBuilder sb = new StringBuilder("=SUM(");
+
+        StringBuilder result = A1Notation.withSheet("My Sheet").range("A", 1, "B", 2).appendTo(sb).append(')');
+
+        assertSame(sb, result);
+        assertEquals("=SUM('My Sheet'!A1:B2)", sb.toString());
+    }
+}
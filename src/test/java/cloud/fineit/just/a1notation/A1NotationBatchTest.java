@@ -0,0 +1,91 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1Notation.parseAll")
+class A1NotationBatchTest {
+
+    @Test
+    @DisplayName("should parse inputs in order")
+    void parseInOrder() {
+        A1BatchResult result = A1Notation.parseAll(Arrays.asList("A1", "Sheet1!B2:C3", "A:B", "'My Sheet'"));
+
+        assertAll(
+            () -> assertTrue(result.isSuccessful()),
+            () -> assertEquals(4, result.size()),
+            () -> assertEquals(A1Notation.of("Sheet1!B2:C3"), result.get(1)),
+            () -> assertEquals("'My Sheet'", result.get(3).toString())
+        );
+    }
+
+    @Test
+    @DisplayName("should report failures by index without aborting the batch")
+    void reportFailures() {
+        A1BatchResult result = A1Notation.parseAll(Arrays.asList("A1", "", "1A", null, "B2"));
+
+        assertAll(
+            () -> assertFalse(result.isSuccessful()),
+            () -> assertEquals(A1Notation.of("B2"), result.get(4)),
+            () -> assertNull(result.get(1)),
+            () -> assertEquals(3, result.failures().size()),
+            () -> assertEquals(1, result.failures().get(0).index()),
+            () -> assertEquals("A1 notation must not be empty", result.failures().get(0).message()),
+            () -> assertEquals(2, result.failures().get(1).index()),
+            () -> assertEquals("Unsupported A1 notation: 1A", result.failures().get(1).message()),
+            () -> assertEquals(3, result.failures().get(2).index())
+        );
+    }
+
+    @Test
+    @DisplayName("should match sequential parsing for batches split across a pool")
+    void matchSequential() {
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < A1BatchParser.CHUNK * 5 + 17; i++) {
+            inputs.add(i % 1000 == 0 ? "1:A" : A1Column.letters(i % 700 + 1) + (i + 1));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        A1BatchResult result;
+        try {
+            result = A1Notation.parseAll(inputs, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(inputs.size(), result.size());
+        int failures = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i % 1000 == 0) {
+                assertNull(result.get(i));
+                assertEquals(i, result.failures().get(failures++).index());
+            } else {
+                assertEquals(A1Notation.of(inputs.get(i)), result.get(i));
+            }
+        }
+        assertEquals(failures, result.failures().size());
+    }
+
+    @Test
+    @DisplayName("should accept sequential lists and streams")
+    void acceptOtherSources() {
+        A1BatchResult fromLinked = A1Notation.parseAll(new LinkedList<>(Arrays.asList("A1", "B2")));
+        A1BatchResult fromStream = A1Notation.parseAll(Stream.of("A1", "B2").parallel());
+
+        assertEquals(fromLinked.notations(), fromStream.notations());
+        assertEquals(Arrays.asList(A1Notation.of("A1"), A1Notation.of("B2")), fromStream.notations());
+    }
+}
@@ -0,0 +1,95 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1NotationCache should")
+class A1NotationCacheTest {
+
+    @Test
+    @DisplayName("return the shared instance on repeated lookups")
+    void returnSharedInstance() {
+        A1NotationCache cache = new A1NotationCache(8);
+
+        A1Notation first = cache.of("Sheet1!A1:B2");
+        A1Notation second = cache.of("Sheet1!A1:B2");
+
+        assertSame(first, second);
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    @DisplayName("stay within its maximum size")
+    void stayBounded() {
+        A1NotationCache cache = new A1NotationCache(4);
+
+        for (int row = 1; row <= 10; row++) {
+            cache.of("A" + row);
+        }
+
+        assertEquals(4, cache.size());
+        assertEquals(6, cache.evictionCount());
+    }
+
+    @Test
+    @DisplayName("keep recently used entries when evicting")
+    void keepRecentlyUsed() {
+        A1NotationCache cache = new A1NotationCache(2);
+        A1Notation hot = cache.of("A1");
+        cache.of("B2");
+
+        cache.of("A1");
+        cache.of("C3");
+
+        assertSame(hot, cache.of("A1"));
+        assertEquals(3, cache.hitCount() + cache.evictionCount());
+    }
+
+    @Test
+    @DisplayName("not cache invalid input")
+    void notCacheInvalidInput() {
+        A1NotationCache cache = new A1NotationCache(2);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.of("A1:"));
+        assertThrows(IllegalArgumentException.class, () -> cache.of(null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("serve concurrent lookups")
+    void serveConcurrentLookups() throws Exception {
+        A1NotationCache cache = new A1NotationCache(64);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String input = "Sheet1!A" + (i % 100 + 1);
+                        assertEquals(input, cache.of(input).toString());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(40_000, cache.hitCount() + cache.missCount());
+        assertTrue(cache.size() <= 64);
+    }
+}
@@ -0,0 +1,111 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("A1Notation cell iteration")
+class A1NotationCellsTest {
+
+    @Nested
+    @DisplayName("forEachCell")
+    class ForEachCell {
+
+        @Test
+        @DisplayName("should visit cells row by row")
+        void rowMajor() {
+            List<String> cells = new ArrayList<>();
+
+            A1Notation.of("B3:A2").forEachCell((row, column) -> cells.add(row + ":" + column));
+
+            assertEquals(Arrays.asList("2:1", "2:2", "3:1", "3:2"), cells);
+        }
+
+        @Test
+        @DisplayName("should visit cells column by column")
+        void columnMajor() {
+            List<String> cells = new ArrayList<>();
+
+            A1Notation.of("A2:B3").forEachCell(CellOrder.COLUMN_MAJOR, (row, column) -> cells.add(row + ":" + column));
+
+            assertEquals(Arrays.asList("2:1", "3:1", "2:2", "3:2"), cells);
+        }
+
+        @Test
+        @DisplayName("should visit a single cell")
+        void singleCell() {
+            List<String> cells = new ArrayList<>();
+
+            A1Notation.of("Data!C7").forEachCell((row, column) -> cells.add(row + ":" + column));
+
+            assertEquals(Arrays.asList("7:3"), cells);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"A:B", "1:2", "Data"})
+        @DisplayName("should throw for unbounded references")
+        void throwUnbounded(String input) {
+            A1Notation notation = A1Notation.of(input);
+
+            assertThrows(UnboundedDimensionException.class, () -> notation.forEachCell((row, column) -> { }));
+            assertThrows(UnboundedDimensionException.class, () -> notation.cellCursor(CellOrder.ROW_MAJOR));
+        }
+    }
+
+    @Nested
+    @DisplayName("cellCursor")
+    class Cursor {
+
+        @Test
+        @DisplayName("should match forEachCell in both orders")
+        void matchForEach() {
+            A1Notation range = A1Notation.of("C10:AB3");
+            for (CellOrder order : CellOrder.values()) {
+                List<Long> expected = new ArrayList<>();
+                range.forEachCell(order, (row, column) -> expected.add((long) row << 32 | column));
+
+                A1CellCursor cursor = range.cellCursor(order);
+                List<Long> actual = new ArrayList<>();
+                while (cursor.next()) {
+                    actual.add((long) cursor.row() << 32 | cursor.column());
+                }
+
+                assertEquals(expected, actual);
+                assertFalse(cursor.next());
+                cursor.reset();
+                cursor.next();
+                assertEquals(expected.get(0).longValue(), (long) cursor.row() << 32 | cursor.column());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("forEachAddress")
+    class ForEachAddress {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"Y98:AB102", "'My Sheet'!A1:B2", "Data!XFD1048575:XFD1048576", "ZZ9"})
+        @DisplayName("should format every address like toString")
+        void matchToString(String input) {
+            A1Notation range = A1Notation.of(input);
+            List<String> expected = new ArrayList<>();
+            range.forEachCell(CellOrder.COLUMN_MAJOR, (row, column) -> expected.add(
+                    new A1CellRef(Bounds.of(range).sheet(), A1Column.ofIndex(column), new A1Row(row)).toString()));
+            List<String> actual = new ArrayList<>();
+
+            range.forEachAddress(CellOrder.COLUMN_MAJOR, (address, length, row, column) -> actual.add(new String(address, 0, length)));
+
+            assertEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DisplayName("A1Notation equality should")
+class A1NotationEqualityTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"A1", "Sheet1!B2", "A1:C3", "A:C", "1:3", "'My Sheet'!A1", "'My Sheet'"})
+    @DisplayName("hold for notations parsed from the same input")
+    void equalForSameInput(String input) {
+        A1Notation a = A1Notation.of(input);
+        A1Notation b = A1Notation.of(input);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Sheet1!B2,Sheet1,B,2",
+            "'My Sheet'!AA10,My Sheet,aa,10"
+    })
+    @DisplayName("hold between parsed and built notations")
+    void equalForBuiltNotation(String input, String sheet, String col, int row) {
+        assertEquals(A1Notation.of(input), A1Notation.withSheet(sheet).forCell(col, row));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "A1,A1:A1",
+            "A1,B1",
+            "A1,Sheet1!A1",
+            "Sheet1!A1,Sheet2!A1",
+            "A:B,1:2",
+            "A1:B2,B2:A1",
+            "Sheet1,Sheet2"
+    })
+    @DisplayName("not hold for different references")
+    void notEqualForDifferentReferences(String left, String right) {
+        assertNotEquals(A1Notation.of(left), A1Notation.of(right));
+    }
+}
@@ -0,0 +1,104 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1Notation order should")
+class A1NotationOrderTest {
+
+    private static final Comparator<A1Notation> ROW_MAJOR = A1Notation.comparator(CellOrder.ROW_MAJOR);
+    private static final Comparator<A1Notation> COLUMN_MAJOR = A1Notation.comparator(CellOrder.COLUMN_MAJOR);
+
+    private static List<String> sorted(Comparator<A1Notation> order, String... inputs) {
+        return Arrays.stream(inputs).map(A1Notation::of).sorted(order).map(A1Notation::toString)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("sort by sheet, then row-major or column-major")
+    void order() {
+        String[] inputs = {"Data!A1", "B1", "A2", "A1", "A:A", "2:2", "A1:B2", "$A$1", "Data", "Other!A1", "A1:A1"};
+        assertAll(
+            () -> assertEquals(Arrays.asList("A:A", "A1", "$A$1", "A1:A1", "A1:B2", "B1", "2:2", "A2", "Data", "Data!A1", "Other!A1"),
+                sorted(ROW_MAJOR, inputs)),
+            () -> assertEquals(Arrays.asList("2:2", "A:A", "A1", "$A$1", "A1:A1", "A1:B2", "A2", "B1", "Data", "Data!A1", "Other!A1"),
+                sorted(COLUMN_MAJOR, inputs))
+        );
+    }
+
+    @Test
+    @DisplayName("be consistent with equals and hashCode")
+    void consistentWithEquals() {
+        Random random = new Random(25);
+        List<A1Notation> notations = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String sheet = random.nextBoolean() ? "" : "S" + random.nextInt(3) + "!";
+            String left = A1Column.letters(1 + random.nextInt(3));
+            int top = 1 + random.nextInt(3);
+            switch (random.nextInt(4)) {
+                case 0:
+                    notations.add(A1Notation.of(sheet + left + top));
+                    break;
+                case 1:
+                    notations.add(A1Notation.of(sheet + "$" + left + top + ":" + A1Column.letters(1 + random.nextInt(3)) + top));
+                    break;
+                case 2:
+                    notations.add(A1Notation.of(sheet + left + ":" + left));
+                    break;
+                default:
+                    notations.add(A1Notation.of(sheet + top + ":" + (top + random.nextInt(2))));
+            }
+        }
+        for (A1Notation a : notations) {
+            for (A1Notation b : notations) {
+                int compared = ROW_MAJOR.compare(a, b);
+                assertEquals(a.equals(b), compared == 0, () -> a + " vs " + b);
+                assertEquals(Integer.signum(compared), -Integer.signum(ROW_MAJOR.compare(b, a)), () -> a + " vs " + b);
+                assertTrue(!a.equals(b) || a.hashCode() == b.hashCode(), () -> a + " vs " + b);
+            }
+        }
+        Set<A1Notation> tree = new TreeSet<>(COLUMN_MAJOR);
+        tree.addAll(notations);
+        assertEquals(new HashSet<>(notations), new HashSet<>(tree));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "A, B, -1",
+        "Z, AA, -1",
+        "AB, AB, 0",
+        "XFD, A, 1"
+    })
+    @DisplayName("order columns by index")
+    void columns(String left, String right, int expected) {
+        assertEquals(expected, Integer.signum(A1Column.of(left).compareTo(A1Column.of(right))));
+    }
+
+    @Test
+    @DisplayName("order rows by index and sheet names by value")
+    void rowsAndSheets() {
+        assertAll(
+            () -> assertTrue(new A1Row(9).compareTo(new A1Row(10)) < 0),
+            () -> assertEquals(0, new A1Row(3).compareTo(new A1Row(3))),
+            () -> assertTrue(new SheetName("Data").compareTo(new SheetName("Other")) < 0),
+            () -> assertTrue(new SheetName("Data").compareTo(new SheetName("data")) < 0)
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.r1c1notation.R1C1Notation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("A1Notation R1C1 conversion should")
+class A1NotationR1C1Test {
+
+    @ParameterizedTest
+    @CsvSource({
+        "A1, R1C1",
+        "C2, R2C3",
+        "A1:D10, R1C1:R10C4",
+        "D10:A1, R10C4:R1C1",
+        "A1:A1, R1C1:R1C1",
+        "2:5, R2:R5",
+        "A:C, C1:C3",
+        "Data!AA7, Data!R7C27",
+        "'My Sheet'!B:B, 'My Sheet'!C2:C2",
+        "Data, Data"
+    })
+    @DisplayName("convert absolute references both ways")
+    void absolute(String a1, String r1c1) {
+        assertAll(
+            () -> assertEquals(r1c1, A1Notation.of(a1).toR1C1().toString()),
+            () -> assertEquals(A1Notation.of(a1), A1Notation.fromR1C1(R1C1Notation.of(r1c1)))
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "C4, R[-1]C[2]",
+        "A5, RC",
+        "B3:C6, R[-2]C[1]:R[1]C[2]",
+        "Data!1:5, Data!R[-4]:R",
+        "$C4, R[-1]C3",
+        "C$4:$D5, R4C[2]:RC4",
+        "$A:B, C1:C[1]"
+    })
+    @DisplayName("convert relative references against the anchor A5")
+    void relative(String a1, String r1c1) {
+        assertAll(
+            () -> assertEquals(r1c1, A1Notation.of(a1).toR1C1(1, 5).toString()),
+            () -> assertEquals(A1Notation.of(a1), A1Notation.fromR1C1(R1C1Notation.of(r1c1), 1, 5))
+        );
+    }
+
+    @Test
+    @DisplayName("anchor absolute coordinates only against an anchor cell")
+    void anchors() {
+        R1C1Notation absolute = R1C1Notation.of("R2C3:R4C5");
+        assertAll(
+            () -> assertEquals("C2:E4", A1Notation.fromR1C1(absolute).toString()),
+            () -> assertEquals("$C$2:$E$4", A1Notation.fromR1C1(absolute, 1, 5).toString()),
+            () -> assertEquals(absolute, A1Notation.of("$C$2:E4").toR1C1()),
+            () -> assertEquals(absolute, A1Notation.of("$C$2:$E$4").toR1C1(1, 5))
+        );
+    }
+
+    @Test
+    @DisplayName("reject unresolvable references")
+    void invalid() {
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> A1Notation.fromR1C1(R1C1Notation.of("R[1]C1"))),
+            () -> assertThrows(IllegalArgumentException.class,
+                () -> A1Notation.fromR1C1(R1C1Notation.of("RC[-2]"), 2, 1))
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("A1Notation parsed from a slice of a larger input should")
+class A1NotationSliceFactoryTest {
+
+    private static final String BEFORE = "x,\"";
+    private static final String AFTER = "\",y";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "A1",
+            "A1:B2",
+            "A:A",
+            "1:10",
+            "Sheet1",
+            "Sheet1!A1:B2",
+            "'My Custom Sheet'!A:A",
+            "'Jon\\'s_Data'!A1:D5",
+            "'Finance Q4'"
+    })
+    @DisplayName("equal the notation parsed from a string")
+    void equalStringParse(String input) {
+        String line = BEFORE + input + AFTER;
+        int from = BEFORE.length();
+        int to = from + input.length();
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        String expected = A1Notation.of(input).toString();
+
+        assertEquals(expected, A1Notation.parse(line, from, to).toString());
+        assertEquals(expected, A1Notation.parse(line.toCharArray(), from, to).toString());
+        assertEquals(expected, A1Notation.parse(bytes, from, to).toString());
+        assertEquals(expected, A1Notation.parse(ByteBuffer.wrap(bytes), from, to).toString());
+    }
+
+    @Test
+    @DisplayName("leave the buffer position unchanged")
+    void keepBufferPosition() {
+        ByteBuffer buffer = ByteBuffer.wrap("Sheet1!B2".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(3);
+
+        A1Notation notation = A1Notation.parse(buffer, 0, buffer.limit());
+
+        assertEquals("Sheet1!B2", notation.toString());
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    @DisplayName("report only the slice in the error message")
+    void reportSliceOnError() {
+        byte[] bytes = "A1,B?,C3".getBytes(StandardCharsets.US_ASCII);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> A1Notation.parse(bytes, 3, 5));
+
+        assertEquals("Unsupported A1 notation: B?", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("throw on empty slice")
+    void throwOnEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> A1Notation.parse("A1", 1, 1));
+    }
+
+    @Test
+    @DisplayName("throw on slice out of bounds")
+    void throwOnOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> A1Notation.parse("A1", 1, 3));
+    }
+}
@@ -0,0 +1,124 @@
+package cloud.fineit.just.a1notation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1Notation spliterators")
+class A1NotationSpliteratorTest {
+
+    @Nested
+    @DisplayName("cellSpliterator")
+    class Cells {
+
+        @Test
+        @DisplayName("should yield packed cells row-major")
+        void rowMajor() {
+            List<Long> expected = new ArrayList<>();
+            A1Notation range = A1Notation.of("D7:B3");
+            range.forEachCell((row, column) -> expected.add(A1Packed.pack(A1Packed.NO_SHEET, column, row)));
+
+            List<Long> actual = StreamSupport.longStream(range.cellSpliterator(), false).boxed().collect(Collectors.toList());
+
+            assertEquals(expected, actual);
+        }
+
+        @Test
+        @DisplayName("should split at row boundaries into exactly sized halves")
+        void splitEvenly() {
+            Spliterator.OfLong cells = A1Notation.of("A1:J10").cellSpliterator();
+
+            Spliterator.OfLong prefix = cells.trySplit();
+
+            assertAll(
+                () -> assertTrue(cells.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)),
+                () -> assertEquals(50, prefix.estimateSize()),
+                () -> assertEquals(50, cells.estimateSize()),
+                () -> assertEquals(A1Packed.pack(A1Packed.NO_SHEET, 1, 6), first(cells))
+            );
+        }
+
+        @Test
+        @DisplayName("should split a single row into column halves")
+        void splitRow() {
+            Spliterator.OfLong cells = A1Notation.of("A1:C1").cellSpliterator();
+
+            Spliterator.OfLong prefix = cells.trySplit();
+
+            assertEquals(1, prefix.estimateSize());
+            assertEquals(2, cells.estimateSize());
+            assertNull(prefix.trySplit());
+        }
+
+        @Test
+        @DisplayName("should match sequential order in a parallel stream")
+        void parallel() {
+            A1Notation range = A1Notation.of("C1:BZ3000");
+
+            long[] sequential = StreamSupport.longStream(range.cellSpliterator(), false).toArray();
+            long[] parallel = StreamSupport.longStream(range.cellSpliterator(), true).toArray();
+
+            assertEquals((long) range.width() * range.height(), parallel.length);
+            assertArrayEquals(sequential, parallel);
+        }
+
+        @Test
+        @DisplayName("should pack sheet ids")
+        void sheetIds() {
+            Spliterator.OfLong cells = A1Notation.of("Data!B2").cellSpliterator(sheet -> 7);
+
+            assertEquals(A1Packed.pack(7, 2, 2), first(cells));
+        }
+
+        @Test
+        @DisplayName("should throw for unbounded references")
+        void throwUnbounded() {
+            assertThrows(UnboundedDimensionException.class, () -> A1Notation.of("A:B").cellSpliterator());
+        }
+
+        private long first(Spliterator.OfLong cells) {
+            long[] first = new long[1];
+            cells.tryAdvance((long cell) -> first[0] = cell);
+            return first[0];
+        }
+    }
+
+    @Nested
+    @DisplayName("rowSpliterator")
+    class Rows {
+
+        @Test
+        @DisplayName("should yield rows of ranges and whole rows")
+        void rows() {
+            assertAll(
+                () -> assertArrayEquals(new int[]{3, 4, 5}, StreamSupport.intStream(A1Notation.of("B5:C3").rowSpliterator(), true).toArray()),
+                () -> assertEquals(1_000_000, StreamSupport.intStream(A1Notation.of("1:1000000").rowSpliterator(), true).count()),
+                () -> assertThrows(UnboundedDimensionException.class, () -> A1Notation.of("A:B").rowSpliterator())
+            );
+        }
+
+        @Test
+        @DisplayName("should split into equal bands")
+        void splitEvenly() {
+            Spliterator.OfInt rows = A1Notation.of("1:10").rowSpliterator();
+
+            Spliterator.OfInt prefix = rows.trySplit();
+
+            assertEquals(5, prefix.estimateSize());
+            assertEquals(5, rows.estimateSize());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1Packed")
+class A1PackedTest {
+
+    private static final ToIntFunction<SheetName> IDS = sheet -> sheet.value().equals("Data") ? 1 : 2;
+    private static final IntFunction<SheetName> NAMES = id -> new SheetName(id == 1 ? "Data" : "My Sheet");
+
+    @Nested
+    @DisplayName("when packing parts")
+    class Parts {
+
+        @Test
+        @DisplayName("should round-trip sheet id, column and row")
+        void roundTrip() {
+            long packed = A1Packed.pack(A1Packed.MAX_SHEET_ID, A1Packed.MAX_COLUMN, A1Packed.MAX_ROW);
+
+            assertAll(
+                () -> assertEquals(A1Packed.MAX_SHEET_ID, A1Packed.sheetId(packed)),
+                () -> assertEquals(A1Packed.MAX_COLUMN, A1Packed.column(packed)),
+                () -> assertEquals(A1Packed.MAX_ROW, A1Packed.row(packed)),
+                () -> assertTrue(packed > 0)
+            );
+        }
+
+        @Test
+        @DisplayName("should order cells by sheet and then row-major")
+        void orderRowMajor() {
+            long b1 = A1Packed.pack(1, 2, 1);
+            long a2 = A1Packed.pack(1, 1, 2);
+            long sheet2 = A1Packed.pack(2, 1, 1);
+
+            assertTrue(b1 < a2);
+            assertTrue(a2 < sheet2);
+        }
+
+        @Test
+        @DisplayName("should throw for parts outside of the packed range")
+        void throwOutOfRange() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Packed.pack(-1, 1, 1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Packed.pack(1, A1Packed.MAX_COLUMN + 1, 1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1Packed.pack(1, 1, A1Packed.MAX_ROW + 1))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("when encoding notations")
+    class Notations {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"A1", "XFD1048576", "Data!B7", "'My Sheet'!AA10"})
+        @DisplayName("should round-trip cells")
+        void roundTripCells(String input) {
+            long cell = A1Packed.encode(A1Notation.of(input), IDS);
+
+            assertEquals(input, A1Packed.decode(cell, NAMES).toString());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"A1:C10", "F10:C10", "A:D", "3:7", "Data!B2:C3", "'My Sheet'!1:2", "Data"})
+        @DisplayName("should round-trip other references as pairs")
+        void roundTripPairs(String input) {
+            A1Notation notation = A1Notation.of(input);
+
+            long start = A1Packed.encodeStart(notation, IDS);
+            long end = A1Packed.encodeEnd(notation, IDS);
+
+            assertEquals(input, A1Packed.decode(start, end, NAMES).toString());
+        }
+
+        @Test
+        @DisplayName("should throw when a sheet name has no id")
+        void throwWithoutSheetIds() {
+            assertThrows(IllegalArgumentException.class, () -> A1Packed.encode(A1Notation.of("Data!A1")));
+        }
+
+        @Test
+        @DisplayName("should throw when encoding a range as a cell")
+        void throwForRangeAsCell() {
+            assertThrows(IllegalArgumentException.class, () -> A1Packed.encode(A1Notation.of("A1:B2")));
+        }
+    }
+
+    @Nested
+    @DisplayName("when computing from packed pairs")
+    class Dimensions {
+
+        @Test
+        @DisplayName("should return width and height")
+        void widthAndHeight() {
+            A1Notation notation = A1Notation.of("F10:C2");
+            long start = A1Packed.encodeStart(notation);
+            long end = A1Packed.encodeEnd(notation);
+
+            assertEquals(notation.width(), A1Packed.width(start, end));
+            assertEquals(notation.height(), A1Packed.height(start, end));
+        }
+
+        @Test
+        @DisplayName("should throw for unbounded dimensions")
+        void throwUnbounded() {
+            A1Notation rows = A1Notation.of("3:7");
+            long start = A1Packed.encodeStart(rows);
+            long end = A1Packed.encodeEnd(rows);
+
+            assertThrows(UnboundedDimensionException.class, () -> A1Packed.width(start, end));
+            assertEquals(5, A1Packed.height(start, end));
+        }
+
+        @Test
+        @DisplayName("should check containment")
+        void containment() {
+            A1Notation range = A1Notation.of("Data!B2:D4");
+            long start = A1Packed.encodeStart(range, IDS);
+            long end = A1Packed.encodeEnd(range, IDS);
+
+            assertAll(
+                () -> assertTrue(A1Packed.contains(start, end, A1Packed.encode(A1Notation.of("Data!C3"), IDS))),
+                () -> assertFalse(A1Packed.contains(start, end, A1Packed.encode(A1Notation.of("Data!E3"), IDS))),
+                () -> assertFalse(A1Packed.contains(start, end, A1Packed.encode(A1Notation.of("C3"), IDS)))
+            );
+        }
+
+        @Test
+        @DisplayName("should treat unbounded sides as covering everything")
+        void containmentUnbounded() {
+            A1Notation columns = A1Notation.of("B:C");
+            long start = A1Packed.encodeStart(columns);
+            long end = A1Packed.encodeEnd(columns);
+
+            assertTrue(A1Packed.contains(start, end, A1Packed.pack(A1Packed.NO_SHEET, 3, 1_000_000)));
+            assertFalse(A1Packed.contains(start, end, A1Packed.pack(A1Packed.NO_SHEET, 4, 1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("when sorting")
+    class Sorting {
+
+        private final Random random = new Random(25);
+
+        private long randomCell() {
+            return A1Packed.pack(random.nextInt(3), 1 + random.nextInt(random.nextBoolean() ? 50 : A1Packed.MAX_COLUMN),
+                1 + random.nextInt(random.nextBoolean() ? 50 : A1Packed.MAX_ROW));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 10, 63, 64, 1000, 20000})
+        @DisplayName("should order cells by sheet and then row-major")
+        void rowMajor(int size) {
+            long[] cells = new long[size + 2];
+            for (int i = 1; i <= size; i++) {
+                cells[i] = randomCell();
+            }
+            cells[size + 1] = -5;
+            long[] expected = cells.clone();
+            Arrays.sort(expected, 1, size + 1);
+            A1Packed.sort(cells, 1, size + 1);
+            assertArrayEquals(expected, cells);
+        }
+
+        @Test
+        @DisplayName("should order cells column-major and deleted entries last")
+        void columnMajor() {
+            long[] cells = new long[500];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = i % 50 == 0 ? A1Shifter.DELETED : randomCell();
+            }
+            Long[] expected = Arrays.stream(cells).boxed().toArray(Long[]::new);
+            Arrays.sort(expected, (a, b) -> {
+                if (a == A1Shifter.DELETED || b == A1Shifter.DELETED) {
+                    return Boolean.compare(a == A1Shifter.DELETED, b == A1Shifter.DELETED);
+                }
+                int result = Integer.compare(A1Packed.sheetId(a), A1Packed.sheetId(b));
+                result = result != 0 ? result : Integer.compare(A1Packed.column(a), A1Packed.column(b));
+                return result != 0 ? result : Integer.compare(A1Packed.row(a), A1Packed.row(b));
+            });
+            A1Packed.sort(cells, 0, cells.length, CellOrder.COLUMN_MAJOR);
+            assertArrayEquals(Arrays.stream(expected).mapToLong(Long::longValue).toArray(), cells);
+        }
+
+        @Test
+        @DisplayName("should order pairs by start and then end")
+        void pairs() {
+            int size = 3000;
+            long[] starts = new long[size];
+            long[] ends = new long[size];
+            long[][] expected = new long[size][];
+            for (int i = 0; i < size; i++) {
+                starts[i] = A1Packed.pack(random.nextInt(2), 1 + random.nextInt(5), 1 + random.nextInt(5));
+                ends[i] = randomCell();
+                expected[i] = new long[]{starts[i], ends[i]};
+            }
+            Arrays.sort(expected, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            A1Packed.sort(starts, ends, 0, size);
+            assertAll(
+                () -> assertArrayEquals(Arrays.stream(expected).mapToLong(pair -> pair[0]).toArray(), starts),
+                () -> assertArrayEquals(Arrays.stream(expected).mapToLong(pair -> pair[1]).toArray(), ends)
+            );
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("A1Parser should match the regex-based parser for")
+class A1ParserTest {
+
+    private static final String ALPHABET = "ABZaz019:!'\\ _-$Я";
+    private static final String[] TOKENS = {
+            "A", "BC", "ZZZ", "a", "1", "42", "0", ":", "!", "'", "\\'", "Sheet1", "My Sheet", " "
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "A1", "Z999", "AA10", "A1:B2", "F10:C10", "A:A", "A:ZZ", "1:1", "10:100",
+            "Sheet1", "Sheet1!A1", "Data_2025!1:10", "'My Sheet'", "'My Sheet'!A:A",
+            "'Jon\\'s_Data'!A1:D5", "'Лист 1'!B2:C3", "'Jon\\'s'", "'\\\\''", "'a\\\\\\''!A1",
+            "a1", "A0", "A01", "AB12 ", "My Sheet", "_", "A", "0:1", "1:0", "01:2",
+            "!A1", "''!A1", "'!A1", "Sheet1!", "S!A1!B", "'a!b'!A1", "A1:", ":B2", "A1:B",
+            "A:B2", "1:A", "''", "'Bad", "Bad'", "'Unescaped's'", "a1:b2", "A1B2",
+            "A2147483647", "A2147483648", "A99999999999", "1:2147483648", "2147483648:1",
+            "S!A1:B99999999999", "!1:99999999999", "ABCDEFGHIJ1", "XFD1048576"
+    })
+    @DisplayName("known inputs")
+    void knownInputs(String input) {
+        assertEquals(outcome(() -> Legacy.of(input)), outcome(() -> A1Notation.of(input)));
+    }
+
+    @Test
+    @DisplayName("random inputs")
+    void randomInputs() {
+        Random random = new Random(42);
+        for (int n = 0; n < 200_000; n++) {
+            String input = randomInput(random);
+            if (input.indexOf('$') >= 0) {
+                assertAnchorsDropped(input);
+                continue;
+            }
+
+            assertEquals(outcome(() -> Legacy.of(input)), outcome(() -> A1Notation.of(input)),
+                    () -> "input: " + input);
+        }
+    }
+
+    @Test
+    @DisplayName("null input")
+    void nullInput() {
+        assertEquals(outcome(() -> Legacy.of(null)), outcome(() -> A1Notation.of(null)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"MWLQKWW1", "FXSHRXX1", "A1:MWLQKWW2", "MWLQKWW:A", "A:FXSHRXX", "Data!AAAAAAAAAA1"})
+    @DisplayName("column letters beyond the int range instead of wrapping around")
+    void columnOverflow(String input) {
+        A1Parser parser = new A1Parser();
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> A1Notation.of(input)),
+            () -> assertFalse(parser.scan(input, 0, input.length()) && parser.inRange())
+        );
+    }
+
+    @Test
+    @DisplayName("the largest column")
+    void largestColumn() {
+        A1Notation notation = A1Notation.of("FXSHRXW1");
+        assertAll(
+            () -> assertEquals("FXSHRXW1", notation.toString()),
+            () -> assertEquals(Integer.MAX_VALUE, Bounds.of(notation).left())
+        );
+    }
+
+    /**
+     * The regex-based parser knows no {@code $} anchors, so an anchored reference must equal its
+     * counterpart with the anchors removed from the reference part.
+     */
+    private static void assertAnchorsDropped(String input) {
+        A1Notation notation;
+        try {
+            notation = A1Notation.of(input);
+        } catch (RuntimeException e) {
+            return;
+        }
+        int bang = input.indexOf('!');
+        String plain = notation instanceof A1SheetRef ? input
+                : input.substring(0, bang + 1) + input.substring(bang + 1).replace("$", "");
+        assertEquals(outcome(() -> Legacy.of(plain)), outcome(() -> notation.withAnchors(A1Anchors.NONE)),
+                () -> "input: " + input);
+    }
+
+    private static String randomInput(Random random) {
+        int length = random.nextInt(10);
+        StringBuilder sb = new StringBuilder();
+        boolean byTokens = random.nextBoolean();
+        for (int i = 0; i < length; i++) {
+            if (byTokens) {
+                sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+            } else {
+                sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String outcome(Parse parse) {
+        try {
+            A1Notation notation = parse.get();
+            return notation.getClass().getSimpleName() + " " + notation + " " + notation.toShortString();
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Parse {
+        A1Notation get();
+    }
+
+    /**
+     * The regex-based implementation that {@link A1Parser} replaces.
+     */
+    private static final class Legacy {
+
+        static A1Notation of(String a1Notation) {
+            if (a1Notation == null || a1Notation.isEmpty()) {
+                throw new IllegalArgumentException("A1 notation must not be empty");
+            }
+
+            int bang = a1Notation.indexOf('!');
+            String refPart = a1Notation;
+            if (bang >= 0) {
+                refPart = a1Notation.substring(bang + 1);
+            }
+
+            if (bang < 0 && References.isSheetOnly(a1Notation)) {
+                return new A1SheetRef(SheetName.parse(a1Notation));
+            }
+
+            if (References.isCell(refPart)) {
+                Optional<SheetName> sheet = SheetName.fromNotation(a1Notation);
+                String ref = SheetName.refPart(a1Notation);
+                return new A1CellRef(sheet, References.extractColumn(ref), References.extractRow(ref));
+            }
+
+            if (References.isRange(refPart)
+                    || References.isWholeColumnRange(refPart)
+                    || References.isWholeRowRange(refPart)) {
+                return range(a1Notation);
+            }
+
+            throw new IllegalArgumentException("Unsupported A1 notation: " + a1Notation);
+        }
+
+        private static A1Notation range(String original) {
+            Optional<SheetName> sheet = SheetName.fromNotation(original);
+            String[] parts = SheetName.refPart(original).split(":", 2);
+            String rangeStart = parts[0];
+            String rangeEnd = parts[1];
+
+            if (References.isColumnOnly(rangeStart) && References.isColumnOnly(rangeEnd)) {
+                return new A1RangeRef(sheet, new A1Column(rangeStart), new A1Column(rangeEnd));
+            }
+            if (References.isRowOnly(rangeStart) && References.isRowOnly(rangeEnd)) {
+                return new A1RangeRef(sheet,
+                        new A1Row(Integer.parseInt(rangeStart)), new A1Row(Integer.parseInt(rangeEnd)));
+            }
+            A1Column left = References.extractColumn(rangeStart);
+            A1Column right = References.extractColumn(rangeEnd);
+            A1Row top = References.extractRow(rangeStart);
+            A1Row bottom = References.extractRow(rangeEnd);
+            return new A1RangeRef(sheet, left, top, right, bottom);
+        }
+    }
+}
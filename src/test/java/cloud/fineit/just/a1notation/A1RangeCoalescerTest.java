@@ -0,0 +1,128 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1RangeCoalescer")
+class A1RangeCoalescerTest {
+
+    private static List<A1Notation> parse(String... inputs) {
+        return Arrays.stream(inputs).map(A1Notation::of).collect(Collectors.toList());
+    }
+
+    private static List<String> coalesce(String... inputs) {
+        return A1RangeCoalescer.coalesce(parse(inputs)).stream().map(A1Notation::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("should merge adjacent cells into rectangles")
+    void mergeCells() {
+        assertAll(
+            () -> assertEquals(Arrays.asList("A1:B2", "D2"), coalesce("A1", "B1", "A2", "B2", "D2")),
+            () -> assertEquals(Arrays.asList("A1:C1"), coalesce("C1", "A1", "B1")),
+            () -> assertEquals(Arrays.asList("B2:B4"), coalesce("B2", "B3", "B4", "B3"))
+        );
+    }
+
+    @Test
+    @DisplayName("should split overlapping ranges into disjoint rectangles")
+    void splitOverlaps() {
+        assertAll(
+            () -> assertEquals(Arrays.asList("A1:C3"), coalesce("A1:B3", "B1:C3", "B2")),
+            () -> assertEquals(Arrays.asList("A1:B1", "A2:C2", "B3:C3"), coalesce("A1:B2", "B2:C3"))
+        );
+    }
+
+    @Test
+    @DisplayName("should keep unbounded axes and reversed ranges")
+    void unbounded() {
+        assertAll(
+            () -> assertEquals(Arrays.asList("A:C"), coalesce("A:B", "C:C", "B5")),
+            () -> assertEquals(Arrays.asList("2:5"), coalesce("2:3", "4:5", "D4")),
+            () -> assertEquals(Arrays.asList("A1:B2"), coalesce("B2:A1")),
+            () -> assertEquals(Arrays.asList("Data"), coalesce("Data!A1:C3", "Data"))
+        );
+    }
+
+    @Test
+    @DisplayName("should group by sheet in order of first appearance")
+    void groupBySheet() {
+        Map<Optional<SheetName>, List<A1Notation>> bySheet =
+                A1RangeCoalescer.coalesceBySheet(parse("Data!A1", "B1", "Data!A2", "Other!A1", "A1"));
+
+        assertEquals(Arrays.asList(Optional.of(new SheetName("Data")), Optional.empty(), Optional.of(new SheetName("Other"))),
+                new ArrayList<>(bySheet.keySet()));
+        assertEquals(parse("Data!A1:A2"), bySheet.get(Optional.of(new SheetName("Data"))));
+        assertEquals(parse("A1:B1"), bySheet.get(Optional.empty()));
+    }
+
+    @Test
+    @DisplayName("should cover exactly the input cells without overlaps")
+    void matchCells() {
+        Random random = new Random(13);
+        for (int round = 0; round < 200; round++) {
+            List<A1Notation> input = new ArrayList<>();
+            int n = random.nextInt(40) + 1;
+            for (int i = 0; i < n; i++) {
+                int c = random.nextInt(12) + 1;
+                int r = random.nextInt(12) + 1;
+                input.add(random.nextInt(3) == 0
+                        ? A1Notation.range(A1Column.letters(c), r, A1Column.letters(c + random.nextInt(4)), r + random.nextInt(4))
+                        : A1Notation.cell(A1Column.letters(c), r));
+            }
+
+            List<A1Notation> output = A1RangeCoalescer.coalesce(input);
+
+            assertEquals(cells(input), cells(output));
+            int total = 0;
+            for (A1Notation rect : output) {
+                total += rect.width() * rect.height();
+                for (A1Notation other : output) {
+                    assertTrue(rect == other || !rect.intersects(other), rect + " overlaps " + other);
+                }
+            }
+            assertEquals(cells(output).size(), total);
+        }
+    }
+
+    @Test
+    @DisplayName("should collapse a large block of cells")
+    void collapseBlock() {
+        List<A1Notation> cells = new ArrayList<>();
+        for (int row = 1000; row >= 1; row--) {
+            for (int column = 1; column <= 100; column++) {
+                cells.add(A1Notation.cell(A1Column.letters(column), row));
+            }
+        }
+
+        assertEquals(parse("A1:CV1000"), A1RangeCoalescer.coalesce(cells));
+    }
+
+    private static Set<Long> cells(List<A1Notation> notations) {
+        Set<Long> cells = new HashSet<>();
+        for (A1Notation notation : notations) {
+            Bounds bounds = Bounds.of(notation);
+            for (int c = Math.min(bounds.left(), bounds.right()); c <= Math.max(bounds.left(), bounds.right()); c++) {
+                for (int r = Math.min(bounds.top(), bounds.bottom()); r <= Math.max(bounds.top(), bounds.bottom()); r++) {
+                    cells.add((long) c << 32 | r);
+                }
+            }
+        }
+        return cells;
+    }
+}
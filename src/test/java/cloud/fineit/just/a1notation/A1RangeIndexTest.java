@@ -0,0 +1,180 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1RangeIndex")
+class A1RangeIndexTest {
+
+    private static Set<String> strings(List<A1Notation> notations) {
+        Set<String> result = new HashSet<>();
+        notations.forEach(n -> result.add(n.toString()));
+        return result;
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    @Nested
+    @DisplayName("when querying cells")
+    class Cells {
+
+        private final A1RangeIndex<A1Notation> index = A1RangeIndex.of(Arrays.asList(
+            A1Notation.of("A1:C3"),
+            A1Notation.of("C3:B2"),
+            A1Notation.of("B:B"),
+            A1Notation.of("2:2"),
+            A1Notation.of("D4"),
+            A1Notation.of("Data!A1:Z100"),
+            A1Notation.of("Data")
+        ));
+
+        @Test
+        @DisplayName("should find ranges, unbounded axes and reversed ranges")
+        void findContaining() {
+            assertAll(
+                () -> assertEquals(set("A1:C3", "C3:B2", "B:B", "2:2"), strings(index.containing(A1Notation.of("B2")))),
+                () -> assertEquals(set("B:B"), strings(index.containing(A1Notation.of("B1000000")))),
+                () -> assertEquals(set("2:2"), strings(index.containing(A1Notation.of("XFD2")))),
+                () -> assertEquals(set("D4"), strings(index.containing(A1Notation.of("D4")))),
+                () -> assertEquals(set(), strings(index.containing(A1Notation.of("E5"))))
+            );
+        }
+
+        @Test
+        @DisplayName("should keep sheets apart")
+        void keepSheetsApart() {
+            assertAll(
+                () -> assertEquals(set("Data!A1:Z100", "Data"), strings(index.containing(A1Notation.of("Data!B2")))),
+                () -> assertEquals(set("Data"), strings(index.containing(A1Notation.of("Data!AA1000")))),
+                () -> assertEquals(set(), strings(index.containing(A1Notation.of("Other!B2"))))
+            );
+        }
+
+        @Test
+        @DisplayName("should match sheet names ignoring case")
+        void ignoreSheetCase() {
+            A1RangeIndex<String> mixed = A1RangeIndex.<String>builder()
+                .add(A1Notation.of("Sheet1!A1:B2"), "first")
+                .add(A1Notation.of("SHEET1!B2"), "second")
+                .add(A1Notation.of("Other!B2"), "other")
+                .build();
+            assertAll(
+                () -> assertEquals(set("first", "second"), new HashSet<>(mixed.containing(A1Notation.of("sheet1!B2")))),
+                () -> assertEquals(set("Data!A1:Z100", "Data"), strings(index.containing(A1Notation.of("DATA!B2"))))
+            );
+        }
+
+        @Test
+        @DisplayName("should reject non-cell point queries")
+        void rejectRanges() {
+            assertThrows(IllegalArgumentException.class, () -> index.containing(A1Notation.of("A1:B2")));
+        }
+    }
+
+    @Nested
+    @DisplayName("when querying windows")
+    class Windows {
+
+        @Test
+        @DisplayName("should find overlapping references")
+        void findIntersecting() {
+            A1RangeIndex<String> index = A1RangeIndex.<String>builder()
+                    .add(A1Notation.of("A1:B2"), "small")
+                    .add(A1Notation.of("D:E"), "columns")
+                    .add(A1Notation.of("10:12"), "rows")
+                    .add(A1Notation.of("Z100"), "cell")
+                    .build();
+
+            assertAll(
+                () -> assertEquals(4, index.size()),
+                () -> assertEquals(Set.of("small", "columns"), new HashSet<>(index.intersecting(A1Notation.of("B2:D3")))),
+                () -> assertEquals(Set.of("columns", "rows"), new HashSet<>(index.intersecting(A1Notation.of("C11:D11")))),
+                () -> assertEquals(Set.of("columns", "rows", "cell"), new HashSet<>(index.intersecting(A1Notation.of("3:200")))),
+                () -> assertEquals(Set.of("small", "rows", "cell", "columns"), new HashSet<>(index.intersecting(A1Notation.of("A:Z"))))
+            );
+        }
+
+        @Test
+        @DisplayName("should match a linear scan on random ranges")
+        void matchLinearScan() {
+            Random random = new Random(11);
+            List<A1Notation> ranges = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                ranges.add(randomRange(random));
+            }
+            A1RangeIndex<A1Notation> index = A1RangeIndex.of(ranges);
+
+            for (int q = 0; q < 500; q++) {
+                A1Notation window = randomRange(random);
+                List<A1Notation> expected = new ArrayList<>();
+                for (A1Notation range : ranges) {
+                    if (overlaps(range, window)) {
+                        expected.add(range);
+                    }
+                }
+                List<A1Notation> found = index.intersecting(window);
+                assertEquals(expected.size(), found.size(), window.toString());
+                assertEquals(new HashSet<>(expected), new HashSet<>(found), window.toString());
+            }
+        }
+
+        @Test
+        @DisplayName("should be empty without references")
+        void empty() {
+            A1RangeIndex<A1Notation> index = A1RangeIndex.of(new ArrayList<>());
+
+            assertTrue(index.intersecting(A1Notation.of("A:Z")).isEmpty());
+            assertTrue(index.containing(A1Notation.of("A1")).isEmpty());
+        }
+
+        private A1Notation randomRange(Random random) {
+            int kind = random.nextInt(20);
+            int c1 = random.nextInt(300) + 1;
+            int r1 = random.nextInt(3000) + 1;
+            int c2 = c1 + random.nextInt(10) - 2;
+            int r2 = r1 + random.nextInt(50) - 5;
+            c2 = Math.max(1, c2);
+            r2 = Math.max(1, r2);
+            if (kind == 0) {
+                return A1Notation.columns(A1Column.letters(Math.min(c1, c2)), A1Column.letters(Math.max(c1, c2)));
+            }
+            if (kind == 1) {
+                return A1Notation.rows(Math.min(r1, r2), Math.max(r1, r2));
+            }
+            SheetName sheet = new SheetName(random.nextInt(4) == 0 ? "Other" : "Data");
+            return new A1RangeRef(Optional.of(sheet), A1Column.ofIndex(c1), new A1Row(r1), A1Column.ofIndex(c2), new A1Row(r2));
+        }
+
+        private boolean overlaps(A1Notation a, A1Notation b) {
+            Bounds x = Bounds.of(a);
+            Bounds y = Bounds.of(b);
+            return x.sheet().equals(y.sheet())
+                    && axis(x.left(), x.right(), y.left(), y.right())
+                    && axis(x.top(), x.bottom(), y.top(), y.bottom());
+        }
+
+        private boolean axis(int a1, int a2, int b1, int b2) {
+            if (a1 == 0 || b1 == 0) {
+                return true;
+            }
+            return Math.min(a1, a2) <= Math.max(b1, b2) && Math.min(b1, b2) <= Math.max(a1, a2);
+        }
+    }
+}
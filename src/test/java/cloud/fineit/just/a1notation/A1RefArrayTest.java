@@ -0,0 +1,155 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1RefArray")
+class A1RefArrayTest {
+
+    private static final List<String> INPUTS = Arrays.asList(
+        "B2", "A1:C3", "$A:$C", "2:$5", "'My Sheet'", "Data!$D$4", "Data!F10:C2", "Other!A1:A1");
+
+    private static List<A1Notation> parse(List<String> inputs) {
+        return inputs.stream().map(A1Notation::of).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("should round-trip notations of every kind")
+    void notations() {
+        A1RefArray refs = new A1RefArray();
+        refs.addAll(parse(INPUTS));
+        assertAll(
+            () -> assertEquals(INPUTS.size(), refs.size()),
+            () -> assertEquals(parse(INPUTS), refs.toNotations()),
+            () -> assertEquals(A1RefArray.CELL, refs.kind(0)),
+            () -> assertEquals(A1RefArray.RANGE, refs.kind(1)),
+            () -> assertEquals(A1RefArray.COLUMNS, refs.kind(2)),
+            () -> assertEquals(A1RefArray.ROWS, refs.kind(3)),
+            () -> assertEquals(A1RefArray.SHEET, refs.kind(4)),
+            () -> assertEquals(A1RefArray.RANGE, refs.kind(7)),
+            () -> assertEquals(A1Anchors.LEFT | A1Anchors.TOP, refs.anchors(5)),
+            () -> assertEquals(A1Anchors.LEFT | A1Anchors.RIGHT, refs.anchors(2)),
+            () -> assertEquals(A1Anchors.BOTTOM, refs.anchors(3))
+        );
+    }
+
+    @Test
+    @DisplayName("should parse slices without notations")
+    void parsed() {
+        String line = "x,Data!$D$4,2:5,'My Sheet'";
+        A1RefArray refs = new A1RefArray();
+        assertAll(
+            () -> assertEquals(0, refs.add(line, 2, 11)),
+            () -> assertEquals(1, refs.add(line, 12, 15)),
+            () -> assertEquals(2, refs.add(line, 16, line.length())),
+            () -> assertEquals(parse(Arrays.asList("Data!$D$4", "2:5", "'My Sheet'")), refs.toNotations()),
+            () -> assertEquals(refs.sheets().idOf(new SheetName("Data")), refs.sheetId(0)),
+            () -> assertEquals(4, refs.left(0)),
+            () -> assertEquals(0, refs.left(1)),
+            () -> assertEquals(5, refs.bottom(1)),
+            () -> assertThrows(IllegalArgumentException.class, () -> refs.add("1A", 0, 2)),
+            () -> assertThrows(IllegalArgumentException.class, () -> refs.add("A99999999999", 0, 12)),
+            () -> assertEquals(3, refs.size())
+        );
+    }
+
+    @Test
+    @DisplayName("should take packed pairs from a reader")
+    void packed() throws Exception {
+        SheetRegistry sheets = new SheetRegistry();
+        A1RefArray refs = new A1RefArray(sheets);
+        A1ReferenceReader.lines().withSheets(sheets)
+            .readPacked(new StringReader(String.join("\n", INPUTS)), refs::addPacked);
+        List<A1Notation> expected = parse(INPUTS).stream()
+            .map(notation -> notation.withAnchors(A1Anchors.NONE))
+            .collect(Collectors.toList());
+        // Packed pairs keep no anchors and turn a one-cell range into a cell.
+        expected.set(7, A1Notation.of("Other!A1"));
+        assertEquals(expected, refs.toNotations());
+    }
+
+    @Test
+    @DisplayName("should sort whole entries")
+    void sort() {
+        Random random = new Random(22);
+        A1RefArray refs = new A1RefArray(new SheetRegistry(), 0);
+        List<A1Notation> notations = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            A1Notation notation = parse(INPUTS).get(random.nextInt(INPUTS.size()));
+            if (notation instanceof A1CellRef) {
+                notation = A1Notation.cell(A1Column.letters(1 + random.nextInt(20)), 1 + random.nextInt(20));
+            }
+            notations.add(notation);
+            refs.add(notation);
+        }
+        refs.sort();
+        List<A1Notation> sorted = refs.toNotations();
+        Comparator<A1RefArray.Ref> order = Comparator.<A1RefArray.Ref>comparingInt(A1RefArray.Ref::sheetId)
+            .thenComparingInt(A1RefArray.Ref::top)
+            .thenComparingInt(A1RefArray.Ref::left)
+            .thenComparingInt(A1RefArray.Ref::bottom)
+            .thenComparingInt(A1RefArray.Ref::right);
+        List<A1RefArray.Ref> views = new ArrayList<>();
+        refs.forEach(views::add);
+        assertAll(
+            () -> assertEquals(notations.stream().map(A1Notation::toString).sorted().collect(Collectors.toList()),
+                sorted.stream().map(A1Notation::toString).sorted().collect(Collectors.toList())),
+            () -> {
+                for (int i = 1; i < views.size(); i++) {
+                    assertTrue(order.compare(views.get(i - 1), views.get(i)) <= 0, "at " + i);
+                }
+            }
+        );
+    }
+
+    @Test
+    @DisplayName("should read entries through views")
+    void views() {
+        A1RefArray refs = new A1RefArray();
+        refs.add(A1Notation.of("Data!$B$2:D5"));
+        A1RefArray.Ref ref = refs.get(0);
+        assertAll(
+            () -> assertEquals(0, ref.index()),
+            () -> assertEquals(A1RefArray.RANGE, ref.kind()),
+            () -> assertEquals(1, ref.sheetId()),
+            () -> assertEquals(2, ref.left()),
+            () -> assertEquals(2, ref.top()),
+            () -> assertEquals(4, ref.right()),
+            () -> assertEquals(5, ref.bottom()),
+            () -> assertEquals(A1Anchors.LEFT | A1Anchors.TOP, ref.anchors()),
+            () -> assertEquals("Data!$B$2:D5", ref.toString()),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> refs.get(1)),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> refs.left(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should keep entries when trimmed and drop them when cleared")
+    void capacity() {
+        A1RefArray refs = new A1RefArray();
+        refs.addAll(parse(INPUTS));
+        refs.trimToSize();
+        refs.add(A1Notation.of("Z9"));
+        assertEquals("Z9", refs.get(INPUTS.size()).toString());
+        refs.clear();
+        assertAll(
+            () -> assertTrue(refs.isEmpty()),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> refs.toNotation(0))
+        );
+    }
+}
@@ -0,0 +1,220 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.SheetRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1RefStore")
+class A1RefStoreTest {
+
+    private static final List<A1Notation> SAMPLE = notations(
+        "A1", "Data!B2:C3", "'Q1 Sales'!$A$1", "Data!C:E", "3:5", "Data", "D4:A1", "$B:C", "A1:A1");
+
+    private static List<A1Notation> notations(String... values) {
+        return Arrays.stream(values).map(A1Notation::of).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("in direct buffers")
+    class Direct {
+
+        private final A1RefStore store = A1RefStore.allocateDirect();
+
+        @Test
+        @DisplayName("should append and read references")
+        void roundTrip() {
+            SAMPLE.forEach(store::add);
+            assertAll(
+                () -> assertEquals(SAMPLE.size(), store.size()),
+                () -> assertEquals(SAMPLE, store.asNotations()),
+                () -> assertEquals(A1RefArray.RANGE, store.kind(8)),
+                () -> assertEquals(A1Anchors.LEFT | A1Anchors.TOP, store.anchors(2)),
+                () -> assertEquals(store.sheets().idOf(new SheetName("Data")), store.sheetId(1))
+            );
+        }
+
+        @Test
+        @DisplayName("should append parsed text and packed pairs")
+        void parsedAndPacked() {
+            store.add("x,Data!A1:B2", 2, 12);
+            int data = store.sheets().idOf(new SheetName("Data"));
+            long cell = A1Packed.pack(data, 3, 4);
+            store.addPacked(cell, cell);
+            store.addPacked(A1Packed.pack(data, 0, 2), A1Packed.pack(data, 0, 9));
+            assertAll(
+                () -> assertEquals(notations("Data!A1:B2", "Data!C4", "Data!2:9"), store.asNotations()),
+                () -> assertEquals(A1Packed.pack(data, 1, 1), store.start(0)),
+                () -> assertEquals(A1Packed.pack(data, 2, 2), store.end(0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> store.add("1A", 0, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> store.addPacked(A1Packed.pack(0, 1, 0), A1Packed.pack(0, 1, 1)))
+            );
+        }
+
+        @Test
+        @DisplayName("should scan packed pairs across segments")
+        void scan() {
+            int count = A1RefStore.SEGMENT_RECORDS * 2 + 10;
+            for (int row = 1; row <= count; row++) {
+                store.addPacked(A1Packed.pack(0, 1, row), A1Packed.pack(0, 2, row + 1));
+            }
+            List<Long> starts = new ArrayList<>();
+            long[] checksum = new long[1];
+            store.scan(A1RefStore.SEGMENT_RECORDS - 2, A1RefStore.SEGMENT_RECORDS + 2, (start, end) -> starts.add(start));
+            store.scan(0, store.size(), (start, end) -> checksum[0] += A1Packed.row(end) - A1Packed.row(start));
+            assertAll(
+                () -> assertEquals(List.of(
+                    A1Packed.pack(0, 1, A1RefStore.SEGMENT_RECORDS - 1), A1Packed.pack(0, 1, A1RefStore.SEGMENT_RECORDS),
+                    A1Packed.pack(0, 1, A1RefStore.SEGMENT_RECORDS + 1), A1Packed.pack(0, 1, A1RefStore.SEGMENT_RECORDS + 2)),
+                    starts),
+                () -> assertEquals(count, checksum[0]),
+                () -> assertEquals(A1Notation.of("A" + count + ":B" + (count + 1)), store.toNotation(count - 1)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> store.scan(0, count + 1, (start, end) -> { })),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> store.start(count))
+            );
+        }
+
+        @Test
+        @DisplayName("should share a sheet registry")
+        void sharedRegistry() {
+            SheetRegistry sheets = new SheetRegistry();
+            int other = sheets.register(new SheetName("Other"));
+            A1RefStore shared = A1RefStore.allocateDirect(sheets);
+            shared.add(A1Notation.of("Other!A1"));
+            assertEquals(other, shared.sheetId(0));
+        }
+
+        @Test
+        @DisplayName("should reject references outside the packed layout")
+        void invalid() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> store.add(A1Notation.of("A" + (A1Packed.MAX_ROW + 1L)))),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1RefStore.allocateDirect(null)),
+                () -> assertEquals(0, store.size())
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("in a mapped file")
+    class Mapped {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should reload references and sheets")
+        void reload() throws IOException {
+            Path path = directory.resolve("refs.a1");
+            try (A1RefStore store = A1RefStore.open(path)) {
+                SAMPLE.forEach(store::add);
+            }
+            try (A1RefStore store = A1RefStore.open(path)) {
+                assertEquals(SAMPLE, store.asNotations());
+                store.add(A1Notation.of("Other!Z9"));
+            }
+            try (A1RefStore store = A1RefStore.open(path)) {
+                assertAll(
+                    () -> assertEquals(SAMPLE.size() + 1, store.size()),
+                    () -> assertEquals(A1Notation.of("Other!Z9"), store.toNotation(SAMPLE.size())),
+                    () -> assertEquals(3, store.sheets().size())
+                );
+            }
+        }
+
+        @Test
+        @DisplayName("should grow past a segment and keep only flushed state")
+        void grow() throws IOException {
+            Path path = directory.resolve("refs.a1");
+            int count = A1RefStore.SEGMENT_RECORDS + 5;
+            A1RefStore store = A1RefStore.open(path);
+            for (int row = 1; row <= count; row++) {
+                store.add(A1Notation.of("Data!A" + row));
+            }
+            store.flush();
+            store.add(A1Notation.of("Later!A1"));
+            try (A1RefStore reopened = A1RefStore.open(path)) {
+                assertAll(
+                    () -> assertEquals(count, reopened.size()),
+                    () -> assertEquals(A1Notation.of("Data!A" + count), reopened.toNotation(count - 1)),
+                    () -> assertEquals(1, reopened.sheets().size())
+                );
+            }
+            store.close();
+            assertThrows(IllegalStateException.class, () -> store.start(0));
+        }
+
+        @Test
+        @DisplayName("should reject other files")
+        void invalid() throws IOException {
+            Path path = directory.resolve("other.txt");
+            Files.writeString(path, "not a reference store, just some text");
+            assertThrows(IOException.class, () -> A1RefStore.open(path));
+        }
+
+        @Test
+        @DisplayName("should reject corrupt sheet tables")
+        void corruptTable() throws IOException {
+            Path path = directory.resolve("refs.a1");
+            try (A1RefStore store = A1RefStore.open(path)) {
+                store.add(A1Notation.of("Data!A1"));
+            }
+            byte[] bytes = Files.readAllBytes(path);
+            int table = (int) ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong(16);
+            assertAll(
+                () -> assertCorrupt(bytes, table, Integer.MAX_VALUE, bytes.length),
+                () -> assertCorrupt(bytes, table, -1, bytes.length),
+                () -> assertCorrupt(bytes, table + 4, Integer.MAX_VALUE - 16, bytes.length),
+                () -> assertCorrupt(bytes, table + 4, -5, bytes.length),
+                () -> assertCorrupt(bytes, table + 4, 0, bytes.length),
+                () -> assertCorrupt(bytes, table, 1, table + 6)
+            );
+        }
+
+        private void assertCorrupt(byte[] bytes, int offset, int value, int length) throws IOException {
+            byte[] corrupt = Arrays.copyOf(bytes, length);
+            if (offset + 4 <= length) {
+                ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+            }
+            Path path = Files.write(directory.resolve("corrupt.a1"), corrupt);
+            IOException e = assertThrows(IOException.class, () -> A1RefStore.open(path));
+            assertTrue(e.getMessage().startsWith("Corrupt A1 reference store"), e.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("should keep the parsed text and its notation in sync")
+    void parsedMatchesNotations() {
+        A1RefStore parsed = A1RefStore.allocateDirect();
+        A1RefStore built = A1RefStore.allocateDirect(parsed.sheets());
+        for (A1Notation notation : SAMPLE) {
+            String text = notation.toString();
+            parsed.add(text, 0, text.length());
+            built.add(notation);
+        }
+        for (int i = 0; i < SAMPLE.size(); i++) {
+            assertEquals(built.start(i), parsed.start(i));
+            assertEquals(built.end(i), parsed.end(i));
+            assertEquals(built.kind(i), parsed.kind(i));
+            assertEquals(built.anchors(i), parsed.anchors(i));
+        }
+    }
+}
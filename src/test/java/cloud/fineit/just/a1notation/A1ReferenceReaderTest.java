@@ -0,0 +1,200 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("A1ReferenceReader")
+class A1ReferenceReaderTest {
+
+    private static final String INPUT = "A1\r\nSheet1!B2:C3\n\nA:B\n'My Sheet'!3:4\nData\n";
+    private static final List<String> EXPECTED = Arrays.asList("A1", "Sheet1!B2:C3", "A:B", "'My Sheet'!3:4", "Data");
+
+    @Nested
+    @DisplayName("when reading notations")
+    class Notations {
+
+        @Test
+        @DisplayName("should read lines from a reader")
+        void readReader() throws IOException {
+            List<String> out = new ArrayList<>();
+
+            long count = A1ReferenceReader.lines().read(new StringReader(INPUT), n -> out.add(n.toString()));
+
+            assertEquals(5, count);
+            assertEquals(EXPECTED, out);
+        }
+
+        @Test
+        @DisplayName("should read delimited references from a channel")
+        void readChannel() throws IOException {
+            List<String> out = new ArrayList<>();
+            byte[] bytes = "A1,B2:C3\nD4".getBytes(StandardCharsets.US_ASCII);
+
+            A1ReferenceReader.delimited(',').read(Channels.newChannel(new ByteArrayInputStream(bytes)),
+                    n -> out.add(n.toString()));
+
+            assertEquals(Arrays.asList("A1", "B2:C3", "D4"), out);
+        }
+
+        @Test
+        @DisplayName("should not split quoted sheet names at the delimiter")
+        void quotedDelimiter() throws IOException {
+            List<String> out = new ArrayList<>();
+
+            A1ReferenceReader.delimited(',').read(new StringReader("'a,b'!A1,B2,'one, two'!C3\n'x,y'!D4"),
+                    n -> out.add(n.toString()));
+
+            assertEquals(Arrays.asList("'a,b'!A1", "B2", "'one, two'!C3", "'x,y'!D4"), out);
+        }
+
+        @Test
+        @DisplayName("should not end a quoted sheet name at an escaped quote")
+        void escapedQuote(@TempDir Path dir) throws IOException {
+            String input = "'Jon\\'s'!A1,B2,'a\\',b'!C3\n'x\\','!D4";
+            List<String> expected = Arrays.asList("'Jon\\'s'!A1", "B2", "'a\\',b'!C3", "'x\\','!D4");
+            byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+            Path file = Files.write(dir.resolve("refs.csv"), bytes);
+            A1ReferenceReader reader = A1ReferenceReader.delimited(',');
+            List<String> fromReader = new ArrayList<>();
+            List<String> fromChannel = new ArrayList<>();
+            List<String> fromMapped = new ArrayList<>();
+
+            reader.read(new StringReader(input), n -> fromReader.add(n.toString()));
+            reader.read(Channels.newChannel(new ByteArrayInputStream(bytes)), n -> fromChannel.add(n.toString()));
+            try (FileChannel channel = FileChannel.open(file)) {
+                reader.readMapped(channel, n -> fromMapped.add(n.toString()));
+            }
+
+            assertAll(
+                () -> assertEquals(expected, fromReader),
+                () -> assertEquals(expected, fromChannel),
+                () -> assertEquals(expected, fromMapped)
+            );
+        }
+
+        @Test
+        @DisplayName("should read a memory-mapped file")
+        void readMapped(@TempDir Path dir) throws IOException {
+            Path file = Files.write(dir.resolve("refs.txt"), INPUT.getBytes(StandardCharsets.US_ASCII));
+            List<String> out = new ArrayList<>();
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                A1ReferenceReader.lines().readMapped(channel, n -> out.add(n.toString()));
+            }
+
+            assertEquals(EXPECTED, out);
+        }
+
+        @Test
+        @DisplayName("should read references spanning buffer boundaries")
+        void readAcrossBuffers() throws IOException {
+            StringBuilder input = new StringBuilder();
+            List<String> expected = new ArrayList<>();
+            for (int i = 1; i <= 50_000; i++) {
+                String ref = "'Sheet " + (i % 7) + "'!" + A1Column.letters(i % 900 + 1) + i;
+                expected.add(ref);
+                input.append(ref).append('\n');
+            }
+            String longSheet = "'" + "x ".repeat(A1ReferenceReader.BUFFER_SIZE * 2) + "'!A1";
+            expected.add(longSheet);
+            input.append(longSheet);
+            List<String> fromReader = new ArrayList<>();
+            List<String> fromChannel = new ArrayList<>();
+            byte[] bytes = input.toString().getBytes(StandardCharsets.US_ASCII);
+
+            A1ReferenceReader reader = A1ReferenceReader.lines();
+            reader.read(new StringReader(input.toString()), n -> fromReader.add(n.toString()));
+            reader.read(Channels.newChannel(new ByteArrayInputStream(bytes)), n -> fromChannel.add(n.toString()));
+
+            assertAll(
+                () -> assertEquals(expected, fromReader),
+                () -> assertEquals(expected, fromChannel),
+                () -> assertEquals(8, reader.sheets().size())
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("when reading packed values")
+    class Packed {
+
+        @Test
+        @DisplayName("should match encoding parsed notations")
+        void matchEncoding() throws IOException {
+            SheetRegistry sheets = new SheetRegistry();
+            List<String> out = new ArrayList<>();
+
+            A1ReferenceReader.lines().withSheets(sheets).readPacked(new StringReader(INPUT), (start, end) -> {
+                A1Notation decoded = start == end && A1Packed.row(start) != A1Packed.UNBOUNDED
+                        ? A1Packed.decode(start, sheets::nameOf)
+                        : A1Packed.decode(start, end, sheets::nameOf);
+                out.add(decoded.toString());
+            });
+
+            assertEquals(EXPECTED, out);
+        }
+    }
+
+    @Nested
+    @DisplayName("when a reference is invalid")
+    class Errors {
+
+        @Test
+        @DisplayName("should fail by default")
+        void failByDefault() {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> A1ReferenceReader.lines().read(new StringReader("A1\n1A\n"), n -> { }));
+
+            assertEquals("Unsupported A1 notation: 1A", e.getMessage());
+        }
+
+        @Test
+        @DisplayName("should report to the error handler and continue")
+        void reportAndContinue() throws IOException {
+            List<String> errors = new ArrayList<>();
+            List<String> out = new ArrayList<>();
+
+            long count = A1ReferenceReader.lines()
+                    .withErrorHandler((index, reference, error) -> errors.add(index + " " + reference))
+                    .readPacked(new StringReader("A1\n1A\n!B2\nC3"), (start, end) -> out.add(A1Packed.decode(start).toString()));
+
+            assertEquals(2, count);
+            assertEquals(Arrays.asList("A1", "C3"), out);
+            assertEquals(Arrays.asList("1 1A", "2 !B2"), errors);
+        }
+
+        @Test
+        @DisplayName("should reject delimiters that can be part of a reference")
+        void rejectDelimiter() {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited(':')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited('$')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited('\'')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited('!')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited(' ')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited('_')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited('x')),
+                () -> assertThrows(IllegalArgumentException.class, () -> A1ReferenceReader.delimited('7'))
+            );
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package cloud.fineit.just.a1notation;
+
+import cloud.fineit.just.SheetName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("A1Shifter")
+class A1ShifterTest {
+
+    private static String shift(A1Shifter shifter, String input) {
+        return shifter.shift(A1Notation.of(input)).map(A1Notation::toString).orElse("deleted");
+    }
+
+    @Nested
+    @DisplayName("should shift notations")
+    class Notations {
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1, A1",
+            "A4, A6",
+            "A5, A7",
+            "A2:B4, A2:B6",
+            "A4:B8, A6:B10",
+            "B8:A4, B10:A6",
+            "$A$4, $A$6",
+            "A:C, A:C",
+            "4:6, 6:8",
+            "1:3, 1:5",
+            "Data, Data"
+        })
+        @DisplayName("when rows are inserted")
+        void insertRows(String input, String expected) {
+            assertEquals(expected, shift(A1Shifter.insertRows(3, 2), input));
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+            "A2, A2",
+            "A3, deleted",
+            "A4, deleted",
+            "A5, A3",
+            "A1:B10, A1:B8",
+            "A3:B4, deleted",
+            "A4:B6, A3:B4",
+            "A1:A3, A1:A2",
+            "B6:A4, B4:A3",
+            "3:4, deleted",
+            "2:3, 2:2",
+            "A:C, A:C"
+        })
+        @DisplayName("when rows are deleted")
+        void deleteRows(String input, String expected) {
+            assertEquals(expected, shift(A1Shifter.deleteRows(3, 2), input));
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1, A1",
+            "B1, D1",
+            "A1:C5, A1:E5",
+            "B:B, D:D",
+            "1:5, 1:5",
+            "$B$2:$C3, $D$2:$E3"
+        })
+        @DisplayName("when columns are inserted")
+        void insertColumns(String input, String expected) {
+            assertEquals(expected, shift(A1Shifter.insertColumns(2, 2), input));
+        }
+
+        @ParameterizedTest
+        @CsvSource({
+            "A1, A1",
+            "B1, deleted",
+            "D1, B1",
+            "A1:E5, A1:C5",
+            "B:C, deleted",
+            "C:E, B:C",
+            "1:5, 1:5"
+        })
+        @DisplayName("when columns are deleted")
+        void deleteColumns(String input, String expected) {
+            assertEquals(expected, shift(A1Shifter.deleteColumns(2, 2), input));
+        }
+
+        @Test
+        @DisplayName("only on the edited sheet")
+        void sheets() {
+            A1Shifter shifter = A1Shifter.insertRows(1, 1).onSheet(new SheetName("Data"));
+            A1Notation unaffected = A1Notation.of("Other!A1");
+            A1Notation unscoped = A1Notation.of("A1");
+            assertAll(
+                () -> assertEquals("Data!A2:B3", shift(shifter, "Data!A1:B2")),
+                () -> assertSame(unaffected, shifter.shift(unaffected).orElseThrow()),
+                () -> assertSame(unscoped, shifter.shift(unscoped).orElseThrow()),
+                () -> assertEquals("data!A2:B3", shift(shifter, "data!A1:B2")),
+                () -> assertEquals("DATA!C2", shift(shifter, "DATA!C1"))
+            );
+        }
+
+        @Test
+        @DisplayName("keeping unaffected instances and marking deleted ones")
+        void shiftAll() {
+            List<A1Notation> notations = Arrays.asList(A1Notation.of("A1"), A1Notation.of("A3"), A1Notation.of("A5:B9"));
+            List<Optional<A1Notation>> shifted = A1Shifter.deleteRows(3, 2).shiftAll(notations);
+            assertAll(
+                () -> assertEquals(3, shifted.size()),
+                () -> assertSame(notations.get(0), shifted.get(0).orElseThrow()),
+                () -> assertTrue(shifted.get(1).isEmpty()),
+                () -> assertEquals(A1Notation.of("A3:B7"), shifted.get(2).orElseThrow())
+            );
+        }
+
+        @Test
+        @DisplayName("without overflowing")
+        void overflow() {
+            A1Shifter shifter = A1Shifter.insertRows(10, Integer.MAX_VALUE - 5);
+            assertAll(
+                () -> assertEquals(Optional.empty(), shifter.shift(A1Notation.of("A10"))),
+                () -> assertEquals("A1:A" + Integer.MAX_VALUE, shift(shifter, "A1:A10"))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("should shift packed values")
+    class Packed {
+
+        @Test
+        @DisplayName("of cells in place")
+        void cells() {
+            long[] cells = {
+                A1Packed.pack(1, 1, 2), A1Packed.pack(1, 1, 3), A1Packed.pack(1, 1, 7),
+                A1Packed.pack(2, 1, 7), A1Shifter.DELETED
+            };
+            int deleted = A1Shifter.deleteRows(3, 2).shiftPacked(cells, 0, cells.length, 1);
+            assertAll(
+                () -> assertEquals(1, deleted),
+                () -> assertArrayEquals(new long[]{
+                    A1Packed.pack(1, 1, 2), A1Shifter.DELETED, A1Packed.pack(1, 1, 5),
+                    A1Packed.pack(2, 1, 7), A1Shifter.DELETED
+                }, cells)
+            );
+        }
+
+        @Test
+        @DisplayName("of cells pushed past the last column")
+        void cellOverflow() {
+            long[] cells = {A1Packed.pack(0, A1Packed.MAX_COLUMN - 1, 1), A1Packed.pack(0, 3, 1)};
+            int deleted = A1Shifter.insertColumns(2, 2).shiftPacked(cells, 0, 2, A1Packed.NO_SHEET);
+            assertAll(
+                () -> assertEquals(1, deleted),
+                () -> assertArrayEquals(new long[]{A1Shifter.DELETED, A1Packed.pack(0, 5, 1)}, cells)
+            );
+        }
+
+        @Test
+        @DisplayName("of ranges matching the notations")
+        void randomized() {
+            Random random = new Random(21);
+            for (int round = 0; round < 200; round++) {
+                boolean rows = random.nextBoolean();
+                int at = 1 + random.nextInt(30);
+                int count = 1 + random.nextInt(10);
+                A1Shifter shifter = random.nextBoolean()
+                    ? (rows ? A1Shifter.insertRows(at, count) : A1Shifter.insertColumns(at, count))
+                    : (rows ? A1Shifter.deleteRows(at, count) : A1Shifter.deleteColumns(at, count));
+                A1Notation[] notations = new A1Notation[50];
+                long[] starts = new long[notations.length];
+                long[] ends = new long[notations.length];
+                for (int i = 0; i < notations.length; i++) {
+                    notations[i] = notation(random);
+                    starts[i] = A1Packed.encodeStart(notations[i]);
+                    ends[i] = A1Packed.encodeEnd(notations[i]);
+                }
+                int deleted = shifter.shiftPacked(starts, ends, 0, notations.length, A1Packed.NO_SHEET);
+                int expectedDeleted = 0;
+                for (int i = 0; i < notations.length; i++) {
+                    Optional<A1Notation> shifted = shifter.shift(notations[i]);
+                    String context = shifter + " " + notations[i];
+                    if (shifted.isEmpty()) {
+                        expectedDeleted++;
+                        assertEquals(A1Shifter.DELETED, starts[i], context);
+                        assertEquals(A1Shifter.DELETED, ends[i], context);
+                    } else {
+                        assertEquals(A1Packed.encodeStart(shifted.get()), starts[i], context);
+                        assertEquals(A1Packed.encodeEnd(shifted.get()), ends[i], context);
+                    }
+                }
+                assertEquals(expectedDeleted, deleted);
+            }
+        }
+
+        private A1Notation notation(Random random) {
+            int left = 1 + random.nextInt(40);
+            int top = 1 + random.nextInt(40);
+            int right = 1 + random.nextInt(40);
+            int bottom = 1 + random.nextInt(40);
+            switch (random.nextInt(4)) {
+                case 0:
+                    return A1Notation.cell(A1Column.letters(left), top);
+                case 1:
+                    return A1Notation.columns(A1Column.letters(Math.min(left, right)), A1Column.letters(Math.max(left, right)));
+                case 2:
+                    return A1Notation.rows(Math.min(top, bottom), Math.max(top, bottom));
+                default:
+                    return A1Notation.range(A1Column.letters(left), top, A1Column.letters(right), bottom);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should reject invalid edits")
+    void invalid() {
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> A1Shifter.insertRows(0, 1)),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1Shifter.deleteColumns(1, 0)),
+            () -> assertThrows(IllegalArgumentException.class, () -> A1Shifter.insertRows(1, 1).onSheet(null)),
+            () -> assertThrows(IndexOutOfBoundsException.class,
+                () -> A1Shifter.insertRows(1, 1).shiftPacked(new long[2], 0, 3, 0))
+        );
+    }
+}
@@ -8,6 +8,9 @@ import java.util.regex.Pattern;
  *
  * <p>Includes split helpers (column/row extraction) and kind recognizers
  * such as cell, range, whole-column, and whole-row checks.
+ *
+ * <p>These regex-based helpers were replaced by {@link A1Parser} and are kept as the reference
+ * implementation that parser tests compare against.
  */
 final class References {
 
@@ -0,0 +1,124 @@
+package cloud.fineit.just.r1c1notation;
+
+import cloud.fineit.just.NotationType;
+import cloud.fineit.just.SheetName;
+import cloud.fineit.just.a1notation.A1Notation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("R1C1Notation")
+class R1C1NotationTest {
+
+    @Nested
+    @DisplayName("parsing should")
+    class Parsing {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"R1C1", "R2C3:R10C4", "R[-1]C[2]", "RC", "R[1]C", "RC[-3]", "R2:R5", "R[-1]:R",
+                "C1:C3", "C[2]:C[2]", "R1C1:R[2]C[2]", "Sheet1!R1C1", "'My Sheet'!C1:C3", "'Jon\\'s'!R5:R5",
+                "Sheet1"})
+        @DisplayName("round trip supported references")
+        void roundTrip(String input) {
+            assertEquals(input, R1C1Notation.of(input).toString());
+        }
+
+        @Test
+        @DisplayName("read coordinates and relative flags")
+        void coordinates() {
+            R1C1Notation notation = R1C1Notation.of("Data!R2C[-3]:R[4]C7");
+            assertAll(
+                () -> assertEquals(NotationType.R1C1, notation.type()),
+                () -> assertEquals(Optional.of(new SheetName("Data")), notation.sheet()),
+                () -> assertEquals(2, notation.top()),
+                () -> assertEquals(-3, notation.left()),
+                () -> assertEquals(4, notation.bottom()),
+                () -> assertEquals(7, notation.right()),
+                () -> assertEquals(R1C1Notation.LEFT_RELATIVE | R1C1Notation.BOTTOM_RELATIVE, notation.relativeFlags()),
+                () -> assertTrue(notation.hasRows()),
+                () -> assertTrue(notation.hasColumns()),
+                () -> assertFalse(notation.isCell())
+            );
+        }
+
+        @Test
+        @DisplayName("accept lower case and explicit zero offsets")
+        void lenient() {
+            assertAll(
+                () -> assertEquals("R1C2", R1C1Notation.of("r1c2").toString()),
+                () -> assertEquals("RC", R1C1Notation.of("R[0]C[+0]").toString()),
+                () -> assertEquals(R1C1Notation.relativeCell(2, -1), R1C1Notation.of("R[-1]C[+2]")),
+                () -> assertEquals("R5:R5", R1C1Notation.of("R5").toString()),
+                () -> assertEquals("C[-1]:C[-1]", R1C1Notation.of("C[-1]").toString())
+            );
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"Sheet!R0C1", "R1C1:R2", "R1:C1", "R[1", "R[]C", "Sheet!R99999999999C1", "Sheet!",
+                "Sheet!A1", "R1C1:", "1:2"})
+        @DisplayName("reject invalid references that are no sheet names either")
+        void invalid(String input) {
+            assertThrows(IllegalArgumentException.class, () -> R1C1Notation.of(input));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"a!b!R1C1", "'a!b'!R1C1", "'a!b'", "'a'b'", "'a\\b'", "''"})
+        @DisplayName("reject sheet names that A1 notation rejects as well")
+        void sheetNamesLikeA1(String input) {
+            assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> R1C1Notation.of(input)),
+                () -> assertThrows(IllegalArgumentException.class,
+                    () -> A1Notation.of(input.replace("R1C1", "A1")))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("anchors should")
+    class Anchors {
+
+        @Test
+        @DisplayName("resolve relative coordinates")
+        void resolve() {
+            assertAll(
+                () -> assertEquals("R4C3", R1C1Notation.of("R[-1]C[2]").resolve(1, 5).toString()),
+                () -> assertEquals("R5C1:R7C9", R1C1Notation.of("RC:R[2]C9").resolve(1, 5).toString()),
+                () -> assertEquals("C2:C4", R1C1Notation.of("C:C[2]").resolve(2, 9).toString()),
+                () -> assertThrows(IllegalArgumentException.class, () -> R1C1Notation.of("R[-5]C").resolve(1, 5))
+            );
+        }
+
+        @Test
+        @DisplayName("make absolute coordinates relative")
+        void relativeTo() {
+            assertAll(
+                () -> assertEquals("R[-1]C[2]", R1C1Notation.cell(3, 4).relativeTo(1, 5).toString()),
+                () -> assertEquals("R[-4]:R", R1C1Notation.rows(1, 5).relativeTo(1, 5).toString()),
+                () -> assertEquals("Sheet1", R1C1Notation.sheet(new SheetName("Sheet1")).relativeTo(1, 5).toString())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("factories should create absolute references")
+    void factories() {
+        assertAll(
+            () -> assertEquals("R2C3", R1C1Notation.cell(3, 2).toString()),
+            () -> assertEquals("R1C1:R10C4", R1C1Notation.range(1, 1, 4, 10).toString()),
+            () -> assertEquals("R2:R5", R1C1Notation.rows(2, 5).toString()),
+            () -> assertEquals("'My Sheet'!C1:C3", R1C1Notation.columns(1, 3).withSheet(new SheetName("My Sheet")).toString()),
+            () -> assertThrows(IllegalArgumentException.class, () -> R1C1Notation.cell(0, 1)),
+            () -> assertEquals(R1C1Notation.of("R2C3"), R1C1Notation.cell(3, 2))
+        );
+    }
+}